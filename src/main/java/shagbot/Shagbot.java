@@ -1,20 +1,25 @@
 package shagbot;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
-import shagbot.tasks.Task;
+import shagbot.exceptions.ShagBotException;
 import shagbot.tasks.TaskList;
-import shagbot.util.Parser;
-import shagbot.util.Storage;
 import shagbot.util.Ui;
+import shagbot.util.Workspace;
+import shagbot.util.Workspaces;
 
 /**
  * This class represents Shagbot, which is a chatbot program.
  * <p>
  * The Shagbot class serves as the main starting point to run the chatbot. It initialises
- * essential classes such as the UI, TaskList, Parser and Storage Classes.
+ * essential classes such as the UI and the workspaces, each with its own TaskList, Parser and Storage.
  * This class also handles the main execution loop for user interaction with Shagbot.
  * </p>
  *
@@ -22,62 +27,178 @@ import shagbot.util.Ui;
  */
 public class Shagbot {
 
+    /**
+     * Represents an action on the tasks of the workspace in use.
+     *
+     * @param <T> The type of the result of the action.
+     */
+    public interface TaskAction<T> {
+        /**
+         * Runs the action.
+         *
+         * @param taskList The tasks of the workspace in use.
+         * @return The result of the action.
+         * @throws ShagBotException If the action cannot be done.
+         */
+        T apply(TaskList taskList) throws ShagBotException;
+    }
+
     private static final String BYE_MESSAGE = "Bye! Hope to see you again soon!";
     private static final String FAILED_TO_SAVE_TASKS_MESSAGE = "Failed to save tasks: ";
+    private static final String DATA_DIRECTORY = "./data";
     private final String botName;
     private final Ui ui;
-    private final TaskList taskList;
-    private final Parser parser;
-    private final Storage storage;
+    private final Workspaces workspaces;
 
     /**
      * Constructor for the {@code Shagbot} class with its specified chatbot name.
-     * Initialises the Ui, taskList, parser and storage objects.
-     * It also loads any previously saved tasks from the specified file.
+     * Initialises the Ui and the workspaces, and loads any previously saved tasks of the default workspace.
      *
      * @param name The name of the chatbot.
      */
     public Shagbot(String name) {
+        this(name, DATA_DIRECTORY);
+    }
+
+    /**
+     * Constructor for the {@code Shagbot} class that keeps its tasks in the given directory,
+     * rather than in {@code ./data}.
+     *
+     * @param name The name of the chatbot.
+     * @param dataDirectory The directory that the workspaces are saved in.
+     */
+    public Shagbot(String name, String dataDirectory) {
         botName = name;
         this.ui = new Ui(name);
-        this.taskList = new TaskList();
-        this.parser = new Parser(taskList, ui);
-        this.storage = new Storage("./data/dataoftasks.txt");
-
-        // Load any saved tasks when startup the program
-        try {
-            ArrayList<Task> tasks = storage.loadSavedTasks();
-            for (Task task : tasks) {
-                taskList.addTask(task);
-            }
-        } catch (IOException e) {
-            ui.printErrorMessage("Failed to load tasks: " + e.getMessage());
-        }
+        this.workspaces = new Workspaces(dataDirectory, ui);
+        workspaces.getActive();
     }
 
     /**
      * Retrieves the response based on the user's input.
+     * The command is run in the workspace in use, which is saved afterwards.
      *
      * @param input The command entered by the user.
      * @return The response retrieved, which is of string representation.
      */
     public String getResponse(String input) {
         assert input != null : "input cannot be null";
+        return getResponses(List.of(input)).get(0);
+    }
+
+    /**
+     * Runs a command and writes its response into the given sink as it is produced, so long responses
+     * can be shown or sent before the whole response exists. The command is run in the workspace in use,
+     * which is saved afterwards. If it cannot be saved, the failure is written into the sink after the response.
+     *
+     * @param input The command entered by the user.
+     * @param sink The sink that receives the parts of the response, in order.
+     * @return {@code true} if Shagbot continues running, {@code false} if the command exits.
+     */
+    public synchronized boolean streamResponse(String input, Consumer<CharSequence> sink) {
+        assert input != null : "input cannot be null";
+        Workspace workspace = workspaces.getActive();
+        boolean isRunning = workspace.getParser().parseCommand(input, sink);
         try {
-            // Execute the command and return the response
-            if (!parser.parseCommand(input)) {
-                // Printed on terminal if run on IntelliJ, else , GUI app will close by itself
-                return BYE_MESSAGE;
-            }
-            storage.saveTasksToFile(new ArrayList<>(List.of(taskList.getTasks())));
-            return ui.getLastMessage(); // Fetches the last response from Shagbot
+            workspace.save();
         } catch (IOException e) {
-            return FAILED_TO_SAVE_TASKS_MESSAGE + e.getMessage();
+            sink.accept("\n\n" + FAILED_TO_SAVE_TASKS_MESSAGE + e.getMessage());
         }
+        return isRunning;
     }
-}
 
+    /**
+     * Retrieves the responses to a batch of commands, run in order. Every workspace the commands ran in
+     * is saved once after the whole batch, rather than after each command, so the batch costs a single save.
+     * Commands after one that exits are not run. If a workspace cannot be saved, the failure is added to the
+     * response of every command run in it.
+     *
+     * @param inputs The commands, in the order to run them.
+     * @return The response to each command run, in the same order.
+     */
+    public synchronized List<String> getResponses(List<String> inputs) {
+        List<String> responses = new ArrayList<>();
+        List<Workspace> responseWorkspaces = new ArrayList<>();
+        Set<Workspace> usedWorkspaces = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String input : inputs) {
+            assert input != null : "input cannot be null";
+            Workspace workspace = workspaces.getActive();
+            usedWorkspaces.add(workspace);
+            responseWorkspaces.add(workspace);
+            // Execute the command, collecting its response as it is written
+            StringBuilder response = new StringBuilder();
+            if (!workspace.getParser().parseCommand(input, response::append)) {
+                // Printed on terminal if run on IntelliJ, else , GUI app will close by itself
+                responses.add(BYE_MESSAGE);
+                break;
+            }
+            responses.add(response.toString());
+        }
+        for (Workspace workspace : usedWorkspaces) {
+            try {
+                workspace.save();
+            } catch (IOException e) {
+                // Only the commands run in this workspace have changes that were not saved
+                for (int i = 0; i < responses.size(); i++) {
+                    if (responseWorkspaces.get(i) == workspace) {
+                        responses.set(i, responses.get(i) + "\n\n" + FAILED_TO_SAVE_TASKS_MESSAGE + e.getMessage());
+                    }
+                }
+            }
+        }
+        return responses;
+    }
 
+    /**
+     * Starts watching the task files of the workspaces, so that changes saved to them by other programs,
+     * such as a sync tool or another Shagbot, are merged into the tasks as soon as they are made,
+     * rather than being overwritten by the next save.
+     *
+     * @throws IOException If the task files cannot be watched.
+     */
+    public void watchTaskFiles() throws IOException {
+        workspaces.watchTaskFiles(this::syncTaskFile);
+    }
 
+    private synchronized void syncTaskFile(Path filePath) {
+        workspaces.syncTaskFile(filePath);
+    }
 
+    /**
+     * Runs an action that only reads the tasks of the workspace in use. It never runs at the same time
+     * as a command or another action, since reading tasks can build the indexes of the task list.
+     *
+     * @param action The action.
+     * @param <T> The type of the result of the action.
+     * @return The result of the action.
+     * @throws ShagBotException If the action cannot be done.
+     */
+    public synchronized <T> T readTasks(TaskAction<T> action) throws ShagBotException {
+        return action.apply(workspaces.getActive().getTaskList());
+    }
 
+    /**
+     * Runs an action that changes the tasks of the workspace in use, as a single undo step, and saves
+     * the workspace afterwards. If the action fails, every change it made is discarded.
+     *
+     * @param action The action.
+     * @param <T> The type of the result of the action.
+     * @return The result of the action.
+     * @throws ShagBotException If the action cannot be done.
+     * @throws IOException If the changed tasks cannot be saved.
+     */
+    public synchronized <T> T changeTasks(TaskAction<T> action) throws ShagBotException, IOException {
+        Workspace workspace = workspaces.getActive();
+        TaskList taskList = workspace.getTaskList();
+        T result;
+        try {
+            result = action.apply(taskList);
+        } catch (ShagBotException | RuntimeException e) {
+            taskList.discardChanges();
+            throw e;
+        }
+        taskList.commitChanges();
+        workspace.save();
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package shagbot.commands;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Task;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to move completed tasks out of the task list and into its archive,
+ * so that they are no longer loaded, saved or listed.
+ */
+public class ArchiveCommand extends Command {
+    private static final String INVALID_ARCHIVE_ERROR_MESSAGE =
+            "OOPSIE!! Invalid format. Use: archive [<days>], to archive tasks completed over that many days ago.";
+    private static final String NO_ARCHIVE_ERROR_MESSAGE = "OOPSIE!! There is no archive to move tasks into.";
+    private static final String ARCHIVE_WRITE_ERROR_MESSAGE = "OOPSIE!! I could not write to your archive: ";
+    private static final int DEFAULT_DAYS = 30;
+    private final String description;
+
+    /**
+     * Constructor for the {@code ArchiveCommand} class.
+     *
+     * @param description The number of days ago that archived tasks must be dated before,
+     *                    or an empty string for the default of 30 days.
+     */
+    public ArchiveCommand(String description) {
+        assert description != null : "Archive description must not be null.";
+        this.description = description;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        if (!taskList.hasArchive()) {
+            throw new ShagBotException(NO_ARCHIVE_ERROR_MESSAGE);
+        }
+        int days = description.isEmpty() ? DEFAULT_DAYS : parseDays(description);
+        try {
+            Task[] archivedTasks = taskList.archiveTasks(LocalDateTime.now().minusDays(days));
+            ui.printTasksArchived(archivedTasks);
+        } catch (IOException e) {
+            throw new ShagBotException(ARCHIVE_WRITE_ERROR_MESSAGE + e.getMessage());
+        }
+        return true;
+    }
+
+    private int parseDays(String daysString) throws ShagBotException {
+        try {
+            int days = Integer.parseInt(daysString.trim());
+            if (days < 0) {
+                throw new ShagBotException(INVALID_ARCHIVE_ERROR_MESSAGE);
+            }
+            return days;
+        } catch (NumberFormatException e) {
+            throw new ShagBotException(INVALID_ARCHIVE_ERROR_MESSAGE);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package shagbot.commands;
 
+import java.io.IOException;
+
 import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Task;
 import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
@@ -8,6 +11,9 @@ import shagbot.util.Ui;
  * Represents the Parent class to handle the various commands.
  */
 public abstract class Command {
+    protected static final String ARCHIVE_FLAG = "--all";
+    private static final String ARCHIVE_READ_ERROR_MESSAGE = "OOPSIE!! I could not read your archive: ";
+
     /**
      * Handles and executes the following actions based on the commands entered by user.
      *
@@ -17,4 +23,19 @@ public abstract class Command {
      * @throws ShagBotException If an error occurs during execution of command.
      */
     public abstract boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException;
+
+    /**
+     * Retrieves the archived tasks of the task list, reading the archive if it has not been read yet.
+     *
+     * @param taskList The {@link TaskList} instance.
+     * @return The archived tasks that are not in the list.
+     * @throws ShagBotException If the archive cannot be read.
+     */
+    protected static Task[] getArchivedTasks(TaskList taskList) throws ShagBotException {
+        try {
+            return taskList.getArchivedTasks();
+        } catch (IOException e) {
+            throw new ShagBotException(ARCHIVE_READ_ERROR_MESSAGE + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package shagbot.commands;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to find every pair of events whose times clash.
+ */
+public class ConflictsCommand extends Command {
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        ui.printConflicts(taskList.findAllConflicts());
+        return true;
+    }
+}
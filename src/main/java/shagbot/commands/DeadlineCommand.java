@@ -2,6 +2,7 @@ package shagbot.commands;
 
 import shagbot.exceptions.ShagBotException;
 import shagbot.tasks.Deadline;
+import shagbot.tasks.Task;
 import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
@@ -26,13 +27,15 @@ public class DeadlineCommand extends Command {
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing a command.";
         String[] parts = description.split(" /by ", 2);
-        if (parts.length < 2) {
+        String untaggedDescription = Task.removeTags(parts[0].trim());
+        if (parts.length < 2 || untaggedDescription.isEmpty()) {
             throw new ShagBotException(INVALID_DEADLINE_ERROR_MESSAGE);
         }
         try {
-            Deadline deadline = new Deadline(parts[0].trim(), parts[1].trim());
+            Deadline deadline = new Deadline(untaggedDescription, parts[1].trim());
+            deadline.setTags(Task.findTags(parts[0]));
             taskList.addTask(deadline);
-            ui.printTaskAdded(deadline.toString(), taskList.getTasks().length);
+            ui.printTaskAdded(deadline.toString(), taskList.size());
         } catch (IllegalArgumentException e) {
             throw new ShagBotException(e.getMessage());
         }
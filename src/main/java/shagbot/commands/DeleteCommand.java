@@ -6,13 +6,14 @@ import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
 /**
- * This class represents a command to delete tasks.
+ * This class represents a command to delete one or more tasks.
  */
 public class DeleteCommand extends Command {
     private static final String NO_TASKS_ERROR_MESSAGE = "Nothing to delete. No tasks at the moment.";
     private static final String PLEASE_ENTER_A_NUMBER =
             "OOPSIE!! Task number is out of range! " + "Please enter a number from 1 to ";
-    private final int taskIndex;
+    private static final String NO_MATCHING_TASKS_ERROR_MESSAGE = "OOPSIE!! No tasks match your selection.";
+    private final TaskSelection selection;
 
     /**
      * Constructor for the {@code DeleteCommand} class.
@@ -20,23 +21,40 @@ public class DeleteCommand extends Command {
      * @param taskIndex The index corresponding to the task to be deleted.
      */
     public DeleteCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+        this(TaskSelection.ofIndex(taskIndex));
+    }
+
+    /**
+     * Constructor for the {@code DeleteCommand} class for several tasks at once.
+     *
+     * @param selection The tasks to be deleted.
+     */
+    public DeleteCommand(TaskSelection selection) {
+        assert selection != null : "Selection of tasks cannot be null.";
+        this.selection = selection;
     }
 
     @Override
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing command";
-        int numOfTasks = taskList.getTasks().length;
+        int numOfTasks = taskList.size();
         if (numOfTasks == 0) {
             throw new ShagBotException(NO_TASKS_ERROR_MESSAGE);
         }
-        if (taskIndex < 0 || taskIndex >= numOfTasks) {
+        if (selection.getHighestIndex() >= numOfTasks) {
             throw new ShagBotException(PLEASE_ENTER_A_NUMBER + numOfTasks + ".");
         }
-        Task deletedTask = taskList.deleteTask(taskIndex);
-        int updatedNumOfTasks = taskList.getTasks().length;
-        ui.printTaskDeleted(deletedTask, updatedNumOfTasks);
+        int[] taskIndexes = selection.resolve(taskList);
+        if (taskIndexes.length == 0) {
+            throw new ShagBotException(NO_MATCHING_TASKS_ERROR_MESSAGE);
+        }
+        if (selection.isSingleTask()) {
+            Task deletedTask = taskList.deleteTask(taskIndexes[0]);
+            ui.printTaskDeleted(deletedTask, taskList.size());
+            return true;
+        }
+        Task[] deletedTasks = taskList.deleteTasks(taskIndexes);
+        ui.printTasksDeleted(taskIndexes, deletedTasks, taskList.size());
         return true;
     }
 }
-
@@ -3,6 +3,7 @@ package shagbot.commands;
 import shagbot.exceptions.ShagBotDateException;
 import shagbot.exceptions.ShagBotException;
 import shagbot.tasks.Event;
+import shagbot.tasks.Task;
 import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
@@ -27,14 +28,17 @@ public class EventCommand extends Command {
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing command.";
         String[] parts = description.split(" /from | /to ", 3);
-        if (parts.length < 3) {
+        String untaggedDescription = Task.removeTags(parts[0].trim());
+        if (parts.length < 3 || untaggedDescription.isEmpty()) {
             throw new ShagBotException(INVALID_EVENT_FORMAT_ERROR_MESSAGE);
         }
         try {
-            Event event = new Event(parts[0].trim(), parts[1].trim(), parts[2].trim());
+            Event event = new Event(untaggedDescription, parts[1].trim(), parts[2].trim());
+            event.setTags(Task.findTags(parts[0]));
             event.validateDate();
             taskList.addTask(event);
-            ui.printTaskAdded(event.toString(), taskList.getTasks().length);
+            ui.printTaskAdded(event.toString(), taskList.size());
+            ui.printConflictWarning(taskList.findConflicts(event));
         } catch (ShagBotDateException e) {
             ui.printErrorMessage(e.getMessage());
         } catch (IllegalArgumentException e) {
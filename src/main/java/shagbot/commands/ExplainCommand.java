@@ -0,0 +1,43 @@
+package shagbot.commands;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.QueryResult;
+import shagbot.tasks.TaskList;
+import shagbot.tasks.TaskQuery;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to show how a {@code list} query is answered: which index the tasks
+ * are read from, and how many tasks are examined to find the matching ones.
+ */
+public class ExplainCommand extends Command {
+    private static final String INVALID_EXPLAIN_ERROR_MESSAGE = "OOPSIE!! Please enter a query to explain, "
+            + "e.g. 'explain list where done=false order by due limit 5'.";
+    private static final String LIST_PREFIX_REGEX = "(?i)^list(\\s+|$)";
+    private final String queryText;
+
+    /**
+     * Constructor for the {@code ExplainCommand} class.
+     *
+     * @param queryText The query to explain, optionally starting with {@code list}.
+     */
+    public ExplainCommand(String queryText) {
+        assert queryText != null : "Query must not be null.";
+        this.queryText = queryText.trim().replaceFirst(LIST_PREFIX_REGEX, "");
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        if (queryText.isBlank()) {
+            throw new ShagBotException(INVALID_EXPLAIN_ERROR_MESSAGE);
+        }
+        try {
+            QueryResult result = taskList.query(TaskQuery.parse(queryText));
+            ui.printQueryPlan(result.getPlan());
+        } catch (IllegalArgumentException e) {
+            throw new ShagBotException(e.getMessage());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package shagbot.commands;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.formats.TaskFormat;
+import shagbot.formats.TaskWriter;
+import shagbot.tasks.Task;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to export every task to a CSV, JSON Lines or iCalendar file.
+ * Tasks are streamed to the file one at a time, so only a buffer's worth of output is held in memory.
+ */
+public class ExportCommand extends Command {
+    static final String UNSUPPORTED_FORMAT_ERROR_MESSAGE = "OOPSIE!! Please use a file name ending in "
+            + ".csv, .jsonl or .ics, e.g. '%s tasks.csv'.";
+    private static final String EXPORT_FAILED_ERROR_MESSAGE = "OOPSIE!! Failed to export tasks to %s: %s";
+    private static final String TASKS_EXPORTED_MESSAGE = "Exported %d tasks to %s.";
+    private final String fileName;
+
+    /**
+     * Constructor for the {@code ExportCommand} class.
+     *
+     * @param fileName The name of the file to export to, whose extension decides the format.
+     */
+    public ExportCommand(String fileName) {
+        assert fileName != null : "File name cannot be null.";
+        this.fileName = fileName.trim();
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        TaskFormat format = TaskFormat.fromFileName(fileName);
+        if (fileName.isEmpty() || format == null) {
+            throw new ShagBotException(String.format(UNSUPPORTED_FORMAT_ERROR_MESSAGE, "export"));
+        }
+        int exportedCount = 0;
+        try {
+            Path path = Path.of(fileName);
+            if (path.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+            }
+            // The output is closed even if the writer cannot be created, such as when its header fails to write
+            try (BufferedWriter output = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                    TaskWriter writer = format.createWriter(output)) {
+                for (Task task : taskList) {
+                    writer.write(task);
+                    exportedCount++;
+                }
+            }
+        } catch (IOException | InvalidPathException e) {
+            throw new ShagBotException(String.format(EXPORT_FAILED_ERROR_MESSAGE, fileName, e.getMessage()));
+        }
+        ui.displayMessage(String.format(TASKS_EXPORTED_MESSAGE, exportedCount, fileName));
+        return true;
+    }
+}
@@ -1,7 +1,5 @@
 package shagbot.commands;
 
-import java.util.Arrays;
-
 import shagbot.exceptions.ShagBotException;
 import shagbot.tasks.Task;
 import shagbot.tasks.TaskList;
@@ -9,19 +7,28 @@ import shagbot.util.Ui;
 
 /**
  * This class represents a command to find tasks using a keyword entered.
+ * <p>
+ * A plain keyword is matched as a substring of the task descriptions. Keywords containing prefix terms
+ * ({@code rep*}) or typo-tolerant terms ({@code repot~1}) are answered from the task list's token index instead.
+ * </p>
+ * <p>
+ * A keyword starting with {@code --all} also searches the archived tasks, which are only read when asked for.
+ * </p>
  */
 public class FindCommand extends Command {
     private static final String INVALID_FIND_ERROR_MESSAGE = "OOPSIE!! Please enter 'find' <something> again.";
     private final String keyword;
+    private final boolean isArchiveSearched;
 
     /**
      * Constructor for the {@code FindCommand} class.
      *
-     * @param keyword The keyword to search for in the task descriptions.
+     * @param keyword The keyword to search for in the task descriptions, optionally preceded by {@code --all}.
      */
     public FindCommand(String keyword) {
         assert keyword != null : "Keyword must not be null.";
-        this.keyword = keyword;
+        this.isArchiveSearched = keyword.equals(ARCHIVE_FLAG) || keyword.startsWith(ARCHIVE_FLAG + " ");
+        this.keyword = isArchiveSearched ? keyword.substring(ARCHIVE_FLAG.length()).trim() : keyword;
     }
 
     @Override
@@ -30,12 +37,19 @@ public class FindCommand extends Command {
         if (keyword.isEmpty()) {
             throw new ShagBotException(INVALID_FIND_ERROR_MESSAGE);
         }
-        Task[] foundTasks = Arrays.stream(taskList.getTasks()).distinct()
-                .filter(task -> task.getDescription().contains(keyword))
-                .toArray(Task[]::new);
-        ui.printAnyMatchingTasks(foundTasks);
+        Task[] foundTasks = find(taskList);
+        Task[] foundArchivedTasks = isArchiveSearched
+                ? find(new TaskList(getArchivedTasks(taskList)))
+                : new Task[0];
+        ui.printAnyMatchingTasks(foundTasks, foundArchivedTasks);
         return true;
     }
-}
-
 
+    private Task[] find(TaskList taskList) throws ShagBotException {
+        try {
+            return taskList.findTasks(keyword);
+        } catch (IllegalArgumentException e) {
+            throw new ShagBotException(e.getMessage());
+        }
+    }
+}
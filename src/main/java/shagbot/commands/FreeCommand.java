@@ -0,0 +1,111 @@
+package shagbot.commands;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to find the earliest free slots of a given length between events.
+ */
+public class FreeCommand extends Command {
+    private static final String INVALID_FREE_ERROR_MESSAGE = "OOPSIE!! Invalid format. "
+            + "Use: free <duration> between <d/M/yyyy [HHmm]> and <d/M/yyyy [HHmm]> [/top <number>], "
+            + "e.g. free 2h between 1/12/2025 and 7/12/2025.";
+    private static final String INVALID_DURATION_ERROR_MESSAGE =
+            "OOPSIE!! '%s' is not a valid duration. Please use hours and minutes, e.g. 2h, 45m or 1h30m.";
+    private static final String INVALID_DATE_ERROR_MESSAGE =
+            "OOPSIE!! '%s' is not a valid date. Please use 'd/M/yyyy' or 'd/M/yyyy HHmm'.";
+    private static final String INVALID_RANGE_ERROR_MESSAGE = "OOPSIE!! The first date must be before the second.";
+    private static final String INVALID_LIMIT_ERROR_MESSAGE =
+            "OOPSIE!! The number of results after /top must be a number from 1 onwards.";
+    private static final Pattern FREE_PATTERN = Pattern.compile(
+            "(\\S+)\\s+between\\s+(.+?)\\s+and\\s+(.+?)(?:\\s+/top\\s+(\\S+))?");
+    private static final Pattern DURATION_PATTERN = Pattern.compile("(?:(\\d{1,4})h)?(?:(\\d{1,5})m)?");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d/M/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("d/M/uuuu HHmm")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final int DEFAULT_LIMIT = 5;
+    private final String description;
+
+    /**
+     * Constructor for the {@code FreeCommand} class.
+     *
+     * @param description The length of the slots and the dates to search between,
+     *                    optionally followed by {@code /top <number>}.
+     */
+    public FreeCommand(String description) {
+        assert description != null : "Free slot description must not be null.";
+        this.description = description;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        Matcher matcher = FREE_PATTERN.matcher(description.trim());
+        if (!matcher.matches()) {
+            throw new ShagBotException(INVALID_FREE_ERROR_MESSAGE);
+        }
+        Duration length = parseDuration(matcher.group(1));
+        LocalDateTime start = parseDate(matcher.group(2), false);
+        LocalDateTime end = parseDate(matcher.group(3), true);
+        if (!start.isBefore(end)) {
+            throw new ShagBotException(INVALID_RANGE_ERROR_MESSAGE);
+        }
+        int limit = matcher.group(4) == null ? DEFAULT_LIMIT : parseLimit(matcher.group(4));
+        ui.printFreeSlots(length, taskList.findFreeSlots(start, end, length, limit));
+        return true;
+    }
+
+    private Duration parseDuration(String durationString) throws ShagBotException {
+        Matcher matcher = DURATION_PATTERN.matcher(durationString.toLowerCase(Locale.ROOT));
+        if (!matcher.matches() || matcher.group(1) == null && matcher.group(2) == null) {
+            throw new ShagBotException(String.format(INVALID_DURATION_ERROR_MESSAGE, durationString));
+        }
+        Duration length = Duration.ofHours(matcher.group(1) == null ? 0 : Integer.parseInt(matcher.group(1)))
+                .plusMinutes(matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2)));
+        if (length.isZero()) {
+            throw new ShagBotException(String.format(INVALID_DURATION_ERROR_MESSAGE, durationString));
+        }
+        return length;
+    }
+
+    /**
+     * Parses a date with an optional time. A date on its own stands for the start of the day, or for the end
+     * of the day if {@code isEnd}, so that the search includes the whole of the last day.
+     */
+    private LocalDateTime parseDate(String dateString, boolean isEnd) throws ShagBotException {
+        String date = dateString.trim();
+        try {
+            if (date.contains(" ")) {
+                return LocalDateTime.parse(date, DATE_TIME_FORMAT);
+            }
+            LocalDate day = LocalDate.parse(date, DATE_FORMAT);
+            return isEnd ? day.plusDays(1).atStartOfDay() : day.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new ShagBotException(String.format(INVALID_DATE_ERROR_MESSAGE, date));
+        }
+    }
+
+    private int parseLimit(String limitString) throws ShagBotException {
+        try {
+            int limit = Integer.parseInt(limitString);
+            if (limit < 1) {
+                throw new ShagBotException(INVALID_LIMIT_ERROR_MESSAGE);
+            }
+            return limit;
+        } catch (NumberFormatException e) {
+            throw new ShagBotException(INVALID_LIMIT_ERROR_MESSAGE);
+        }
+    }
+}
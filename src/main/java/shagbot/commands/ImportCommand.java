@@ -0,0 +1,67 @@
+package shagbot.commands;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.formats.TaskFormat;
+import shagbot.formats.TaskReader;
+import shagbot.tasks.Task;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to import tasks from a CSV, JSON Lines or iCalendar file,
+ * adding them to the end of the list.
+ * <p>
+ * Tasks are streamed from the file one at a time. The whole import is a single change: if any task in the file
+ * is invalid, nothing is imported, and a successful import can be undone with one {@code undo}.
+ * </p>
+ */
+public class ImportCommand extends Command {
+    private static final String FILE_NOT_FOUND_ERROR_MESSAGE = "OOPSIE!! Cannot find the file %s.";
+    private static final String IMPORT_FAILED_ERROR_MESSAGE = "OOPSIE!! Nothing was imported from %s. %s";
+    private static final String TASKS_IMPORTED_MESSAGE = "Imported %d tasks from %s.\n"
+            + "Now you have %d tasks in the list.";
+    private final String fileName;
+
+    /**
+     * Constructor for the {@code ImportCommand} class.
+     *
+     * @param fileName The name of the file to import from, whose extension decides the format.
+     */
+    public ImportCommand(String fileName) {
+        assert fileName != null : "File name cannot be null.";
+        this.fileName = fileName.trim();
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        TaskFormat format = TaskFormat.fromFileName(fileName);
+        if (fileName.isEmpty() || format == null) {
+            throw new ShagBotException(String.format(ExportCommand.UNSUPPORTED_FORMAT_ERROR_MESSAGE, "import"));
+        }
+        int importedCount = 0;
+        try (TaskReader reader = format.createReader(Files.newBufferedReader(Path.of(fileName),
+                StandardCharsets.UTF_8))) {
+            Task task;
+            while ((task = reader.read()) != null) {
+                taskList.addTask(task);
+                importedCount++;
+            }
+        } catch (NoSuchFileException | InvalidPathException e) {
+            throw new ShagBotException(String.format(FILE_NOT_FOUND_ERROR_MESSAGE, fileName));
+        } catch (IOException | ShagBotFormatException e) {
+            taskList.discardChanges();
+            throw new ShagBotException(String.format(IMPORT_FAILED_ERROR_MESSAGE, fileName, e.getMessage()));
+        }
+        ui.displayMessage(String.format(TASKS_IMPORTED_MESSAGE, importedCount, fileName, taskList.size()));
+        return true;
+    }
+}
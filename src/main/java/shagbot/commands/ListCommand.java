@@ -1,17 +1,96 @@
 package shagbot.commands;
 
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Task;
 import shagbot.tasks.TaskList;
+import shagbot.tasks.TaskQuery;
 import shagbot.util.Ui;
 
 /**
- * This class represents a command to list all tasks.
+ * This class represents a command to list all tasks, only the tasks matching a query
+ * such as {@code where done=false order by due limit 5}, or a page of the tasks sorted by due date,
+ * start date or status, such as {@code sorted by due page 2}.
  */
 public class ListCommand extends Command {
+    private static final int PAGE_SIZE = 20;
+    private static final Pattern SORTED_LIST_PATTERN = Pattern.compile(
+            "(?i)sorted\\s+by\\s+(\\S+)(?:\\s+(asc|desc))?(?:\\s+page\\s+(\\S+))?");
+    private static final String SORTED_LIST_PREFIX_REGEX = "(?i)sorted\\b.*";
+    private static final String INVALID_SORTED_LIST_ERROR_MESSAGE = "OOPSIE!! Invalid format. "
+            + "Use: list sorted by <due|start|status> [desc] [page <number>].";
+    private static final String INVALID_SORT_KEY_ERROR_MESSAGE = "OOPSIE!! Tasks can only be sorted by due, "
+            + "start or status.";
+    private static final String INVALID_PAGE_ERROR_MESSAGE = "OOPSIE!! The page must be a number from 1 to %d.";
+    private final String queryText;
+
+    /**
+     * Constructor for the {@code ListCommand} class, listing all tasks.
+     */
+    public ListCommand() {
+        this("");
+    }
+
+    /**
+     * Constructor for the {@code ListCommand} class.
+     *
+     * @param queryText The query, or an empty string to list all tasks.
+     */
+    public ListCommand(String queryText) {
+        assert queryText != null : "Query must not be null.";
+        this.queryText = queryText.trim();
+    }
+
     @Override
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing command.";
-        ui.printTaskList(taskList.getTasks());
+        if (queryText.isEmpty()) {
+            ui.printTaskList(taskList.getTasks());
+        } else if (queryText.matches(SORTED_LIST_PREFIX_REGEX)) {
+            listSortedTasks(taskList, ui);
+        } else {
+            try {
+                ui.printAnyMatchingTasks(taskList.query(TaskQuery.parse(queryText)).getTasks());
+            } catch (IllegalArgumentException e) {
+                throw new ShagBotException(e.getMessage());
+            }
+        }
         return true;
     }
+
+    private void listSortedTasks(TaskList taskList, Ui ui) throws ShagBotException {
+        Matcher matcher = SORTED_LIST_PATTERN.matcher(queryText);
+        if (!matcher.matches()) {
+            throw new ShagBotException(INVALID_SORTED_LIST_ERROR_MESSAGE);
+        }
+        TaskList.SortKey key;
+        try {
+            key = TaskList.SortKey.valueOf(matcher.group(1).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ShagBotException(INVALID_SORT_KEY_ERROR_MESSAGE);
+        }
+        boolean isDescending = "desc".equalsIgnoreCase(matcher.group(2));
+        if (taskList.size() == 0) {
+            ui.printTaskList(new Task[0]);
+            return;
+        }
+
+        int pageCount = (taskList.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+        int page;
+        try {
+            page = matcher.group(3) == null ? 1 : Integer.parseInt(matcher.group(3));
+        } catch (NumberFormatException e) {
+            page = 0;
+        }
+        if (page < 1 || page > pageCount) {
+            throw new ShagBotException(String.format(INVALID_PAGE_ERROR_MESSAGE, pageCount));
+        }
+        int offset = (page - 1) * PAGE_SIZE;
+        Task[] tasks = taskList.getSortedTasks(key, isDescending, offset, PAGE_SIZE);
+        String order = key.name().toLowerCase(Locale.ROOT) + (isDescending ? " desc" : "");
+        ui.printSortedTasks(order, tasks, offset, page, pageCount);
+    }
 }
@@ -6,13 +6,14 @@ import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
 /**
- * This class represents a command to mark a task as completed.
+ * This class represents a command to mark one or more tasks as completed.
  */
 public class MarkCommand extends Command {
     private static final String TASK_NUMBER_OUT_OF_RANGE_MESSAGE = "OOPSIE!! Task number is out of range! "
             + "Please enter a number from 1 to ";
     private static final String NO_TASKS_AT_THE_MOMENT_ERROR_MESSAGE = "Nothing to mark. No tasks at the moment";
-    private final int taskIndex;
+    private static final String NO_MATCHING_TASKS_ERROR_MESSAGE = "OOPSIE!! No tasks match your selection.";
+    private final TaskSelection selection;
 
     /**
      * Constructor for the {@code MarkCommand} class.
@@ -20,22 +21,43 @@ public class MarkCommand extends Command {
      * @param taskIndex Index corresponding to the task to be marked.
      */
     public MarkCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+        this(TaskSelection.ofIndex(taskIndex));
+    }
+
+    /**
+     * Constructor for the {@code MarkCommand} class for several tasks at once.
+     *
+     * @param selection The tasks to be marked.
+     */
+    public MarkCommand(TaskSelection selection) {
+        assert selection != null : "Selection of tasks cannot be null.";
+        this.selection = selection;
     }
 
     @Override
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing command.";
-        int numOfTasks = taskList.getTasks().length;
+        int numOfTasks = taskList.size();
         if (numOfTasks == 0) {
             throw new ShagBotException(NO_TASKS_AT_THE_MOMENT_ERROR_MESSAGE);
         }
-        if (taskIndex < 0 || taskIndex >= numOfTasks) {
+        if (selection.getHighestIndex() >= numOfTasks) {
             throw new ShagBotException(TASK_NUMBER_OUT_OF_RANGE_MESSAGE + numOfTasks + ".");
         }
-        Task task = taskList.getTask(taskIndex);
-        task.mark();
-        ui.printTaskMarked(task);
+        int[] taskIndexes = selection.resolve(taskList);
+        if (taskIndexes.length == 0) {
+            throw new ShagBotException(NO_MATCHING_TASKS_ERROR_MESSAGE);
+        }
+        if (selection.isSingleTask()) {
+            Task task = taskList.markTask(taskIndexes[0]);
+            ui.printTaskMarked(task);
+            return true;
+        }
+        Task[] markedTasks = new Task[taskIndexes.length];
+        for (int i = 0; i < taskIndexes.length; i++) {
+            markedTasks[i] = taskList.markTask(taskIndexes[i]);
+        }
+        ui.printTasksMarked(taskIndexes, markedTasks);
         return true;
     }
 }
@@ -0,0 +1,41 @@
+package shagbot.commands;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to show the incomplete tasks to do next, by priority and then due date.
+ */
+public class NextCommand extends Command {
+    private static final String INVALID_NEXT_ERROR_MESSAGE =
+            "OOPSIE!! Invalid format. Use: next [number of tasks], e.g. next 3.";
+    private static final int DEFAULT_COUNT = 5;
+    private final String description;
+
+    /**
+     * Constructor for the {@code NextCommand} class.
+     *
+     * @param description The number of tasks to show, or an empty string for the default.
+     */
+    public NextCommand(String description) {
+        assert description != null : "Next description must not be null.";
+        this.description = description;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        int count;
+        try {
+            count = description.isBlank() ? DEFAULT_COUNT : Integer.parseInt(description.trim());
+        } catch (NumberFormatException e) {
+            throw new ShagBotException(INVALID_NEXT_ERROR_MESSAGE);
+        }
+        if (count < 1) {
+            throw new ShagBotException(INVALID_NEXT_ERROR_MESSAGE);
+        }
+        ui.printNextTasks(taskList.getNextTasks(count));
+        return true;
+    }
+}
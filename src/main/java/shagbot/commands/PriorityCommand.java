@@ -0,0 +1,55 @@
+package shagbot.commands;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Priority;
+import shagbot.tasks.Task;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to set the priority of one or more tasks.
+ */
+public class PriorityCommand extends Command {
+    private static final String TASK_NUMBER_OUT_OF_RANGE_MESSAGE = "OOPSIE!! Task number is out of range! "
+            + "Please enter a number from 1 to ";
+    private static final String INVALID_PRIORITY_ERROR_MESSAGE =
+            "OOPSIE!! Invalid priority. Use: priority <task number> <high, medium, low or none>.";
+    private static final String NO_MATCHING_TASKS_ERROR_MESSAGE = "OOPSIE!! No tasks match your selection.";
+    private final TaskSelection selection;
+    private final String priorityName;
+
+    /**
+     * Constructor for the {@code PriorityCommand} class.
+     *
+     * @param selection The tasks whose priority is set.
+     * @param priorityName The name of the new priority, such as {@code high}.
+     */
+    public PriorityCommand(TaskSelection selection, String priorityName) {
+        assert selection != null : "Selection of tasks cannot be null.";
+        this.selection = selection;
+        this.priorityName = priorityName;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        Priority priority = Priority.fromName(priorityName);
+        if (priority == null) {
+            throw new ShagBotException(INVALID_PRIORITY_ERROR_MESSAGE);
+        }
+        int numOfTasks = taskList.size();
+        if (selection.getHighestIndex() >= numOfTasks) {
+            throw new ShagBotException(TASK_NUMBER_OUT_OF_RANGE_MESSAGE + numOfTasks + ".");
+        }
+        int[] taskIndexes = selection.resolve(taskList);
+        if (taskIndexes.length == 0) {
+            throw new ShagBotException(NO_MATCHING_TASKS_ERROR_MESSAGE);
+        }
+        Task[] changedTasks = new Task[taskIndexes.length];
+        for (int i = 0; i < taskIndexes.length; i++) {
+            changedTasks[i] = taskList.setPriority(taskIndexes[i], priority);
+        }
+        ui.printPrioritySet(priority, taskIndexes, changedTasks);
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package shagbot.commands;
+
+import java.util.List;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskChange;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to redo the changes most recently undone.
+ */
+public class RedoCommand extends Command {
+    private static final String NOTHING_TO_REDO_ERROR_MESSAGE = "Nothing to redo.";
+    private static final String REDONE_MESSAGE = "Done! I've redone your last undone change:\n";
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        List<TaskChange> redoneChanges = taskList.redo();
+        if (redoneChanges == null) {
+            throw new ShagBotException(NOTHING_TO_REDO_ERROR_MESSAGE);
+        }
+        ui.printChangesApplied(REDONE_MESSAGE, redoneChanges);
+        return true;
+    }
+}
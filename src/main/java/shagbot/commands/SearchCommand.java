@@ -0,0 +1,57 @@
+package shagbot.commands;
+
+import java.time.LocalDateTime;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Task;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to search for the tasks most relevant to a query, ranked by relevance.
+ */
+public class SearchCommand extends Command {
+    private static final String INVALID_SEARCH_ERROR_MESSAGE =
+            "OOPSIE!! Invalid format. Use: search <words> [/top <number>].";
+    private static final String INVALID_LIMIT_ERROR_MESSAGE =
+            "OOPSIE!! The number of results after /top must be a number from 1 onwards.";
+    private static final String TOP_SEPARATOR = " /top ";
+    private static final int DEFAULT_LIMIT = 10;
+    private final String description;
+
+    /**
+     * Constructor for the {@code SearchCommand} class.
+     *
+     * @param description The search words, optionally followed by {@code /top <number>}.
+     */
+    public SearchCommand(String description) {
+        assert description != null : "Search description must not be null.";
+        this.description = description;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        String[] parts = (" " + description).split(TOP_SEPARATOR, 2);
+        String query = parts[0].trim();
+        if (query.isEmpty()) {
+            throw new ShagBotException(INVALID_SEARCH_ERROR_MESSAGE);
+        }
+        int limit = parts.length > 1 ? parseLimit(parts[1].trim()) : DEFAULT_LIMIT;
+        Task[] rankedTasks = taskList.searchTasks(query, limit, LocalDateTime.now());
+        ui.printRankedTasks(rankedTasks);
+        return true;
+    }
+
+    private int parseLimit(String limitString) throws ShagBotException {
+        try {
+            int limit = Integer.parseInt(limitString);
+            if (limit < 1) {
+                throw new ShagBotException(INVALID_LIMIT_ERROR_MESSAGE);
+            }
+            return limit;
+        } catch (NumberFormatException e) {
+            throw new ShagBotException(INVALID_LIMIT_ERROR_MESSAGE);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package shagbot.commands;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import shagbot.exceptions.ShagBotDateException;
 import shagbot.exceptions.ShagBotException;
@@ -13,7 +16,7 @@ import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
 /**
- * This class represents a command to snooze or reschedule a task.
+ * This class represents a command to snooze or reschedule one or more tasks.
  */
 public class SnoozeCommand extends Command {
     private static final String SNOOZE_DEADLINE_FAIL_ERROR_MESSAGE = "To snooze a deadline, use: snooze <index> "
@@ -29,7 +32,10 @@ public class SnoozeCommand extends Command {
             "  , deadline of this task has been rescheduled to: ";
     private static final String PLEASE_ENTER_A_NUMBER_FROM_1_TO = "OOPSIE!! Task number is out of range! "
             + "Please enter a number from 1 to ";
-    private final int taskIndex;
+    private static final String MIXED_TASK_TYPES_ERROR_MESSAGE =
+            "OOPSIE!! Tasks snoozed together must be all deadlines or all events.";
+    private static final String NO_MATCHING_TASKS_ERROR_MESSAGE = "OOPSIE!! No tasks match your selection.";
+    private final TaskSelection selection;
     private final String dateTimeInfo;
 
 
@@ -40,36 +46,69 @@ public class SnoozeCommand extends Command {
      * @param dateTimeInfo String representation of the new scheduling information for the task.
      */
     public SnoozeCommand(int taskIndex, String dateTimeInfo) {
-        this.taskIndex = taskIndex;
+        this(TaskSelection.ofIndex(taskIndex), dateTimeInfo);
+    }
+
+    /**
+     * Constructor for the {@code SnoozeCommand} class for several tasks at once.
+     * All the selected tasks are rescheduled to the same new date/time.
+     *
+     * @param selection The tasks to be snoozed.
+     * @param dateTimeInfo String representation of the new scheduling information for the tasks.
+     */
+    public SnoozeCommand(TaskSelection selection, String dateTimeInfo) {
+        assert selection != null : "Selection of tasks cannot be null.";
+        this.selection = selection;
         this.dateTimeInfo = dateTimeInfo;
     }
 
     @Override
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing command.";
-        int numOfTasks = taskList.getTasks().length;
-        if (taskIndex < 0 || taskIndex >= numOfTasks) {
+        int numOfTasks = taskList.size();
+        if (selection.getHighestIndex() >= numOfTasks) {
             throw new ShagBotException(PLEASE_ENTER_A_NUMBER_FROM_1_TO + numOfTasks + ".");
         }
-        Task taskToSnooze = taskList.getTask(taskIndex);
+        int[] taskIndexes = selection.resolve(taskList);
+        if (taskIndexes.length == 0) {
+            throw new ShagBotException(NO_MATCHING_TASKS_ERROR_MESSAGE);
+        }
+        Task taskToSnooze = taskList.getTask(taskIndexes[0]);
         if (taskToSnooze instanceof Deadline) {
-            return snoozeDeadline((Deadline) taskToSnooze, ui);
+            requireAllOfType(taskList, taskIndexes, Deadline.class);
+            return snoozeDeadlines(taskList, taskIndexes, ui);
         } else if (taskToSnooze instanceof Event) {
-            return snoozeEvent((Event) taskToSnooze, ui);
+            requireAllOfType(taskList, taskIndexes, Event.class);
+            return snoozeEvents(taskList, taskIndexes, ui);
         } else {
             throw new ShagBotException(CANNOT_SNOOZE_TODO_ERROR_MESSAGE);
         }
     }
 
     /**
-     * Reschedules a {@link Deadline} task to its new date and time.
+     * Checks that every selected task is of the given type, before any of them is rescheduled.
+     *
+     * @throws ShagBotException If any selected task is of a different type.
+     */
+    private void requireAllOfType(TaskList taskList, int[] taskIndexes, Class<? extends Task> taskType)
+            throws ShagBotException {
+        for (int taskIndex : taskIndexes) {
+            if (!taskType.isInstance(taskList.getTask(taskIndex))) {
+                throw new ShagBotException(MIXED_TASK_TYPES_ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Reschedules {@link Deadline} tasks to their new date and time.
      *
-     * @param deadline Deadline task to be snoozed or rescheduled.
+     * @param taskList The task list containing the deadline tasks to be snoozed or rescheduled.
+     * @param taskIndexes The indexes of the deadline tasks.
      * @param ui The Ui instance to display message.
-     * @return {@code true} if the deadline was successfully rescheduled, else {@code false}.
+     * @return {@code true} if the deadlines were successfully rescheduled, else {@code false}.
      * @throws ShagBotException If the date/time format is invalid.
      */
-    private boolean snoozeDeadline(Deadline deadline, Ui ui) throws ShagBotException {
+    private boolean snoozeDeadlines(TaskList taskList, int[] taskIndexes, Ui ui) throws ShagBotException {
         if (!dateTimeInfo.startsWith("/by ")) {
             throw new ShagBotException(SNOOZE_DEADLINE_FAIL_ERROR_MESSAGE);
         }
@@ -80,22 +119,30 @@ public class SnoozeCommand extends Command {
         } catch (DateTimeParseException e) {
             throw new ShagBotException(INVALID_DATE_FORMAT_ERROR_MESSAGE);
         }
-        deadline.setByTiming(newByTiming);
-        String message = "For this task: " + deadline.getDescription() + DEADLINE_HAS_BEEN_RESCHEDULED_TO
+        Task[] rescheduledTasks = new Task[taskIndexes.length];
+        for (int i = 0; i < taskIndexes.length; i++) {
+            rescheduledTasks[i] = taskList.rescheduleDeadline(taskIndexes[i], newByTiming);
+        }
+        if (!selection.isSingleTask()) {
+            ui.printTasksRescheduled(taskIndexes, rescheduledTasks);
+            return true;
+        }
+        String message = "For this task: " + rescheduledTasks[0].getDescription() + DEADLINE_HAS_BEEN_RESCHEDULED_TO
                 + newByTiming.format(DateTimeFormatter.ofPattern(DATE_FORMAT_WITH_TIME));
         ui.displayMessage(message);
         return true;
     }
 
     /**
-     * Reschedules a {@link Event} task to its new start and end dates and timings.
+     * Reschedules {@link Event} tasks to their new start and end dates and timings.
      *
-     * @param event Event task to be snoozed or rescheduled.
+     * @param taskList The task list containing the event tasks to be snoozed or rescheduled.
+     * @param taskIndexes The indexes of the event tasks.
      * @param ui The Ui instance to display message.
-     * @return {@code true} If the event was successfully rescheduled, else {@code false}.
+     * @return {@code true} If the events were successfully rescheduled, else {@code false}.
      * @throws ShagBotException If the date/time format is invalid.
      */
-    private boolean snoozeEvent(Event event, Ui ui) throws ShagBotException {
+    private boolean snoozeEvents(TaskList taskList, int[] taskIndexes, Ui ui) throws ShagBotException {
         String[] parts = dateTimeInfo.split(" /to ");
         if (!parts[0].startsWith("/from ") || parts.length < 2) {
             throw new ShagBotException(SNOOZE_EVENT_FAIL_ERROR_MESSAGE);
@@ -112,17 +159,27 @@ public class SnoozeCommand extends Command {
         } catch (DateTimeParseException e) {
             throw new ShagBotException(SNOOZE_EVENT_FAIL_ERROR_MESSAGE);
         }
+        Task[] rescheduledTasks = new Task[taskIndexes.length];
         try {
-            event.setStart(newStart);
-            event.setEnd(newEnd);
-            event.validateDate();
+            for (int i = 0; i < taskIndexes.length; i++) {
+                rescheduledTasks[i] = taskList.rescheduleEvent(taskIndexes[i], newStart, newEnd);
+            }
         } catch (ShagBotDateException e) {
             throw new ShagBotException(e.getMessage());
         }
-
-        String message = "This event has been rescheduled:  " + event.getDescription() + "\n\nFrom: "
-                + newStart.format(formatter) + "\nTo: " + newEnd.format(formatter);
-        ui.displayMessage(message);
+        if (!selection.isSingleTask()) {
+            ui.printTasksRescheduled(taskIndexes, rescheduledTasks);
+        } else {
+            String message = "This event has been rescheduled:  " + rescheduledTasks[0].getDescription()
+                    + "\n\nFrom: " + newStart.format(formatter) + "\nTo: " + newEnd.format(formatter);
+            ui.displayMessage(message);
+        }
+        // Every rescheduled event now has the same span, so they clash with the same other events
+        Set<Integer> rescheduledIds = Arrays.stream(rescheduledTasks).map(Task::getId).collect(Collectors.toSet());
+        Event[] conflicts = Arrays.stream(taskList.findConflicts((Event) rescheduledTasks[0]))
+                .filter(event -> !rescheduledIds.contains(event.getId()))
+                .toArray(Event[]::new);
+        ui.printConflictWarning(conflicts);
         return true;
     }
 }
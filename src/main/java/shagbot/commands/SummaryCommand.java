@@ -0,0 +1,44 @@
+package shagbot.commands;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to summarise the task list, by type, status, week and month.
+ */
+public class SummaryCommand extends Command {
+    private static final String INVALID_SUMMARY_ERROR_MESSAGE =
+            "OOPSIE!! Invalid format. Use: summary [d/M/yyyy], e.g. summary 1/12/2025.";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d/M/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private final String description;
+
+    /**
+     * Constructor for the {@code SummaryCommand} class.
+     *
+     * @param description The date whose week and month are summarised, or an empty string for today.
+     */
+    public SummaryCommand(String description) {
+        assert description != null : "Summary description must not be null.";
+        this.description = description;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        LocalDate date;
+        try {
+            date = description.isBlank() ? LocalDate.now() : LocalDate.parse(description.trim(), DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new ShagBotException(INVALID_SUMMARY_ERROR_MESSAGE);
+        }
+        ui.printSummary(taskList.getStatistics(), date);
+        return true;
+    }
+}
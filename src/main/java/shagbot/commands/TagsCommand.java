@@ -0,0 +1,17 @@
+package shagbot.commands;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to show every tag in use, with the number of tasks that have it.
+ */
+public class TagsCommand extends Command {
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        ui.printTagCounts(taskList.getTagCounts());
+        return true;
+    }
+}
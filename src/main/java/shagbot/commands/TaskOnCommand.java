@@ -5,25 +5,29 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Task;
 import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
 /**
  * This class represents a command to find tasks that occurs on the specified date.
+ * A date preceded by {@code --all} also finds the archived tasks on that date.
  */
 public class TaskOnCommand extends Command {
     private static final String DATE_FORMAT = "dd/M/yyyy";
     private static final String INVALID_DATE_FORMAT_ERROR_MESSAGE = "OOPSIE!! Invalid date format: "
             + "Please use 'dd/M/yyyy'.";
     private final String dateString;
+    private final boolean isArchiveSearched;
 
     /**
      * Constructor for the {@code TaskOnCommand} class.
      *
-     * @param dateString The string representation of the date of the task.
+     * @param dateString The string representation of the date of the task, optionally preceded by {@code --all}.
      */
     public TaskOnCommand(String dateString) {
-        this.dateString = dateString;
+        this.isArchiveSearched = dateString.startsWith(ARCHIVE_FLAG + " ");
+        this.dateString = isArchiveSearched ? dateString.substring(ARCHIVE_FLAG.length()).trim() : dateString;
     }
 
     @Override
@@ -31,7 +35,10 @@ public class TaskOnCommand extends Command {
         assert ui != null : "ui instance cannot be null when executing a command.";
         try {
             LocalDate date = LocalDate.parse(dateString, DateTimeFormatter.ofPattern(DATE_FORMAT));
-            ui.printTasksOnDate(date, taskList.getTasks());
+            Task[] archivedTasks = isArchiveSearched
+                    ? new TaskList(getArchivedTasks(taskList)).getTasksOnDate(date)
+                    : new Task[0];
+            ui.printTasksOnDate(date, taskList.getTasksOnDate(date), archivedTasks);
         } catch (DateTimeParseException e) {
             throw new ShagBotException(INVALID_DATE_FORMAT_ERROR_MESSAGE);
         }
@@ -0,0 +1,120 @@
+package shagbot.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+
+/**
+ * Represents the tasks a command applies to: either a set of task numbers, ranges and task IDs such as
+ * {@code 3,7,9-20,#42}, or every task that is already done.
+ * <p>
+ * Task numbers refer to positions in the list, which shift as tasks are added and deleted,
+ * while task IDs always refer to the same task.
+ * </p>
+ */
+public class TaskSelection {
+    private static final String UNKNOWN_TASK_ID_ERROR_MESSAGE = "OOPSIE!! There is no task with ID #%d.";
+    private final List<int[]> ranges;
+    private final List<Integer> taskIds;
+    private final boolean isCompletedTasks;
+
+    private TaskSelection(List<int[]> ranges, List<Integer> taskIds, boolean isCompletedTasks) {
+        this.ranges = ranges;
+        this.taskIds = taskIds;
+        this.isCompletedTasks = isCompletedTasks;
+    }
+
+    /**
+     * Creates a selection of a single task.
+     *
+     * @param taskIndex Zero-based index of the task.
+     * @return The selection.
+     */
+    public static TaskSelection ofIndex(int taskIndex) {
+        return ofRanges(List.of(new int[]{taskIndex, taskIndex}));
+    }
+
+    /**
+     * Creates a selection of the tasks in the given ranges.
+     *
+     * @param ranges Inclusive, zero-based ranges of task indexes, each given as {@code {first, last}}.
+     * @return The selection.
+     */
+    public static TaskSelection ofRanges(List<int[]> ranges) {
+        return of(ranges, List.of());
+    }
+
+    /**
+     * Creates a selection of the tasks in the given ranges together with the tasks with the given IDs.
+     *
+     * @param ranges Inclusive, zero-based ranges of task indexes, each given as {@code {first, last}}.
+     * @param taskIds IDs of further tasks to select.
+     * @return The selection.
+     */
+    public static TaskSelection of(List<int[]> ranges, List<Integer> taskIds) {
+        assert !ranges.isEmpty() || !taskIds.isEmpty() : "A selection must contain at least one task.";
+        assert ranges.stream().allMatch(range -> 0 <= range[0] && range[0] <= range[1]) : "Ranges must be valid.";
+        return new TaskSelection(new ArrayList<>(ranges), new ArrayList<>(taskIds), false);
+    }
+
+    /**
+     * Creates a selection of every task that is done at the time the command runs.
+     *
+     * @return The selection.
+     */
+    public static TaskSelection ofCompletedTasks() {
+        return new TaskSelection(List.of(), List.of(), true);
+    }
+
+    /**
+     * Retrieves the highest index explicitly selected, to be checked against the size of the task list.
+     *
+     * @return The highest selected index, or -1 if the selection is not made of task numbers.
+     */
+    public int getHighestIndex() {
+        return ranges.stream().mapToInt(range -> range[1]).max().orElse(-1);
+    }
+
+    /**
+     * Checks whether the selection is exactly one task number or task ID.
+     *
+     * @return {@code true} if a single task was selected.
+     */
+    public boolean isSingleTask() {
+        boolean isSingleIndex = ranges.size() == 1 && ranges.get(0)[0] == ranges.get(0)[1];
+        return isSingleIndex && taskIds.isEmpty() || ranges.isEmpty() && taskIds.size() == 1;
+    }
+
+    /**
+     * Resolves the selection against the task list.
+     * The selection must already have been checked to be within the task list.
+     *
+     * @param taskList The task list the selection applies to.
+     * @return The selected zero-based task indexes in ascending order, without duplicates.
+     * @throws ShagBotException If no task in the list has one of the selected IDs.
+     */
+    public int[] resolve(TaskList taskList) throws ShagBotException {
+        assert getHighestIndex() < taskList.size() : "Selection must be within the task list.";
+        if (isCompletedTasks) {
+            return IntStream.range(0, taskList.size())
+                    .filter(index -> taskList.getTask(index).isDone())
+                    .toArray();
+        }
+        int[] indexesOfIds = new int[taskIds.size()];
+        for (int i = 0; i < indexesOfIds.length; i++) {
+            indexesOfIds[i] = taskList.indexOfId(taskIds.get(i));
+            if (indexesOfIds[i] < 0) {
+                throw new ShagBotException(String.format(UNKNOWN_TASK_ID_ERROR_MESSAGE, taskIds.get(i)));
+            }
+        }
+        return IntStream.concat(
+                        ranges.stream().flatMapToInt(range -> IntStream.rangeClosed(range[0], range[1])),
+                        IntStream.of(indexesOfIds))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+}
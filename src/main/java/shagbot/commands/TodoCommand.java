@@ -1,6 +1,7 @@
 package shagbot.commands;
 
 import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Task;
 import shagbot.tasks.TaskList;
 import shagbot.tasks.Todo;
 import shagbot.util.Ui;
@@ -25,12 +26,14 @@ public class TodoCommand extends Command {
     @Override
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing a command.";
-        if (description.isEmpty()) {
+        String untaggedDescription = Task.removeTags(description);
+        if (untaggedDescription.isEmpty()) {
             throw new ShagBotException(INVALID_TODO_ERROR_MESSAGE);
         }
-        Todo todo = new Todo(description);
+        Todo todo = new Todo(untaggedDescription);
+        todo.setTags(Task.findTags(description));
         taskList.addTask(todo);
-        ui.printTaskAdded(todo.toString(), taskList.getTasks().length);
+        ui.printTaskAdded(todo.toString(), taskList.size());
         return true;
     }
 }
@@ -0,0 +1,32 @@
+package shagbot.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskChange;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+
+/**
+ * This class represents a command to undo the changes made by the most recent command.
+ */
+public class UndoCommand extends Command {
+    private static final String NOTHING_TO_UNDO_ERROR_MESSAGE = "Nothing to undo.";
+    private static final String UNDONE_MESSAGE = "Done! I've undone your last change:\n";
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        List<TaskChange> undoneChanges = taskList.undo();
+        if (undoneChanges == null) {
+            throw new ShagBotException(NOTHING_TO_UNDO_ERROR_MESSAGE);
+        }
+        List<TaskChange> appliedChanges = new ArrayList<>();
+        for (int i = undoneChanges.size() - 1; i >= 0; i--) {
+            appliedChanges.add(undoneChanges.get(i).invert());
+        }
+        ui.printChangesApplied(UNDONE_MESSAGE, appliedChanges);
+        return true;
+    }
+}
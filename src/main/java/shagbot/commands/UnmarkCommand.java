@@ -6,13 +6,14 @@ import shagbot.tasks.TaskList;
 import shagbot.util.Ui;
 
 /**
- * This class represents a command to unmark a task as not done.
+ * This class represents a command to unmark one or more tasks as not done.
  */
 public class UnmarkCommand extends Command {
     private static final String TASK_NUMBER_OUT_OF_RANGE_MESSAGE = "OOPSIE!! Task number is out of range! "
             + "Please enter a number from 1 to ";
     private static final String NO_TASKS_AT_THE_MOMENT_ERROR_MESSAGE = "Nothing to unmark. No tasks at the moment";
-    private final int taskIndex;
+    private static final String NO_MATCHING_TASKS_ERROR_MESSAGE = "OOPSIE!! No tasks match your selection.";
+    private final TaskSelection selection;
 
     /**
      * Constructor for the {@code UnmarkCommand} class.
@@ -20,22 +21,43 @@ public class UnmarkCommand extends Command {
      * @param taskIndex Index corresponding to the task to be unmarked.
      */
     public UnmarkCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+        this(TaskSelection.ofIndex(taskIndex));
+    }
+
+    /**
+     * Constructor for the {@code UnmarkCommand} class for several tasks at once.
+     *
+     * @param selection The tasks to be unmarked.
+     */
+    public UnmarkCommand(TaskSelection selection) {
+        assert selection != null : "Selection of tasks cannot be null.";
+        this.selection = selection;
     }
 
     @Override
     public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
         assert ui != null : "ui instance cannot be null when executing command.";
-        int numOfTasks = taskList.getTasks().length;
+        int numOfTasks = taskList.size();
         if (numOfTasks == 0) {
             throw new ShagBotException(NO_TASKS_AT_THE_MOMENT_ERROR_MESSAGE);
         }
-        if (taskIndex < 0 || taskIndex >= numOfTasks) {
+        if (selection.getHighestIndex() >= numOfTasks) {
             throw new ShagBotException(TASK_NUMBER_OUT_OF_RANGE_MESSAGE + numOfTasks + ".");
         }
-        Task task = taskList.getTask(taskIndex);
-        task.unmark();
-        ui.printTaskUnmarked(task);
+        int[] taskIndexes = selection.resolve(taskList);
+        if (taskIndexes.length == 0) {
+            throw new ShagBotException(NO_MATCHING_TASKS_ERROR_MESSAGE);
+        }
+        if (selection.isSingleTask()) {
+            Task task = taskList.unmarkTask(taskIndexes[0]);
+            ui.printTaskUnmarked(task);
+            return true;
+        }
+        Task[] unmarkedTasks = new Task[taskIndexes.length];
+        for (int i = 0; i < taskIndexes.length; i++) {
+            unmarkedTasks[i] = taskList.unmarkTask(taskIndexes[i]);
+        }
+        ui.printTasksUnmarked(taskIndexes, unmarkedTasks);
         return true;
     }
 }
@@ -0,0 +1,39 @@
+package shagbot.commands;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+import shagbot.util.Workspace;
+import shagbot.util.Workspaces;
+
+/**
+ * This class represents a command to switch to another workspace, creating it if it does not exist.
+ */
+public class UseCommand extends Command {
+    private static final String INVALID_USE_ERROR_MESSAGE = "OOPSIE!! Please enter 'use' <workspace name>.";
+    private final String name;
+    private final Workspaces workspaces;
+
+    /**
+     * Constructor for the {@code UseCommand} class.
+     *
+     * @param name The name of the workspace to switch to.
+     * @param workspaces The workspaces to switch between.
+     */
+    public UseCommand(String name, Workspaces workspaces) {
+        assert name != null && workspaces != null : "Workspace name and workspaces must not be null.";
+        this.name = name;
+        this.workspaces = workspaces;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        if (name.isEmpty()) {
+            throw new ShagBotException(INVALID_USE_ERROR_MESSAGE);
+        }
+        Workspace workspace = workspaces.use(name);
+        ui.printWorkspaceUsed(workspace.getName(), workspace.getTaskList().size());
+        return true;
+    }
+}
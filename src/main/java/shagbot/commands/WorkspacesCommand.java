@@ -0,0 +1,30 @@
+package shagbot.commands;
+
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+import shagbot.util.Ui;
+import shagbot.util.Workspaces;
+
+/**
+ * This class represents a command to list the workspaces, showing which is in use and which are loaded.
+ */
+public class WorkspacesCommand extends Command {
+    private final Workspaces workspaces;
+
+    /**
+     * Constructor for the {@code WorkspacesCommand} class.
+     *
+     * @param workspaces The workspaces to list.
+     */
+    public WorkspacesCommand(Workspaces workspaces) {
+        assert workspaces != null : "Workspaces must not be null.";
+        this.workspaces = workspaces;
+    }
+
+    @Override
+    public boolean executeCommand(TaskList taskList, Ui ui) throws ShagBotException {
+        assert ui != null : "ui instance cannot be null when executing command.";
+        ui.printWorkspaces(workspaces);
+        return true;
+    }
+}
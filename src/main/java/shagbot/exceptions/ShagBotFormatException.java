@@ -0,0 +1,18 @@
+package shagbot.exceptions;
+
+/**
+ * This class handles exceptions pertaining to malformed tasks in files being imported.
+ */
+public class ShagBotFormatException extends Exception {
+
+    /**
+     * Constructor for the {@code ShagBotFormatException} class.
+     * This exception is thrown by the readers in {@link shagbot.formats} when a record in a file
+     * cannot be turned into a task, for example because a required field is missing or a date is invalid.
+     *
+     * @param message Error message displayed for exceptions, including where in the file the error is.
+     */
+    public ShagBotFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,136 @@
+package shagbot.formats;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.tasks.Task;
+
+/**
+ * Represents a reader of tasks from comma-separated values.
+ * <p>
+ * The first row must name the columns, which may be in any order; only {@code description} is required,
+ * and unknown columns are ignored. Quoted values may contain commas, doubled quotes and line breaks.
+ * Rows are read one character at a time, so only the current row is held in memory.
+ * </p>
+ */
+public class CsvTaskReader implements TaskReader {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final int END_OF_INPUT = -1;
+    private static final String MISSING_DESCRIPTION_COLUMN_MESSAGE =
+            "Line 1: the header row must name a 'description' column.";
+    private static final String UNCLOSED_QUOTE_MESSAGE = "Line %d: a quoted value is never closed.";
+    private final BufferedReader input;
+    private int[] columnOfField;
+    private int lineNumber = 1;
+    private int rowLineNumber;
+
+    /**
+     * Constructor for the {@code CsvTaskReader} class.
+     *
+     * @param input The input to read from.
+     */
+    public CsvTaskReader(BufferedReader input) {
+        this.input = input;
+    }
+
+    @Override
+    public Task read() throws IOException, ShagBotFormatException {
+        if (columnOfField == null) {
+            readHeader();
+        }
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+
+        String[] values = new String[TaskFields.ALL.length];
+        for (int i = 0; i < values.length; i++) {
+            int column = columnOfField[i];
+            values[i] = column >= 0 && column < row.size() && !row.get(column).isEmpty() ? row.get(column) : null;
+        }
+        return TaskFields.createTask(values, "Line " + rowLineNumber);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void readHeader() throws IOException, ShagBotFormatException {
+        List<String> header = readRow();
+        columnOfField = new int[TaskFields.ALL.length];
+        Arrays.fill(columnOfField, -1);
+        for (int column = 0; header != null && column < header.size(); column++) {
+            String name = header.get(column).trim().toLowerCase(Locale.ROOT);
+            int field = Arrays.asList(TaskFields.ALL).indexOf(name);
+            if (field >= 0) {
+                columnOfField[field] = column;
+            }
+        }
+        if (columnOfField[Arrays.asList(TaskFields.ALL).indexOf(TaskFields.DESCRIPTION)] < 0) {
+            throw new ShagBotFormatException(MISSING_DESCRIPTION_COLUMN_MESSAGE);
+        }
+    }
+
+    /**
+     * Reads the values of the next row, which may span several lines if a quoted value contains line breaks.
+     *
+     * @return The values of the row, or {@code null} at the end of the input.
+     */
+    private List<String> readRow() throws IOException, ShagBotFormatException {
+        int c = input.read();
+        if (c == END_OF_INPUT) {
+            return null;
+        }
+        rowLineNumber = lineNumber;
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean isQuoted = false;
+        while (true) {
+            if (isQuoted) {
+                if (c == END_OF_INPUT) {
+                    throw new ShagBotFormatException(String.format(UNCLOSED_QUOTE_MESSAGE, rowLineNumber));
+                } else if (c == QUOTE) {
+                    input.mark(1);
+                    if (input.read() == QUOTE) {
+                        value.append(QUOTE);
+                    } else {
+                        input.reset();
+                        isQuoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    value.append((char) c);
+                }
+            } else if (c == QUOTE) {
+                isQuoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n' || c == END_OF_INPUT) {
+                lineNumber++;
+                values.add(stripCarriageReturn(value));
+                return values;
+            } else {
+                value.append((char) c);
+            }
+            c = input.read();
+        }
+    }
+
+    private static String stripCarriageReturn(StringBuilder value) {
+        int length = value.length();
+        return length > 0 && value.charAt(length - 1) == '\r' ? value.substring(0, length - 1) : value.toString();
+    }
+}
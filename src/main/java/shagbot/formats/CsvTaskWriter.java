@@ -0,0 +1,56 @@
+package shagbot.formats;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import shagbot.tasks.Task;
+
+/**
+ * Represents a writer of tasks as comma-separated values, with a header row naming the columns.
+ * Values containing commas, quotes or line breaks are quoted as described in RFC 4180.
+ */
+public class CsvTaskWriter implements TaskWriter {
+    private static final String SEPARATOR = ",";
+    private static final String LINE_BREAK = "\r\n";
+    private static final String QUOTE = "\"";
+    private final Writer output;
+
+    /**
+     * Constructor for the {@code CsvTaskWriter} class, which writes the header row.
+     *
+     * @param output The output to write to.
+     * @throws IOException If an I/O error occurs while writing the header row.
+     */
+    public CsvTaskWriter(Writer output) throws IOException {
+        this.output = output;
+        writeRow(TaskFields.ALL);
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        writeRow(TaskFields.valuesOf(task));
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    private void writeRow(String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                output.write(SEPARATOR);
+            }
+            if (values[i] != null) {
+                output.write(quoteIfNeeded(values[i]));
+            }
+        }
+        output.write(LINE_BREAK);
+    }
+
+    private static String quoteIfNeeded(String value) {
+        boolean needsQuotes = value.contains(SEPARATOR) || value.contains(QUOTE) || value.contains("\n")
+                || value.contains("\r") || !value.equals(value.trim());
+        return needsQuotes ? QUOTE + value.replace(QUOTE, QUOTE + QUOTE) + QUOTE : value;
+    }
+}
@@ -0,0 +1,325 @@
+package shagbot.formats;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAmount;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.tasks.Deadline;
+import shagbot.tasks.Priority;
+import shagbot.tasks.Task;
+import shagbot.tasks.Todo;
+
+/**
+ * Represents a reader of tasks from an iCalendar ({@code .ics}) file.
+ * <p>
+ * Every {@code VTODO} becomes a deadline if it has a {@code DUE} date, or a todo otherwise, and is done if
+ * its status is {@code COMPLETED}. Every {@code VEVENT} becomes an event, ending at its {@code DTEND}, or after
+ * its {@code DURATION}. An event with a start time but neither of those takes no time, and becomes a deadline
+ * at its start instead. The {@code CATEGORIES} of either become its tags, and its {@code PRIORITY} becomes high
+ * from 1 to 4, medium at 5 and low from 6 to 9. Times in UTC or in a named time zone
+ * are converted to the local time zone, and all other components are skipped. Only the current component
+ * is held in memory.
+ * </p>
+ */
+public class IcsTaskReader implements TaskReader {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String UTC_SUFFIX = "Z";
+    private static final String TIME_ZONE_PARAMETER = "TZID=";
+    private static final String VTODO = "VTODO";
+    private static final String VEVENT = "VEVENT";
+    private static final String MISSING_PROPERTY_MESSAGE = "%s: every %s needs a %s.";
+    private static final String INVALID_DATE_MESSAGE = "%s: '%s' is not a valid iCalendar date.";
+    private static final String INVALID_PRIORITY_MESSAGE = "%s: '%s' is not a priority from 0 to 9.";
+    private static final String INVALID_DURATION_MESSAGE = "%s: '%s' is not a valid iCalendar duration.";
+    private static final String UNCLOSED_COMPONENT_MESSAGE = "%s: the %s is never ended.";
+    private final BufferedReader input;
+    private String nextLine;
+    private int lineNumber = 0;
+    private int nextLineNumber = 0;
+
+    /**
+     * Represents a property of a component, such as {@code DTSTART;TZID=Asia/Singapore:20251201T090000}.
+     */
+    private static class Property {
+        private final String parameters;
+        private final String value;
+
+        private Property(String parameters, String value) {
+            this.parameters = parameters;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Constructor for the {@code IcsTaskReader} class.
+     *
+     * @param input The input to read from.
+     */
+    public IcsTaskReader(BufferedReader input) {
+        this.input = input;
+    }
+
+    @Override
+    public Task read() throws IOException, ShagBotFormatException {
+        String line;
+        while ((line = readContentLine()) != null) {
+            String upperCaseLine = line.toUpperCase(Locale.ROOT);
+            if (upperCaseLine.equals("BEGIN:" + VTODO) || upperCaseLine.equals("BEGIN:" + VEVENT)) {
+                String component = upperCaseLine.substring("BEGIN:".length());
+                String location = "Line " + lineNumber;
+                return createTask(component, readProperties(component, location), location);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Reads the properties of a component up to its end, skipping any components nested in it.
+     */
+    private Map<String, Property> readProperties(String component, String location)
+            throws IOException, ShagBotFormatException {
+        Map<String, Property> properties = new HashMap<>();
+        int nestingDepth = 0;
+        String line;
+        while ((line = readContentLine()) != null) {
+            int valueStart = findValueStart(line);
+            String nameAndParameters = line.substring(0, Math.max(valueStart - 1, 0));
+            String name = nameAndParameters.split(";", 2)[0].toUpperCase(Locale.ROOT);
+            String value = valueStart > 0 ? line.substring(valueStart) : "";
+            if (name.equals("BEGIN")) {
+                nestingDepth++;
+            } else if (name.equals("END") && nestingDepth > 0) {
+                nestingDepth--;
+            } else if (name.equals("END") && value.equalsIgnoreCase(component)) {
+                return properties;
+            } else if (nestingDepth == 0) {
+                String parameters = nameAndParameters.substring(name.length());
+                properties.putIfAbsent(name, new Property(parameters, value));
+            }
+        }
+        throw new ShagBotFormatException(String.format(UNCLOSED_COMPONENT_MESSAGE, location, component));
+    }
+
+    private Task createTask(String component, Map<String, Property> properties, String location)
+            throws ShagBotFormatException {
+        Task task = createUntaggedTask(component, properties, location);
+        Property categories = properties.get("CATEGORIES");
+        if (categories != null) {
+            task.setTags(TaskFields.parseTags(unescapeText(categories.value), location));
+        }
+        Property priority = properties.get("PRIORITY");
+        if (priority != null) {
+            task.setPriority(parsePriority(priority.value, location));
+        }
+        return task;
+    }
+
+    private Task createUntaggedTask(String component, Map<String, Property> properties, String location)
+            throws ShagBotFormatException {
+        Property summary = properties.get("SUMMARY");
+        String description = TaskFields.normaliseDescription(summary == null ? null : unescapeText(summary.value));
+        if (description == null) {
+            throw new ShagBotFormatException(String.format(MISSING_PROPERTY_MESSAGE, location, component, "SUMMARY"));
+        }
+
+        if (component.equals(VEVENT)) {
+            Property start = properties.get("DTSTART");
+            if (start == null) {
+                throw new ShagBotFormatException(String.format(MISSING_PROPERTY_MESSAGE, location, component,
+                        "DTSTART"));
+            }
+            LocalDateTime startTime = parseDateTime(start, location);
+            LocalDateTime endTime = findEnd(start, startTime, properties, location);
+            Task event = endTime == null
+                    ? new Deadline(description, startTime)
+                    : TaskFields.createEvent(description, startTime, endTime, location);
+            Property done = properties.get(IcsTaskWriter.DONE_EVENT_PROPERTY);
+            if (done != null && done.value.equalsIgnoreCase("TRUE")) {
+                event.mark();
+            }
+            return event;
+        }
+
+        Property due = properties.get("DUE");
+        Task task = due == null ? new Todo(description) : new Deadline(description, parseDateTime(due, location));
+        Property status = properties.get("STATUS");
+        if (status != null && status.value.equalsIgnoreCase("COMPLETED") || properties.containsKey("COMPLETED")) {
+            task.mark();
+        }
+        return task;
+    }
+
+    /**
+     * Finds when an event ends, from its {@code DTEND} or {@code DURATION}. An event on a date without a time
+     * lasts the whole day.
+     *
+     * @return The end of the event, or {@code null} if it has a start time but no end.
+     */
+    private LocalDateTime findEnd(Property start, LocalDateTime startTime, Map<String, Property> properties,
+            String location) throws ShagBotFormatException {
+        Property end = properties.get("DTEND");
+        if (end != null) {
+            return parseDateTime(end, location);
+        }
+        Property duration = properties.get("DURATION");
+        if (duration != null) {
+            return startTime.plus(parseDuration(duration.value, location));
+        }
+        return isDateOnly(start.value) ? startTime.plusDays(1) : null;
+    }
+
+    private LocalDateTime parseDateTime(Property property, String location) throws ShagBotFormatException {
+        String value = property.value.trim();
+        try {
+            if (isDateOnly(value)) {
+                return LocalDate.parse(value, DATE_FORMAT).atStartOfDay();
+            }
+            if (value.endsWith(UTC_SUFFIX)) {
+                LocalDateTime utcTime = LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME_FORMAT);
+                return TaskFields.toMinutes(toLocalTime(utcTime, ZoneOffset.UTC));
+            }
+            LocalDateTime dateTime = LocalDateTime.parse(value, DATE_TIME_FORMAT);
+            ZoneId timeZone = findTimeZone(property.parameters);
+            return TaskFields.toMinutes(timeZone == null ? dateTime : toLocalTime(dateTime, timeZone));
+        } catch (DateTimeParseException e) {
+            throw new ShagBotFormatException(String.format(INVALID_DATE_MESSAGE, location, value));
+        }
+    }
+
+    /**
+     * Parses an iCalendar priority, where 0 means none and 1 is the highest.
+     */
+    private static Priority parsePriority(String value, String location) throws ShagBotFormatException {
+        int priority;
+        try {
+            priority = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ShagBotFormatException(String.format(INVALID_PRIORITY_MESSAGE, location, value));
+        }
+        if (priority < 0 || priority > IcsTaskWriter.LOW_PRIORITY) {
+            throw new ShagBotFormatException(String.format(INVALID_PRIORITY_MESSAGE, location, value));
+        } else if (priority == 0) {
+            return Priority.NONE;
+        } else if (priority < IcsTaskWriter.MEDIUM_PRIORITY) {
+            return Priority.HIGH;
+        }
+        return priority == IcsTaskWriter.MEDIUM_PRIORITY ? Priority.MEDIUM : Priority.LOW;
+    }
+
+    /**
+     * Parses an iCalendar duration such as {@code PT1H30M}, {@code P1D} or {@code P2W}.
+     */
+    private static TemporalAmount parseDuration(String value, String location)
+            throws ShagBotFormatException {
+        String duration = value.trim().toUpperCase(Locale.ROOT);
+        try {
+            if (duration.endsWith("W")) {
+                return Period.ofWeeks(Integer.parseInt(duration.substring(1, duration.length() - 1)));
+            }
+            return Duration.parse(duration);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new ShagBotFormatException(String.format(INVALID_DURATION_MESSAGE, location, value));
+        }
+    }
+
+    /**
+     * Finds the time zone named by a {@code TZID} parameter, if it is one Java knows.
+     */
+    private static ZoneId findTimeZone(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            if (parameter.toUpperCase(Locale.ROOT).startsWith(TIME_ZONE_PARAMETER)) {
+                try {
+                    return ZoneId.of(parameter.substring(TIME_ZONE_PARAMETER.length()).replace("\"", ""));
+                } catch (DateTimeException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime toLocalTime(LocalDateTime dateTime, ZoneId timeZone) {
+        return dateTime.atZone(timeZone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static boolean isDateOnly(String value) {
+        return value.trim().matches("\\d{8}");
+    }
+
+    /**
+     * Finds where the value of a content line starts: after the first colon that is not inside
+     * a quoted parameter value.
+     *
+     * @return The index of the first character of the value, or 0 if the line has no value.
+     */
+    private static int findValueStart(String line) {
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+            } else if (c == ':' && !isQuoted) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static String unescapeText(String text) {
+        StringBuilder unescaped = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char escaped = text.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Reads the next content line, joining any folded continuation lines onto it.
+     *
+     * @return The unfolded line, or {@code null} at the end of the input.
+     */
+    private String readContentLine() throws IOException {
+        if (nextLine == null) {
+            nextLine = input.readLine();
+            nextLineNumber++;
+        }
+        if (nextLine == null) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder(nextLine);
+        lineNumber = nextLineNumber;
+        while (true) {
+            nextLine = input.readLine();
+            nextLineNumber++;
+            if (nextLine == null || nextLine.isEmpty() || (nextLine.charAt(0) != ' ' && nextLine.charAt(0) != '\t')) {
+                return line.toString();
+            }
+            line.append(nextLine, 1, nextLine.length());
+        }
+    }
+}
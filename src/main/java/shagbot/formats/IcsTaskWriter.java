@@ -0,0 +1,124 @@
+package shagbot.formats;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import shagbot.tasks.Deadline;
+import shagbot.tasks.Event;
+import shagbot.tasks.Priority;
+import shagbot.tasks.Task;
+
+/**
+ * Represents a writer of tasks as an iCalendar ({@code .ics}) file, as described in RFC 5545.
+ * <p>
+ * Todos become {@code VTODO}s without a due date, deadlines become {@code VTODO}s with a {@code DUE} date,
+ * and events become {@code VEVENT}s, with their tags as {@code CATEGORIES} and their priority as a {@code PRIORITY}
+ * of 1 for high, 5 for medium or 9 for low. Dates are written as local times without a time zone, as they are
+ * entered in Shagbot, and lines longer than 75 bytes are folded.
+ * </p>
+ */
+public class IcsTaskWriter implements TaskWriter {
+    static final String DONE_EVENT_PROPERTY = "X-SHAGBOT-DONE";
+    static final int HIGH_PRIORITY = 1;
+    static final int MEDIUM_PRIORITY = 5;
+    static final int LOW_PRIORITY = 9;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String LINE_BREAK = "\r\n";
+    private static final int MAX_LINE_BYTES = 75;
+    private final Writer output;
+    private final String timestamp;
+
+    /**
+     * Constructor for the {@code IcsTaskWriter} class, which writes the start of the calendar.
+     *
+     * @param output The output to write to.
+     * @throws IOException If an I/O error occurs while writing the start of the calendar.
+     */
+    public IcsTaskWriter(Writer output) throws IOException {
+        this.output = output;
+        this.timestamp = LocalDateTime.now(ZoneOffset.UTC).format(DATE_TIME_FORMAT) + "Z";
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:-//Shagbot//Shagbot Tasks//EN");
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        String component = task instanceof Event ? "VEVENT" : "VTODO";
+        writeLine("BEGIN:" + component);
+        writeLine("UID:" + (task.getId() > 0 ? "task-" + task.getId() + "@shagbot" : UUID.randomUUID()));
+        writeLine("DTSTAMP:" + timestamp);
+        writeLine("SUMMARY:" + escapeText(task.getDescription()));
+        String tags = TaskFields.formatTags(task);
+        if (tags != null) {
+            // Tags never contain characters that need escaping, and the commas separate the categories
+            writeLine("CATEGORIES:" + tags);
+        }
+        if (task.getPriority() != Priority.NONE) {
+            writeLine("PRIORITY:" + toIcsPriority(task.getPriority()));
+        }
+        if (task instanceof Event event) {
+            writeLine("DTSTART:" + event.getStart().format(DATE_TIME_FORMAT));
+            writeLine("DTEND:" + event.getEnd().format(DATE_TIME_FORMAT));
+            if (event.isDone()) {
+                writeLine(DONE_EVENT_PROPERTY + ":TRUE");
+            }
+        } else {
+            if (task instanceof Deadline deadline) {
+                writeLine("DUE:" + deadline.getByTiming().format(DATE_TIME_FORMAT));
+            }
+            writeLine("STATUS:" + (task.isDone() ? "COMPLETED" : "NEEDS-ACTION"));
+        }
+        writeLine("END:" + component);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeLine("END:VCALENDAR");
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Writes a content line, folding it onto continuation lines starting with a space
+     * so that no line is longer than 75 bytes. Characters are never split across lines.
+     */
+    private void writeLine(String line) throws IOException {
+        int lineBytes = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int charCount = Character.charCount(codePoint);
+            int codePointBytes = line.substring(i, i + charCount).getBytes(StandardCharsets.UTF_8).length;
+            if (lineBytes + codePointBytes > MAX_LINE_BYTES) {
+                output.write(LINE_BREAK + " ");
+                lineBytes = 1;
+            }
+            output.write(line, i, charCount);
+            lineBytes += codePointBytes;
+            i += charCount;
+        }
+        output.write(LINE_BREAK);
+    }
+
+    private static int toIcsPriority(Priority priority) {
+        switch (priority) {
+        case HIGH:
+            return HIGH_PRIORITY;
+        case MEDIUM:
+            return MEDIUM_PRIORITY;
+        default:
+            return LOW_PRIORITY;
+        }
+    }
+
+    private static String escapeText(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+}
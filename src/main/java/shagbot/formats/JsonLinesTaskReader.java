@@ -0,0 +1,183 @@
+package shagbot.formats;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.tasks.Task;
+
+/**
+ * Represents a reader of tasks from JSON Lines, with one flat JSON object per line.
+ * <p>
+ * Each object holds the fields of one task as strings, except {@code done}, which may also be a boolean.
+ * Unknown fields are ignored, and blank lines are skipped. Only the current line is held in memory.
+ * </p>
+ */
+public class JsonLinesTaskReader implements TaskReader {
+    private static final List<String> FIELDS = Arrays.asList(TaskFields.ALL);
+    private static final String INVALID_JSON_MESSAGE = "Line %d: %s at column %d.";
+    private final BufferedReader input;
+    private int lineNumber = 0;
+    private String line;
+    private int position;
+
+    /**
+     * Constructor for the {@code JsonLinesTaskReader} class.
+     *
+     * @param input The input to read from.
+     */
+    public JsonLinesTaskReader(BufferedReader input) {
+        this.input = input;
+    }
+
+    @Override
+    public Task read() throws IOException, ShagBotFormatException {
+        do {
+            line = input.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        position = 0;
+        return TaskFields.createTask(parseObject(), "Line " + lineNumber);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Parses the line as a flat JSON object, keeping the values of the known task fields.
+     */
+    private String[] parseObject() throws ShagBotFormatException {
+        String[] values = new String[TaskFields.ALL.length];
+        expect('{');
+        if (peek() == '}') {
+            position++;
+        } else {
+            do {
+                String name = parseString();
+                expect(':');
+                String value = parseValue();
+                int field = FIELDS.indexOf(name);
+                if (field >= 0) {
+                    values[field] = value;
+                }
+            } while (consumeIf(','));
+            expect('}');
+        }
+        if (peek() != 0) {
+            throw error("unexpected text after the object");
+        }
+        return values;
+    }
+
+    /**
+     * Parses a string, boolean, number or null value, returning booleans and numbers as their text.
+     */
+    private String parseValue() throws ShagBotFormatException {
+        char c = peek();
+        if (c == '"') {
+            return parseString();
+        } else if (c == '{' || c == '[') {
+            throw error("nested objects and arrays are not supported");
+        }
+        int start = position;
+        while (position < line.length() && ",}] \t".indexOf(line.charAt(position)) < 0) {
+            position++;
+        }
+        String literal = line.substring(start, position);
+        if (literal.equals("null")) {
+            return null;
+        } else if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?")) {
+            return literal;
+        }
+        throw error("invalid value '" + literal + "'");
+    }
+
+    private String parseString() throws ShagBotFormatException {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (position < line.length()) {
+            char c = line.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            } else if (c != '\\') {
+                value.append(c);
+            } else if (position < line.length()) {
+                char escaped = line.charAt(position++);
+                switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    value.append(parseUnicodeEscape());
+                    break;
+                default:
+                    value.append(escaped);
+                    break;
+                }
+            }
+        }
+        throw error("a string is never closed");
+    }
+
+    private char parseUnicodeEscape() throws ShagBotFormatException {
+        if (position + 4 > line.length()) {
+            throw error("invalid unicode escape");
+        }
+        try {
+            char c = (char) Integer.parseInt(line.substring(position, position + 4), 16);
+            position += 4;
+            return c;
+        } catch (NumberFormatException e) {
+            throw error("invalid unicode escape");
+        }
+    }
+
+    /**
+     * Skips whitespace and retrieves the next character without consuming it.
+     *
+     * @return The next character, or 0 at the end of the line.
+     */
+    private char peek() {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position < line.length() ? line.charAt(position) : 0;
+    }
+
+    private boolean consumeIf(char expected) {
+        if (peek() == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) throws ShagBotFormatException {
+        if (!consumeIf(expected)) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private ShagBotFormatException error(String problem) {
+        return new ShagBotFormatException(String.format(INVALID_JSON_MESSAGE, lineNumber, problem, position + 1));
+    }
+}
@@ -0,0 +1,123 @@
+package shagbot.formats;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import shagbot.tasks.Task;
+
+/**
+ * Represents a writer of tasks as JSON Lines: one JSON object per line, such as
+ * {@code {"type":"deadline","done":false,"description":"Return book","due":"2025-12-01T18:00"}}.
+ */
+public class JsonLinesTaskWriter implements TaskWriter {
+    private static final String ID = "id";
+    private final Writer output;
+    private final boolean isIdWritten;
+
+    /**
+     * Constructor for the {@code JsonLinesTaskWriter} class.
+     *
+     * @param output The output to write to.
+     */
+    public JsonLinesTaskWriter(Writer output) {
+        this(output, false);
+    }
+
+    /**
+     * Constructor for the {@code JsonLinesTaskWriter} class, optionally writing the ID of each task
+     * as an {@code id} field before its other fields. Exported files leave it out, as imported tasks
+     * are given new IDs.
+     *
+     * @param output The output to write to.
+     * @param isIdWritten Whether to write the ID of each task.
+     */
+    public JsonLinesTaskWriter(Writer output, boolean isIdWritten) {
+        this.output = output;
+        this.isIdWritten = isIdWritten;
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        writeObject(task);
+        output.write('\n');
+    }
+
+    /**
+     * Writes a task as a JSON object, without the line break that ends it in JSON Lines,
+     * so that it can also be written as part of a larger JSON document.
+     *
+     * @param task The task to write.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void writeObject(Task task) throws IOException {
+        String[] values = TaskFields.valuesOf(task);
+        output.write('{');
+        boolean isFirstField = true;
+        if (isIdWritten) {
+            writeString(ID);
+            output.write(':');
+            output.write(String.valueOf(task.getId()));
+            isFirstField = false;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            if (!isFirstField) {
+                output.write(',');
+            }
+            isFirstField = false;
+            writeString(TaskFields.ALL[i]);
+            output.write(':');
+            if (TaskFields.ALL[i].equals(TaskFields.DONE)) {
+                output.write(values[i]);
+            } else {
+                writeString(values[i]);
+            }
+        }
+        output.write('}');
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    /**
+     * Writes a string as a JSON string, in quotes and with special characters escaped.
+     *
+     * @param value The string to write.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void writeString(String value) throws IOException {
+        output.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                output.write("\\\"");
+                break;
+            case '\\':
+                output.write("\\\\");
+                break;
+            case '\n':
+                output.write("\\n");
+                break;
+            case '\r':
+                output.write("\\r");
+                break;
+            case '\t':
+                output.write("\\t");
+                break;
+            default:
+                if (c < ' ') {
+                    output.write(String.format("\\u%04x", (int) c));
+                } else {
+                    output.write(c);
+                }
+                break;
+            }
+        }
+        output.write('"');
+    }
+}
@@ -0,0 +1,222 @@
+package shagbot.formats;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import shagbot.exceptions.ShagBotDateException;
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.tasks.Deadline;
+import shagbot.tasks.Event;
+import shagbot.tasks.Priority;
+import shagbot.tasks.Task;
+import shagbot.tasks.Todo;
+
+/**
+ * Holds the fields shared by the record-based formats, CSV and JSON Lines, and turns them into tasks.
+ * <p>
+ * Every task is written as its type ({@code todo}, {@code deadline} or {@code event}), whether it is done,
+ * its description, its {@code due} date or {@code start} and {@code end} dates in ISO-8601 format,
+ * such as {@code 2025-12-01T18:00}, its {@code tags}, separated by commas, such as {@code ops,urgent},
+ * and its {@code priority}: {@code low}, {@code medium} or {@code high}.
+ * </p>
+ */
+final class TaskFields {
+    static final String TYPE = "type";
+    static final String DONE = "done";
+    static final String DESCRIPTION = "description";
+    static final String DUE = "due";
+    static final String START = "start";
+    static final String END = "end";
+    static final String TAGS = "tags";
+    static final String PRIORITY = "priority";
+    static final String[] ALL = {TYPE, DONE, DESCRIPTION, DUE, START, END, TAGS, PRIORITY};
+
+    private static final String TODO_TYPE = "todo";
+    private static final String DEADLINE_TYPE = "deadline";
+    private static final String EVENT_TYPE = "event";
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final String MISSING_FIELD_MESSAGE = "%s: every %s needs a '%s'.";
+    private static final String UNKNOWN_TYPE_MESSAGE = "%s: unknown task type '%s', expected todo, deadline or event.";
+    private static final String INVALID_DONE_MESSAGE = "%s: 'done' must be true or false, not '%s'.";
+    private static final String INVALID_DATE_MESSAGE = "%s: '%s' is not a date and time like 2025-12-01T18:00.";
+    private static final String INVALID_TAG_MESSAGE =
+            "%s: '%s' is not a valid tag, which is made of letters, digits, '_' and '-'.";
+    private static final String INVALID_PRIORITY_MESSAGE =
+            "%s: '%s' is not a priority, expected none, low, medium or high.";
+    private static final String TAG_SEPARATOR = ",";
+    private static final String TAG_SEPARATOR_REGEX = "[,\\s]+";
+    private static final String TAG_MARKER = "#";
+    private static final String LINE_BREAK_REGEX = "\\s*[\\r\\n]+\\s*";
+
+    private TaskFields() {
+    }
+
+    /**
+     * Retrieves the values of every field of the task, in the order of {@link #ALL}.
+     * Fields that do not apply to the type of task are {@code null}.
+     *
+     * @param task The task.
+     * @return The values of the fields.
+     */
+    static String[] valuesOf(Task task) {
+        String[] values = new String[ALL.length];
+        values[1] = String.valueOf(task.isDone());
+        values[2] = task.getDescription();
+        if (task instanceof Deadline deadline) {
+            values[0] = DEADLINE_TYPE;
+            values[3] = deadline.getByTiming().format(DATE_TIME_FORMAT);
+        } else if (task instanceof Event event) {
+            values[0] = EVENT_TYPE;
+            values[4] = event.getStart().format(DATE_TIME_FORMAT);
+            values[5] = event.getEnd().format(DATE_TIME_FORMAT);
+        } else {
+            values[0] = TODO_TYPE;
+        }
+        values[6] = formatTags(task);
+        values[7] = task.getPriority() == Priority.NONE ? null : task.getPriority().toString();
+        return values;
+    }
+
+    /**
+     * Creates a task from the values of its fields, in the order of {@link #ALL}.
+     * Missing or empty values are {@code null}.
+     *
+     * @param values The values of the fields.
+     * @param location Where the record is in the file, such as {@code Line 3}, used in error messages.
+     * @return The task, without an ID.
+     * @throws ShagBotFormatException If a required field is missing or a value is invalid.
+     */
+    static Task createTask(String[] values, String location) throws ShagBotFormatException {
+        String type = values[0] == null ? TODO_TYPE : values[0].trim().toLowerCase(Locale.ROOT);
+        String description = normaliseDescription(values[2]);
+        if (description == null) {
+            throw new ShagBotFormatException(String.format(MISSING_FIELD_MESSAGE, location, type, DESCRIPTION));
+        }
+        Task task;
+        switch (type) {
+        case TODO_TYPE:
+            task = new Todo(description);
+            break;
+        case DEADLINE_TYPE:
+            task = new Deadline(description, parseDateTime(require(values[3], DUE, type, location), location));
+            break;
+        case EVENT_TYPE:
+            task = createEvent(description, parseDateTime(require(values[4], START, type, location), location),
+                    parseDateTime(require(values[5], END, type, location), location), location);
+            break;
+        default:
+            throw new ShagBotFormatException(String.format(UNKNOWN_TYPE_MESSAGE, location, values[0]));
+        }
+        if (parseDone(values[1], location)) {
+            task.mark();
+        }
+        if (values[6] != null) {
+            task.setTags(parseTags(values[6], location));
+        }
+        if (values[7] != null && !values[7].isBlank()) {
+            task.setPriority(parsePriority(values[7], location));
+        }
+        return task;
+    }
+
+    /**
+     * Creates an event, checking that it starts before it ends.
+     *
+     * @throws ShagBotFormatException If the event does not start before it ends.
+     */
+    static Event createEvent(String description, LocalDateTime start, LocalDateTime end, String location)
+            throws ShagBotFormatException {
+        Event event = new Event(description, start, end);
+        try {
+            event.validateDate();
+        } catch (ShagBotDateException e) {
+            throw new ShagBotFormatException(location + ": " + e.getMessage());
+        }
+        return event;
+    }
+
+    /**
+     * Joins the tags of a task with commas, as they are written in every format.
+     *
+     * @return The tags, or {@code null} if the task has none.
+     */
+    static String formatTags(Task task) {
+        return task.getTags().isEmpty() ? null : String.join(TAG_SEPARATOR, task.getTags());
+    }
+
+    /**
+     * Parses tags separated by commas or whitespace, each with or without a leading {@code #}.
+     *
+     * @throws ShagBotFormatException If a tag has characters a tag cannot have.
+     */
+    static List<String> parseTags(String value, String location) throws ShagBotFormatException {
+        List<String> tags = new ArrayList<>();
+        for (String tag : value.trim().split(TAG_SEPARATOR_REGEX)) {
+            String normalisedTag = (tag.startsWith(TAG_MARKER) ? tag.substring(1) : tag).toLowerCase(Locale.ROOT);
+            if (tag.isEmpty()) {
+                continue;
+            } else if (!Task.isValidTag(normalisedTag)) {
+                throw new ShagBotFormatException(String.format(INVALID_TAG_MESSAGE, location, tag));
+            }
+            tags.add(normalisedTag);
+        }
+        return tags;
+    }
+
+    /**
+     * Turns a description from a file into a single line, as descriptions typed into Shagbot are.
+     *
+     * @return The description, or {@code null} if it is missing or blank.
+     */
+    static String normaliseDescription(String description) {
+        if (description == null || description.isBlank()) {
+            return null;
+        }
+        return description.trim().replaceAll(LINE_BREAK_REGEX, " ");
+    }
+
+    /**
+     * Drops the seconds of a date and time, since tasks are scheduled to the minute.
+     */
+    static LocalDateTime toMinutes(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private static String require(String value, String field, String type, String location)
+            throws ShagBotFormatException {
+        if (value == null || value.isBlank()) {
+            throw new ShagBotFormatException(String.format(MISSING_FIELD_MESSAGE, location, type, field));
+        }
+        return value.trim();
+    }
+
+    private static LocalDateTime parseDateTime(String value, String location) throws ShagBotFormatException {
+        try {
+            return toMinutes(LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        } catch (DateTimeParseException e) {
+            throw new ShagBotFormatException(String.format(INVALID_DATE_MESSAGE, location, value));
+        }
+    }
+
+    private static boolean parseDone(String value, String location) throws ShagBotFormatException {
+        if (value == null || value.isBlank() || value.trim().equalsIgnoreCase("false")) {
+            return false;
+        } else if (value.trim().equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new ShagBotFormatException(String.format(INVALID_DONE_MESSAGE, location, value));
+    }
+
+    private static Priority parsePriority(String value, String location) throws ShagBotFormatException {
+        Priority priority = Priority.fromName(value);
+        if (priority == null) {
+            throw new ShagBotFormatException(String.format(INVALID_PRIORITY_MESSAGE, location, value));
+        }
+        return priority;
+    }
+}
@@ -0,0 +1,72 @@
+package shagbot.formats;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Represents the file formats that tasks can be exported to and imported from.
+ */
+public enum TaskFormat {
+    CSV(".csv"),
+    JSON_LINES(".jsonl"),
+    ICALENDAR(".ics");
+
+    private final String fileExtension;
+
+    TaskFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Finds the format of a file from the extension of its name.
+     *
+     * @param fileName The name of the file.
+     * @return The format of the file, or {@code null} if the extension is not supported.
+     */
+    public static TaskFormat fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        for (TaskFormat format : values()) {
+            if (lowerCaseName.endsWith(format.fileExtension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a writer that writes tasks in this format.
+     *
+     * @param output The output to write to, which is closed when the writer is closed.
+     * @return The task writer.
+     * @throws IOException If an I/O error occurs while writing the start of the file.
+     */
+    public TaskWriter createWriter(Writer output) throws IOException {
+        switch (this) {
+        case CSV:
+            return new CsvTaskWriter(output);
+        case JSON_LINES:
+            return new JsonLinesTaskWriter(output);
+        default:
+            return new IcsTaskWriter(output);
+        }
+    }
+
+    /**
+     * Creates a reader that reads tasks in this format.
+     *
+     * @param input The input to read from, which is closed when the reader is closed.
+     * @return The task reader.
+     */
+    public TaskReader createReader(BufferedReader input) {
+        switch (this) {
+        case CSV:
+            return new CsvTaskReader(input);
+        case JSON_LINES:
+            return new JsonLinesTaskReader(input);
+        default:
+            return new IcsTaskReader(input);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package shagbot.formats;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.tasks.Task;
+
+/**
+ * Represents a reader that streams tasks from a file in some format, one task at a time,
+ * so that files of any size can be read in constant memory.
+ */
+public interface TaskReader extends Closeable {
+
+    /**
+     * Reads the next task from the input.
+     *
+     * @return The next task, without an ID, or {@code null} if there are no more tasks.
+     * @throws IOException If an I/O error occurs while reading.
+     * @throws ShagBotFormatException If the next record cannot be turned into a task.
+     */
+    Task read() throws IOException, ShagBotFormatException;
+}
@@ -0,0 +1,21 @@
+package shagbot.formats;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import shagbot.tasks.Task;
+
+/**
+ * Represents a writer that streams tasks to a file in some format, one task at a time.
+ * Closing the writer completes the file and closes the underlying output.
+ */
+public interface TaskWriter extends Closeable {
+
+    /**
+     * Writes a task to the output.
+     *
+     * @param task The task to write.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void write(Task task) throws IOException;
+}
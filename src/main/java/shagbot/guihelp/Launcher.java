@@ -1,13 +1,42 @@
 package shagbot.guihelp;
 
+import java.io.IOException;
+
 import javafx.application.Application;
+import shagbot.Shagbot;
+import shagbot.server.HttpApiServer;
+import shagbot.server.PipelineServer;
 
 /**
  * A launcher class to workaround classpath issues.
+ * Running it with {@code --serve [port]} or {@code --http [port]} starts Shagbot as a local server
+ * instead of opening the GUI.
  */
 public class Launcher {
-    public static void main(String[] args) {
+    private static final String SERVE_OPTION = "--serve";
+    private static final String HTTP_OPTION = "--http";
+    private static final int DEFAULT_PORT = 4567;
+    private static final int DEFAULT_HTTP_PORT = 4568;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(SERVE_OPTION)) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+            Shagbot shagbot = new Shagbot("shagbot");
+            shagbot.watchTaskFiles();
+            PipelineServer server = new PipelineServer(shagbot, port);
+            System.out.println("Shagbot is listening on localhost:" + server.getPort());
+            server.serve();
+            return;
+        }
+        if (args.length > 0 && args[0].equals(HTTP_OPTION)) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HTTP_PORT;
+            Shagbot shagbot = new Shagbot("shagbot");
+            shagbot.watchTaskFiles();
+            HttpApiServer server = new HttpApiServer(shagbot, port);
+            server.start();
+            System.out.println("Shagbot is serving http://localhost:" + server.getPort() + "/tasks");
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
-
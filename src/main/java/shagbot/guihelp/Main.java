@@ -26,6 +26,7 @@ public class Main extends Application {
             stage.setMinHeight(400);
             stage.setMinWidth(700);
             stage.setTitle("Shagbot");
+            shagbot.watchTaskFiles(); // merge changes saved by other programs as they happen
             fxmlLoader.<MainWindow>getController().setShagbot(shagbot); // inject the Shagbot instance
             stage.show();
         } catch (IOException e) {
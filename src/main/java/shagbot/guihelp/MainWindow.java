@@ -1,8 +1,20 @@
 package shagbot.guihelp;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
@@ -11,6 +23,9 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import shagbot.Shagbot;
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.Agenda;
+import shagbot.tasks.Task;
 
 /**
  * Controller for the main GUI.
@@ -18,6 +33,10 @@ import shagbot.Shagbot;
 public class MainWindow extends AnchorPane {
 
     private static final int MAX_MESSAGES_IN_DIALOGUE = 7;
+    private static final String AGENDA_DAYS_PROPERTY = "shagbot.agendaDays";
+    private static final int DEFAULT_AGENDA_DAYS = 7;
+    private static final long DAY_CHECK_INTERVAL_NANOS = 1_000_000_000L;
+    private static final DateTimeFormatter AGENDA_DAY_FORMAT = DateTimeFormatter.ofPattern("EEE, MMM dd");
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -26,8 +45,20 @@ public class MainWindow extends AnchorPane {
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private VBox agendaContainer;
 
     private Shagbot shagbot;
+    private final Agenda agenda = new Agenda(Math.max(1, Integer.getInteger(AGENDA_DAYS_PROPERTY,
+            DEFAULT_AGENDA_DAYS)));
+    private final ExecutorService agendaReader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "agenda-reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean isAgendaReadPending = new AtomicBoolean();
+    private long shownAgendaVersion = -1;
+    private long lastDayCheckNanos;
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/users.png"));
     private Image shagBotImage = new Image(this.getClass().getResourceAsStream("/images/shagbots.png"));
 
@@ -46,10 +77,79 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Injects the Shagbot instance
+     * Injects the Shagbot instance, and starts showing its agenda.
      */
     protected void setShagbot(Shagbot s) {
         shagbot = s;
+        showAgenda();
+        // The agenda is redrawn at most once per frame, however many tasks changed since the last frame.
+        // The tasks are only read off the FX thread, so a long command never holds up a frame.
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (now - lastDayCheckNanos >= DAY_CHECK_INTERVAL_NANOS) {
+                    lastDayCheckNanos = now;
+                    showAgenda();
+                }
+                long version = agenda.getVersion();
+                if (version != shownAgendaVersion) {
+                    shownAgendaVersion = version;
+                    renderAgenda();
+                }
+            }
+        }.start();
+    }
+
+    /**
+     * Shows the agenda of the workspace in use from today, reading the tasks on the agenda reader thread
+     * so the FX thread never waits for a command that holds the tasks. This only reads every task again if
+     * the workspace or the day has changed, since the agenda otherwise follows the changes to the tasks.
+     */
+    private void showAgenda() {
+        if (!isAgendaReadPending.compareAndSet(false, true)) {
+            return;
+        }
+        agendaReader.execute(() -> {
+            isAgendaReadPending.set(false);
+            try {
+                shagbot.readTasks(taskList -> {
+                    agenda.show(taskList, LocalDate.now());
+                    return null;
+                });
+            } catch (ShagBotException e) {
+                // Showing the agenda never fails
+            }
+        });
+    }
+
+    /**
+     * Replaces the agenda pane with the tasks currently in the agenda, under a heading for each day.
+     */
+    private void renderAgenda() {
+        List<Node> nodes = new ArrayList<>();
+        Label title = new Label("Coming up in the next " + agenda.getDayCount() + " days");
+        title.getStyleClass().add("agenda-title");
+        nodes.add(title);
+        Map<LocalDate, List<Task>> tasksByDay = agenda.getTasksByDay();
+        if (tasksByDay.isEmpty()) {
+            nodes.add(createAgendaLabel("Nothing due. Enjoy!", "agenda-task"));
+        }
+        LocalDate today = agenda.getToday();
+        for (Map.Entry<LocalDate, List<Task>> day : tasksByDay.entrySet()) {
+            String heading = day.getKey().equals(today) ? "Today" : day.getKey().format(AGENDA_DAY_FORMAT);
+            nodes.add(createAgendaLabel(heading, "agenda-day"));
+            for (Task task : day.getValue()) {
+                nodes.add(createAgendaLabel(task.toString(), "agenda-task"));
+            }
+        }
+        agendaContainer.getChildren().setAll(nodes);
+    }
+
+    private static Label createAgendaLabel(String text, String styleClass) {
+        Label label = new Label(text);
+        label.setWrapText(true);
+        label.getStyleClass().add(styleClass);
+        return label;
     }
 
     /**
@@ -79,6 +179,9 @@ public class MainWindow extends AnchorPane {
 
         userInput.clear();
 
+        // The command may have switched to another workspace
+        showAgenda();
+
         // Exit GUI if 'bye' command is detected
         if (input.equalsIgnoreCase("bye")) {
             closeApplication();
@@ -91,7 +194,10 @@ public class MainWindow extends AnchorPane {
     private void closeApplication() {
         Stage stage = (Stage) userInput.getScene().getWindow();
         PauseTransition delay = new PauseTransition(Duration.seconds(2));
-        delay.setOnFinished(event -> stage.close());
+        delay.setOnFinished(event -> {
+            agendaReader.shutdown();
+            stage.close();
+        });
         delay.play();
     }
 }
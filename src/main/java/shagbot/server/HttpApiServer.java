@@ -0,0 +1,416 @@
+package shagbot.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import shagbot.Shagbot;
+import shagbot.exceptions.ShagBotDateException;
+import shagbot.exceptions.ShagBotException;
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.formats.JsonLinesTaskReader;
+import shagbot.formats.JsonLinesTaskWriter;
+import shagbot.tasks.Deadline;
+import shagbot.tasks.Event;
+import shagbot.tasks.Task;
+import shagbot.tasks.TaskList;
+
+/**
+ * Represents a server that offers the tasks of Shagbot as JSON over HTTP, on the loopback address only.
+ * <p>
+ * Tasks are written as in JSON Lines exports, with their {@code id} as well, and are addressed by their IDs:
+ * </p>
+ * <ul>
+ *     <li>{@code GET /tasks}, optionally with {@code ?find=<keyword>} to find tasks as the {@code find} command
+ *         does, or {@code ?on=<yyyy-MM-dd>}, lists tasks.</li>
+ *     <li>{@code GET /reminders} lists the deadlines and events within the next 48 hours.</li>
+ *     <li>{@code GET /tasks/<id>} retrieves a task, and {@code DELETE /tasks/<id>} deletes it.</li>
+ *     <li>{@code POST /tasks} adds the task given as a JSON object in the body.</li>
+ *     <li>{@code POST /tasks/<id>/mark} and {@code POST /tasks/<id>/unmark} change whether a task is done.</li>
+ *     <li>{@code POST /tasks/<id>/snooze?due=<date>} reschedules a deadline,
+ *         and {@code ?start=<date>&end=<date>} an event.</li>
+ * </ul>
+ * <p>
+ * Every change is a single undo step and is saved before it is answered. Task lists are answered with an
+ * {@code ETag} from the version of the task list, so a client polling with {@code If-None-Match} is answered
+ * {@code 304 Not Modified}, without the tasks being read or written, until the tasks change.
+ * </p>
+ * <p>
+ * Requests are handled on virtual threads when the Java runtime has them, and otherwise on a fixed pool of
+ * threads. Either way, they only wait on each other while they read or change the tasks.
+ * </p>
+ */
+public class HttpApiServer {
+    private static final String TASKS_PATH = "/tasks";
+    private static final String REMINDERS_PATH = "/reminders";
+    private static final String GET = "GET";
+    private static final String POST = "POST";
+    private static final String DELETE = "DELETE";
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int NOT_MODIFIED = 304;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int INTERNAL_ERROR = 500;
+    private static final int REMINDER_WINDOW_HOURS = 48;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final String NOT_FOUND_MESSAGE = "No such resource.";
+    private static final String NO_SUCH_TASK_MESSAGE = "OOPSIE!! There is no task #%d.";
+    private static final String INVALID_DATE_MESSAGE = "OOPSIE!! '%s' is not a date like %s.";
+    private static final String SNOOZE_TODO_MESSAGE = "OOPSIE!! We only can snooze deadlines or events.";
+    private static final String SNOOZE_DEADLINE_MESSAGE = "OOPSIE!! To snooze a deadline, give its new 'due' date.";
+    private static final String SNOOZE_EVENT_MESSAGE = "OOPSIE!! To snooze an event, give its new 'start' "
+            + "and 'end' dates.";
+    private static final String BODY_TOO_LARGE_MESSAGE = "OOPSIE!! The task is too large.";
+    private static final String NO_TASK_IN_BODY_MESSAGE = "OOPSIE!! Please send the task as a JSON object.";
+
+    /**
+     * Represents a request that cannot be answered, with the HTTP status to answer it with instead.
+     */
+    private static class RequestException extends ShagBotException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final Shagbot shagbot;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String etagPrefix;
+
+    /**
+     * Constructor for the {@code HttpApiServer} class, listening on the loopback address only.
+     *
+     * @param shagbot The Shagbot instance whose tasks are served.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be listened on.
+     */
+    public HttpApiServer(Shagbot shagbot, int port) throws IOException {
+        this.shagbot = shagbot;
+        // Headers and body are written separately, so small responses would otherwise wait on delayed
+        // acknowledgements; this must be set before the first server is created
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = createExecutor();
+        // Versions restart with every run, so tags from an earlier run must not match
+        this.etagPrefix = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+        server.setExecutor(executor);
+        server.createContext(TASKS_PATH, this::handle);
+        server.createContext(REMINDERS_PATH, this::handle);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Starts answering requests, in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops answering requests, waiting up to a second for those being answered.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Creates an executor that runs each request on a virtual thread of its own, where the Java runtime has
+     * virtual threads. They are looked up by reflection so that Shagbot still runs on Java 17, where a fixed
+     * pool of threads is used instead.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+            String method = exchange.getRequestMethod();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            try {
+                route(exchange, method, path, query);
+            } catch (RequestException e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (ShagBotException e) {
+                sendError(exchange, BAD_REQUEST, e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                // Any other failure is still answered, rather than leaving the client without a response
+                sendError(exchange, INTERNAL_ERROR, e.getMessage());
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String[] path, Map<String, String> query)
+            throws ShagBotException, IOException {
+        boolean isTasks = path[0].equals(TASKS_PATH.substring(1));
+        if (path[0].equals(REMINDERS_PATH.substring(1)) && path.length == 1) {
+            requireMethod(exchange, method, GET);
+            sendTasks(exchange, shagbot.readTasks(taskList -> copyAll(taskList.getUpcomingTasks(
+                    LocalDateTime.now(), Duration.ofHours(REMINDER_WINDOW_HOURS)))), OK);
+        } else if (isTasks && path.length == 1 && method.equals(POST)) {
+            Task task = readTask(exchange);
+            sendTask(exchange, shagbot.changeTasks(taskList -> {
+                taskList.addTask(task);
+                return task.copy();
+            }), CREATED);
+        } else if (isTasks && path.length == 1) {
+            requireMethod(exchange, method, GET);
+            sendTaskList(exchange, query);
+        } else if (isTasks && path.length == 2 && method.equals(DELETE)) {
+            int id = parseId(path[1]);
+            sendTask(exchange, shagbot.changeTasks(taskList -> taskList.deleteTask(indexOf(taskList, id)).copy()), OK);
+        } else if (isTasks && path.length == 2) {
+            requireMethod(exchange, method, GET);
+            int id = parseId(path[1]);
+            sendTask(exchange, shagbot.readTasks(taskList -> taskList.getTask(indexOf(taskList, id)).copy()), OK);
+        } else if (isTasks && path.length == 3) {
+            requireMethod(exchange, method, POST);
+            int id = parseId(path[1]);
+            sendTask(exchange, shagbot.changeTasks(taskList -> changeTask(taskList, id, path[2], query).copy()), OK);
+        } else {
+            throw new RequestException(NOT_FOUND, NOT_FOUND_MESSAGE);
+        }
+    }
+
+    /**
+     * Answers a request for a list of tasks, or {@code 304 Not Modified} if the client already has
+     * the current version of the tasks.
+     */
+    private void sendTaskList(HttpExchange exchange, Map<String, String> query) throws ShagBotException, IOException {
+        String clientTag = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String find = query.get("find");
+        LocalDate date = query.containsKey("on") ? parseDate(query.get("on")) : null;
+        String[] etag = new String[1];
+        List<Task> tasks = shagbot.readTasks(taskList -> {
+            etag[0] = '"' + etagPrefix + "-" + taskList.getVersion() + '"';
+            if (etag[0].equals(clientTag)) {
+                return null;
+            } else if (find != null) {
+                return findTasks(taskList, find);
+            } else if (date != null) {
+                return copyAll(taskList.getTasksOnDate(date));
+            }
+            return copyAll(taskList.getTasks());
+        });
+        exchange.getResponseHeaders().set("ETag", etag[0]);
+        if (tasks == null) {
+            // The request must be read to its end first, or the connection is closed instead of kept alive
+            exchange.getRequestBody().close();
+            exchange.sendResponseHeaders(NOT_MODIFIED, -1);
+            return;
+        }
+        sendTasks(exchange, tasks, OK);
+    }
+
+    /**
+     * Finds the tasks matching a keyword, as the {@code find} command does.
+     */
+    private static List<Task> findTasks(TaskList taskList, String keyword) throws ShagBotException {
+        try {
+            return copyAll(taskList.findTasks(keyword));
+        } catch (IllegalArgumentException e) {
+            throw new ShagBotException(e.getMessage());
+        }
+    }
+
+    /**
+     * Copies tasks held by the task list, so that they can still be written out once its lock is released,
+     * while other requests change the tasks.
+     */
+    private static List<Task> copyAll(Task[] tasks) {
+        List<Task> copies = new ArrayList<>(tasks.length);
+        for (Task task : tasks) {
+            copies.add(task.copy());
+        }
+        return copies;
+    }
+
+    private static Task changeTask(TaskList taskList, int id, String action, Map<String, String> query)
+            throws ShagBotException {
+        int index = indexOf(taskList, id);
+        switch (action) {
+        case "mark":
+            return taskList.markTask(index);
+        case "unmark":
+            return taskList.unmarkTask(index);
+        case "snooze":
+            return snoozeTask(taskList, index, query);
+        default:
+            throw new RequestException(NOT_FOUND, NOT_FOUND_MESSAGE);
+        }
+    }
+
+    private static Task snoozeTask(TaskList taskList, int index, Map<String, String> query) throws ShagBotException {
+        Task task = taskList.getTask(index);
+        if (task instanceof Deadline) {
+            if (!query.containsKey("due")) {
+                throw new ShagBotException(SNOOZE_DEADLINE_MESSAGE);
+            }
+            return taskList.rescheduleDeadline(index, parseDateTime(query.get("due")));
+        } else if (task instanceof Event) {
+            if (!query.containsKey("start") || !query.containsKey("end")) {
+                throw new ShagBotException(SNOOZE_EVENT_MESSAGE);
+            }
+            try {
+                return taskList.rescheduleEvent(index, parseDateTime(query.get("start")),
+                        parseDateTime(query.get("end")));
+            } catch (ShagBotDateException e) {
+                throw new ShagBotException(e.getMessage());
+            }
+        }
+        throw new ShagBotException(SNOOZE_TODO_MESSAGE);
+    }
+
+    private static int indexOf(TaskList taskList, int id) throws ShagBotException {
+        int index = taskList.indexOfId(id);
+        if (index < 0) {
+            throw new RequestException(NOT_FOUND, String.format(NO_SUCH_TASK_MESSAGE, id));
+        }
+        return index;
+    }
+
+    private static int parseId(String id) throws ShagBotException {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new RequestException(NOT_FOUND, NOT_FOUND_MESSAGE);
+        }
+    }
+
+    private static LocalDate parseDate(String date) throws ShagBotException {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new ShagBotException(String.format(INVALID_DATE_MESSAGE, date, "2025-12-01"));
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String dateTime) throws ShagBotException {
+        try {
+            return LocalDateTime.parse(dateTime).truncatedTo(ChronoUnit.MINUTES);
+        } catch (DateTimeParseException e) {
+            throw new ShagBotException(String.format(INVALID_DATE_MESSAGE, dateTime, "2025-12-01T18:00"));
+        }
+    }
+
+    /**
+     * Reads the task in the body of a request, which is a JSON object as in a JSON Lines export.
+     * Line breaks are allowed between its fields, since they cannot occur within its strings.
+     */
+    private static Task readTask(HttpExchange exchange) throws ShagBotException, IOException {
+        String body;
+        try (InputStream input = exchange.getRequestBody()) {
+            byte[] bytes = input.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ShagBotException(BODY_TOO_LARGE_MESSAGE);
+            }
+            body = new String(bytes, StandardCharsets.UTF_8).replaceAll("[\\r\\n]+", " ");
+        }
+        try (JsonLinesTaskReader reader = new JsonLinesTaskReader(new BufferedReader(new StringReader(body)))) {
+            Task task = reader.read();
+            if (task == null) {
+                throw new ShagBotException(NO_TASK_IN_BODY_MESSAGE);
+            }
+            return task;
+        } catch (ShagBotFormatException e) {
+            // There is only one line, so where the error is in the body goes without saying
+            throw new ShagBotException("OOPSIE!! " + e.getMessage().replaceFirst("^Line \\d+: ", ""));
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            String[] parts = parameter.split("=", 2);
+            query.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method, String allowedMethod)
+            throws RequestException {
+        if (!method.equals(allowedMethod)) {
+            exchange.getResponseHeaders().set("Allow", allowedMethod);
+            throw new RequestException(METHOD_NOT_ALLOWED, method + " is not allowed here.");
+        }
+    }
+
+    private static void sendTasks(HttpExchange exchange, List<Task> tasks, int status) throws IOException {
+        StringWriter json = new StringWriter();
+        JsonLinesTaskWriter writer = new JsonLinesTaskWriter(json, true);
+        json.write("{\"count\":" + tasks.size() + ",\"tasks\":[");
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                json.write(',');
+            }
+            writer.writeObject(tasks.get(i));
+        }
+        json.write("]}");
+        send(exchange, status, json.toString());
+    }
+
+    private static void sendTask(HttpExchange exchange, Task task, int status) throws IOException {
+        StringWriter json = new StringWriter();
+        new JsonLinesTaskWriter(json, true).writeObject(task);
+        send(exchange, status, json.toString());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringWriter json = new StringWriter();
+        json.write("{\"error\":");
+        new JsonLinesTaskWriter(json).writeString(message == null ? "" : message);
+        json.write('}');
+        send(exchange, status, json.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package shagbot.server;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import shagbot.Shagbot;
+import shagbot.util.Parser;
+
+/**
+ * Represents a server that lets programs drive Shagbot over a local socket, sending many commands
+ * without waiting for each response.
+ * <p>
+ * Each request is one line, {@code <id> <command>}, where the ID is any word chosen by the client to match
+ * the response to its request. Each response is a header line, {@code <id> <length>}, followed by
+ * the response text of that many bytes in UTF-8 and a line break. Responses are sent in the order
+ * of their requests. The request {@code <id> bye} closes the connection once it is answered, leaving any
+ * requests after it unanswered.
+ * </p>
+ * <p>
+ * The server reads every request that has already arrived, up to {@value #MAX_BATCH_SIZE} at a time,
+ * and runs them as one batch: the tasks are saved once for the whole batch, and all of its responses are
+ * then sent together. A client that pipelines its requests therefore pays for one save and one round trip
+ * per batch rather than per command, and every response it receives is for a change that has been saved.
+ * </p>
+ */
+public class PipelineServer {
+    private static final int MAX_BATCH_SIZE = 512;
+    private final Shagbot shagbot;
+    private final ServerSocket serverSocket;
+
+    /**
+     * Constructor for the {@code PipelineServer} class, listening on the loopback address only.
+     *
+     * @param shagbot The Shagbot instance that runs the commands.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be listened on.
+     */
+    public PipelineServer(Shagbot shagbot, int port) throws IOException {
+        this.shagbot = shagbot;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed, serving each on a thread of its own.
+     * Commands from different connections are never run at the same time.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> serveConnection(socket), "shagbot-pipeline-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Failed to accept connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections.
+     *
+     * @throws IOException If the server socket cannot be closed.
+     */
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void serveConnection(Socket socket) {
+        try (socket;
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                        StandardCharsets.UTF_8));
+                OutputStream output = new BufferedOutputStream(socket.getOutputStream())) {
+            boolean isOpen = true;
+            while (isOpen) {
+                List<String> ids = new ArrayList<>();
+                List<String> commands = new ArrayList<>();
+                isOpen = readBatch(reader, ids, commands);
+                // Requests after an exit are left unanswered, as the connection closes
+                for (int i = 0; i < commands.size(); i++) {
+                    if (Parser.isExitCommand(commands.get(i))) {
+                        isOpen = false;
+                        commands = commands.subList(0, i + 1);
+                        break;
+                    }
+                }
+                List<String> responses = shagbot.getResponses(commands);
+                for (int i = 0; i < responses.size(); i++) {
+                    writeResponse(output, ids.get(i), responses.get(i));
+                }
+                output.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection closed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the next request, waiting for it if necessary, followed by every further request that has
+     * already arrived, up to the maximum batch size.
+     *
+     * @return {@code false} if the client has closed its side of the connection.
+     */
+    private static boolean readBatch(BufferedReader reader, List<String> ids, List<String> commands)
+            throws IOException {
+        do {
+            String line = reader.readLine();
+            if (line == null) {
+                return false;
+            }
+            String[] parts = line.strip().split(" ", 2);
+            ids.add(parts[0]);
+            commands.add(parts.length > 1 ? parts[1].trim() : "");
+        } while (commands.size() < MAX_BATCH_SIZE && reader.ready());
+        return true;
+    }
+
+    private static void writeResponse(OutputStream output, String id, String response) throws IOException {
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        output.write((id + " " + body.length + "\n").getBytes(StandardCharsets.UTF_8));
+        output.write(body);
+        output.write('\n');
+    }
+}
@@ -0,0 +1,156 @@
+package shagbot.tasks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Represents the agenda of a task list: the incomplete deadlines due and events happening from today
+ * until a number of days ahead, in order of their due dates and starts.
+ * <p>
+ * The agenda listens to its task list, so each change to a task moves at most that task in or out of the agenda
+ * in O(log n), and the list is only read in full when the agenda is shown for another list or another day.
+ * Every change to the agenda gives it a new version, so views can tell cheaply whether they are out of date.
+ * </p>
+ */
+public class Agenda implements TaskListener {
+    private static final Comparator<Task> BY_TIMING = Comparator.comparing(Agenda::getTiming)
+            .thenComparingInt(Task::getId);
+    private final int days;
+    private final NavigableSet<Task> tasks = new TreeSet<>(BY_TIMING);
+    private final Map<Integer, Task> tasksById = new HashMap<>();
+    private TaskList taskList;
+    private LocalDate today;
+    private long version;
+
+    /**
+     * Constructor for the {@code Agenda} class.
+     *
+     * @param days The number of days the agenda covers, including today.
+     */
+    public Agenda(int days) {
+        assert days >= 1 : "Agenda must cover at least one day.";
+        this.days = days;
+    }
+
+    /**
+     * Shows the agenda of the given task list from the given day, listening to the list from now on
+     * instead of any list shown before. Nothing is done if the agenda already shows that list from that day.
+     * The list must not change while it is read, so this should be called from {@code Shagbot.readTasks}.
+     *
+     * @param taskList The task list.
+     * @param today The first day of the agenda.
+     */
+    public void show(TaskList taskList, LocalDate today) {
+        synchronized (this) {
+            if (taskList == this.taskList && today.equals(this.today)) {
+                return;
+            }
+        }
+        // The list is read without holding the agenda, so views can keep reading the agenda shown before
+        List<Task> copies = new ArrayList<>();
+        for (Task task : taskList) {
+            // Copied, since the tasks of a list can change in place and the agenda is ordered by their dates
+            copies.add(task.copy());
+        }
+        synchronized (this) {
+            if (taskList != this.taskList) {
+                if (this.taskList != null) {
+                    this.taskList.removeListener(this);
+                }
+                taskList.addListener(this);
+                this.taskList = taskList;
+            }
+            this.today = today;
+            tasks.clear();
+            tasksById.clear();
+            for (Task task : copies) {
+                addTask(task);
+            }
+            version++;
+        }
+    }
+
+    @Override
+    public synchronized void onChanges(List<TaskChange> changes, long listVersion) {
+        boolean isChanged = false;
+        for (TaskChange change : changes) {
+            if (change.getOldTask() != null) {
+                isChanged |= removeTask(change.getOldTask().getId());
+            }
+            if (change.getNewTask() != null) {
+                isChanged |= addTask(change.getNewTask());
+            }
+        }
+        if (isChanged) {
+            version++;
+        }
+    }
+
+    /**
+     * Retrieves the tasks in the agenda, grouped by day in order. Events that started before today
+     * are grouped under today.
+     *
+     * @return The tasks of each day that has any, in order of their due dates and starts.
+     */
+    public synchronized Map<LocalDate, List<Task>> getTasksByDay() {
+        Map<LocalDate, List<Task>> taskDays = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            LocalDate date = getTiming(task).toLocalDate();
+            taskDays.computeIfAbsent(date.isBefore(today) ? today : date, day -> new ArrayList<>()).add(task);
+        }
+        return taskDays;
+    }
+
+    public synchronized LocalDate getToday() {
+        return today;
+    }
+
+    public int getDayCount() {
+        return days;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    private boolean addTask(Task task) {
+        if (task.isDone() || !isInAgenda(task)) {
+            return false;
+        }
+        tasks.add(task);
+        tasksById.put(task.getId(), task);
+        return true;
+    }
+
+    private boolean removeTask(int id) {
+        Task task = tasksById.remove(id);
+        return task != null && tasks.remove(task);
+    }
+
+    private boolean isInAgenda(Task task) {
+        if (today == null) {
+            return false;
+        }
+        LocalDateTime start = today.atStartOfDay();
+        LocalDateTime end = today.plusDays(days).atStartOfDay();
+        if (task instanceof Deadline deadline) {
+            return !deadline.getByTiming().isBefore(start) && deadline.getByTiming().isBefore(end);
+        }
+        if (task instanceof Event event) {
+            return event.getStart().isBefore(end) && event.getEnd().isAfter(start);
+        }
+        return false;
+    }
+
+    private static LocalDateTime getTiming(Task task) {
+        return task instanceof Deadline deadline ? deadline.getByTiming() : ((Event) task).getStart();
+    }
+}
@@ -0,0 +1,329 @@
+package shagbot.tasks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a {@link TaskStore} that keeps its tasks as parallel primitive arrays instead of as objects.
+ * <p>
+ * Every task occupies a slot, which holds its type, ID, priority, completion status (one bit of a shared
+ * bitset), its dates as minutes since the epoch, and the position of its description and tags in one shared
+ * UTF-8 buffer.
+ * This takes around 60 bytes per task plus the bytes of its description, compared to several objects
+ * per task otherwise. {@code Task} objects are only created when a task is retrieved.
+ * </p>
+ * <p>
+ * A task keeps its slot while other tasks are inserted or removed; only the array mapping positions to
+ * slots is shifted. Descriptions of removed tasks are left in the buffer until they make up half of it,
+ * and the buffer is then compacted.
+ * </p>
+ */
+class CompactTaskStore implements TaskStore {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final int NO_SLOT = IdPositionMap.NO_POSITION;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_BYTES_TO_COMPACT = 4096;
+    // One entry in every array indexed by slot or position, and one in the map of IDs
+    private static final int SLOT_BYTES = 36 + IdPositionMap.BYTES_PER_ID;
+
+    // Indexed by slot
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] doneBits = new long[(INITIAL_CAPACITY + Long.SIZE - 1) / Long.SIZE];
+    private int[] firstMinutes = new int[INITIAL_CAPACITY];
+    private int[] secondMinutes = new int[INITIAL_CAPACITY];
+    private byte[] priorities = new byte[INITIAL_CAPACITY];
+    private int[] descriptionOffsets = new int[INITIAL_CAPACITY];
+    private int[] descriptionLengths = new int[INITIAL_CAPACITY];
+    private int[] positionOfSlot = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeSlotCount = 0;
+    private int usedSlotCount = 0;
+
+    // Indexed by position
+    private int[] slotAtPosition = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // Indexed by task ID
+    private final IdPositionMap slotOfId = new IdPositionMap();
+
+    private byte[] descriptions = new byte[INITIAL_CAPACITY * Long.SIZE];
+    private int descriptionsLength = 0;
+    private int unusedDescriptionBytes = 0;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkPosition(index, size);
+        return readTask(slotAtPosition[index]);
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        checkPosition(index, size + 1);
+        assert !containsId(task.getId()) : "Task IDs must be unique.";
+        int slot = allocateSlot();
+        writeTask(slot, task);
+        if (size == slotAtPosition.length) {
+            slotAtPosition = Arrays.copyOf(slotAtPosition, size * 2);
+        }
+        System.arraycopy(slotAtPosition, index, slotAtPosition, index + 1, size - index);
+        slotAtPosition[index] = slot;
+        size++;
+        updatePositions(index, size);
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkPosition(index, size);
+        int slot = slotAtPosition[index];
+        Task removedTask = readTask(slot);
+        System.arraycopy(slotAtPosition, index + 1, slotAtPosition, index, size - index - 1);
+        size--;
+        updatePositions(index, size);
+        releaseSlot(slot);
+        compactDescriptionsIfSparse();
+        return removedTask;
+    }
+
+    @Override
+    public Task[] removeAll(int[] sortedIndexes) {
+        Task[] removedTasks = new Task[sortedIndexes.length];
+        if (sortedIndexes.length == 0) {
+            return removedTasks;
+        }
+        checkPosition(sortedIndexes[0], size);
+        checkPosition(sortedIndexes[sortedIndexes.length - 1], size);
+        // Every remaining task is shifted forward once, past all the removed tasks before it
+        int keptCount = sortedIndexes[0];
+        int removedCount = 0;
+        for (int i = sortedIndexes[0]; i < size; i++) {
+            int slot = slotAtPosition[i];
+            if (removedCount < sortedIndexes.length && sortedIndexes[removedCount] == i) {
+                removedTasks[removedCount++] = readTask(slot);
+                releaseSlot(slot);
+            } else {
+                slotAtPosition[keptCount++] = slot;
+            }
+        }
+        assert removedCount == sortedIndexes.length : "Indexes must be sorted without duplicates.";
+        size = keptCount;
+        updatePositions(sortedIndexes[0], size);
+        compactDescriptionsIfSparse();
+        return removedTasks;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        checkPosition(index, size);
+        int slot = slotAtPosition[index];
+        Task replacedTask = readTask(slot);
+        slotOfId.remove(ids[slot]);
+        assert !containsId(task.getId()) : "Task IDs must be unique.";
+        if (task.toStoredText().equals(replacedTask.toStoredText())) {
+            writeFields(slot, task);
+        } else {
+            unusedDescriptionBytes += descriptionLengths[slot];
+            writeTask(slot, task);
+            compactDescriptionsIfSparse();
+        }
+        return replacedTask;
+    }
+
+    @Override
+    public long estimateHeapBytes(Task task) {
+        return SLOT_BYTES + task.toStoredText().length();
+    }
+
+    @Override
+    public boolean containsId(int id) {
+        return slotOf(id) != NO_SLOT;
+    }
+
+    @Override
+    public Task getById(int id) {
+        int slot = slotOf(id);
+        return slot == NO_SLOT ? null : readTask(slot);
+    }
+
+    @Override
+    public int indexOfId(int id) {
+        int slot = slotOf(id);
+        return slot == NO_SLOT ? -1 : positionOfSlot[slot];
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int nextIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < size;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readTask(slotAtPosition[nextIndex++]);
+            }
+        };
+    }
+
+    /**
+     * Creates a new {@code Task} from the data in the given slot.
+     */
+    private Task readTask(int slot) {
+        String[] text = Task.splitStoredText(new String(descriptions, descriptionOffsets[slot],
+                descriptionLengths[slot], StandardCharsets.UTF_8));
+        String description = text[0];
+        Task task;
+        switch (types[slot]) {
+        case DEADLINE:
+            task = new Deadline(description, toDateTime(firstMinutes[slot]));
+            break;
+        case EVENT:
+            task = new Event(description, toDateTime(firstMinutes[slot]), toDateTime(secondMinutes[slot]));
+            break;
+        default:
+            task = new Todo(description);
+            break;
+        }
+        task.setId(ids[slot]);
+        task.setTags(Arrays.asList(text).subList(1, text.length));
+        if ((doneBits[slot / Long.SIZE] & (1L << slot)) != 0) {
+            task.mark();
+        }
+        task.setPriority(Priority.values()[priorities[slot]]);
+        return task;
+    }
+
+    /**
+     * Writes every field of the task into the given slot, appending its description to the buffer.
+     */
+    private void writeTask(int slot, Task task) {
+        byte[] descriptionBytes = task.toStoredText().getBytes(StandardCharsets.UTF_8);
+        if (descriptionsLength + descriptionBytes.length > descriptions.length) {
+            int newCapacity = Math.max(descriptions.length * 2, descriptionsLength + descriptionBytes.length);
+            descriptions = Arrays.copyOf(descriptions, newCapacity);
+        }
+        System.arraycopy(descriptionBytes, 0, descriptions, descriptionsLength, descriptionBytes.length);
+        descriptionOffsets[slot] = descriptionsLength;
+        descriptionLengths[slot] = descriptionBytes.length;
+        descriptionsLength += descriptionBytes.length;
+        writeFields(slot, task);
+    }
+
+    /**
+     * Writes every field of the task except its description into the given slot.
+     */
+    private void writeFields(int slot, Task task) {
+        if (task instanceof Deadline deadline) {
+            types[slot] = DEADLINE;
+            firstMinutes[slot] = toEpochMinutes(deadline.getByTiming());
+        } else if (task instanceof Event event) {
+            types[slot] = EVENT;
+            firstMinutes[slot] = toEpochMinutes(event.getStart());
+            secondMinutes[slot] = toEpochMinutes(event.getEnd());
+        } else {
+            types[slot] = TODO;
+        }
+        if (task.isDone()) {
+            doneBits[slot / Long.SIZE] |= 1L << slot;
+        } else {
+            doneBits[slot / Long.SIZE] &= ~(1L << slot);
+        }
+        priorities[slot] = (byte) task.getPriority().ordinal();
+        ids[slot] = task.getId();
+        slotOfId.put(task.getId(), slot);
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (usedSlotCount == types.length) {
+            int newCapacity = types.length * 2;
+            types = Arrays.copyOf(types, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+            doneBits = Arrays.copyOf(doneBits, (newCapacity + Long.SIZE - 1) / Long.SIZE);
+            firstMinutes = Arrays.copyOf(firstMinutes, newCapacity);
+            secondMinutes = Arrays.copyOf(secondMinutes, newCapacity);
+            priorities = Arrays.copyOf(priorities, newCapacity);
+            descriptionOffsets = Arrays.copyOf(descriptionOffsets, newCapacity);
+            descriptionLengths = Arrays.copyOf(descriptionLengths, newCapacity);
+            positionOfSlot = Arrays.copyOf(positionOfSlot, newCapacity);
+            freeSlots = Arrays.copyOf(freeSlots, newCapacity);
+        }
+        return usedSlotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        slotOfId.remove(ids[slot]);
+        unusedDescriptionBytes += descriptionLengths[slot];
+        descriptionLengths[slot] = 0;
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    /**
+     * Records the new positions of the slots at the given positions, after they were shifted.
+     */
+    private void updatePositions(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            positionOfSlot[slotAtPosition[i]] = i;
+        }
+    }
+
+    /**
+     * Copies the descriptions of the remaining tasks into a new buffer once the descriptions
+     * of removed or changed tasks take up more than half of the current one.
+     */
+    private void compactDescriptionsIfSparse() {
+        if (unusedDescriptionBytes < MIN_BYTES_TO_COMPACT || unusedDescriptionBytes * 2 < descriptionsLength) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY, (descriptionsLength - unusedDescriptionBytes) * 2)];
+        int compactedLength = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = slotAtPosition[i];
+            System.arraycopy(descriptions, descriptionOffsets[slot], compacted, compactedLength,
+                    descriptionLengths[slot]);
+            descriptionOffsets[slot] = compactedLength;
+            compactedLength += descriptionLengths[slot];
+        }
+        descriptions = compacted;
+        descriptionsLength = compactedLength;
+        unusedDescriptionBytes = 0;
+    }
+
+    private int slotOf(int id) {
+        return slotOfId.get(id);
+    }
+
+    private static int toEpochMinutes(LocalDateTime dateTime) {
+        assert dateTime.getSecond() == 0 && dateTime.getNano() == 0 : "Task times are stored to the minute.";
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    private static LocalDateTime toDateTime(int epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private static void checkPosition(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + limit);
+        }
+    }
+}
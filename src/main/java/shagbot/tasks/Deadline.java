@@ -33,6 +33,19 @@ public class Deadline extends Task {
         this.byTiming = parseStringToDateTime(byTiming);
     }
 
+    /**
+     * Constructor for the {@code Deadline} class with specified description
+     * of task and its already parsed deadline.
+     *
+     * @param desc     The description of the task.
+     * @param byTiming The deadline for the task.
+     */
+    public Deadline(String desc, LocalDateTime byTiming) {
+        super(desc);
+        assert byTiming != null : "Deadline timing cannot be null.";
+        this.byTiming = byTiming;
+    }
+
     /**
      * Parses a string representation of date and time into a {@link LocalDateTime} Object.
      *
@@ -57,6 +70,16 @@ public class Deadline extends Task {
         return byTiming;
     }
 
+    @Override
+    public Deadline copy() {
+        return copyStateTo(new Deadline(getDescription(), byTiming));
+    }
+
+    @Override
+    long estimateHeapBytes() {
+        return super.estimateHeapBytes() + DATE_TIME_BYTES;
+    }
+
     /**
      * Returns a string representation of the {@code Deadline} task.
      * The format includes the task type "[D]", the description from the
@@ -38,6 +38,21 @@ public class Event extends Task {
         this.end = parseStringToDateTime(end);
     }
 
+    /**
+     * Constructor for the {@code Event} class with the specified description of event,
+     * and its already parsed start and end timings.
+     *
+     * @param desc  The description of the task.
+     * @param start The start time of the event.
+     * @param end   The end time of the event.
+     */
+    public Event(String desc, LocalDateTime start, LocalDateTime end) {
+        super(desc);
+        assert start != null && end != null : "Event start and end times cannot be null.";
+        this.start = start;
+        this.end = end;
+    }
+
     /**
      * Parses a string representation of date and time into a {@link LocalDateTime} Object.
      *
@@ -71,6 +86,16 @@ public class Event extends Task {
         return end;
     }
 
+    @Override
+    public Event copy() {
+        return copyStateTo(new Event(getDescription(), start, end));
+    }
+
+    @Override
+    long estimateHeapBytes() {
+        return super.estimateHeapBytes() + 2 * DATE_TIME_BYTES;
+    }
+
     /**
      * Returns a string representation of the {@code Event} Task.
      * The format includes the task type "[E]", the description from the
@@ -0,0 +1,349 @@
+package shagbot.tasks;
+
+import java.util.Arrays;
+
+/**
+ * Represents a compressed set of task IDs, laid out like a roaring bitmap.
+ * <p>
+ * IDs are grouped into containers of 65536 by their high 16 bits, and each container holds the low 16 bits
+ * of its IDs either as a sorted array, while it has at most 4096 of them, or as a bitmap of 8 KB once it has
+ * more. A small set of IDs therefore takes two bytes per ID, a dense one a bit per ID, and an intersection
+ * only compares the containers that both sets have, each as an array or a run of 64-bit words.
+ * </p>
+ */
+final class IdBitmap {
+    private static final int MAX_ARRAY_CARDINALITY = 4096;
+    private static final int BITMAP_WORDS = (1 << Character.SIZE) / Long.SIZE;
+
+    private int[] keys = new int[0];
+    private Container[] containers = new Container[0];
+    private int containerCount = 0;
+    private int cardinality = 0;
+
+    /**
+     * Represents the IDs of a set that share their high 16 bits, as a sorted array or a bitmap of the low 16 bits.
+     */
+    private static final class Container {
+        private char[] values;
+        private long[] words;
+        private int cardinality;
+
+        private static Container ofValues(char[] values, int cardinality) {
+            Container container = new Container();
+            container.values = values;
+            container.cardinality = cardinality;
+            return container;
+        }
+
+        /**
+         * Creates a container from a bitmap, as an array if it has few enough IDs.
+         */
+        private static Container ofWords(long[] words) {
+            Container container = new Container();
+            for (long word : words) {
+                container.cardinality += Long.bitCount(word);
+            }
+            container.words = words;
+            if (container.cardinality <= MAX_ARRAY_CARDINALITY) {
+                container.values = container.toValues();
+                container.words = null;
+            }
+            return container;
+        }
+
+        private boolean isBitmap() {
+            return words != null;
+        }
+
+        private boolean contains(char value) {
+            return isBitmap()
+                    ? (words[value >>> 6] & (1L << value)) != 0
+                    : Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        private boolean add(char value) {
+            if (isBitmap()) {
+                if ((words[value >>> 6] & (1L << value)) != 0) {
+                    return false;
+                }
+                words[value >>> 6] |= 1L << value;
+                cardinality++;
+                return true;
+            }
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                return false;
+            }
+            if (cardinality == MAX_ARRAY_CARDINALITY) {
+                words = toWords();
+                values = null;
+                return add(value);
+            }
+            position = -position - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, Math.min(2 * cardinality, MAX_ARRAY_CARDINALITY)));
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = value;
+            cardinality++;
+            return true;
+        }
+
+        private boolean remove(char value) {
+            if (isBitmap()) {
+                if ((words[value >>> 6] & (1L << value)) == 0) {
+                    return false;
+                }
+                words[value >>> 6] &= ~(1L << value);
+                cardinality--;
+                if (cardinality <= MAX_ARRAY_CARDINALITY) {
+                    values = toValues();
+                    words = null;
+                }
+                return true;
+            }
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+            cardinality--;
+            return true;
+        }
+
+        private Container and(Container other) {
+            if (isBitmap() && other.isBitmap()) {
+                long[] intersection = new long[BITMAP_WORDS];
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    intersection[i] = words[i] & other.words[i];
+                }
+                return ofWords(intersection);
+            }
+            if (isBitmap()) {
+                return other.and(this);
+            }
+            char[] intersection = new char[cardinality];
+            int count = 0;
+            if (other.isBitmap()) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        intersection[count++] = values[i];
+                    }
+                }
+                return ofValues(intersection, count);
+            }
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < other.cardinality) {
+                if (values[i] < other.values[j]) {
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    j++;
+                } else {
+                    intersection[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return ofValues(intersection, count);
+        }
+
+        private Container andNot(Container other) {
+            if (isBitmap()) {
+                long[] difference = words.clone();
+                if (other.isBitmap()) {
+                    for (int i = 0; i < BITMAP_WORDS; i++) {
+                        difference[i] &= ~other.words[i];
+                    }
+                } else {
+                    for (int i = 0; i < other.cardinality; i++) {
+                        difference[other.values[i] >>> 6] &= ~(1L << other.values[i]);
+                    }
+                }
+                return ofWords(difference);
+            }
+            char[] difference = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    difference[count++] = values[i];
+                }
+            }
+            return ofValues(difference, count);
+        }
+
+        private Container copy() {
+            return isBitmap() ? ofWords(words.clone()) : ofValues(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        private char[] toValues() {
+            char[] sortedValues = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    sortedValues[count++] = (char) (i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return sortedValues;
+        }
+
+        private long[] toWords() {
+            long[] bitmap = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bitmap[values[i] >>> 6] |= 1L << values[i];
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Adds an ID to the set.
+     *
+     * @param id The ID, which must be positive.
+     * @return {@code true} if the ID was not already in the set.
+     */
+    boolean add(int id) {
+        assert id > 0 : "Task IDs must be positive.";
+        int position = findContainer(id >>> Character.SIZE);
+        if (position < 0) {
+            position = -position - 1;
+            insertContainer(position, id >>> Character.SIZE, Container.ofValues(new char[1], 0));
+        }
+        if (!containers[position].add((char) id)) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Removes an ID from the set.
+     *
+     * @param id The ID.
+     * @return {@code true} if the ID was in the set.
+     */
+    boolean remove(int id) {
+        int position = findContainer(id >>> Character.SIZE);
+        if (position < 0 || !containers[position].remove((char) id)) {
+            return false;
+        }
+        cardinality--;
+        if (containers[position].cardinality == 0) {
+            removeContainer(position);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an ID is in the set.
+     *
+     * @param id The ID.
+     * @return {@code true} if the ID is in the set.
+     */
+    boolean contains(int id) {
+        int position = findContainer(id >>> Character.SIZE);
+        return position >= 0 && containers[position].contains((char) id);
+    }
+
+    /**
+     * Retrieves the number of IDs in the set, which is kept up to date rather than counted.
+     *
+     * @return The number of IDs.
+     */
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Creates the set of IDs that are in both this set and the other, leaving both unchanged.
+     *
+     * @param other The other set.
+     * @return The intersection.
+     */
+    IdBitmap and(IdBitmap other) {
+        IdBitmap intersection = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount && j < other.containerCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                intersection.appendContainer(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return intersection;
+    }
+
+    /**
+     * Creates the set of IDs that are in this set but not the other, leaving both unchanged.
+     *
+     * @param other The other set.
+     * @return The difference.
+     */
+    IdBitmap andNot(IdBitmap other) {
+        IdBitmap difference = new IdBitmap();
+        for (int i = 0; i < containerCount; i++) {
+            int otherPosition = other.findContainer(keys[i]);
+            difference.appendContainer(keys[i], otherPosition < 0
+                    ? containers[i].copy()
+                    : containers[i].andNot(other.containers[otherPosition]));
+        }
+        return difference;
+    }
+
+    /**
+     * Retrieves the IDs in the set.
+     *
+     * @return The IDs, in ascending order.
+     */
+    int[] toArray() {
+        int[] ids = new int[cardinality];
+        int count = 0;
+        for (int i = 0; i < containerCount; i++) {
+            int high = keys[i] << Character.SIZE;
+            Container container = containers[i];
+            char[] values = container.isBitmap() ? container.toValues() : container.values;
+            for (int j = 0; j < container.cardinality; j++) {
+                ids[count++] = high | values[j];
+            }
+        }
+        return ids;
+    }
+
+    private int findContainer(int key) {
+        return Arrays.binarySearch(keys, 0, containerCount, key);
+    }
+
+    /**
+     * Adds a container after every other container of the set, unless it is empty.
+     */
+    private void appendContainer(int key, Container container) {
+        if (container.cardinality > 0) {
+            insertContainer(containerCount, key, container);
+            cardinality += container.cardinality;
+        }
+    }
+
+    private void insertContainer(int position, int key, Container container) {
+        if (containerCount == keys.length) {
+            int newCapacity = Math.max(4, 2 * containerCount);
+            keys = Arrays.copyOf(keys, newCapacity);
+            containers = Arrays.copyOf(containers, newCapacity);
+        }
+        System.arraycopy(keys, position, keys, position + 1, containerCount - position);
+        System.arraycopy(containers, position, containers, position + 1, containerCount - position);
+        keys[position] = key;
+        containers[position] = container;
+        containerCount++;
+    }
+
+    private void removeContainer(int position) {
+        System.arraycopy(keys, position + 1, keys, position, containerCount - position - 1);
+        System.arraycopy(containers, position + 1, containers, position, containerCount - position - 1);
+        containers[--containerCount] = null;
+    }
+}
@@ -0,0 +1,116 @@
+package shagbot.tasks;
+
+/**
+ * Represents a map from task IDs to positions, such as slots or record indexes, kept in two primitive arrays.
+ * <p>
+ * The IDs are hashed into a table with open addressing and linear probing, which is kept at most half full,
+ * so a lookup takes O(1) on average and the map takes around 24 bytes per ID, however large the IDs are.
+ * Removing an ID moves the IDs after it in its run back, so no tombstones are left behind.
+ * </p>
+ */
+final class IdPositionMap {
+    static final int NO_POSITION = -1;
+    // Bytes per ID: two ints per entry in a table that is between a quarter and half full
+    static final int BYTES_PER_ID = 24;
+    private static final int NO_ID = 0;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Retrieves the position of an ID.
+     *
+     * @param id The ID.
+     * @return The position, or {@link #NO_POSITION} if the ID is not in the map.
+     */
+    int get(int id) {
+        if (id <= 0) {
+            return NO_POSITION;
+        }
+        for (int i = indexFor(id, ids.length); ids[i] != NO_ID; i = (i + 1) & (ids.length - 1)) {
+            if (ids[i] == id) {
+                return positions[i];
+            }
+        }
+        return NO_POSITION;
+    }
+
+    /**
+     * Sets the position of an ID, replacing any position it had.
+     *
+     * @param id The ID, which must be positive.
+     * @param position The position.
+     */
+    void put(int id, int position) {
+        assert id > 0 : "Task IDs must be positive.";
+        if (2 * (size + 1) > ids.length) {
+            resize(ids.length * 2);
+        }
+        int i = indexFor(id, ids.length);
+        while (ids[i] != NO_ID && ids[i] != id) {
+            i = (i + 1) & (ids.length - 1);
+        }
+        if (ids[i] == NO_ID) {
+            ids[i] = id;
+            size++;
+        }
+        positions[i] = position;
+    }
+
+    /**
+     * Removes an ID from the map, if it is there.
+     *
+     * @param id The ID.
+     */
+    void remove(int id) {
+        if (id <= 0) {
+            return;
+        }
+        int mask = ids.length - 1;
+        int i = indexFor(id, ids.length);
+        while (ids[i] != id) {
+            if (ids[i] == NO_ID) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        size--;
+        // Moves back every later ID of the run that would no longer be found past the emptied entry
+        for (int j = (i + 1) & mask; ids[j] != NO_ID; j = (j + 1) & mask) {
+            int home = indexFor(ids[j], ids.length);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                ids[i] = ids[j];
+                positions[i] = positions[j];
+                i = j;
+            }
+        }
+        ids[i] = NO_ID;
+        if (ids.length > INITIAL_CAPACITY && 4 * size < ids.length) {
+            resize(ids.length / 2);
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] oldIds = ids;
+        int[] oldPositions = positions;
+        ids = new int[capacity];
+        positions = new int[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != NO_ID) {
+                int j = indexFor(oldIds[i], capacity);
+                while (ids[j] != NO_ID) {
+                    j = (j + 1) & (capacity - 1);
+                }
+                ids[j] = oldIds[i];
+                positions[j] = oldPositions[i];
+            }
+        }
+    }
+
+    private static int indexFor(int id, int capacity) {
+        return (id * GOLDEN_RATIO) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(capacity));
+    }
+}
@@ -0,0 +1,227 @@
+package shagbot.tasks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Represents a {@link TaskStore} that keeps its tasks in list order in an order-statistic tree.
+ * <p>
+ * The tree is a treap keyed implicitly by position: every node knows the size of its subtree, so the task
+ * at any position can be found, inserted or removed in O(log n) expected time, without shifting the tasks
+ * after it. Every node also knows its parent, and nodes are indexed by task ID, so the current position of
+ * a task can be found from its ID in O(log n) as well.
+ * </p>
+ */
+class IndexedTaskTree implements TaskStore {
+    // A tree node, and an entry, boxed ID and table slot in the map of nodes by ID
+    private static final int NODE_BYTES = 40 + 56;
+    private final Map<Integer, Node> nodesById = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Represents a task in the tree.
+     */
+    private static class Node {
+        private final int priority;
+        private Task task;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        private Node parent;
+
+        private Node(Task task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        return nodeAt(index).task;
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        checkPosition(index, size() + 1);
+        assert !nodesById.containsKey(task.getId()) : "Task IDs must be unique.";
+        Node node = new Node(task, random.nextInt());
+        nodesById.put(task.getId(), node);
+        Node[] halves = split(root, index);
+        root = detach(merge(merge(halves[0], node), halves[1]));
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkPosition(index, size());
+        Node[] halves = split(root, index);
+        Node[] removedAndRest = split(detach(halves[1]), 1);
+        Node removed = removedAndRest[0];
+        nodesById.remove(removed.task.getId());
+        root = detach(merge(detach(halves[0]), detach(removedAndRest[1])));
+        return removed.task;
+    }
+
+    @Override
+    public long estimateHeapBytes(Task task) {
+        return NODE_BYTES + task.estimateHeapBytes();
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Node node = nodeAt(index);
+        Task replacedTask = node.task;
+        nodesById.remove(replacedTask.getId());
+        assert !nodesById.containsKey(task.getId()) : "Task IDs must be unique.";
+        node.task = task;
+        nodesById.put(task.getId(), node);
+        return replacedTask;
+    }
+
+    @Override
+    public boolean containsId(int id) {
+        return nodesById.containsKey(id);
+    }
+
+    @Override
+    public Task getById(int id) {
+        Node node = nodesById.get(id);
+        return node == null ? null : node.task;
+    }
+
+    @Override
+    public int indexOfId(int id) {
+        Node node = nodesById.get(id);
+        if (node == null) {
+            return -1;
+        }
+        int index = sizeOf(node.left);
+        for (Node current = node; current.parent != null; current = current.parent) {
+            if (current == current.parent.right) {
+                index += sizeOf(current.parent.left) + 1;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private final Deque<Node> pending = new ArrayDeque<>();
+            private Node next = root;
+
+            @Override
+            public boolean hasNext() {
+                return next != null || !pending.isEmpty();
+            }
+
+            @Override
+            public Task next() {
+                while (next != null) {
+                    pending.push(next);
+                    next = next.left;
+                }
+                if (pending.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node current = pending.pop();
+                next = current.right;
+                return current.task;
+            }
+        };
+    }
+
+    private Node nodeAt(int index) {
+        checkPosition(index, size());
+        Node node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Splits a subtree into its first {@code count} nodes and the rest.
+     * The parents of the two returned roots are left for the caller to set.
+     */
+    private Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (sizeOf(node.left) >= count) {
+            Node[] halves = split(node.left, count);
+            node.left = halves[1];
+            update(node);
+            return new Node[]{halves[0], node};
+        }
+        Node[] halves = split(node.right, count - sizeOf(node.left) - 1);
+        node.right = halves[0];
+        update(node);
+        return new Node[]{node, halves[1]};
+    }
+
+    /**
+     * Joins two subtrees, with every node of {@code first} placed before every node of {@code second}.
+     * The parent of the returned root is left for the caller to set.
+     */
+    private Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        }
+        second.left = merge(first, second.left);
+        update(second);
+        return second;
+    }
+
+    private void update(Node node) {
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+    }
+
+    private Node detach(Node node) {
+        if (node != null) {
+            node.parent = null;
+        }
+        return node;
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void checkPosition(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + limit);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package shagbot.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Represents an interval tree over the time spans of events, used to find events that clash.
+ * <p>
+ * The tree is a treap keyed by the start and then the ID of each event, in which every node also keeps the
+ * latest end of any event in its subtree. A search skips every subtree whose latest end is not after the
+ * start of the span searched for, and every right subtree of an event starting after its end, so finding
+ * the k events overlapping a span takes O(log n + k) time for typical schedules, instead of checking every
+ * event. Spans are half-open: an event ending at 10:00 does not clash with one starting at 10:00.
+ * </p>
+ */
+class IntervalTree {
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Represents an event in the tree.
+     */
+    private static class Node {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int id;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(Event event, int priority) {
+            this.start = event.getStart();
+            this.end = event.getEnd();
+            this.id = event.getId();
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+
+    /**
+     * Adds the span of a task, if it is an event.
+     *
+     * @param task The task to add.
+     */
+    void addTask(Task task) {
+        if (task instanceof Event event) {
+            Node node = new Node(event, random.nextInt());
+            Node[] halves = split(root, event.getStart(), event.getId());
+            root = merge(merge(halves[0], node), halves[1]);
+        }
+    }
+
+    /**
+     * Removes the span of a task, if it is an event. The event must have the same start as when it was added.
+     *
+     * @param task The task to remove.
+     */
+    void removeTask(Task task) {
+        if (task instanceof Event event) {
+            root = remove(root, event.getStart(), event.getId());
+        }
+    }
+
+    /**
+     * Finds the events whose spans overlap the given span.
+     *
+     * @param start The start of the span.
+     * @param end The end of the span.
+     * @return The IDs of the overlapping events, in order of their starts.
+     */
+    List<Integer> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<Integer> ids = new ArrayList<>();
+        visitOverlapping(root, start, end, node -> ids.add(node.id));
+        return ids;
+    }
+
+    /**
+     * Finds the gaps between the events within a span that are at least the given length, earliest first.
+     * The events overlapping the span are merged as they are read in order of their starts, and reading
+     * stops as soon as enough gaps are found, so a search costs O(log n) plus the events read.
+     *
+     * @param start The start of the span.
+     * @param end The end of the span.
+     * @param minLength The shortest gap to find.
+     * @param limit The maximum number of gaps to find.
+     * @return The start and end of each gap.
+     */
+    List<LocalDateTime[]> findGaps(LocalDateTime start, LocalDateTime end, Duration minLength, int limit) {
+        List<LocalDateTime[]> gaps = new ArrayList<>();
+        LocalDateTime[] busyUntil = {start};
+        visitOverlapping(root, start, end, node -> {
+            if (!busyUntil[0].plus(minLength).isAfter(node.start)) {
+                gaps.add(new LocalDateTime[]{busyUntil[0], node.start});
+            }
+            if (node.end.isAfter(busyUntil[0])) {
+                busyUntil[0] = node.end;
+            }
+            return gaps.size() < limit;
+        });
+        if (gaps.size() < limit && !busyUntil[0].plus(minLength).isAfter(end)) {
+            gaps.add(new LocalDateTime[]{busyUntil[0], end});
+        }
+        return gaps;
+    }
+
+    /**
+     * Finds every pair of events whose spans overlap, with a sweep over the events in order of their starts.
+     * The events that have started but not yet ended are kept in a queue ordered by their ends, so the sweep
+     * takes O(n log n + k) time for k pairs, instead of comparing every pair of events.
+     *
+     * @return The IDs of each pair of overlapping events, the one starting first (or with the lower ID) first.
+     */
+    List<int[]> findAllOverlaps() {
+        List<int[]> overlaps = new ArrayList<>();
+        PriorityQueue<Node> ongoing = new PriorityQueue<>(Comparator.comparing((Node node) -> node.end));
+        Deque<Node> pending = new ArrayDeque<>();
+        Node next = root;
+        while (next != null || !pending.isEmpty()) {
+            while (next != null) {
+                pending.push(next);
+                next = next.left;
+            }
+            Node current = pending.pop();
+            next = current.right;
+
+            while (!ongoing.isEmpty() && !ongoing.peek().end.isAfter(current.start)) {
+                ongoing.poll();
+            }
+            for (Node other : ongoing) {
+                overlaps.add(new int[]{other.id, current.id});
+            }
+            ongoing.add(current);
+        }
+        return overlaps;
+    }
+
+    /**
+     * Visits the events overlapping a span in order of their starts, until the visitor returns {@code false}.
+     *
+     * @return {@code false} if the visit was stopped early, by the visitor or by reaching the end of the span.
+     */
+    private static boolean visitOverlapping(Node node, LocalDateTime start, LocalDateTime end,
+            Predicate<Node> visitor) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return true;
+        }
+        if (!visitOverlapping(node.left, start, end, visitor)) {
+            return false;
+        }
+        // Every event visited after this one starts no earlier, so none of them can overlap the span either
+        if (!node.start.isBefore(end)) {
+            return false;
+        }
+        if (node.end.isAfter(start) && !visitor.test(node)) {
+            return false;
+        }
+        return visitOverlapping(node.right, start, end, visitor);
+    }
+
+    private static int compareKeys(Node node, LocalDateTime start, int id) {
+        int comparison = node.start.compareTo(start);
+        return comparison != 0 ? comparison : Integer.compare(node.id, id);
+    }
+
+    /**
+     * Splits a subtree into the nodes ordered before the given key and the nodes from it onwards.
+     */
+    private static Node[] split(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compareKeys(node, start, id) < 0) {
+            Node[] halves = split(node.right, start, id);
+            node.right = halves[0];
+            update(node);
+            return new Node[]{node, halves[1]};
+        }
+        Node[] halves = split(node.left, start, id);
+        node.left = halves[1];
+        update(node);
+        return new Node[]{halves[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node remove(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compareKeys(node, start, id);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison > 0) {
+            node.left = remove(node.left, start, id);
+        } else {
+            node.right = remove(node.right, start, id);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Recomputes the latest end in the subtree of a node from its children.
+     */
+    private static void update(Node node) {
+        node.maxEnd = node.end;
+        for (Node child : new Node[]{node.left, node.right}) {
+            if (child != null && child.maxEnd.isAfter(node.maxEnd)) {
+                node.maxEnd = child.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package shagbot.tasks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a {@link TaskStore} that keeps its tasks outside the Java heap, in a memory-mapped file.
+ * <p>
+ * The file is both the store and its saved image: opening an existing file maps it into memory without
+ * parsing it, and every change is made directly to the mapped bytes. The file starts with a header,
+ * followed by one fixed-size record per task in list order and then the UTF-8 descriptions of the tasks,
+ * each followed by the tags of its task. The header also records when the task file last held the same tasks,
+ * so that an image left behind while the task file was changed without it is never taken as current.
+ * The garbage collector never sees the tasks themselves, only the {@code Task} objects created when
+ * a task is retrieved and one hash table mapping task IDs to positions.
+ * </p>
+ * <p>
+ * Inserting or removing a task anywhere except at the end moves the records after it, which takes O(n).
+ * Descriptions of removed tasks are left in place until they make up half of the description area,
+ * which is then compacted. A single mapping is limited to 2 GB.
+ * </p>
+ */
+class MappedTaskStore implements TaskStore {
+    private static final int MAGIC = 0x53484254;
+    private static final int VERSION = 3;
+    private static final int FIRST_MIGRATED_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+    private static final int RECORD_CAPACITY_OFFSET = 12;
+    private static final int DESCRIPTIONS_LENGTH_OFFSET = 16;
+    private static final int UNUSED_DESCRIPTION_BYTES_OFFSET = 20;
+    private static final int SYNCED_FILE_TIME_OFFSET = 24;
+
+    private static final int RECORD_SIZE = 24;
+    private static final int ID_FIELD = 0;
+    private static final int TYPE_FIELD = 4;
+    private static final int DONE_FIELD = 5;
+    private static final int PRIORITY_FIELD = 6;
+    private static final int FIRST_MINUTES_FIELD = 8;
+    private static final int SECOND_MINUTES_FIELD = 12;
+    private static final int DESCRIPTION_OFFSET_FIELD = 16;
+    private static final int DESCRIPTION_LENGTH_FIELD = 20;
+
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final int NO_POSITION = IdPositionMap.NO_POSITION;
+    private static final int INITIAL_RECORD_CAPACITY = 1024;
+    private static final int INITIAL_DESCRIPTIONS_CAPACITY = 32 * 1024;
+    private static final int MIN_BYTES_TO_COMPACT = 4096;
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+    private static final String NOT_A_TASK_IMAGE_MESSAGE = "Not a task image: ";
+    private static final String IMAGE_TOO_LARGE_MESSAGE = "Task image cannot grow beyond 2 GB.";
+
+    private final Path path;
+    private MappedByteBuffer buffer;
+    private int size;
+    private int recordCapacity;
+    private int descriptionsLength;
+    private int unusedDescriptionBytes;
+    private final IdPositionMap positionOfId = new IdPositionMap();
+    private int highestId = 0;
+
+    private MappedTaskStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the task image at the given path, creating an empty one if the file does not exist.
+     *
+     * @param path The path of the task image.
+     * @return The store backed by the task image.
+     * @throws IOException If the file cannot be mapped, or is not a task image.
+     */
+    static MappedTaskStore open(Path path) throws IOException {
+        MappedTaskStore store = new MappedTaskStore(path);
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            store.recordCapacity = INITIAL_RECORD_CAPACITY;
+            store.map(descriptionsStart(INITIAL_RECORD_CAPACITY) + INITIAL_DESCRIPTIONS_CAPACITY);
+            store.buffer.putInt(MAGIC_OFFSET, MAGIC);
+            store.buffer.putInt(VERSION_OFFSET, VERSION);
+            store.writeHeader();
+            return store;
+        }
+
+        store.map(Files.size(path));
+        MappedByteBuffer buffer = store.buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC
+                || buffer.getInt(VERSION_OFFSET) < FIRST_MIGRATED_VERSION
+                || buffer.getInt(VERSION_OFFSET) > VERSION) {
+            throw new IOException(NOT_A_TASK_IMAGE_MESSAGE + path);
+        }
+        store.size = buffer.getInt(SIZE_OFFSET);
+        store.recordCapacity = buffer.getInt(RECORD_CAPACITY_OFFSET);
+        store.descriptionsLength = buffer.getInt(DESCRIPTIONS_LENGTH_OFFSET);
+        store.unusedDescriptionBytes = buffer.getInt(UNUSED_DESCRIPTION_BYTES_OFFSET);
+        if (store.recordCapacity < 0 || store.recordCapacity > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE
+                || store.size < 0 || store.size > store.recordCapacity || store.descriptionsLength < 0
+                || descriptionsStart(store.recordCapacity) + store.descriptionsLength > buffer.capacity()) {
+            throw new IOException(NOT_A_TASK_IMAGE_MESSAGE + path);
+        }
+        for (int i = 0; i < store.size; i++) {
+            store.setPositionOfId(store.readInt(i, ID_FIELD), i);
+        }
+        if (buffer.getInt(VERSION_OFFSET) < VERSION) {
+            store.migrate();
+        }
+        return store;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkPosition(index, size);
+        return readTask(index);
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        checkPosition(index, size + 1);
+        assert !containsId(task.getId()) : "Task IDs must be unique.";
+        if (size == recordCapacity) {
+            growRecords();
+        }
+        moveBytes(recordStart(index), recordStart(index + 1), (size - index) * RECORD_SIZE);
+        size++;
+        writeTask(index, task);
+        updatePositions(index + 1, size);
+        writeHeader();
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkPosition(index, size);
+        Task removedTask = readTask(index);
+        positionOfId.remove(removedTask.getId());
+        unusedDescriptionBytes += readInt(index, DESCRIPTION_LENGTH_FIELD);
+        moveBytes(recordStart(index + 1), recordStart(index), (size - index - 1) * RECORD_SIZE);
+        size--;
+        updatePositions(index, size);
+        compactDescriptionsIfSparse();
+        writeHeader();
+        return removedTask;
+    }
+
+    @Override
+    public Task[] removeAll(int[] sortedIndexes) {
+        Task[] removedTasks = new Task[sortedIndexes.length];
+        if (sortedIndexes.length == 0) {
+            return removedTasks;
+        }
+        checkPosition(sortedIndexes[0], size);
+        checkPosition(sortedIndexes[sortedIndexes.length - 1], size);
+        // Each run of remaining records between two removed ones is moved forward once
+        int keptCount = sortedIndexes[0];
+        for (int i = 0; i < sortedIndexes.length; i++) {
+            int index = sortedIndexes[i];
+            assert i == 0 || sortedIndexes[i - 1] < index : "Indexes must be sorted without duplicates.";
+            removedTasks[i] = readTask(index);
+            positionOfId.remove(removedTasks[i].getId());
+            unusedDescriptionBytes += readInt(index, DESCRIPTION_LENGTH_FIELD);
+            int runEnd = i + 1 < sortedIndexes.length ? sortedIndexes[i + 1] : size;
+            moveBytes(recordStart(index + 1), recordStart(keptCount), (runEnd - index - 1) * RECORD_SIZE);
+            keptCount += runEnd - index - 1;
+        }
+        size = keptCount;
+        updatePositions(sortedIndexes[0], size);
+        compactDescriptionsIfSparse();
+        writeHeader();
+        return removedTasks;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        checkPosition(index, size);
+        Task replacedTask = readTask(index);
+        positionOfId.remove(replacedTask.getId());
+        assert !containsId(task.getId()) : "Task IDs must be unique.";
+        if (task.toStoredText().equals(replacedTask.toStoredText())) {
+            writeFields(index, task);
+        } else {
+            unusedDescriptionBytes += readInt(index, DESCRIPTION_LENGTH_FIELD);
+            writeTask(index, task);
+            compactDescriptionsIfSparse();
+        }
+        writeHeader();
+        return replacedTask;
+    }
+
+    @Override
+    public long estimateHeapBytes(Task task) {
+        // The records and descriptions are in the mapped file, so only the position of the ID is on the heap
+        return IdPositionMap.BYTES_PER_ID;
+    }
+
+    @Override
+    public boolean containsId(int id) {
+        return indexOfId(id) != NO_POSITION;
+    }
+
+    @Override
+    public Task getById(int id) {
+        int index = indexOfId(id);
+        return index == NO_POSITION ? null : readTask(index);
+    }
+
+    @Override
+    public int indexOfId(int id) {
+        return positionOfId.get(id);
+    }
+
+    @Override
+    public int getHighestId() {
+        return highestId;
+    }
+
+    @Override
+    public boolean isPersistent() {
+        return true;
+    }
+
+    @Override
+    public long getSyncedFileTime() {
+        return buffer.getLong(SYNCED_FILE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setSyncedFileTime(long time) {
+        buffer.putLong(SYNCED_FILE_TIME_OFFSET, time);
+    }
+
+    @Override
+    public void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int nextIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < size;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readTask(nextIndex++);
+            }
+        };
+    }
+
+    private Task readTask(int index) {
+        byte[] descriptionBytes = new byte[readInt(index, DESCRIPTION_LENGTH_FIELD)];
+        buffer.get(descriptionsStart(recordCapacity) + readInt(index, DESCRIPTION_OFFSET_FIELD), descriptionBytes);
+        String[] text = Task.splitStoredText(new String(descriptionBytes, StandardCharsets.UTF_8));
+        String description = text[0];
+        Task task;
+        switch (buffer.get(recordStart(index) + TYPE_FIELD)) {
+        case DEADLINE:
+            task = new Deadline(description, toDateTime(readInt(index, FIRST_MINUTES_FIELD)));
+            break;
+        case EVENT:
+            task = new Event(description, toDateTime(readInt(index, FIRST_MINUTES_FIELD)),
+                    toDateTime(readInt(index, SECOND_MINUTES_FIELD)));
+            break;
+        default:
+            task = new Todo(description);
+            break;
+        }
+        task.setId(readInt(index, ID_FIELD));
+        task.setTags(Arrays.asList(text).subList(1, text.length));
+        if (buffer.get(recordStart(index) + DONE_FIELD) != 0) {
+            task.mark();
+        }
+        task.setPriority(Priority.values()[buffer.get(recordStart(index) + PRIORITY_FIELD)]);
+        return task;
+    }
+
+    /**
+     * Writes every field of the task into the record at the given position,
+     * appending its description to the description area.
+     */
+    private void writeTask(int index, Task task) {
+        byte[] descriptionBytes = task.toStoredText().getBytes(StandardCharsets.UTF_8);
+        long requiredCapacity = (long) descriptionsStart(recordCapacity) + descriptionsLength + descriptionBytes.length;
+        if (requiredCapacity > buffer.capacity()) {
+            remap(Math.max(requiredCapacity, 2L * buffer.capacity()));
+        }
+        buffer.put(descriptionsStart(recordCapacity) + descriptionsLength, descriptionBytes);
+        writeInt(index, DESCRIPTION_OFFSET_FIELD, descriptionsLength);
+        writeInt(index, DESCRIPTION_LENGTH_FIELD, descriptionBytes.length);
+        descriptionsLength += descriptionBytes.length;
+        writeFields(index, task);
+    }
+
+    /**
+     * Writes every field of the task except its description into the record at the given position.
+     */
+    private void writeFields(int index, Task task) {
+        int recordStart = recordStart(index);
+        if (task instanceof Deadline deadline) {
+            buffer.put(recordStart + TYPE_FIELD, DEADLINE);
+            writeInt(index, FIRST_MINUTES_FIELD, toEpochMinutes(deadline.getByTiming()));
+        } else if (task instanceof Event event) {
+            buffer.put(recordStart + TYPE_FIELD, EVENT);
+            writeInt(index, FIRST_MINUTES_FIELD, toEpochMinutes(event.getStart()));
+            writeInt(index, SECOND_MINUTES_FIELD, toEpochMinutes(event.getEnd()));
+        } else {
+            buffer.put(recordStart + TYPE_FIELD, TODO);
+        }
+        buffer.put(recordStart + DONE_FIELD, (byte) (task.isDone() ? 1 : 0));
+        buffer.put(recordStart + PRIORITY_FIELD, (byte) task.getPriority().ordinal());
+        writeInt(index, ID_FIELD, task.getId());
+        setPositionOfId(task.getId(), index);
+    }
+
+    /**
+     * Doubles the number of records the file can hold, moving the description area back to make room.
+     */
+    private void growRecords() {
+        int newRecordCapacity = recordCapacity * 2;
+        long requiredCapacity = HEADER_SIZE + (long) newRecordCapacity * RECORD_SIZE + descriptionsLength;
+        if (requiredCapacity > buffer.capacity()) {
+            remap(requiredCapacity);
+        }
+        moveBytes(descriptionsStart(recordCapacity), descriptionsStart(newRecordCapacity), descriptionsLength);
+        recordCapacity = newRecordCapacity;
+        writeHeader();
+    }
+
+    /**
+     * Moves the descriptions of the remaining tasks to the front of the description area once the
+     * descriptions of removed or changed tasks take up more than half of it.
+     * Descriptions are moved in the order they are stored, so no description overwrites one not yet moved.
+     */
+    private void compactDescriptionsIfSparse() {
+        if (unusedDescriptionBytes < MIN_BYTES_TO_COMPACT || unusedDescriptionBytes * 2 < descriptionsLength) {
+            return;
+        }
+        long[] offsetsAndPositions = new long[size];
+        for (int i = 0; i < size; i++) {
+            offsetsAndPositions[i] = ((long) readInt(i, DESCRIPTION_OFFSET_FIELD) << Integer.SIZE) | i;
+        }
+        Arrays.sort(offsetsAndPositions);
+        int start = descriptionsStart(recordCapacity);
+        int compactedLength = 0;
+        for (long offsetAndPosition : offsetsAndPositions) {
+            int index = (int) offsetAndPosition;
+            int length = readInt(index, DESCRIPTION_LENGTH_FIELD);
+            moveBytes(start + (int) (offsetAndPosition >>> Integer.SIZE), start + compactedLength, length);
+            writeInt(index, DESCRIPTION_OFFSET_FIELD, compactedLength);
+            compactedLength += length;
+        }
+        descriptionsLength = compactedLength;
+        unusedDescriptionBytes = 0;
+    }
+
+    /**
+     * Copies bytes within the file, in chunks ordered so that overlapping ranges are copied correctly.
+     */
+    private void moveBytes(int from, int to, int length) {
+        if (length <= 0 || from == to) {
+            return;
+        }
+        byte[] chunk = new byte[Math.min(length, COPY_CHUNK_SIZE)];
+        for (int copied = 0; copied < length; copied += chunk.length) {
+            int chunkLength = Math.min(chunk.length, length - copied);
+            int chunkStart = to < from ? copied : length - copied - chunkLength;
+            buffer.get(from + chunkStart, chunk, 0, chunkLength);
+            buffer.put(to + chunkStart, chunk, 0, chunkLength);
+        }
+    }
+
+    /**
+     * Maps the first {@code length} bytes of the file, extending the file if it is shorter.
+     */
+    private void map(long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException(IMAGE_TOO_LARGE_MESSAGE);
+        }
+        // A mapping stays valid after its channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        }
+    }
+
+    /**
+     * Maps a larger part of the file while the store is being changed.
+     *
+     * @throws UncheckedIOException If the file cannot be extended or mapped.
+     */
+    private void remap(long length) {
+        try {
+            map(length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Upgrades an image saved by an older version in place. Version 1 images had no priorities or tags, which
+     * read as none since the priority byte was always zero and descriptions never hold the tag separator.
+     * Images before version 3 did not record when the task file held the same tasks, so one holding tasks
+     * is taken as current until it is next saved, as it was before.
+     */
+    private void migrate() {
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putLong(SYNCED_FILE_TIME_OFFSET, size > 0 ? UNKNOWN_SYNCED_FILE_TIME : 0);
+        buffer.force();
+    }
+
+    private void writeHeader() {
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putInt(RECORD_CAPACITY_OFFSET, recordCapacity);
+        buffer.putInt(DESCRIPTIONS_LENGTH_OFFSET, descriptionsLength);
+        buffer.putInt(UNUSED_DESCRIPTION_BYTES_OFFSET, unusedDescriptionBytes);
+    }
+
+    private void updatePositions(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            positionOfId.put(readInt(i, ID_FIELD), i);
+        }
+    }
+
+    private void setPositionOfId(int id, int index) {
+        positionOfId.put(id, index);
+        highestId = Math.max(highestId, id);
+    }
+
+    private int readInt(int index, int field) {
+        return buffer.getInt(recordStart(index) + field);
+    }
+
+    private void writeInt(int index, int field, int value) {
+        buffer.putInt(recordStart(index) + field, value);
+    }
+
+    private static int recordStart(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private static int descriptionsStart(int recordCapacity) {
+        return HEADER_SIZE + recordCapacity * RECORD_SIZE;
+    }
+
+    private static int toEpochMinutes(LocalDateTime dateTime) {
+        assert dateTime.getSecond() == 0 && dateTime.getNano() == 0 : "Task times are stored to the minute.";
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    private static LocalDateTime toDateTime(int epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private static void checkPosition(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + limit);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package shagbot.tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Represents the incomplete tasks of a task list in the order they should be done next: highest priority first,
+ * then earliest due date, with the start of an event as its due date and todos after every dated task.
+ * <p>
+ * The tasks are kept in a binary heap with a position for every task ID, so adding, removing or changing a task
+ * moves only that task up or down the heap in O(log n). The first k tasks are read without changing the heap,
+ * by walking it from the top with a queue of the tasks that could come next, in O(k log k).
+ * </p>
+ */
+class NextTaskHeap {
+    private static final int NO_POSITION = -1;
+    private static final long NO_DUE_DATE = Long.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] priorities = new int[INITIAL_CAPACITY];
+    private long[] dueDates = new long[INITIAL_CAPACITY];
+    private final Map<Integer, Integer> positionOfId = new HashMap<>();
+    private int size = 0;
+
+    /**
+     * Adds a task to the heap, unless it is done.
+     *
+     * @param task The task, which must have an ID that is not already in the heap.
+     */
+    void addTask(Task task) {
+        if (task.isDone()) {
+            return;
+        }
+        assert positionOf(task.getId()) == NO_POSITION : "Task IDs must be unique.";
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+            dueDates = Arrays.copyOf(dueDates, size * 2);
+        }
+        setEntry(size, task.getId(), task.getPriority().ordinal(), getDueDate(task));
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Removes a task from the heap, if it is there.
+     *
+     * @param task The task.
+     */
+    void removeTask(Task task) {
+        int position = positionOf(task.getId());
+        if (position == NO_POSITION) {
+            return;
+        }
+        positionOfId.remove(task.getId());
+        size--;
+        if (position < size) {
+            setEntry(position, ids[size], priorities[size], dueDates[size]);
+            resift(position);
+        }
+    }
+
+    /**
+     * Moves a task to its new place in the heap after it changed, adding it if it is no longer done
+     * and removing it if it now is.
+     *
+     * @param task The task, as it is after the change.
+     */
+    void updateTask(Task task) {
+        int position = positionOf(task.getId());
+        if (position == NO_POSITION) {
+            addTask(task);
+        } else if (task.isDone()) {
+            removeTask(task);
+        } else {
+            setEntry(position, task.getId(), task.getPriority().ordinal(), getDueDate(task));
+            resift(position);
+        }
+    }
+
+    /**
+     * Retrieves the IDs of the tasks to do next, without changing the heap.
+     *
+     * @param count The most IDs to retrieve.
+     * @return The IDs, of the task to do first first.
+     */
+    int[] peekIds(int count) {
+        int[] nextIds = new int[Math.min(count, size)];
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(this::compare);
+        if (size > 0) {
+            frontier.add(0);
+        }
+        for (int i = 0; i < nextIds.length; i++) {
+            int position = frontier.poll();
+            nextIds[i] = ids[position];
+            for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                frontier.add(child);
+            }
+        }
+        return nextIds;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int positionOf(int id) {
+        return positionOfId.getOrDefault(id, NO_POSITION);
+    }
+
+    private void setEntry(int position, int id, int priority, long dueDate) {
+        ids[position] = id;
+        priorities[position] = priority;
+        dueDates[position] = dueDate;
+        positionOfId.put(id, position);
+    }
+
+    private void resift(int position) {
+        if (position > 0 && compare(position, (position - 1) / 2) < 0) {
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (compare(position, parent) >= 0) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int first = position;
+            for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                if (compare(child, first) < 0) {
+                    first = child;
+                }
+            }
+            if (first == position) {
+                return;
+            }
+            swap(position, first);
+            position = first;
+        }
+    }
+
+    private void swap(int first, int second) {
+        int id = ids[first];
+        int priority = priorities[first];
+        long dueDate = dueDates[first];
+        setEntry(first, ids[second], priorities[second], dueDates[second]);
+        setEntry(second, id, priority, dueDate);
+    }
+
+    /**
+     * Compares the tasks at two positions, with the task to do first being smaller.
+     */
+    private int compare(int first, int second) {
+        if (priorities[first] != priorities[second]) {
+            return Integer.compare(priorities[second], priorities[first]);
+        }
+        if (dueDates[first] != dueDates[second]) {
+            return Long.compare(dueDates[first], dueDates[second]);
+        }
+        return Integer.compare(ids[first], ids[second]);
+    }
+
+    private static long getDueDate(Task task) {
+        LocalDateTime dueDate;
+        if (task instanceof Deadline deadline) {
+            dueDate = deadline.getByTiming();
+        } else if (task instanceof Event event) {
+            dueDate = event.getStart();
+        } else {
+            return NO_DUE_DATE;
+        }
+        return dueDate.toEpochSecond(ZoneOffset.UTC);
+    }
+}
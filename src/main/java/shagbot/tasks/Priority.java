@@ -0,0 +1,30 @@
+package shagbot.tasks;
+
+import java.util.Locale;
+
+/**
+ * Represents how urgent a task is, from no priority at all up to high.
+ */
+public enum Priority {
+    NONE, LOW, MEDIUM, HIGH;
+
+    /**
+     * Finds the priority with the given name, ignoring case.
+     *
+     * @param name The name of the priority, such as {@code high}.
+     * @return The priority, or {@code null} if there is no priority with that name.
+     */
+    public static Priority fromName(String name) {
+        for (Priority priority : values()) {
+            if (priority.name().equalsIgnoreCase(name.trim())) {
+                return priority;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
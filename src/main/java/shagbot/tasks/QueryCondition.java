@@ -0,0 +1,245 @@
+package shagbot.tasks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents a single condition of a {@link TaskQuery}, such as {@code due<1/12/2025} or {@code done=false}.
+ * <p>
+ * Every comparison is compiled into a range of values, with each bound inclusive or exclusive, and possibly
+ * negated for {@code !=}. A date without a time stands for the whole day, so {@code due=1/12/2025} matches
+ * any time on that day and {@code due>1/12/2025} only matches from the next day. A task without the field,
+ * such as a todo for {@code due}, never matches.
+ * </p>
+ * <p>
+ * {@code tag=ops} matches the tasks with that tag among their tags, and {@code tag!=ops} the tasks without it,
+ * including tasks with no tags at all. Both are answered from the tag index by the {@link QueryPlanner}.
+ * </p>
+ * <p>
+ * The {@code ~} operator matches words of the description, as {@code find} does, and is answered
+ * from the token index by the {@link QueryPlanner} instead of being tested task by task.
+ * </p>
+ */
+final class QueryCondition {
+    static final String EQUAL = "=";
+    static final String NOT_EQUAL = "!=";
+    static final String LESS = "<";
+    static final String LESS_OR_EQUAL = "<=";
+    static final String GREATER = ">";
+    static final String GREATER_OR_EQUAL = ">=";
+    static final String MATCHES = "~";
+    static final List<String> OPERATORS = List.of(LESS_OR_EQUAL, GREATER_OR_EQUAL, NOT_EQUAL, EQUAL, LESS, GREATER,
+            MATCHES);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d/M/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("d/M/uuuu HHmm")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final String INVALID_OPERATOR_MESSAGE = "OOPSIE!! '%s' cannot be used with %s. %s";
+    private static final String EQUALITY_ONLY_HINT = "Only = and != can.";
+    private static final String TEXT_ONLY_HINT = "Only ~ can, e.g. description~report.";
+    private static final String MATCHES_ONLY_HINT = "Only description can, e.g. description~report.";
+    private static final String INVALID_VALUE_MESSAGE = "OOPSIE!! '%s' is not a valid value for %s. %s";
+    private static final String NUMBER_HINT = "Please use a whole number.";
+    private static final String TYPE_HINT = "Please use todo, deadline or event.";
+    private static final String BOOLEAN_HINT = "Please use true or false.";
+    private static final String DATE_HINT = "Please use 'd/M/yyyy' or 'd/M/yyyy HHmm'.";
+    private static final String TAG_HINT = "Please use letters, digits, _ and -, e.g. tag=ops.";
+
+    private final QueryField field;
+    private final String operator;
+    private final String valueText;
+    private final String[] terms;
+    private final Object lower;
+    private final boolean isLowerInclusive;
+    private final Object upper;
+    private final boolean isUpperInclusive;
+    private final boolean isNegated;
+
+    private QueryCondition(QueryField field, String operator, String valueText, String[] terms, Object lower,
+            boolean isLowerInclusive, Object upper, boolean isUpperInclusive, boolean isNegated) {
+        this.field = field;
+        this.operator = operator;
+        this.valueText = valueText;
+        this.terms = terms;
+        this.lower = lower;
+        this.isLowerInclusive = isLowerInclusive;
+        this.upper = upper;
+        this.isUpperInclusive = isUpperInclusive;
+        this.isNegated = isNegated;
+    }
+
+    /**
+     * Compiles a condition comparing a field with a value.
+     *
+     * @param field The field.
+     * @param operator One of {@link #OPERATORS}.
+     * @param valueText The value, as written in the query.
+     * @return The condition.
+     * @throws IllegalArgumentException If the operator cannot be used with the field, or the value is invalid.
+     */
+    static QueryCondition of(QueryField field, String operator, String valueText) {
+        assert OPERATORS.contains(operator) : "Unknown operator: " + operator;
+        if (operator.equals(MATCHES) || field.getKind() == QueryField.Kind.TEXT) {
+            if (!operator.equals(MATCHES) || field.getKind() != QueryField.Kind.TEXT) {
+                String hint = operator.equals(MATCHES) ? MATCHES_ONLY_HINT : TEXT_ONLY_HINT;
+                throw new IllegalArgumentException(String.format(INVALID_OPERATOR_MESSAGE, operator, field, hint));
+            }
+            return new QueryCondition(field, operator, valueText, valueText.trim().split("\\s+"),
+                    null, false, null, false, false);
+        }
+        if (!field.isOrdered() && !operator.equals(EQUAL) && !operator.equals(NOT_EQUAL)) {
+            throw new IllegalArgumentException(String.format(INVALID_OPERATOR_MESSAGE, operator, field,
+                    EQUALITY_ONLY_HINT));
+        }
+
+        Object value = parseValue(field, valueText);
+        // A date on its own covers the whole day, up to the start of the next day
+        Object endOfValue = value;
+        boolean isEndInclusive = true;
+        if (field.getKind() == QueryField.Kind.DATE_TIME && !valueText.trim().contains(" ")) {
+            endOfValue = ((LocalDateTime) value).plusDays(1);
+            isEndInclusive = false;
+        }
+
+        switch (operator) {
+        case EQUAL:
+            return new QueryCondition(field, operator, valueText, null, value, true, endOfValue, isEndInclusive,
+                    false);
+        case NOT_EQUAL:
+            return new QueryCondition(field, operator, valueText, null, value, true, endOfValue, isEndInclusive,
+                    true);
+        case LESS:
+            return new QueryCondition(field, operator, valueText, null, null, false, value, false, false);
+        case LESS_OR_EQUAL:
+            return new QueryCondition(field, operator, valueText, null, null, false, endOfValue, isEndInclusive,
+                    false);
+        case GREATER:
+            return new QueryCondition(field, operator, valueText, null, endOfValue, !isEndInclusive, null, false,
+                    false);
+        default:
+            return new QueryCondition(field, operator, valueText, null, value, true, null, false, false);
+        }
+    }
+
+    /**
+     * Tests whether a task meets the condition. Must not be used for {@code ~} conditions.
+     *
+     * @param task The task.
+     * @return {@code true} if the task meets the condition.
+     */
+    boolean test(Task task) {
+        assert !isTextMatch() : "Text conditions are answered from the token index.";
+        if (field.getKind() == QueryField.Kind.TAG) {
+            return task.getTags().contains(lower) != isNegated;
+        }
+        Object value = field.getValue(task);
+        if (value == null) {
+            return false;
+        }
+        return isInRange(value) != isNegated;
+    }
+
+    /**
+     * Checks whether a value of the field lies within the range of the condition, ignoring negation.
+     */
+    boolean isInRange(Object value) {
+        if (lower != null) {
+            int comparison = QueryField.compareValues(value, lower);
+            if (comparison < 0 || comparison == 0 && !isLowerInclusive) {
+                return false;
+            }
+        }
+        if (upper != null) {
+            int comparison = QueryField.compareValues(value, upper);
+            return comparison < 0 || comparison == 0 && isUpperInclusive;
+        }
+        return true;
+    }
+
+    QueryField getField() {
+        return field;
+    }
+
+    boolean isTextMatch() {
+        return terms != null;
+    }
+
+    String[] getTerms() {
+        return terms.clone();
+    }
+
+    /**
+     * Checks whether the condition only matches tasks whose field equals a single value.
+     */
+    boolean isSingleValue() {
+        return !isNegated && lower != null && lower.equals(upper);
+    }
+
+    Object getLower() {
+        return lower;
+    }
+
+    boolean isLowerInclusive() {
+        return isLowerInclusive;
+    }
+
+    Object getUpper() {
+        return upper;
+    }
+
+    boolean isUpperInclusive() {
+        return isUpperInclusive;
+    }
+
+    boolean isNegated() {
+        return isNegated;
+    }
+
+    @Override
+    public String toString() {
+        return field + operator + valueText;
+    }
+
+    private static Object parseValue(QueryField field, String valueText) {
+        String value = valueText.trim();
+        try {
+            switch (field.getKind()) {
+            case NUMBER:
+                return Integer.parseInt(value);
+            case TYPE:
+                String type = value.toLowerCase(Locale.ROOT);
+                if (type.equals(QueryField.TODO_TYPE) || type.equals(QueryField.DEADLINE_TYPE)
+                        || type.equals(QueryField.EVENT_TYPE)) {
+                    return type;
+                }
+                throw new IllegalArgumentException(String.format(INVALID_VALUE_MESSAGE, value, field, TYPE_HINT));
+            case BOOLEAN:
+                if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+                    return Boolean.parseBoolean(value);
+                }
+                throw new IllegalArgumentException(String.format(INVALID_VALUE_MESSAGE, value, field,
+                        BOOLEAN_HINT));
+            case TAG:
+                String tag = (value.startsWith("#") ? value.substring(1) : value).toLowerCase(Locale.ROOT);
+                if (Task.isValidTag(tag)) {
+                    return tag;
+                }
+                throw new IllegalArgumentException(String.format(INVALID_VALUE_MESSAGE, value, field, TAG_HINT));
+            default:
+                return value.contains(" ")
+                        ? LocalDateTime.parse(value, DATE_TIME_FORMAT)
+                        : LocalDate.parse(value, DATE_FORMAT).atStartOfDay();
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(INVALID_VALUE_MESSAGE, value, field, NUMBER_HINT));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format(INVALID_VALUE_MESSAGE, value, field, DATE_HINT));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package shagbot.tasks;
+
+import java.util.function.Function;
+
+/**
+ * Represents a field of a task that a {@link TaskQuery} can filter or order tasks by.
+ */
+enum QueryField {
+    ID("id", Kind.NUMBER, Task::getId),
+    TYPE("type", Kind.TYPE, QueryField::typeOf),
+    DONE("done", Kind.BOOLEAN, Task::isDone),
+    DESCRIPTION("description", Kind.TEXT, Task::getDescription),
+    DUE("due", Kind.DATE_TIME, task -> task instanceof Deadline deadline ? deadline.getByTiming() : null),
+    START("start", Kind.DATE_TIME, task -> task instanceof Event event ? event.getStart() : null),
+    END("end", Kind.DATE_TIME, task -> task instanceof Event event ? event.getEnd() : null),
+    TAG("tag", Kind.TAG, task -> task.getTags().isEmpty() ? null : String.join(",", task.getTags()));
+
+    static final String TODO_TYPE = "todo";
+    static final String DEADLINE_TYPE = "deadline";
+    static final String EVENT_TYPE = "event";
+
+    /**
+     * Represents the kind of values a field holds, which decides how values are parsed and compared.
+     */
+    enum Kind {
+        NUMBER, TYPE, BOOLEAN, TEXT, DATE_TIME, TAG
+    }
+
+    private final String fieldName;
+    private final Kind kind;
+    private final Function<Task, Object> getter;
+
+    QueryField(String fieldName, Kind kind, Function<Task, Object> getter) {
+        this.fieldName = fieldName;
+        this.kind = kind;
+        this.getter = getter;
+    }
+
+    /**
+     * Finds the field with the given name, ignoring case.
+     *
+     * @param name The name of the field, as written in a query.
+     * @return The field, or {@code null} if there is no field with that name.
+     */
+    static QueryField fromName(String name) {
+        for (QueryField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the value of this field of the given task.
+     *
+     * @param task The task.
+     * @return The value, which is {@link Comparable}, or {@code null} if the task does not have this field,
+     *         such as the due date of a todo. The tags of a task are joined into one value by commas.
+     */
+    Object getValue(Task task) {
+        return getter.apply(task);
+    }
+
+    /**
+     * Compares two values of the same field.
+     */
+    @SuppressWarnings("unchecked")
+    static int compareValues(Object first, Object second) {
+        return ((Comparable<Object>) first).compareTo(second);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Checks whether values of this field can be compared with {@code <}, {@code <=}, {@code >} and {@code >=}.
+     */
+    boolean isOrdered() {
+        return kind == Kind.NUMBER || kind == Kind.DATE_TIME;
+    }
+
+    @Override
+    public String toString() {
+        return fieldName;
+    }
+
+    private static Object typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return DEADLINE_TYPE;
+        } else if (task instanceof Event) {
+            return EVENT_TYPE;
+        }
+        return TODO_TYPE;
+    }
+}
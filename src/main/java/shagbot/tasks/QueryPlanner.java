@@ -0,0 +1,269 @@
+package shagbot.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a planner that answers a {@link TaskQuery} over a task store, reading as few tasks as it can.
+ * <p>
+ * Every condition that an index can answer is estimated by counting its matches in that index,
+ * and the tasks are read from the index with the fewest matches, or from the whole store if no index
+ * narrows them down. The remaining conditions are then tested on each task read. If the tasks are read
+ * in the order the query asks for, such as from the date index when ordering by that date, reading stops
+ * as soon as the limit is reached.
+ * </p>
+ * <p>
+ * Tag conditions are answered together: the tag bitmaps of the wanted tags are intersected, and those of
+ * the unwanted tags taken away, so only the tasks meeting all of them are read.
+ * </p>
+ */
+class QueryPlanner {
+    static final List<QueryField> INDEXED_FIELDS = List.of(QueryField.DONE, QueryField.DUE, QueryField.START,
+            QueryField.END);
+
+    private final TaskStore tasks;
+    private final Supplier<TokenTrie> tokenIndex;
+    private final Supplier<TagIndex> tagIndex;
+    private final Map<QueryField, SortedIndex> indexes;
+
+    /**
+     * Represents a way of reading the candidate tasks of a query.
+     */
+    private static class AccessPath {
+        private final String description;
+        private final List<QueryCondition> conditions;
+        private final int estimatedCount;
+        private final Supplier<Iterator<Task>> source;
+        private final boolean isInResultOrder;
+
+        private AccessPath(String description, List<QueryCondition> conditions, int estimatedCount,
+                Supplier<Iterator<Task>> source, boolean isInResultOrder) {
+            this.description = description;
+            this.conditions = conditions;
+            this.estimatedCount = estimatedCount;
+            this.source = source;
+            this.isInResultOrder = isInResultOrder;
+        }
+    }
+
+    /**
+     * Constructor for the {@code QueryPlanner} class.
+     *
+     * @param tasks The store holding the tasks.
+     * @param tokenIndex Supplies the token index over the descriptions of the tasks, only when needed.
+     * @param tagIndex Supplies the tag index over the tasks, only when needed.
+     * @param indexes The sorted indexes over the tasks, by the field they index.
+     */
+    QueryPlanner(TaskStore tasks, Supplier<TokenTrie> tokenIndex, Supplier<TagIndex> tagIndex,
+            Map<QueryField, SortedIndex> indexes) {
+        this.tasks = tasks;
+        this.tokenIndex = tokenIndex;
+        this.tagIndex = tagIndex;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Answers a query.
+     *
+     * @param query The query.
+     * @return The matching tasks and how they were found.
+     * @throws IllegalArgumentException If a {@code ~} condition has a malformed term.
+     */
+    QueryResult run(TaskQuery query) {
+        QueryField orderField = query.getOrderField();
+        int limit = query.getLimit();
+        List<Predicate<Task>> filters = new ArrayList<>();
+        AccessPath access = new AccessPath("every task in the list", List.of(), tasks.size(), tasks::iterator,
+                orderField == null);
+        List<QueryCondition> tagConditions = new ArrayList<>();
+
+        for (QueryCondition condition : query.getConditions()) {
+            AccessPath candidate;
+            if (condition.isTextMatch()) {
+                Set<Integer> ids = tokenIndex.get().findTasks(condition.getTerms());
+                filters.add(task -> ids.contains(task.getId()));
+                candidate = new AccessPath("the text index on description for " + condition, List.of(condition),
+                        ids.size(), () -> readByIds(ids.iterator()), false);
+            } else if (condition.getField() == QueryField.TAG) {
+                filters.add(condition::test);
+                tagConditions.add(condition);
+                candidate = null;
+            } else {
+                filters.add(condition::test);
+                candidate = planIndexAccess(condition, orderField, query.isDescending());
+            }
+            if (candidate != null && candidate.estimatedCount < access.estimatedCount) {
+                access = candidate;
+            }
+        }
+        AccessPath tagAccess = planTagAccess(tagConditions);
+        if (tagAccess != null && tagAccess.estimatedCount < access.estimatedCount) {
+            access = tagAccess;
+        }
+        if (access.conditions.isEmpty() && orderField != null && limit > 0 && indexes.containsKey(orderField)) {
+            access = planOrderedAccess(indexes.get(orderField), query.isDescending());
+        }
+
+        Iterator<Task> candidates = access.source.get();
+        List<Task> matches = new ArrayList<>();
+        int examinedCount = 0;
+        while (candidates.hasNext() && !(access.isInResultOrder && limit > 0 && matches.size() >= limit)) {
+            Task task = candidates.next();
+            examinedCount++;
+            if (filters.stream().allMatch(filter -> filter.test(task))) {
+                matches.add(task);
+            }
+        }
+        int matchCount = matches.size();
+        if (!access.isInResultOrder) {
+            matches = orderField == null ? sortInListOrder(matches) : sortByField(matches, orderField,
+                    query.isDescending());
+        }
+        if (limit > 0 && matches.size() > limit) {
+            matches = matches.subList(0, limit);
+        }
+
+        String plan = describePlan(query, access, examinedCount, matchCount);
+        return new QueryResult(matches.toArray(new Task[0]), plan, examinedCount, tasks.size());
+    }
+
+    /**
+     * Plans reading the tasks that meet a condition from an index, if one can answer it.
+     *
+     * @return The access path, or {@code null} if no index can answer the condition.
+     */
+    private AccessPath planIndexAccess(QueryCondition condition, QueryField orderField, boolean isDescending) {
+        QueryField field = condition.getField();
+        if (field == QueryField.ID && condition.isSingleValue()) {
+            int id = (Integer) condition.getLower();
+            List<Integer> ids = tasks.containsId(id) ? List.of(id) : List.of();
+            return new AccessPath("a lookup by ID for " + condition, List.of(condition), ids.size(),
+                    () -> readByIds(ids.iterator()), true);
+        }
+        SortedIndex index = indexes.get(field);
+        if (index == null || condition.isNegated()) {
+            return null;
+        }
+        boolean isInResultOrder = field == orderField;
+        return new AccessPath(describeIndex(field) + " for " + condition, List.of(condition),
+                index.count(condition), () -> readByIds(index.iterateIds(condition, isInResultOrder && isDescending)),
+                isInResultOrder);
+    }
+
+    /**
+     * Plans reading the tasks that meet every tag condition, by intersecting the tag bitmaps of the wanted tags
+     * and taking away those of the unwanted ones.
+     *
+     * @return The access path, or {@code null} if no tag is wanted, as the tasks without a tag are not indexed.
+     */
+    private AccessPath planTagAccess(List<QueryCondition> conditions) {
+        IdBitmap ids = null;
+        for (QueryCondition condition : conditions) {
+            if (!condition.isNegated()) {
+                IdBitmap taggedIds = tagIndex.get().getTasks((String) condition.getLower());
+                ids = ids == null ? taggedIds : ids.and(taggedIds);
+            }
+        }
+        if (ids == null) {
+            return null;
+        }
+        for (QueryCondition condition : conditions) {
+            if (condition.isNegated()) {
+                ids = ids.andNot(tagIndex.get().getTasks((String) condition.getLower()));
+            }
+        }
+        int[] matchingIds = ids.toArray();
+        String description = conditions.stream().map(QueryCondition::toString).collect(Collectors.joining(" and "));
+        return new AccessPath("the tag index for " + description, conditions, matchingIds.length,
+                () -> readByIds(Arrays.stream(matchingIds).iterator()), false);
+    }
+
+    /**
+     * Plans reading every task in the order of an indexed field, so that reading can stop at the limit.
+     * Tasks without the field come last, as they do when sorting by it.
+     */
+    private AccessPath planOrderedAccess(SortedIndex index, boolean isDescending) {
+        QueryField field = index.getField();
+        return new AccessPath(describeIndex(field) + ", in order of " + field, List.of(), tasks.size(),
+                () -> readByIds(index.iterateView(0, isDescending)), true);
+    }
+
+    private Iterator<Task> readByIds(Iterator<Integer> ids) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public Task next() {
+                return tasks.getById(ids.next());
+            }
+        };
+    }
+
+    private List<Task> sortInListOrder(List<Task> matches) {
+        return matches.stream()
+                .map(task -> Map.entry(tasks.indexOfId(task.getId()), task))
+                .sorted(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Task> sortByField(List<Task> matches, QueryField field, boolean isDescending) {
+        Comparator<Task> order = Comparator.comparing(field::getValue,
+                Comparator.nullsLast(QueryField::compareValues)).thenComparingInt(Task::getId);
+        if (isDescending) {
+            // Tasks without the field stay last
+            order = Comparator.comparing((Task task) -> field.getValue(task) == null)
+                    .thenComparing(order.reversed());
+        }
+        matches.sort(order);
+        return matches;
+    }
+
+    private static String describeIndex(QueryField field) {
+        return field.getKind() == QueryField.Kind.BOOLEAN
+                ? "the " + field + " index"
+                : "the date index on " + field;
+    }
+
+    private String describePlan(TaskQuery query, AccessPath access, int examinedCount, int matchCount) {
+        StringBuilder plan = new StringBuilder("Read: ").append(access.description);
+        if (!access.conditions.isEmpty()) {
+            plan.append(" (").append(access.estimatedCount).append(" of ").append(tasks.size()).append(" tasks)");
+        }
+        plan.append(".\n");
+
+        List<String> filters = new ArrayList<>();
+        for (QueryCondition condition : query.getConditions()) {
+            if (!access.conditions.contains(condition)) {
+                filters.add(condition.toString());
+            }
+        }
+        if (!filters.isEmpty()) {
+            plan.append("Filter: ").append(String.join(" and ", filters)).append(".\n");
+        }
+
+        if (query.getOrderField() != null) {
+            plan.append("Order: by ").append(query.getOrderField()).append(query.isDescending() ? " desc" : "")
+                    .append(access.isInResultOrder ? ", already in order as read.\n" : ", sorted after reading.\n");
+        }
+        if (query.getLimit() > 0) {
+            plan.append("Limit: ").append(query.getLimit())
+                    .append(access.isInResultOrder ? ", stopping as soon as it is reached.\n" : ".\n");
+        }
+        plan.append("Examined ").append(examinedCount).append(" of ").append(tasks.size())
+                .append(" tasks, ").append(matchCount).append(" matched.");
+        return plan.toString();
+    }
+
+}
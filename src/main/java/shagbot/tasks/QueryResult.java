@@ -0,0 +1,55 @@
+package shagbot.tasks;
+
+/**
+ * Represents the tasks found by a {@link TaskQuery}, together with how the query was answered.
+ */
+public final class QueryResult {
+    private final Task[] tasks;
+    private final String plan;
+    private final int examinedCount;
+    private final int taskCount;
+
+    QueryResult(Task[] tasks, String plan, int examinedCount, int taskCount) {
+        this.tasks = tasks;
+        this.plan = plan;
+        this.examinedCount = examinedCount;
+        this.taskCount = taskCount;
+    }
+
+    /**
+     * Retrieves the tasks found by the query.
+     *
+     * @return The matching tasks, in the order asked for by the query.
+     */
+    public Task[] getTasks() {
+        return tasks.clone();
+    }
+
+    /**
+     * Retrieves a description of how the query was answered: which index, if any, the tasks were read from,
+     * and how the rest of the query was applied to them.
+     *
+     * @return The description, one step per line.
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    /**
+     * Retrieves the number of tasks that were read and tested against the query's conditions.
+     *
+     * @return The number of tasks examined.
+     */
+    public int getExaminedCount() {
+        return examinedCount;
+    }
+
+    /**
+     * Retrieves the number of tasks in the task list when the query was answered.
+     *
+     * @return The number of tasks in the list.
+     */
+    public int getTaskCount() {
+        return taskCount;
+    }
+}
@@ -0,0 +1,129 @@
+package shagbot.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Ranks tasks against a free-text query using BM25 scores computed from the term statistics of a
+ * {@link TokenTrie}.
+ * <p>
+ * Scores are boosted for tasks that are not done yet, and further for deadlines that are due soon or overdue.
+ * Only the best {@code limit} tasks are kept, using a bounded min-heap, so ranking costs
+ * O(m log k) for m candidate postings instead of sorting every match.
+ * </p>
+ */
+class RelevanceRanker {
+    private static final double TERM_SATURATION = 1.2;
+    private static final double LENGTH_NORMALISATION = 0.75;
+    private static final double INCOMPLETE_BOOST = 1.5;
+    private static final double MAX_DUE_SOON_BOOST = 2.0;
+    private static final long DUE_SOON_WINDOW_IN_MINUTES = Duration.ofDays(7).toMinutes();
+
+    private final TokenTrie tokenIndex;
+    private final IntFunction<Task> taskLookup;
+
+    /**
+     * Represents a candidate task together with its relevance score.
+     */
+    private static class ScoredTask {
+        private final Task task;
+        private final double score;
+
+        private ScoredTask(Task task, double score) {
+            this.task = task;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Constructor for the {@code RelevanceRanker} class.
+     *
+     * @param tokenIndex The token index holding the term statistics of the task list.
+     * @param taskLookup Finds a task of the task list by its ID.
+     */
+    RelevanceRanker(TokenTrie tokenIndex, IntFunction<Task> taskLookup) {
+        this.tokenIndex = tokenIndex;
+        this.taskLookup = taskLookup;
+    }
+
+    /**
+     * Retrieves the most relevant tasks for the given query.
+     *
+     * @param query The free-text query.
+     * @param limit The maximum number of tasks to return.
+     * @param now The current time, used to decide which deadlines are due soon.
+     * @return The most relevant tasks, most relevant first.
+     */
+    Task[] rank(String query, int limit, LocalDateTime now) {
+        assert limit > 0 : "Number of results must be positive.";
+        Map<Integer, Double> scores = scoreCandidates(TokenTrie.tokenize(query));
+
+        PriorityQueue<ScoredTask> topTasks = new PriorityQueue<>(
+                (first, second) -> Double.compare(first.score, second.score));
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            Task task = taskLookup.apply(entry.getKey());
+            double score = entry.getValue() * getBoost(task, now);
+            if (topTasks.size() < limit) {
+                topTasks.add(new ScoredTask(task, score));
+            } else if (score > topTasks.peek().score) {
+                topTasks.poll();
+                topTasks.add(new ScoredTask(task, score));
+            }
+        }
+
+        Task[] rankedTasks = new Task[topTasks.size()];
+        for (int i = rankedTasks.length - 1; i >= 0; i--) {
+            rankedTasks[i] = topTasks.poll().task;
+        }
+        return rankedTasks;
+    }
+
+    private Map<Integer, Double> scoreCandidates(Set<String> queryTokens) {
+        Map<Integer, Double> scores = new HashMap<>();
+        int taskCount = tokenIndex.getTaskCount();
+        double averageTokenCount = tokenIndex.getAverageTokenCount();
+        for (String token : queryTokens) {
+            Map<Integer, Integer> termFrequencies = tokenIndex.getTermFrequencies(token);
+            if (termFrequencies.isEmpty()) {
+                continue;
+            }
+            int documentFrequency = termFrequencies.size();
+            double inverseDocumentFrequency =
+                    Math.log(1 + (taskCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for (Map.Entry<Integer, Integer> posting : termFrequencies.entrySet()) {
+                int termFrequency = posting.getValue();
+                double lengthRatio = tokenIndex.getTokenCount(posting.getKey()) / averageTokenCount;
+                double termScore = inverseDocumentFrequency * termFrequency * (TERM_SATURATION + 1)
+                        / (termFrequency + TERM_SATURATION
+                        * (1 - LENGTH_NORMALISATION + LENGTH_NORMALISATION * lengthRatio));
+                scores.merge(posting.getKey(), termScore, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Computes the multiplier applied to a task's text score.
+     * Incomplete tasks are boosted, and incomplete deadlines are boosted further the closer they are to
+     * being due, up to {@code MAX_DUE_SOON_BOOST} for deadlines that are already overdue.
+     */
+    private double getBoost(Task task, LocalDateTime now) {
+        if (task.isDone()) {
+            return 1;
+        }
+        double boost = INCOMPLETE_BOOST;
+        if (task instanceof Deadline deadline) {
+            long minutesUntilDue = Duration.between(now, deadline.getByTiming()).toMinutes();
+            if (minutesUntilDue < DUE_SOON_WINDOW_IN_MINUTES) {
+                double urgency = 1 - Math.max(0, (double) minutesUntilDue / DUE_SOON_WINDOW_IN_MINUTES);
+                boost *= 1 + (MAX_DUE_SOON_BOOST - 1) * urgency;
+            }
+        }
+        return boost;
+    }
+}
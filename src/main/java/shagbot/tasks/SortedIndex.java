@@ -0,0 +1,321 @@
+package shagbot.tasks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Represents an index of tasks sorted by the value of one field, such as their due dates, kept as a view
+ * of the task list in that order.
+ * <p>
+ * The index is a treap keyed by the value and then the ID of each task, in which every node knows the size
+ * of its subtree. Tasks are added and removed in O(log n) expected time, the number of tasks within a range
+ * of values is counted in O(log n), and the tasks from any position of the view onwards are read
+ * in O(log n) plus the number of tasks read, so a page of a sorted listing costs only the page itself.
+ * </p>
+ * <p>
+ * Tasks that do not have the field, such as todos in an index of due dates, come after all other tasks
+ * and never fall within a range of values.
+ * </p>
+ */
+class SortedIndex {
+    private final QueryField field;
+    private final Random random = new Random();
+    private Node root;
+    private int missingValueCount = 0;
+
+    /**
+     * Represents a task in the index.
+     */
+    private static class Node {
+        private final Object value;
+        private final int id;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Object value, int id, int priority) {
+            this.value = value;
+            this.id = id;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Constructor for the {@code SortedIndex} class, creating an empty index.
+     *
+     * @param field The field to index the tasks by.
+     */
+    SortedIndex(QueryField field) {
+        this.field = field;
+    }
+
+    /**
+     * Indexes the given task by its current value of the field.
+     *
+     * @param task The task to index.
+     */
+    void addTask(Task task) {
+        Object value = field.getValue(task);
+        if (value == null) {
+            missingValueCount++;
+        }
+        Node node = new Node(value, task.getId(), random.nextInt());
+        Node[] halves = split(root, value, task.getId());
+        root = merge(merge(halves[0], node), halves[1]);
+    }
+
+    /**
+     * Removes the given task from the index. The task must have the same value of the field
+     * as when it was indexed.
+     *
+     * @param task The task to remove.
+     */
+    void removeTask(Task task) {
+        Object value = field.getValue(task);
+        int sizeBefore = size();
+        root = remove(root, value, task.getId());
+        if (value == null && size() < sizeBefore) {
+            missingValueCount--;
+        }
+    }
+
+    QueryField getField() {
+        return field;
+    }
+
+    /**
+     * Retrieves the number of tasks in the index, including those without the field.
+     *
+     * @return The number of tasks.
+     */
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Counts the tasks whose value lies within the range of a condition.
+     *
+     * @param condition A condition on the indexed field, which is not negated.
+     * @return The number of matching tasks.
+     */
+    int count(QueryCondition condition) {
+        return endOfRange(condition) - startOfRange(condition);
+    }
+
+    /**
+     * Iterates over the IDs of the tasks whose value lies within the range of a condition, in order of value.
+     *
+     * @param condition A condition on the indexed field, which is not negated.
+     * @param isDescending Whether to iterate from the highest value to the lowest.
+     * @return An iterator over the task IDs.
+     */
+    Iterator<Integer> iterateIds(QueryCondition condition, boolean isDescending) {
+        return new RankIterator(startOfRange(condition), endOfRange(condition), isDescending);
+    }
+
+    /**
+     * Iterates over the IDs of every task in the view, from the given position onwards. A descending view
+     * is the ascending view in reverse, except that tasks without the field still come last.
+     *
+     * @param offset The number of tasks to skip from the start of the view.
+     * @param isDescending Whether the view runs from the highest value to the lowest.
+     * @return An iterator over the task IDs.
+     */
+    Iterator<Integer> iterateView(int offset, boolean isDescending) {
+        if (!isDescending) {
+            return new RankIterator(Math.min(offset, size()), size(), false);
+        }
+        int valueCount = size() - missingValueCount;
+        Iterator<Integer> withValues = new RankIterator(0, valueCount - Math.min(offset, valueCount), true);
+        Iterator<Integer> withoutValues = new RankIterator(valueCount,
+                size() - Math.max(0, offset - valueCount), true);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return withValues.hasNext() || withoutValues.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return withValues.hasNext() ? withValues.next() : withoutValues.next();
+            }
+        };
+    }
+
+    /**
+     * Finds the position of the first task within the range of the condition.
+     */
+    private int startOfRange(QueryCondition condition) {
+        assert condition.getField() == field && !condition.isNegated() : "Condition cannot use this index.";
+        return condition.getLower() == null ? 0 : countBelow(condition.getLower(), !condition.isLowerInclusive());
+    }
+
+    /**
+     * Finds the position just after the last task within the range of the condition.
+     */
+    private int endOfRange(QueryCondition condition) {
+        return condition.getUpper() == null
+                ? size() - missingValueCount
+                : countBelow(condition.getUpper(), condition.isUpperInclusive());
+    }
+
+    /**
+     * Counts the tasks whose value is below the given value, or equal to it if {@code isInclusive}.
+     */
+    private int countBelow(Object value, boolean isInclusive) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = node.value == null ? 1 : QueryField.compareValues(node.value, value);
+            if (comparison < 0 || comparison == 0 && isInclusive) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compares the key of a node with a value and ID, ordering missing values last.
+     */
+    private static int compareKeys(Node node, Object value, int id) {
+        if (node.value == null || value == null) {
+            if (node.value != value) {
+                return node.value == null ? 1 : -1;
+            }
+        } else {
+            int comparison = QueryField.compareValues(node.value, value);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(node.id, id);
+    }
+
+    /**
+     * Splits a subtree into the nodes ordered before the given key and the nodes from it onwards.
+     */
+    private static Node[] split(Node node, Object value, int id) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compareKeys(node, value, id) < 0) {
+            Node[] halves = split(node.right, value, id);
+            node.right = halves[0];
+            update(node);
+            return new Node[]{node, halves[1]};
+        }
+        Node[] halves = split(node.left, value, id);
+        node.left = halves[1];
+        update(node);
+        return new Node[]{halves[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node remove(Node node, Object value, int id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compareKeys(node, value, id);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison > 0) {
+            node.left = remove(node.left, value, id);
+        } else {
+            node.right = remove(node.right, value, id);
+        }
+        update(node);
+        return node;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Iterates over the IDs of the tasks at the positions from {@code start} up to {@code end}, forwards
+     * or backwards, finding the first one in O(log n) and each following one in O(1) amortised time.
+     */
+    private class RankIterator implements Iterator<Integer> {
+        private final Deque<Node> pending = new ArrayDeque<>();
+        private final boolean isBackwards;
+        private int remaining;
+
+        private RankIterator(int start, int end, boolean isBackwards) {
+            this.isBackwards = isBackwards;
+            this.remaining = Math.max(0, end - start);
+            if (remaining > 0) {
+                seek(isBackwards ? end - 1 : start);
+            }
+        }
+
+        /**
+         * Fills the stack with the path to the node at the given position, keeping only the nodes
+         * that are still to be visited in the direction of iteration.
+         */
+        private void seek(int position) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = sizeOf(node.left);
+                if (position < leftSize) {
+                    if (!isBackwards) {
+                        pending.push(node);
+                    }
+                    node = node.left;
+                } else if (position == leftSize) {
+                    pending.push(node);
+                    return;
+                } else {
+                    if (isBackwards) {
+                        pending.push(node);
+                    }
+                    position -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && !pending.isEmpty();
+        }
+
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node current = pending.pop();
+            for (Node node = isBackwards ? current.left : current.right; node != null;
+                    node = isBackwards ? node.right : node.left) {
+                pending.push(node);
+            }
+            remaining--;
+            return current.id;
+        }
+    }
+}
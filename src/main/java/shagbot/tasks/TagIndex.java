@@ -0,0 +1,66 @@
+package shagbot.tasks;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Represents an index of the tasks in a task list by tag, kept up to date as tasks are added, removed and changed.
+ * <p>
+ * The IDs of the tasks with each tag are kept in an {@link IdBitmap}, so the tasks with several tags are found
+ * by intersecting bitmaps instead of reading any task, and the number of tasks with a tag is always known.
+ * </p>
+ */
+class TagIndex {
+    private static final IdBitmap NO_TASKS = new IdBitmap();
+    private final SortedMap<String, IdBitmap> tasksByTag = new TreeMap<>();
+
+    /**
+     * Adds the tags of a task to the index.
+     *
+     * @param task The task, which must have an ID.
+     */
+    void addTask(Task task) {
+        for (String tag : task.getTags()) {
+            tasksByTag.computeIfAbsent(tag, newTag -> new IdBitmap()).add(task.getId());
+        }
+    }
+
+    /**
+     * Removes the tags of a task from the index.
+     *
+     * @param task The task, with the tags it had when it was added.
+     */
+    void removeTask(Task task) {
+        for (String tag : task.getTags()) {
+            IdBitmap ids = tasksByTag.get(tag);
+            if (ids != null && ids.remove(task.getId()) && ids.cardinality() == 0) {
+                tasksByTag.remove(tag);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the IDs of the tasks with the given tag.
+     *
+     * @param tag The tag, in lowercase.
+     * @return The IDs, which must not be changed.
+     */
+    IdBitmap getTasks(String tag) {
+        return tasksByTag.getOrDefault(tag, NO_TASKS);
+    }
+
+    /**
+     * Retrieves the number of tasks with each tag.
+     *
+     * @return The counts, by tag in alphabetical order.
+     */
+    SortedMap<String, Integer> getCounts() {
+        SortedMap<String, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, IdBitmap> entry : tasksByTag.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().cardinality());
+        }
+        return Collections.unmodifiableSortedMap(counts);
+    }
+}
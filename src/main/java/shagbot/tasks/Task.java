@@ -1,11 +1,31 @@
 package shagbot.tasks;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Represents the Parent class to handle all task types: todos, deadlines and events.
  */
 public class Task {
+    private static final Pattern TAG_PATTERN = Pattern.compile("[a-z0-9_-]+");
+    private static final Pattern TAG_IN_TEXT_PATTERN = Pattern.compile("(?<!\\S)#([A-Za-z0-9_-]+)(?!\\S)");
+    private static final String STORED_TAG_SEPARATOR = "\0";
+    // Heap sizes on a 64-bit JVM with compressed references, where Latin-1 strings take a byte per character
+    static final int DATE_TIME_BYTES = 72;
+    private static final int TASK_OBJECT_BYTES = 40;
+    private static final int STRING_BYTES = 40;
+    private static final int TAG_LIST_BYTES = 32;
+    private static final int REFERENCE_BYTES = 4;
     private final String description;
     private boolean isDone;
+    private int id;
+    private List<String> tags = List.of();
+    private Priority priority = Priority.NONE;
 
     /**
      * Constructor for the {@code Task} class with specified description and
@@ -42,6 +62,116 @@ public class Task {
         return description;
     }
 
+    /**
+     * Retrieves the stable ID of the task, which stays the same however the task list is reordered,
+     * and across sessions.
+     *
+     * @return The ID of the task, or 0 if it has not been added to a task list yet.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the stable ID of the task. This is only done when the task is first added to a task list,
+     * or when it is loaded from storage.
+     *
+     * @param id The ID of the task, which must be positive.
+     */
+    public void setId(int id) {
+        assert id > 0 : "Task ID must be positive.";
+        this.id = id;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        assert priority != null : "Priority cannot be null.";
+        this.priority = priority;
+    }
+
+    /**
+     * Retrieves the tags of the task.
+     *
+     * @return The tags, in lowercase and in alphabetical order without duplicates.
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Sets the tags of the task, replacing any it had.
+     *
+     * @param tags The tags, each made of letters, digits, {@code _} and {@code -}, in any case.
+     */
+    public void setTags(Collection<String> tags) {
+        TreeSet<String> normalisedTags = new TreeSet<>();
+        for (String tag : tags) {
+            String normalisedTag = tag.toLowerCase(Locale.ROOT);
+            assert isValidTag(normalisedTag) : "Invalid tag: " + tag;
+            normalisedTags.add(normalisedTag);
+        }
+        this.tags = List.copyOf(normalisedTags);
+    }
+
+    /**
+     * Checks whether the given text can be used as a tag.
+     *
+     * @param tag The text, in lowercase.
+     * @return {@code true} if it is made only of letters, digits, {@code _} and {@code -}.
+     */
+    public static boolean isValidTag(String tag) {
+        return TAG_PATTERN.matcher(tag).matches();
+    }
+
+    /**
+     * Finds the tags written as {@code #words} in the given text, such as {@code ops} and {@code urgent}
+     * in {@code #ops #urgent fix pager}.
+     *
+     * @param text The text, such as the description typed for a new task.
+     * @return The tags, in the order they are written.
+     */
+    public static List<String> findTags(String text) {
+        List<String> tags = new ArrayList<>();
+        Matcher matcher = TAG_IN_TEXT_PATTERN.matcher(text);
+        while (matcher.find()) {
+            tags.add(matcher.group(1));
+        }
+        return tags;
+    }
+
+    /**
+     * Removes the tags written as {@code #words} from the given text, leaving its other words.
+     *
+     * @param text The text, such as the description typed for a new task.
+     * @return The text without its tags, which is empty if the text is made only of tags.
+     */
+    public static String removeTags(String text) {
+        Matcher matcher = TAG_IN_TEXT_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return text;
+        }
+        return matcher.replaceAll("").trim().replaceAll("\\s{2,}", " ");
+    }
+
+    /**
+     * Retrieves the description of the task followed by each of its tags after a NUL character,
+     * for stores that keep the text of a task in one string.
+     */
+    String toStoredText() {
+        return tags.isEmpty() ? description : description + STORED_TAG_SEPARATOR
+                + String.join(STORED_TAG_SEPARATOR, tags);
+    }
+
+    /**
+     * Splits text made by {@link #toStoredText()} into the description, followed by the tags.
+     */
+    static String[] splitStoredText(String storedText) {
+        return storedText.split(STORED_TAG_SEPARATOR);
+    }
+
     /**
      * Retrieves the completion status of the task.
      *
@@ -51,16 +181,69 @@ public class Task {
         return isDone;
     }
 
+    /**
+     * Creates an independent copy of the task, including its completion status, ID, tags and priority.
+     *
+     * @return A copy of the task.
+     */
+    public Task copy() {
+        return copyStateTo(new Task(description));
+    }
+
+    /**
+     * Copies the completion status, ID, tags and priority of this task to the given copy.
+     *
+     * @param copy A freshly created copy of this task.
+     * @param <T> The type of the copy.
+     * @return The given copy.
+     */
+    protected <T extends Task> T copyStateTo(T copy) {
+        if (isDone) {
+            copy.mark();
+        } else {
+            copy.unmark();
+        }
+        if (id > 0) {
+            copy.setId(id);
+        }
+        ((Task) copy).tags = tags;
+        copy.setPriority(priority);
+        return copy;
+    }
+
+    /**
+     * Estimates the bytes of the Java heap taken by this task object, with its description, tags and dates.
+     *
+     * @return The estimated number of bytes.
+     */
+    long estimateHeapBytes() {
+        long bytes = TASK_OBJECT_BYTES + STRING_BYTES + description.length();
+        if (!tags.isEmpty()) {
+            bytes += TAG_LIST_BYTES;
+            for (String tag : tags) {
+                bytes += REFERENCE_BYTES + STRING_BYTES + tag.length();
+            }
+        }
+        return bytes;
+    }
+
     /**
      * Returns a string representation of the task.
      * The format includes the completion status (marked as "X" for done, or a space for not done)
-     * and the task's description.
+     * and the task's description, followed by its tags as {@code #tag} and its priority, if any, as {@code !high}.
      *
      * @return The string representation of the task.
      */
     @Override
     public String toString() {
-        return "[" + (isDone ? "X" : " ") + "] " + description;
+        StringBuilder string = new StringBuilder("[").append(isDone ? "X" : " ").append("] ").append(description);
+        for (String tag : tags) {
+            string.append(" #").append(tag);
+        }
+        if (priority != Priority.NONE) {
+            string.append(" !").append(priority);
+        }
+        return string.toString();
     }
 }
 
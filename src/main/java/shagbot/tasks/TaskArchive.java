@@ -0,0 +1,38 @@
+package shagbot.tasks;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Represents the cold storage of a {@link TaskList}, holding completed tasks that have been archived out of it.
+ * <p>
+ * An archive is append-only: tasks are only ever added to it, and it is read in full only when
+ * the archived tasks are searched. A task archived more than once, for example after being brought back
+ * by an undo, is read as its most recently archived copy.
+ * </p>
+ */
+public interface TaskArchive {
+
+    /**
+     * Adds tasks to the end of the archive.
+     *
+     * @param tasks The tasks to archive.
+     * @throws IOException If the tasks cannot be written.
+     */
+    void append(List<Task> tasks) throws IOException;
+
+    /**
+     * Reads every task in the archive, in the order they were archived.
+     *
+     * @return The archived tasks.
+     * @throws IOException If the archive cannot be read.
+     */
+    List<Task> readAll() throws IOException;
+
+    /**
+     * Retrieves the highest ID of any archived task, without reading the archive.
+     *
+     * @return The highest ID, or 0 if the archive is empty.
+     */
+    int getHighestId();
+}
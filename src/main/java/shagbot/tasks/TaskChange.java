@@ -0,0 +1,74 @@
+package shagbot.tasks;
+
+/**
+ * Represents a single change made to a {@link TaskList}: a task being added, removed or updated at a position.
+ * <p>
+ * The tasks held by a change are private snapshots, so a change stays valid however the live tasks are
+ * modified afterwards. A change only holds the task it affects, never a copy of the whole list.
+ * </p>
+ */
+public class TaskChange {
+    /**
+     * Represents the kind of change made to the task list.
+     */
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        UPDATED
+    }
+
+    private final Kind kind;
+    private final int index;
+    private final Task oldTask;
+    private final Task newTask;
+
+    /**
+     * Constructor for the {@code TaskChange} class.
+     *
+     * @param kind    The kind of change.
+     * @param index   The position in the list affected by the change.
+     * @param oldTask A snapshot of the task before the change, or {@code null} if it was added.
+     * @param newTask A snapshot of the task after the change, or {@code null} if it was removed.
+     */
+    public TaskChange(Kind kind, int index, Task oldTask, Task newTask) {
+        assert index >= 0 : "Index of a change cannot be negative.";
+        assert (oldTask == null) == (kind == Kind.ADDED) : "Only additions have no old task.";
+        assert (newTask == null) == (kind == Kind.REMOVED) : "Only removals have no new task.";
+        this.kind = kind;
+        this.index = index;
+        this.oldTask = oldTask;
+        this.newTask = newTask;
+    }
+
+    /**
+     * Creates the change that exactly reverses this one.
+     *
+     * @return The inverse of this change.
+     */
+    public TaskChange invert() {
+        switch (kind) {
+        case ADDED:
+            return new TaskChange(Kind.REMOVED, index, newTask, null);
+        case REMOVED:
+            return new TaskChange(Kind.ADDED, index, null, oldTask);
+        default:
+            return new TaskChange(Kind.UPDATED, index, newTask, oldTask);
+        }
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Task getOldTask() {
+        return oldTask;
+    }
+
+    public Task getNewTask() {
+        return newTask;
+    }
+}
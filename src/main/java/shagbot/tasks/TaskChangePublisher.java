@@ -0,0 +1,103 @@
+package shagbot.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents the publisher of the changes made to a {@link TaskList} to its {@link TaskListener}s.
+ * <p>
+ * Synchronous listeners receive every change as soon as it is made, on the thread that made it.
+ * Asynchronous listeners receive the changes of a whole command as one batch on their own executor,
+ * once the command ends, so a command touching many tasks costs each of them a single call. Batches
+ * always reach an asynchronous listener one at a time and in order, even on an executor with many threads.
+ * </p>
+ */
+class TaskChangePublisher {
+    private final List<TaskListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<BatchListener> batchListeners = new CopyOnWriteArrayList<>();
+    private List<TaskChange> pendingBatch = new ArrayList<>();
+
+    /**
+     * Represents an asynchronous listener, with the batches that have not yet reached it.
+     */
+    private static class BatchListener {
+        private final TaskListener listener;
+        private final Executor executor;
+        private final Queue<Runnable> deliveries = new ConcurrentLinkedQueue<>();
+
+        BatchListener(TaskListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        void deliver(List<TaskChange> batch, long version) {
+            deliveries.add(() -> listener.onChanges(batch, version));
+            executor.execute(this::runNextDelivery);
+        }
+
+        /**
+         * Runs the oldest delivery. Each delivery queues exactly one call of this, and the lock keeps calls
+         * on different threads from overtaking each other.
+         */
+        private synchronized void runNextDelivery() {
+            Runnable delivery = deliveries.poll();
+            if (delivery != null) {
+                delivery.run();
+            }
+        }
+    }
+
+    void addListener(TaskListener listener) {
+        assert listener != null : "Listener cannot be null.";
+        listeners.add(listener);
+    }
+
+    void addListener(TaskListener listener, Executor executor) {
+        assert listener != null && executor != null : "Listener and executor cannot be null.";
+        batchListeners.add(new BatchListener(listener, executor));
+    }
+
+    boolean removeListener(TaskListener listener) {
+        boolean isRemoved = listeners.remove(listener);
+        return batchListeners.removeIf(batchListener -> batchListener.listener == listener) || isRemoved;
+    }
+
+    /**
+     * Publishes a change to the synchronous listeners at once, and adds it to the batch for the asynchronous ones.
+     *
+     * @param change The change made.
+     * @param version The version of the task list after the change.
+     */
+    void publish(TaskChange change, long version) {
+        if (!listeners.isEmpty()) {
+            List<TaskChange> changes = List.of(change);
+            for (TaskListener listener : listeners) {
+                listener.onChanges(changes, version);
+            }
+        }
+        if (!batchListeners.isEmpty()) {
+            pendingBatch.add(change);
+        }
+    }
+
+    /**
+     * Ends the current batch, handing it to every asynchronous listener.
+     *
+     * @param version The version of the task list after the last change of the batch.
+     */
+    void flush(long version) {
+        if (pendingBatch.isEmpty()) {
+            return;
+        }
+        List<TaskChange> batch = Collections.unmodifiableList(pendingBatch);
+        pendingBatch = new ArrayList<>();
+        for (BatchListener batchListener : batchListeners) {
+            batchListener.deliver(batch, version);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package shagbot.tasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Represents the undo and redo history of a {@link TaskList}.
+ * <p>
+ * Each step in the history is the list of {@link TaskChange}s made by one command. Since a change only
+ * snapshots the task it affects, every step costs memory proportional to the number of tasks it touched,
+ * not to the size of the list, so deep histories over large lists stay small.
+ * </p>
+ * <p>
+ * The history also keeps a log of the steps committed, undone and redone since it was last saved, so that
+ * saving it only needs to append those entries rather than write every step again.
+ * </p>
+ */
+public class TaskHistory {
+    private static final int MAX_STEPS = 1000;
+    private final Deque<List<TaskChange>> undoSteps;
+    private final Deque<List<TaskChange>> redoSteps;
+    private final List<Entry> unsavedEntries = new ArrayList<>();
+    private List<TaskChange> pendingStep;
+
+    /**
+     * Represents a change to the history itself: a step that was committed, undone or redone.
+     */
+    public static final class Entry {
+        private final Kind kind;
+        private final List<TaskChange> step;
+
+        /**
+         * Represents the ways in which the history can change.
+         */
+        public enum Kind {
+            COMMITTED, UNDONE, REDONE
+        }
+
+        private Entry(Kind kind, List<TaskChange> step) {
+            this.kind = kind;
+            this.step = step;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Retrieves the changes of the step that was committed, undone or redone.
+         *
+         * @return The changes, in the order they were made.
+         */
+        public List<TaskChange> getStep() {
+            return step;
+        }
+    }
+
+    /**
+     * Default constructor for the {@code TaskHistory} class.
+     * Constructs an empty history.
+     */
+    public TaskHistory() {
+        this(new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Constructor for the {@code TaskHistory} class with previously saved steps.
+     *
+     * @param undoSteps The steps that can be undone, with the next one to undo last.
+     * @param redoSteps The steps that can be redone, with the next one to redo last.
+     */
+    public TaskHistory(List<List<TaskChange>> undoSteps, List<List<TaskChange>> redoSteps) {
+        this.undoSteps = new ArrayDeque<>(undoSteps);
+        this.redoSteps = new ArrayDeque<>(redoSteps);
+        this.pendingStep = new ArrayList<>();
+        while (this.undoSteps.size() > MAX_STEPS) {
+            this.undoSteps.removeFirst();
+        }
+    }
+
+    /**
+     * Records a change as part of the step currently in progress.
+     *
+     * @param change The change made to the task list.
+     */
+    void record(TaskChange change) {
+        pendingStep.add(change);
+    }
+
+    /**
+     * Ends the step currently in progress, making it available to undo.
+     * Making a new change discards everything that could be redone.
+     *
+     * @return {@code true} if the step contained any change.
+     */
+    boolean commitStep() {
+        if (pendingStep.isEmpty()) {
+            return false;
+        }
+        undoSteps.addLast(pendingStep);
+        if (undoSteps.size() > MAX_STEPS) {
+            undoSteps.removeFirst();
+        }
+        redoSteps.clear();
+        unsavedEntries.add(new Entry(Entry.Kind.COMMITTED, pendingStep));
+        pendingStep = new ArrayList<>();
+        return true;
+    }
+
+    /**
+     * Discards the step currently in progress without making it available to undo.
+     *
+     * @return The changes of the discarded step, in the order they were made.
+     */
+    List<TaskChange> discardStep() {
+        List<TaskChange> step = pendingStep;
+        pendingStep = new ArrayList<>();
+        return step;
+    }
+
+    /**
+     * Takes the most recent step off the undo history and moves it to the redo history.
+     *
+     * @return The changes of the step, in the order they were made, or {@code null} if there is nothing to undo.
+     */
+    List<TaskChange> popUndoStep() {
+        assert pendingStep.isEmpty() : "Changes in progress must be committed before undoing.";
+        List<TaskChange> step = undoSteps.pollLast();
+        if (step != null) {
+            redoSteps.addLast(step);
+            unsavedEntries.add(new Entry(Entry.Kind.UNDONE, step));
+        }
+        return step;
+    }
+
+    /**
+     * Takes the most recently undone step off the redo history and moves it back to the undo history.
+     *
+     * @return The changes of the step, in the order they were made, or {@code null} if there is nothing to redo.
+     */
+    List<TaskChange> popRedoStep() {
+        assert pendingStep.isEmpty() : "Changes in progress must be committed before redoing.";
+        List<TaskChange> step = redoSteps.pollLast();
+        if (step != null) {
+            undoSteps.addLast(step);
+            unsavedEntries.add(new Entry(Entry.Kind.REDONE, step));
+        }
+        return step;
+    }
+
+    /**
+     * Retrieves the steps that can be undone, with the next one to undo last.
+     *
+     * @return A copy of the undo steps.
+     */
+    public List<List<TaskChange>> getUndoSteps() {
+        return new ArrayList<>(undoSteps);
+    }
+
+    /**
+     * Retrieves the steps that can be redone, with the next one to redo last.
+     *
+     * @return A copy of the redo steps.
+     */
+    public List<List<TaskChange>> getRedoSteps() {
+        return new ArrayList<>(redoSteps);
+    }
+
+    /**
+     * Retrieves the steps committed, undone and redone since the history was last saved.
+     *
+     * @return A copy of the entries, in the order they happened.
+     */
+    public List<Entry> getUnsavedEntries() {
+        return new ArrayList<>(unsavedEntries);
+    }
+
+    /**
+     * Marks every entry so far as saved.
+     */
+    public void markSaved() {
+        unsavedEntries.clear();
+    }
+}
@@ -1,35 +1,150 @@
 package shagbot.tasks;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import shagbot.exceptions.ShagBotDateException;
 
 /**
  * A class that helps to manage tasks in the Shagbot application.
+ * <p>
+ * Every task is given a stable ID when it is first added. Tasks are kept in a {@link TaskStore},
+ * by default an order-statistic tree, so looking up, inserting or removing a task by its position or by its ID
+ * takes O(log n). Tasks retrieved from a task list may be copies, so tasks are only changed through
+ * the methods of this class.
+ * </p>
+ * <p>
+ * Every change made through a {@code TaskList} is recorded in its {@link TaskHistory}, grouped into one
+ * step per command by {@link #commitChanges()}, so that it can later be undone and redone. Every change,
+ * including those made by undoing and redoing, is also published to the {@link TaskListener}s of the list.
+ * </p>
  */
-public class TaskList {
-    private final ArrayList<Task> tasks;
+public class TaskList implements Iterable<Task> {
+    /**
+     * Represents a key that tasks can be listed in order of: the due date of deadlines, the start date of events,
+     * or their status, with incomplete tasks before completed ones.
+     */
+    public enum SortKey {
+        DUE(QueryField.DUE),
+        START(QueryField.START),
+        STATUS(QueryField.DONE);
+
+        private final QueryField field;
 
+        SortKey(QueryField field) {
+            this.field = field;
+        }
+    }
+
+    private static final AtomicLong LAST_VERSION = new AtomicLong();
+    private static final String INDEXED_QUERY_MARKERS_REGEX = ".*[*~].*";
+    // Heap bytes of the indexes built on first use, for each task, tag or character of a description
+    private static final int TOKEN_INDEX_BYTES_PER_TASK = 64;
+    private static final int TOKEN_INDEX_BYTES_PER_CHARACTER = 16;
+    private static final int TAG_INDEX_BYTES_PER_TAG = 4;
+    private static final int NEXT_TASK_HEAP_BYTES_PER_TASK = 24;
+    private static final int SORTED_INDEX_BYTES_PER_TASK = 40;
+    private static final int EVENT_SPANS_BYTES_PER_TASK = 48;
+    private final TaskStore tasks;
+    private TokenTrie tokenIndex;
+    private TagIndex tagIndex;
+    private NextTaskHeap nextTasks;
+    private Map<QueryField, SortedIndex> sortedIndexes;
+    private IntervalTree eventSpans;
+    private TaskStatistics statistics;
+    private TaskArchive archive;
+    private List<Task> archivedTasks;
+    private final TaskHistory history;
+    private final TaskChangePublisher publisher = new TaskChangePublisher();
+    private int nextId;
+    private long version = LAST_VERSION.incrementAndGet();
+    private long estimatedVersion = 0;
+    private long estimatedStoreBytes;
+    private long estimatedDescriptionLength;
+    private long estimatedTagCount;
 
     /**
      * Default constructor for {@code TaskList} class.
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new Task[0], new TaskHistory());
     }
 
     /**
      * Constructor for {@code TaskList} used for JUnit Testing only.
-     * Constructs an {@code ArrayList} with an initial set of tasks.
+     * Constructs a task list with an initial set of tasks.
      *
      * @param initialTasks Accepts a task array used for JUnit Testing only.
      */
     public TaskList(Task[] initialTasks) {
-        this.tasks = new ArrayList<>(Arrays.asList(initialTasks));
+        this(initialTasks, new TaskHistory());
+    }
+
+    /**
+     * Constructor for {@code TaskList} with previously saved tasks and their undo history.
+     * The initial tasks are not recorded as changes. Tasks without an ID, or with an ID already used
+     * by an earlier task, are given a new ID.
+     *
+     * @param initialTasks The saved tasks.
+     * @param history The saved undo and redo history of the tasks.
+     */
+    public TaskList(Task[] initialTasks, TaskHistory history) {
+        this(initialTasks, history, TaskStore.createTreeStore());
+    }
+
+    /**
+     * Constructor for {@code TaskList} with previously saved tasks and their undo history,
+     * kept in the given store.
+     *
+     * @param initialTasks The saved tasks.
+     * @param history The saved undo and redo history of the tasks.
+     * @param store An empty store to keep the tasks in.
+     */
+    public TaskList(Task[] initialTasks, TaskHistory history, TaskStore store) {
+        assert history != null : "Task history cannot be null.";
+        assert store != null && store.size() == 0 : "Task store must be empty.";
+        this.tasks = store;
+        this.history = history;
+        this.nextId = 1 + Math.max(getHighestId(Arrays.asList(initialTasks)), getHighestId(history));
+        for (Task task : initialTasks) {
+            if (task.getId() <= 0 || tasks.containsId(task.getId())) {
+                task.setId(nextId++);
+            }
+            insertTaskAt(tasks.size(), task);
+        }
         // Assert statement
         assert this.tasks != null : "Task list should be initialized properly.";
     }
 
+    /**
+     * Constructor for {@code TaskList} with the tasks already held by a store, such as a saved task image.
+     *
+     * @param store The store holding the saved tasks.
+     * @param history The saved undo and redo history of the tasks.
+     */
+    public TaskList(TaskStore store, TaskHistory history) {
+        assert store != null && history != null : "Task store and history cannot be null.";
+        this.tasks = store;
+        this.history = history;
+        this.nextId = 1 + Math.max(store.getHighestId(), getHighestId(history));
+    }
+
 
     /**
      * Adds a task to the list of tasks.
@@ -38,7 +153,11 @@ public class TaskList {
      */
     public void addTask(Task task) {
         assert task != null : "Task cannot be null.";
-        tasks.add(task);
+        assert task.getId() == 0 : "Task has already been added to a task list.";
+        task.setId(nextId++);
+        int index = tasks.size();
+        insertTaskAt(index, task);
+        recordChange(new TaskChange(TaskChange.Kind.ADDED, index, null, task.copy()));
     }
 
     /**
@@ -48,7 +167,100 @@ public class TaskList {
      * @return The removed task.
      */
     public Task deleteTask(int index) {
-        return tasks.remove(index);
+        Task removedTask = removeTaskAt(index);
+        recordChange(new TaskChange(TaskChange.Kind.REMOVED, index, removedTask.copy(), null));
+        return removedTask;
+    }
+
+    /**
+     * Deletes several tasks from the list in one pass over the store, so that no remaining task
+     * is moved more than once.
+     *
+     * @param sortedIndexes The indexes of the tasks to be deleted, in ascending order without duplicates.
+     * @return The removed tasks, in the order they were in the list.
+     */
+    public Task[] deleteTasks(int[] sortedIndexes) {
+        Task[] removedTasks = removeTasksAt(sortedIndexes);
+        // Recorded from the back, so that undoing them in reverse restores each task to its original position
+        for (int i = sortedIndexes.length - 1; i >= 0; i--) {
+            recordChange(new TaskChange(TaskChange.Kind.REMOVED, sortedIndexes[i], removedTasks[i].copy(), null));
+        }
+        return removedTasks;
+    }
+
+    /**
+     * Merges changes made to the tasks outside of this list, such as by another program editing the task file.
+     * A changed task replaces the task with its ID, or is added to the end of the list if there is none.
+     * An added task is added to the end of the list. It keeps its ID unless it may belong to a task that an undo
+     * or redo can restore, in which case it is given a new one. If a task of this list that the other program
+     * has never seen already has that ID, that task is given a new ID instead, so neither task is lost.
+     * The changes are recorded like any other.
+     *
+     * @param changedTasks The tasks that were changed, with the IDs they had when last merged or saved.
+     * @param addedTasks The tasks that were added, with IDs that were never merged or saved, if any.
+     * @param removedIds The IDs of the tasks that were removed.
+     * @return The number of tasks added, changed or removed.
+     */
+    public int mergeTasks(List<Task> changedTasks, List<Task> addedTasks, Collection<Integer> removedIds) {
+        int mergedCount = 0;
+        for (int id : removedIds) {
+            int index = tasks.indexOfId(id);
+            if (index >= 0) {
+                deleteTask(index);
+                mergedCount++;
+            }
+        }
+        for (Task task : changedTasks) {
+            int index = task.getId() > 0 ? tasks.indexOfId(task.getId()) : -1;
+            if (index >= 0) {
+                Task oldTask = removeTaskAt(index).copy();
+                insertTaskAt(index, task);
+                recordChange(new TaskChange(TaskChange.Kind.UPDATED, index, oldTask, task.copy()));
+            } else {
+                if (task.getId() < nextId) {
+                    task.setId(nextId);
+                }
+                addMergedTask(task);
+            }
+            mergedCount++;
+        }
+        for (Task task : addedTasks) {
+            int index = task.getId() > 0 ? tasks.indexOfId(task.getId()) : -1;
+            if (index >= 0) {
+                renumberTask(index);
+            } else if (task.getId() < nextId) {
+                task.setId(nextId);
+            }
+            addMergedTask(task);
+            mergedCount++;
+        }
+        return mergedCount;
+    }
+
+    private void addMergedTask(Task task) {
+        nextId = Math.max(nextId, task.getId() + 1);
+        insertTaskAt(tasks.size(), task);
+        recordChange(new TaskChange(TaskChange.Kind.ADDED, tasks.size() - 1, null, task.copy()));
+    }
+
+    /**
+     * Gives the task at an index the next unused ID, so that its old ID can be taken by a merged task.
+     */
+    private void renumberTask(int index) {
+        Task task = removeTaskAt(index);
+        Task oldTask = task.copy();
+        task.setId(nextId++);
+        insertTaskAt(index, task);
+        recordChange(new TaskChange(TaskChange.Kind.UPDATED, index, oldTask, task.copy()));
+    }
+
+    /**
+     * Retrieves the number of tasks in the list.
+     *
+     * @return The number of tasks.
+     */
+    public int size() {
+        return tasks.size();
     }
 
     /**
@@ -57,7 +269,18 @@ public class TaskList {
      * @return An array of all tasks in the list.
      */
     public Task[] getTasks() {
-        return tasks.toArray(new Task[0]);
+        return tasks.toArray();
+    }
+
+    /**
+     * Iterates over the tasks in list order, retrieving them from the store one at a time,
+     * so that every task can be visited without holding all of them in memory at once.
+     *
+     * @return An iterator over the tasks.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return tasks.iterator();
     }
 
     /**
@@ -71,32 +294,791 @@ public class TaskList {
     }
 
     /**
-     * Retrieves the list of tasks.
-     * This method is primarily intended for JUnit testing only.
+     * Finds the tasks matching a keyword, as the {@code find} command does. A keyword containing prefix terms
+     * ({@code rep*}) or typo-tolerant terms ({@code repot~1}) is answered from the token index, as by
+     * {@link #findTasksByTerms(String[])}, and any other keyword is matched as a substring of the descriptions
+     * and the {@code #tags}.
+     *
+     * @param keyword The keyword.
+     * @return The matching tasks, in list order.
+     * @throws IllegalArgumentException If a term of an indexed keyword is malformed.
+     */
+    public Task[] findTasks(String keyword) {
+        assert keyword != null : "Keyword cannot be null.";
+        if (keyword.matches(INDEXED_QUERY_MARKERS_REGEX)) {
+            return findTasksByTerms(keyword.trim().split("\\s+"));
+        }
+        List<Task> matchingTasks = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getDescription().contains(keyword) || !task.getTags().isEmpty()
+                    && getSearchText(task).contains(keyword)) {
+                matchingTasks.add(task);
+            }
+        }
+        return matchingTasks.toArray(new Task[0]);
+    }
+
+    /**
+     * Retrieves the text a keyword is found in: the description of a task followed by its tags as {@code #tag},
+     * as they are shown and were typed, so that {@code find #ops} finds the tasks tagged {@code ops}.
+     */
+    private static String getSearchText(Task task) {
+        StringBuilder text = new StringBuilder(task.getDescription());
+        for (String tag : task.getTags()) {
+            text.append(" #").append(tag);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Retrieves the deadlines due on a date and the events that start or end on it.
+     *
+     * @param date The date.
+     * @return The tasks on the date, in list order.
+     */
+    public Task[] getTasksOnDate(LocalDate date) {
+        List<Task> tasksOnDate = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task instanceof Deadline deadline && deadline.getByTiming().toLocalDate().equals(date)) {
+                tasksOnDate.add(task);
+            } else if (task instanceof Event event && (event.getStart().toLocalDate().equals(date)
+                    || event.getEnd().toLocalDate().equals(date))) {
+                tasksOnDate.add(task);
+            }
+        }
+        return tasksOnDate.toArray(new Task[0]);
+    }
+
+    /**
+     * Retrieves the deadlines due and the events starting within a window after the given time,
+     * as reminders list them.
+     *
+     * @param now The start of the window, which is not part of it.
+     * @param window The length of the window.
+     * @return The upcoming tasks, in list order.
+     */
+    public Task[] getUpcomingTasks(LocalDateTime now, Duration window) {
+        LocalDateTime windowEnd = now.plus(window);
+        List<Task> upcomingTasks = new ArrayList<>();
+        for (Task task : tasks) {
+            LocalDateTime time = task instanceof Deadline deadline ? deadline.getByTiming()
+                    : task instanceof Event event ? event.getStart() : null;
+            if (time != null && time.isAfter(now) && time.isBefore(windowEnd)) {
+                upcomingTasks.add(task);
+            }
+        }
+        return upcomingTasks.toArray(new Task[0]);
+    }
+
+    /**
+     * Finds the tasks whose descriptions match every one of the given query terms,
+     * using the token index instead of scanning the list.
+     * <p>
+     * Terms ending with {@code *} are prefix queries, terms ending with {@code ~}, {@code ~1} or {@code ~2}
+     * tolerate up to that many typos, and all other terms must match a whole word. Matching ignores case.
+     * </p>
+     *
+     * @param terms The query terms.
+     * @return The matching tasks, in list order.
+     * @throws IllegalArgumentException If a term is malformed.
+     */
+    public Task[] findTasksByTerms(String[] terms) {
+        assert terms != null : "Search terms cannot be null.";
+        Set<Integer> matchingIds = getTokenIndex().findTasks(terms);
+        return matchingIds.stream()
+                .mapToInt(tasks::indexOfId)
+                .sorted()
+                .mapToObj(tasks::get)
+                .toArray(Task[]::new);
+    }
+
+    /**
+     * Retrieves the tasks most relevant to a free-text query, ranked by BM25 over the word tokens of
+     * their descriptions. Incomplete tasks and deadlines that are due soon are ranked higher.
+     *
+     * @param query The free-text query.
+     * @param limit The maximum number of tasks to return.
+     * @param now The current time, used to decide which deadlines are due soon.
+     * @return The most relevant tasks, most relevant first.
+     */
+    public Task[] searchTasks(String query, int limit, LocalDateTime now) {
+        assert query != null : "Search query cannot be null.";
+        return new RelevanceRanker(getTokenIndex(), tasks::getById).rank(query, limit, now);
+    }
+
+    /**
+     * Finds the tasks matching a query, reading them from the most selective index that can answer
+     * one of its conditions instead of scanning the list where possible.
+     *
+     * @param query The query.
+     * @return The matching tasks, together with the plan used to find them.
+     * @throws IllegalArgumentException If a {@code ~} condition of the query has a malformed term.
+     */
+    public QueryResult query(TaskQuery query) {
+        assert query != null : "Query cannot be null.";
+        return new QueryPlanner(tasks, this::getTokenIndex, this::getTagIndex, getSortedIndexes()).run(query);
+    }
+
+    /**
+     * Retrieves a page of the tasks in order of the given key. The order is kept in a sorted view that is
+     * updated as tasks are added, removed and changed, so only the tasks on the page are read.
+     * Tasks with the same value of the key are in order of their IDs, which is reversed when descending.
+     *
+     * @param key The key to order the tasks by.
+     * @param isDescending Whether to order the tasks from the highest value of the key to the lowest.
+     *                     Tasks without the key are last either way.
+     * @param offset The number of tasks before the page.
+     * @param count The maximum number of tasks on the page.
+     * @return The tasks on the page.
+     */
+    public Task[] getSortedTasks(SortKey key, boolean isDescending, int offset, int count) {
+        assert offset >= 0 && count >= 0 : "Page must not have a negative offset or size.";
+        Iterator<Integer> ids = getSortedIndexes().get(key.field).iterateView(offset, isDescending);
+        List<Task> page = new ArrayList<>();
+        while (page.size() < count && ids.hasNext()) {
+            page.add(tasks.getById(ids.next()));
+        }
+        return page.toArray(new Task[0]);
+    }
+
+    /**
+     * Finds the other events whose time spans overlap the given event, answered from an interval tree
+     * of the events in the list, so only the clashing events are read.
+     *
+     * @param event The event, which may or may not be in the list.
+     * @return The clashing events in the list, in order of their starts.
+     */
+    public Event[] findConflicts(Event event) {
+        List<Event> conflicts = new ArrayList<>();
+        for (int id : getEventSpans().findOverlapping(event.getStart(), event.getEnd())) {
+            if (id != event.getId()) {
+                conflicts.add((Event) tasks.getById(id));
+            }
+        }
+        return conflicts.toArray(new Event[0]);
+    }
+
+    /**
+     * Finds every pair of events in the list whose time spans overlap, with one sweep over the events
+     * in order of their starts rather than by comparing every pair.
+     *
+     * @return The pairs of clashing events, each in order of their starts, ordered by the later start of each pair.
+     */
+    public List<Event[]> findAllConflicts() {
+        List<Event[]> conflicts = new ArrayList<>();
+        for (int[] ids : getEventSpans().findAllOverlaps()) {
+            conflicts.add(new Event[]{(Event) tasks.getById(ids[0]), (Event) tasks.getById(ids[1])});
+        }
+        return conflicts;
+    }
+
+    /**
+     * Finds the earliest free slots of at least the given length within a span, between the events in the list.
+     * Only the events within the span are read, merged in order of their starts from the interval tree.
+     *
+     * @param start The start of the span.
+     * @param end The end of the span.
+     * @param minLength The shortest free slot to find.
+     * @param limit The maximum number of free slots to find.
+     * @return The start and end of each free slot, earliest first.
+     */
+    public List<LocalDateTime[]> findFreeSlots(LocalDateTime start, LocalDateTime end, Duration minLength,
+            int limit) {
+        assert !minLength.isNegative() && !minLength.isZero() : "Free slots must have a positive length.";
+        return getEventSpans().findGaps(start, end, minLength, limit);
+    }
+
+    /**
+     * Retrieves the counts of the tasks in the list by type, status and date. The counts are built from the list
+     * on first use and then updated with every change, so they always agree with the list.
+     *
+     * @return The counts, which continue to follow the list as it changes.
+     */
+    public TaskStatistics getStatistics() {
+        if (statistics == null) {
+            statistics = new TaskStatistics();
+            for (Task task : tasks) {
+                statistics.addTask(task);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Retrieves the incomplete tasks to do next, highest priority first and then earliest due, with todos after
+     * every deadline and event of the same priority. The order is kept in a heap that is built from the list on
+     * first use and then updated with every change, so only the tasks returned are read.
+     *
+     * @param count The most tasks to retrieve.
+     * @return The tasks, of the task to do first first.
+     */
+    public Task[] getNextTasks(int count) {
+        assert count > 0 : "Count must be positive.";
+        int[] ids = getNextTaskHeap().peekIds(count);
+        Task[] next = new Task[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            next[i] = tasks.getById(ids[i]);
+        }
+        return next;
+    }
+
+    /**
+     * Retrieves the number of tasks with each tag. The counts are kept in the tag index, which is built from the list
+     * on first use and then updated with every change.
+     *
+     * @return The number of tasks with each tag, by tag in alphabetical order.
+     */
+    public SortedMap<String, Integer> getTagCounts() {
+        return getTagIndex().getCounts();
+    }
+
+    /**
+     * Sets the archive that completed tasks are moved to by {@link #archiveTasks(LocalDateTime)}.
+     * New tasks are never given the ID of an archived task.
+     *
+     * @param archive The archive.
+     */
+    public void setArchive(TaskArchive archive) {
+        assert archive != null : "Archive cannot be null.";
+        this.archive = archive;
+        this.archivedTasks = null;
+        this.nextId = Math.max(nextId, archive.getHighestId() + 1);
+    }
+
+    /**
+     * Checks whether the task list has an archive.
+     *
+     * @return {@code true} if an archive has been set.
+     */
+    public boolean hasArchive() {
+        return archive != null;
+    }
+
+    /**
+     * Moves the completed tasks dated before the cutoff out of the list and into the archive. A deadline is dated
+     * by when it is due, an event by when it ends, and completed todos are archived whatever the cutoff.
+     * The tasks are written to the archive before they are removed, and their removal is recorded as usual,
+     * so an undo brings them back into the list.
+     *
+     * @param cutoff The date and time that archived tasks must be dated before.
+     * @return The archived tasks.
+     * @throws IOException If the tasks cannot be written to the archive, in which case the list is unchanged.
+     */
+    public Task[] archiveTasks(LocalDateTime cutoff) throws IOException {
+        assert archive != null : "Task list has no archive.";
+        List<Integer> indexes = new ArrayList<>();
+        List<Task> oldTasks = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.isDone() && isDatedBefore(task, cutoff)) {
+                indexes.add(i);
+                oldTasks.add(task);
+            }
+        }
+        if (oldTasks.isEmpty()) {
+            return new Task[0];
+        }
+        archive.append(oldTasks);
+        if (archivedTasks != null) {
+            oldTasks.forEach(task -> archivedTasks.add(task.copy()));
+        }
+        return deleteTasks(indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Retrieves the archived tasks that are not currently in the list. The archive is only read the first time,
+     * and kept in memory afterwards.
+     *
+     * @return The archived tasks, in the order they were archived, or none if there is no archive.
+     * @throws IOException If the archive cannot be read.
+     */
+    public Task[] getArchivedTasks() throws IOException {
+        if (archive == null) {
+            return new Task[0];
+        }
+        if (archivedTasks == null) {
+            archivedTasks = new ArrayList<>(archive.readAll());
+        }
+        Map<Integer, Task> latestCopies = new LinkedHashMap<>();
+        for (Task task : archivedTasks) {
+            latestCopies.remove(task.getId());
+            latestCopies.put(task.getId(), task);
+        }
+        return latestCopies.values().stream()
+                .filter(task -> !tasks.containsId(task.getId()))
+                .map(Task::copy)
+                .toArray(Task[]::new);
+    }
+
+    /**
+     * Retrieves a specific task by its ID.
      *
-     * @return The ArrayList of tasks.
+     * @param id The ID of the task to retrieve.
+     * @return The task with that ID, or {@code null} if no task in the list has that ID.
      */
-    public ArrayList<Task> getTasksForTesting() {
-        return this.tasks;
+    public Task getTaskById(int id) {
+        return tasks.getById(id);
     }
 
+    /**
+     * Finds the current index of the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The index of the task, or -1 if no task in the list has that ID.
+     */
+    public int indexOfId(int id) {
+        return tasks.indexOfId(id);
+    }
 
     /**
      * Marks a task as done by its index.
      *
      * @param index The index of the task to mark.
+     * @return The marked task.
      */
-    protected void markTask(int index) {
-        tasks.get(index).mark();
+    public Task markTask(int index) {
+        return updateTask(index, Task::mark);
     }
 
     /**
      * Marks a task as not done by its index.
      *
      * @param index The index of the task to unmark.
+     * @return The unmarked task.
      */
-    protected void unmarkTask(int index) {
-        tasks.get(index).unmark();
+    public Task unmarkTask(int index) {
+        return updateTask(index, Task::unmark);
+    }
+
+    /**
+     * Sets the priority of a task by its index.
+     *
+     * @param index The index of the task.
+     * @param priority The new priority.
+     * @return The task, with its new priority.
+     */
+    public Task setPriority(int index, Priority priority) {
+        return updateTask(index, task -> task.setPriority(priority));
+    }
+
+    /**
+     * Reschedules a deadline task to a new due date and time.
+     *
+     * @param index The index of the deadline task.
+     * @param newByTiming The new due date and time.
+     * @return The rescheduled deadline.
+     */
+    public Deadline rescheduleDeadline(int index, LocalDateTime newByTiming) {
+        assert tasks.get(index) instanceof Deadline : "Only deadlines can be given a new due date.";
+        return (Deadline) updateTask(index, task -> ((Deadline) task).setByTiming(newByTiming));
+    }
+
+    /**
+     * Reschedules an event task to new start and end dates and times.
+     * The event is left unchanged if the new start is not before the new end.
+     *
+     * @param index The index of the event task.
+     * @param newStart The new start date and time.
+     * @param newEnd The new end date and time.
+     * @return The rescheduled event.
+     * @throws ShagBotDateException If the new start date and time is not before the new end date and time.
+     */
+    public Event rescheduleEvent(int index, LocalDateTime newStart, LocalDateTime newEnd)
+            throws ShagBotDateException {
+        assert tasks.get(index) instanceof Event : "Only events can be given new start and end dates.";
+        Event rescheduledEvent = ((Event) tasks.get(index)).copy();
+        rescheduledEvent.setStart(newStart);
+        rescheduledEvent.setEnd(newEnd);
+        rescheduledEvent.validateDate();
+        return (Event) updateTask(index, task -> {
+            ((Event) task).setStart(newStart);
+            ((Event) task).setEnd(newEnd);
+        });
+    }
+
+    /**
+     * Groups every change made since the last call into one step of the undo history.
+     * This is called once after each command.
+     *
+     * @return {@code true} if any change was made since the last call.
+     */
+    public boolean commitChanges() {
+        publisher.flush(version);
+        return history.commitStep();
+    }
+
+    /**
+     * Reverts every change made since the last call to {@link #commitChanges()}, without recording it
+     * in the undo history. This is used when a command fails part way through.
+     *
+     * @return The changes that were reverted, in the order they were originally made.
+     */
+    public List<TaskChange> discardChanges() {
+        List<TaskChange> step = history.discardStep();
+        for (int i = step.size() - 1; i >= 0; i--) {
+            applyChange(step.get(i).invert());
+        }
+        publisher.flush(version);
+        return step;
+    }
+
+    /**
+     * Reverts the most recent step in the undo history.
+     *
+     * @return The changes that were reverted, in the order they were originally made,
+     *         or {@code null} if there is nothing to undo.
+     */
+    public List<TaskChange> undo() {
+        history.commitStep();
+        List<TaskChange> step = history.popUndoStep();
+        if (step != null) {
+            for (int i = step.size() - 1; i >= 0; i--) {
+                applyChange(step.get(i).invert());
+            }
+        }
+        publisher.flush(version);
+        return step;
+    }
+
+    /**
+     * Reapplies the most recently undone step.
+     *
+     * @return The changes that were reapplied, in the order they were originally made,
+     *         or {@code null} if there is nothing to redo.
+     */
+    public List<TaskChange> redo() {
+        history.commitStep();
+        List<TaskChange> step = history.popRedoStep();
+        if (step != null) {
+            for (TaskChange change : step) {
+                applyChange(change);
+            }
+        }
+        publisher.flush(version);
+        return step;
+    }
+
+    /**
+     * Retrieves the version of the tasks in the list, which changes whenever a task is added, removed or changed.
+     * Versions are never reused within a run, even by different task lists, so a version identifies
+     * one state of one task list.
+     *
+     * @return The version of the tasks.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Estimates the bytes of the Java heap taken by the tasks, the store they are kept in and the indexes
+     * built over them so far. The tasks are only read again after they have changed.
+     *
+     * @return The estimated number of bytes.
+     */
+    public long estimateMemory() {
+        if (estimatedVersion != version) {
+            estimatedStoreBytes = 0;
+            estimatedDescriptionLength = 0;
+            estimatedTagCount = 0;
+            for (Task task : tasks) {
+                estimatedStoreBytes += tasks.estimateHeapBytes(task);
+                estimatedDescriptionLength += task.getDescription().length();
+                estimatedTagCount += task.getTags().size();
+            }
+            estimatedVersion = version;
+        }
+        long size = tasks.size();
+        long bytes = estimatedStoreBytes;
+        if (tokenIndex != null) {
+            bytes += size * TOKEN_INDEX_BYTES_PER_TASK + estimatedDescriptionLength * TOKEN_INDEX_BYTES_PER_CHARACTER;
+        }
+        if (tagIndex != null) {
+            bytes += estimatedTagCount * TAG_INDEX_BYTES_PER_TAG;
+        }
+        if (nextTasks != null) {
+            bytes += (long) nextTasks.size() * NEXT_TASK_HEAP_BYTES_PER_TASK;
+        }
+        if (sortedIndexes != null) {
+            bytes += size * sortedIndexes.size() * SORTED_INDEX_BYTES_PER_TASK;
+        }
+        if (eventSpans != null) {
+            bytes += size * EVENT_SPANS_BYTES_PER_TASK;
+        }
+        return bytes;
+    }
+
+    /**
+     * Adds a listener that receives every change to the list as soon as it is made, on the thread that made it.
+     * The listener must be quick and must not change the list itself.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(TaskListener listener) {
+        publisher.addListener(listener);
+    }
+
+    /**
+     * Adds a listener that receives the changes to the list on the given executor, in batches of every change
+     * made by a command, once the command ends with {@link #commitChanges()}, an undo or a redo.
+     * Batches reach the listener one at a time and in order.
+     *
+     * @param listener The listener.
+     * @param executor The executor to run the listener on.
+     */
+    public void addListener(TaskListener listener, Executor executor) {
+        publisher.addListener(listener, executor);
+    }
+
+    /**
+     * Removes a listener, so it receives no further changes.
+     *
+     * @param listener The listener.
+     * @return {@code true} if the listener was listening to the list.
+     */
+    public boolean removeListener(TaskListener listener) {
+        return publisher.removeListener(listener);
+    }
+
+    /**
+     * Retrieves the undo and redo history of the task list.
+     *
+     * @return The history of the task list.
+     */
+    public TaskHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Applies a change to the task and writes it back to the store,
+     * recording snapshots of it before and after the change.
+     */
+    private Task updateTask(int index, Consumer<Task> update) {
+        Task task = tasks.get(index);
+        Task oldTask = task.copy();
+        update.accept(task);
+        tasks.set(index, task);
+        version = LAST_VERSION.incrementAndGet();
+        if (tagIndex != null) {
+            tagIndex.removeTask(oldTask);
+            tagIndex.addTask(task);
+        }
+        if (nextTasks != null) {
+            nextTasks.updateTask(task);
+        }
+        if (sortedIndexes != null) {
+            for (SortedIndex sortedIndex : sortedIndexes.values()) {
+                sortedIndex.removeTask(oldTask);
+                sortedIndex.addTask(task);
+            }
+        }
+        if (eventSpans != null) {
+            eventSpans.removeTask(oldTask);
+            eventSpans.addTask(task);
+        }
+        if (statistics != null) {
+            statistics.removeTask(oldTask);
+            statistics.addTask(task);
+        }
+        recordChange(new TaskChange(TaskChange.Kind.UPDATED, index, oldTask, task.copy()));
+        return task;
+    }
+
+    /**
+     * Records a change in the history and publishes it to the listeners.
+     */
+    private void recordChange(TaskChange change) {
+        history.record(change);
+        publisher.publish(change, version);
+    }
+
+    /**
+     * Applies a change from the history without recording it again, though it is still published.
+     * Fresh copies of the snapshots are used so the history itself is never modified.
+     */
+    private void applyChange(TaskChange change) {
+        switch (change.getKind()) {
+        case ADDED:
+            insertTaskAt(change.getIndex(), change.getNewTask().copy());
+            break;
+        case REMOVED:
+            removeTaskAt(change.getIndex());
+            break;
+        case UPDATED:
+            removeTaskAt(change.getIndex());
+            insertTaskAt(change.getIndex(), change.getNewTask().copy());
+            break;
+        default:
+            throw new IllegalStateException("Unknown kind of change: " + change.getKind());
+        }
+        publisher.publish(change, version);
+    }
+
+    /**
+     * Retrieves the token index, building it on first use so that loading the task list
+     * does not need to read every description.
+     */
+    private TokenTrie getTokenIndex() {
+        if (tokenIndex == null) {
+            tokenIndex = new TokenTrie();
+            for (Task task : tasks) {
+                tokenIndex.addTask(task);
+            }
+        }
+        return tokenIndex;
+    }
+
+    /**
+     * Retrieves the heap of incomplete tasks in the order to do them, building it on first use.
+     */
+    private NextTaskHeap getNextTaskHeap() {
+        if (nextTasks == null) {
+            nextTasks = new NextTaskHeap();
+            for (Task task : tasks) {
+                nextTasks.addTask(task);
+            }
+        }
+        return nextTasks;
+    }
+
+    /**
+     * Retrieves the tag index, building it on first use.
+     */
+    private TagIndex getTagIndex() {
+        if (tagIndex == null) {
+            tagIndex = new TagIndex();
+            for (Task task : tasks) {
+                tagIndex.addTask(task);
+            }
+        }
+        return tagIndex;
+    }
+
+    /**
+     * Retrieves the sorted indexes used by queries, building them on first use.
+     */
+    private Map<QueryField, SortedIndex> getSortedIndexes() {
+        if (sortedIndexes == null) {
+            sortedIndexes = new EnumMap<>(QueryField.class);
+            for (QueryField field : QueryPlanner.INDEXED_FIELDS) {
+                sortedIndexes.put(field, new SortedIndex(field));
+            }
+            for (Task task : tasks) {
+                sortedIndexes.values().forEach(sortedIndex -> sortedIndex.addTask(task));
+            }
+        }
+        return sortedIndexes;
+    }
+
+    /**
+     * Retrieves the interval tree of event spans, building it on first use.
+     */
+    private IntervalTree getEventSpans() {
+        if (eventSpans == null) {
+            eventSpans = new IntervalTree();
+            for (Task task : tasks) {
+                eventSpans.addTask(task);
+            }
+        }
+        return eventSpans;
+    }
+
+    private void insertTaskAt(int index, Task task) {
+        tasks.insert(index, task);
+        version = LAST_VERSION.incrementAndGet();
+        if (tokenIndex != null) {
+            tokenIndex.addTask(task);
+        }
+        if (tagIndex != null) {
+            tagIndex.addTask(task);
+        }
+        if (nextTasks != null) {
+            nextTasks.addTask(task);
+        }
+        if (sortedIndexes != null) {
+            sortedIndexes.values().forEach(sortedIndex -> sortedIndex.addTask(task));
+        }
+        if (eventSpans != null) {
+            eventSpans.addTask(task);
+        }
+        if (statistics != null) {
+            statistics.addTask(task);
+        }
     }
-}
 
+    private Task removeTaskAt(int index) {
+        Task removedTask = tasks.remove(index);
+        version = LAST_VERSION.incrementAndGet();
+        unindexTask(removedTask);
+        return removedTask;
+    }
+
+    private Task[] removeTasksAt(int[] sortedIndexes) {
+        Task[] removedTasks = tasks.removeAll(sortedIndexes);
+        version = LAST_VERSION.incrementAndGet();
+        for (Task removedTask : removedTasks) {
+            unindexTask(removedTask);
+        }
+        return removedTasks;
+    }
+
+    private void unindexTask(Task removedTask) {
+        if (tokenIndex != null) {
+            tokenIndex.removeTask(removedTask);
+        }
+        if (tagIndex != null) {
+            tagIndex.removeTask(removedTask);
+        }
+        if (nextTasks != null) {
+            nextTasks.removeTask(removedTask);
+        }
+        if (sortedIndexes != null) {
+            sortedIndexes.values().forEach(sortedIndex -> sortedIndex.removeTask(removedTask));
+        }
+        if (eventSpans != null) {
+            eventSpans.removeTask(removedTask);
+        }
+        if (statistics != null) {
+            statistics.removeTask(removedTask);
+        }
+    }
+
+    private static boolean isDatedBefore(Task task, LocalDateTime cutoff) {
+        if (task instanceof Deadline deadline) {
+            return deadline.getByTiming().isBefore(cutoff);
+        }
+        if (task instanceof Event event) {
+            return event.getEnd().isBefore(cutoff);
+        }
+        return true;
+    }
+
+    /**
+     * Finds the highest ID of the given tasks, or 0 if none of them has an ID.
+     */
+    private static int getHighestId(Iterable<Task> tasks) {
+        int highestId = 0;
+        for (Task task : tasks) {
+            if (task != null) {
+                highestId = Math.max(highestId, task.getId());
+            }
+        }
+        return highestId;
+    }
+
+    /**
+     * Finds the highest ID referred to by the history, so that IDs of deleted tasks which can still be
+     * restored by an undo or redo are never given to new tasks.
+     */
+    private static int getHighestId(TaskHistory history) {
+        int highestId = 0;
+        for (List<List<TaskChange>> steps : List.of(history.getUndoSteps(), history.getRedoSteps())) {
+            for (List<TaskChange> step : steps) {
+                for (TaskChange change : step) {
+                    highestId = Math.max(highestId,
+                            getHighestId(Arrays.asList(change.getOldTask(), change.getNewTask())));
+                }
+            }
+        }
+        return highestId;
+    }
+}
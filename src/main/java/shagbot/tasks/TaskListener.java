@@ -0,0 +1,18 @@
+package shagbot.tasks;
+
+import java.util.List;
+
+/**
+ * Represents a subscriber to the changes made to a {@link TaskList}, such as an index or a view
+ * that is kept up to date incrementally instead of scanning the whole list again.
+ */
+public interface TaskListener {
+    /**
+     * Receives changes made to the task list, in the order they were made.
+     *
+     * @param changes The changes. Their tasks are snapshots shared with the undo history,
+     *                so they must not be modified.
+     * @param version The version of the task list once the changes were made.
+     */
+    void onChanges(List<TaskChange> changes, long version);
+}
@@ -0,0 +1,197 @@
+package shagbot.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents a query over a {@link TaskList}, written after the {@code list} command, such as
+ * {@code where type=deadline and done=false and due<1/12/2025 order by due limit 20}.
+ * <p>
+ * Every part is optional. The {@code where} clause is made of conditions joined by {@code and}, each comparing
+ * a field ({@code id}, {@code type}, {@code done}, {@code description}, {@code due}, {@code start}, {@code end}
+ * or {@code tag}) with a value, using {@code =}, {@code !=}, {@code <}, {@code <=}, {@code >}, {@code >=},
+ * or {@code ~} to match words of the description. Values containing spaces are written in double quotes,
+ * except for a date followed by a time, such as {@code due<1/12/2025 1800}.
+ * </p>
+ * <p>
+ * {@code order by} sorts the matching tasks by a field, ascending unless followed by {@code desc}, with tasks
+ * that do not have the field last. Otherwise tasks are kept in list order.
+ * </p>
+ */
+public final class TaskQuery {
+    private static final String WHERE = "where";
+    private static final String AND = "and";
+    private static final String ORDER = "order";
+    private static final String BY = "by";
+    private static final String LIMIT = "limit";
+    private static final String ASCENDING = "asc";
+    private static final String DESCENDING = "desc";
+    private static final Pattern WORD_PATTERN = Pattern.compile("\\s*([A-Za-z]+)(?=[\\s=!<>~\"]|$)");
+    private static final Pattern OPERATOR_PATTERN = Pattern.compile("\\s*(<=|>=|!=|=|<|>|~)");
+    private static final Pattern VALUE_PATTERN =
+            Pattern.compile("\\s*(?:\"([^\"]*)\"|(\\d{1,2}/\\d{1,2}/\\d{4}\\s+\\d{4}|[^\\s\"]+))(?=\\s|$)");
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\s*(\\d+)(?=\\s|$)");
+    private static final String INVALID_QUERY_MESSAGE = "OOPSIE!! I don't understand the query after '%s'. "
+            + "Try e.g. 'list where type=deadline and done=false and due<1/12/2025 order by due limit 20'.";
+    private static final String UNKNOWN_FIELD_MESSAGE = "OOPSIE!! Unknown field '%s'. "
+            + "Please use id, type, done, description, due, start, end or tag.";
+    private static final String INVALID_LIMIT_MESSAGE = "OOPSIE!! The limit must be at least 1.";
+
+    private final List<QueryCondition> conditions;
+    private final QueryField orderField;
+    private final boolean isDescending;
+    private final int limit;
+
+    private TaskQuery(List<QueryCondition> conditions, QueryField orderField, boolean isDescending, int limit) {
+        this.conditions = Collections.unmodifiableList(conditions);
+        this.orderField = orderField;
+        this.isDescending = isDescending;
+        this.limit = limit;
+    }
+
+    /**
+     * Parses a query.
+     *
+     * @param queryText The query, such as {@code where done=false order by due limit 5}.
+     * @return The parsed query.
+     * @throws IllegalArgumentException If the query is malformed, or a condition or value is invalid.
+     */
+    public static TaskQuery parse(String queryText) {
+        assert queryText != null : "Query cannot be null.";
+        QueryReader reader = new QueryReader(queryText);
+        List<QueryCondition> conditions = new ArrayList<>();
+        QueryField orderField = null;
+        boolean isDescending = false;
+        int limit = 0;
+
+        if (reader.readKeyword(WHERE)) {
+            do {
+                QueryField field = reader.readField();
+                String operator = reader.read(OPERATOR_PATTERN, 1);
+                String value = reader.readValue();
+                conditions.add(QueryCondition.of(field, operator, value));
+            } while (reader.readKeyword(AND));
+        }
+        if (reader.readKeyword(ORDER)) {
+            reader.expectKeyword(BY);
+            orderField = reader.readField();
+            isDescending = reader.readKeyword(DESCENDING);
+            if (!isDescending) {
+                reader.readKeyword(ASCENDING);
+            }
+        }
+        if (reader.readKeyword(LIMIT)) {
+            try {
+                limit = Integer.parseInt(reader.read(NUMBER_PATTERN, 1));
+            } catch (NumberFormatException e) {
+                limit = 0;
+            }
+            if (limit < 1) {
+                throw new IllegalArgumentException(INVALID_LIMIT_MESSAGE);
+            }
+        }
+        reader.expectEnd();
+        return new TaskQuery(conditions, orderField, isDescending, limit);
+    }
+
+    List<QueryCondition> getConditions() {
+        return conditions;
+    }
+
+    QueryField getOrderField() {
+        return orderField;
+    }
+
+    boolean isDescending() {
+        return isDescending;
+    }
+
+    /**
+     * Retrieves the maximum number of tasks to return.
+     *
+     * @return The limit, or 0 if there is none.
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Reads the parts of a query from left to right.
+     */
+    private static class QueryReader {
+        private final String text;
+        private int position = 0;
+
+        private QueryReader(String text) {
+            this.text = text.trim();
+        }
+
+        /**
+         * Reads the given keyword, ignoring case, if it comes next.
+         *
+         * @return {@code true} if the keyword was read.
+         */
+        private boolean readKeyword(String keyword) {
+            Matcher matcher = matchNext(WORD_PATTERN);
+            if (matcher.lookingAt() && matcher.group(1).equalsIgnoreCase(keyword)) {
+                position = matcher.end();
+                return true;
+            }
+            return false;
+        }
+
+        private void expectKeyword(String keyword) {
+            if (!readKeyword(keyword)) {
+                throw invalidQuery();
+            }
+        }
+
+        private QueryField readField() {
+            String name = read(WORD_PATTERN, 1);
+            QueryField field = QueryField.fromName(name);
+            if (field == null) {
+                throw new IllegalArgumentException(String.format(UNKNOWN_FIELD_MESSAGE, name));
+            }
+            return field;
+        }
+
+        private String readValue() {
+            Matcher matcher = matchNext(VALUE_PATTERN);
+            if (!matcher.lookingAt()) {
+                throw invalidQuery();
+            }
+            position = matcher.end();
+            return matcher.group(1) != null ? matcher.group(1) : matcher.group(2).replaceAll("\\s+", " ");
+        }
+
+        private String read(Pattern pattern, int group) {
+            Matcher matcher = matchNext(pattern);
+            if (!matcher.lookingAt()) {
+                throw invalidQuery();
+            }
+            position = matcher.end();
+            return matcher.group(group);
+        }
+
+        /**
+         * Creates a matcher for the given pattern over the rest of the query.
+         */
+        private Matcher matchNext(Pattern pattern) {
+            return pattern.matcher(text).region(position, text.length());
+        }
+
+        private void expectEnd() {
+            if (position < text.length()) {
+                throw invalidQuery();
+            }
+        }
+
+        private IllegalArgumentException invalidQuery() {
+            String readSoFar = position == 0 ? "list" : text.substring(0, position);
+            return new IllegalArgumentException(String.format(INVALID_QUERY_MESSAGE, readSoFar));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package shagbot.tasks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents counts of the tasks in a task list, kept up to date as tasks are added, removed and changed.
+ * <p>
+ * Tasks are counted by type and by whether they are done, and deadlines and events are also counted by the day,
+ * week and month they are due or start in. Each change to a task updates a fixed number of counters, so
+ * a summary of the list is read from the counters in O(1) instead of by reading every task.
+ * </p>
+ */
+public class TaskStatistics {
+    /**
+     * Represents a type of task.
+     */
+    public enum Kind {
+        TODO,
+        DEADLINE,
+        EVENT;
+
+        private static Kind of(Task task) {
+            if (task instanceof Deadline) {
+                return DEADLINE;
+            }
+            return task instanceof Event ? EVENT : TODO;
+        }
+    }
+
+    /**
+     * Represents a period that deadlines and events are counted by, starting from Monday for weeks.
+     */
+    public enum Bucket {
+        DAY,
+        WEEK,
+        MONTH;
+
+        /**
+         * Finds the first day of the period containing the given date.
+         *
+         * @param date The date.
+         * @return The first day of the period.
+         */
+        public LocalDate startOf(LocalDate date) {
+            switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+            }
+        }
+    }
+
+    private final int[] counts = new int[Kind.values().length * 2];
+    private final Map<Bucket, Map<LocalDate, int[]>> datedCounts = new EnumMap<>(Bucket.class);
+
+    /**
+     * Constructor for the {@code TaskStatistics} class, with every count at zero.
+     */
+    TaskStatistics() {
+        for (Bucket bucket : Bucket.values()) {
+            datedCounts.put(bucket, new HashMap<>());
+        }
+    }
+
+    /**
+     * Counts a task.
+     *
+     * @param task The task to count.
+     */
+    void addTask(Task task) {
+        update(task, 1);
+    }
+
+    /**
+     * Stops counting a task. The task must be as it was when it was counted.
+     *
+     * @param task The task to stop counting.
+     */
+    void removeTask(Task task) {
+        update(task, -1);
+    }
+
+    /**
+     * Retrieves the number of tasks in the list.
+     *
+     * @return The number of tasks.
+     */
+    public int getCount() {
+        int count = 0;
+        for (int kindCount : counts) {
+            count += kindCount;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of tasks of a type, done or not.
+     *
+     * @param kind The type of task.
+     * @param isDone Whether to count the tasks that are done, or those that are not.
+     * @return The number of tasks.
+     */
+    public int getCount(Kind kind, boolean isDone) {
+        return counts[indexOf(kind, isDone)];
+    }
+
+    /**
+     * Retrieves the number of deadlines due, or events starting, within the period containing a date.
+     *
+     * @param bucket The length of the period.
+     * @param date Any date within the period.
+     * @param kind {@link Kind#DEADLINE} or {@link Kind#EVENT}.
+     * @param isDone Whether to count the tasks that are done, or those that are not.
+     * @return The number of tasks.
+     */
+    public int getCount(Bucket bucket, LocalDate date, Kind kind, boolean isDone) {
+        assert kind != Kind.TODO : "Todos have no date to be counted by.";
+        int[] bucketCounts = datedCounts.get(bucket).get(bucket.startOf(date));
+        return bucketCounts == null ? 0 : bucketCounts[indexOf(kind, isDone)];
+    }
+
+    private void update(Task task, int delta) {
+        Kind kind = Kind.of(task);
+        int index = indexOf(kind, task.isDone());
+        counts[index] += delta;
+        assert counts[index] >= 0 : "A task was removed without being added.";
+
+        LocalDate date = null;
+        if (task instanceof Deadline deadline) {
+            date = deadline.getByTiming().toLocalDate();
+        } else if (task instanceof Event event) {
+            date = event.getStart().toLocalDate();
+        }
+        if (date == null) {
+            return;
+        }
+        for (Bucket bucket : Bucket.values()) {
+            Map<LocalDate, int[]> bucketMap = datedCounts.get(bucket);
+            int[] bucketCounts = bucketMap.computeIfAbsent(bucket.startOf(date), start -> new int[counts.length]);
+            bucketCounts[index] += delta;
+            // Empty periods are dropped so that the counters only grow with the number of dates in use
+            if (isEmpty(bucketCounts)) {
+                bucketMap.remove(bucket.startOf(date));
+            }
+        }
+    }
+
+    private static boolean isEmpty(int[] bucketCounts) {
+        for (int count : bucketCounts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(Kind kind, boolean isDone) {
+        return kind.ordinal() * 2 + (isDone ? 1 : 0);
+    }
+}
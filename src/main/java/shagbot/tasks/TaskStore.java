@@ -0,0 +1,204 @@
+package shagbot.tasks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Represents the storage behind a {@link TaskList}, holding its tasks in list order.
+ * <p>
+ * A store may keep the {@code Task} objects it is given, or only their data, creating new {@code Task}
+ * objects whenever they are retrieved. Changes to a retrieved task are therefore only kept once the task
+ * is written back with {@link #set(int, Task)}.
+ * </p>
+ */
+public interface TaskStore extends Iterable<Task> {
+    // The synced file time of a store holding saved tasks without knowing when the task file last held them,
+    // such as a task image saved by an older version, which is taken to be current
+    long UNKNOWN_SYNCED_FILE_TIME = -1;
+
+    /**
+     * Creates a store that keeps its tasks in an order-statistic tree.
+     * Every operation takes O(log n), at the cost of several objects per task.
+     *
+     * @return An empty store.
+     */
+    static TaskStore createTreeStore() {
+        return new IndexedTaskTree();
+    }
+
+    /**
+     * Creates a store that keeps its tasks in parallel primitive arrays.
+     * It uses several times less memory per task than the tree store, but inserting or removing
+     * a task anywhere except at the end takes O(n).
+     *
+     * @return An empty store.
+     */
+    static TaskStore createCompactStore() {
+        return new CompactTaskStore();
+    }
+
+    /**
+     * Opens a store that keeps its tasks outside the Java heap, in a memory-mapped task image file.
+     * The file is both the store and its saved copy, so opening it does not parse any tasks.
+     *
+     * @param path The path of the task image, which is created if it does not exist.
+     * @return The store, holding the tasks saved in the task image.
+     * @throws IOException If the file cannot be mapped, or is not a task image.
+     */
+    static TaskStore openMappedStore(Path path) throws IOException {
+        return MappedTaskStore.open(path);
+    }
+
+    /**
+     * Retrieves the number of tasks in the store.
+     *
+     * @return The number of tasks.
+     */
+    int size();
+
+    /**
+     * Retrieves the task at the given position.
+     *
+     * @param index The position of the task.
+     * @return The task at that position.
+     * @throws IndexOutOfBoundsException If there is no task at that position.
+     */
+    Task get(int index);
+
+    /**
+     * Inserts a task at the given position, moving the tasks from that position onwards back by one.
+     *
+     * @param index The position to insert the task at.
+     * @param task The task to insert, whose ID must not already be in the store.
+     * @throws IndexOutOfBoundsException If the position is beyond the end of the store.
+     */
+    void insert(int index, Task task);
+
+    /**
+     * Removes the task at the given position, moving the tasks after it forward by one.
+     *
+     * @param index The position of the task to remove.
+     * @return The removed task.
+     * @throws IndexOutOfBoundsException If there is no task at that position.
+     */
+    Task remove(int index);
+
+    /**
+     * Removes the tasks at several positions, moving the remaining tasks forward to close the gaps.
+     * Stores that take O(n) to remove a task override this to remove them all in a single pass.
+     *
+     * @param sortedIndexes The positions of the tasks to remove, in ascending order without duplicates.
+     * @return The removed tasks, in the order they were in the store.
+     * @throws IndexOutOfBoundsException If there is no task at one of the positions.
+     */
+    default Task[] removeAll(int[] sortedIndexes) {
+        Task[] removedTasks = new Task[sortedIndexes.length];
+        for (int i = sortedIndexes.length - 1; i >= 0; i--) {
+            removedTasks[i] = remove(sortedIndexes[i]);
+        }
+        return removedTasks;
+    }
+
+    /**
+     * Replaces the task at the given position.
+     *
+     * @param index The position of the task to replace.
+     * @param task The new task, whose ID must not already be used by a different position.
+     * @return The replaced task.
+     * @throws IndexOutOfBoundsException If there is no task at that position.
+     */
+    Task set(int index, Task task);
+
+    /**
+     * Checks whether a task with the given ID is in the store.
+     *
+     * @param id The task ID.
+     * @return {@code true} if a task with that ID is in the store.
+     */
+    boolean containsId(int id);
+
+    /**
+     * Retrieves the task with the given ID.
+     *
+     * @param id The task ID.
+     * @return The task with that ID, or {@code null} if there is none.
+     */
+    Task getById(int id);
+
+    /**
+     * Finds the current position of the task with the given ID.
+     *
+     * @param id The task ID.
+     * @return The position of the task, or -1 if there is no task with that ID.
+     */
+    int indexOfId(int id);
+
+    /**
+     * Estimates the bytes of the Java heap the store takes to hold a task, including its share
+     * of the arrays or maps that the store keeps for every task.
+     *
+     * @param task A task in the store.
+     * @return The estimated number of bytes.
+     */
+    long estimateHeapBytes(Task task);
+
+    /**
+     * Retrieves the highest ID of the tasks in the store.
+     *
+     * @return The highest ID, or 0 if the store is empty.
+     */
+    default int getHighestId() {
+        int highestId = 0;
+        for (Task task : this) {
+            highestId = Math.max(highestId, task.getId());
+        }
+        return highestId;
+    }
+
+    /**
+     * Checks whether the store saves its tasks itself, so that they need not be saved separately.
+     *
+     * @return {@code true} if the store is backed by a file.
+     */
+    default boolean isPersistent() {
+        return false;
+    }
+
+    /**
+     * Writes every change made to the store to its file, if it has one.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Retrieves when the task file last held the same tasks as the store, if the store is backed by a file.
+     *
+     * @return The modification time of the task file then, in milliseconds, 0 if the store has never held
+     *         the tasks of the task file, or {@link #UNKNOWN_SYNCED_FILE_TIME}.
+     */
+    default long getSyncedFileTime() {
+        return 0;
+    }
+
+    /**
+     * Records that the store holds the same tasks as the task file, as last modified at the given time.
+     *
+     * @param time The modification time of the task file, in milliseconds.
+     */
+    default void setSyncedFileTime(long time) {
+    }
+
+    /**
+     * Retrieves all tasks in list order.
+     *
+     * @return An array of all tasks.
+     */
+    default Task[] toArray() {
+        Task[] tasks = new Task[size()];
+        int i = 0;
+        for (Task task : this) {
+            tasks[i++] = task;
+        }
+        return tasks;
+    }
+}
@@ -14,6 +14,11 @@ public class Todo extends Task {
         super(validateDescription(desc));
     }
 
+    @Override
+    public Todo copy() {
+        return copyStateTo(new Todo(getDescription()));
+    }
+
     /**
      * Returns a string representation of the {@code Todo} task.
      * The format includes the task type "[T]" and the description from the
@@ -0,0 +1,309 @@
+package shagbot.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents a trie over the word tokens of task descriptions.
+ * <p>
+ * Every task is split into lower-cased tokens when it is added, and each token's terminal node
+ * keeps the IDs of the tasks containing it. This allows prefix queries ({@code rep*}) and typo-tolerant
+ * queries ({@code repot~1}) to be answered by walking only the relevant part of the trie,
+ * instead of scanning every task in the list.
+ * </p>
+ * <p>
+ * The trie also keeps the term statistics needed for relevance ranking: how often each token occurs in
+ * each task, and how many tokens each task has. These are updated with every add and remove.
+ * </p>
+ */
+class TokenTrie {
+    private static final String TOKEN_SEPARATOR_REGEX = "[^\\p{L}\\p{N}]+";
+    private static final char PREFIX_MARKER = '*';
+    private static final char FUZZY_MARKER = '~';
+    private static final int DEFAULT_MAX_EDITS = 2;
+    private static final String INVALID_TERM_MESSAGE = "OOPSIE!! '%s' is not a valid search term.";
+    private static final String INVALID_EDIT_DISTANCE_MESSAGE =
+            "OOPSIE!! Typo tolerance must be 1 or 2, e.g. 'find repot~1'.";
+
+    private final Node root = new Node();
+    private final Map<Integer, Integer> tokenCountOfTask = new HashMap<>();
+    private long totalTokenCount = 0;
+
+    /**
+     * Represents a single character position in the trie.
+     */
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Map<Integer, Integer> postings = new LinkedHashMap<>();
+
+        private boolean isEmpty() {
+            return children.isEmpty() && postings.isEmpty();
+        }
+    }
+
+    /**
+     * Indexes every token of the given task's description.
+     *
+     * @param task The task to index.
+     */
+    void addTask(Task task) {
+        assert task != null : "Task to index cannot be null.";
+        if (tokenCountOfTask.containsKey(task.getId())) {
+            return;
+        }
+        Map<String, Integer> termFrequencies = countTokens(task.getDescription());
+        int tokenCount = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        tokenCountOfTask.put(task.getId(), tokenCount);
+        totalTokenCount += tokenCount;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            String token = entry.getKey();
+            Node node = root;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.children.computeIfAbsent(token.charAt(i), c -> new Node());
+            }
+            node.postings.put(task.getId(), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes every token of the given task from the trie, pruning branches that become empty.
+     *
+     * @param task The task to remove.
+     */
+    void removeTask(Task task) {
+        Integer tokenCount = tokenCountOfTask.remove(task.getId());
+        if (tokenCount == null) {
+            return;
+        }
+        totalTokenCount -= tokenCount;
+        for (String token : tokenize(task.getDescription())) {
+            removeToken(root, token, 0, task.getId());
+        }
+    }
+
+    /**
+     * Finds the tasks matching every one of the given query terms.
+     * <p>
+     * A term ending with {@code *} matches any token starting with it, a term ending with {@code ~}
+     * (optionally followed by 1 or 2) matches any token within that many edits of it,
+     * and any other term must match a whole token. Matching ignores case.
+     * </p>
+     *
+     * @param terms The query terms.
+     * @return The IDs of the matching tasks.
+     * @throws IllegalArgumentException If a term is malformed.
+     */
+    Set<Integer> findTasks(String[] terms) {
+        Set<Integer> matches = null;
+        for (String term : terms) {
+            Set<Integer> termMatches = findTasksForTerm(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.retainAll(termMatches);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches == null ? new LinkedHashSet<>() : matches;
+    }
+
+    /**
+     * Retrieves how often the given token occurs in each task containing it.
+     *
+     * @param token A lower-cased token.
+     * @return A read-only view of the term frequency of the token, by the ID of each task containing it.
+     */
+    Map<Integer, Integer> getTermFrequencies(String token) {
+        Node node = findNode(token);
+        return node == null ? Map.of() : Collections.unmodifiableMap(node.postings);
+    }
+
+    /**
+     * Retrieves the number of tokens in the given task's description.
+     *
+     * @param taskId The ID of an indexed task.
+     * @return The number of tokens, counting repeated tokens each time.
+     */
+    int getTokenCount(int taskId) {
+        return tokenCountOfTask.getOrDefault(taskId, 0);
+    }
+
+    /**
+     * Retrieves the number of tasks in the index.
+     *
+     * @return The number of indexed tasks.
+     */
+    int getTaskCount() {
+        return tokenCountOfTask.size();
+    }
+
+    /**
+     * Retrieves the average number of tokens per indexed task.
+     *
+     * @return The average token count, or 0 if nothing is indexed.
+     */
+    double getAverageTokenCount() {
+        return tokenCountOfTask.isEmpty() ? 0 : (double) totalTokenCount / tokenCountOfTask.size();
+    }
+
+    /**
+     * Splits a piece of text into lower-cased, distinct word tokens.
+     *
+     * @param text The text to split.
+     * @return The distinct tokens found in the text.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split(TOKEN_SEPARATOR_REGEX)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<String, Integer> countTokens(String text) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split(TOKEN_SEPARATOR_REGEX)) {
+            if (!token.isEmpty()) {
+                counts.merge(token, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private Set<Integer> findTasksForTerm(String rawTerm) {
+        String term = rawTerm.toLowerCase(Locale.ROOT);
+        int fuzzyMarkerIndex = term.indexOf(FUZZY_MARKER);
+        if (fuzzyMarkerIndex >= 0) {
+            String word = term.substring(0, fuzzyMarkerIndex);
+            int maxEdits = parseMaxEdits(term.substring(fuzzyMarkerIndex + 1));
+            return findByFuzzyToken(requireToken(word, rawTerm), maxEdits);
+        }
+        if (term.charAt(term.length() - 1) == PREFIX_MARKER) {
+            String prefix = term.substring(0, term.length() - 1);
+            return findByPrefix(requireToken(prefix, rawTerm));
+        }
+        return findByToken(requireToken(term, rawTerm));
+    }
+
+    private Set<Integer> findByToken(String token) {
+        Node node = findNode(token);
+        return node == null ? new LinkedHashSet<>() : new LinkedHashSet<>(node.postings.keySet());
+    }
+
+    private Set<Integer> findByPrefix(String prefix) {
+        Set<Integer> results = new LinkedHashSet<>();
+        Node node = findNode(prefix);
+        if (node == null) {
+            return results;
+        }
+        List<Node> pending = new ArrayList<>();
+        pending.add(node);
+        while (!pending.isEmpty()) {
+            Node current = pending.remove(pending.size() - 1);
+            results.addAll(current.postings.keySet());
+            pending.addAll(current.children.values());
+        }
+        return results;
+    }
+
+    /**
+     * Finds tasks with a token within {@code maxEdits} Levenshtein edits of the given word.
+     * One row of the edit distance table is computed per trie node, and a branch is abandoned
+     * as soon as every entry in its row exceeds {@code maxEdits}.
+     */
+    private Set<Integer> findByFuzzyToken(String word, int maxEdits) {
+        Set<Integer> results = new LinkedHashSet<>();
+        int[] firstRow = new int[word.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+            collectFuzzyMatches(child.getValue(), child.getKey(), firstRow, word, maxEdits, results);
+        }
+        return results;
+    }
+
+    private void collectFuzzyMatches(Node node, char letter, int[] previousRow, String word, int maxEdits,
+            Set<Integer> results) {
+        int[] currentRow = new int[previousRow.length];
+        currentRow[0] = previousRow[0] + 1;
+        int rowMinimum = currentRow[0];
+        for (int i = 1; i < currentRow.length; i++) {
+            int insertCost = currentRow[i - 1] + 1;
+            int deleteCost = previousRow[i] + 1;
+            int replaceCost = previousRow[i - 1] + (word.charAt(i - 1) == letter ? 0 : 1);
+            currentRow[i] = Math.min(insertCost, Math.min(deleteCost, replaceCost));
+            rowMinimum = Math.min(rowMinimum, currentRow[i]);
+        }
+
+        if (currentRow[currentRow.length - 1] <= maxEdits) {
+            results.addAll(node.postings.keySet());
+        }
+        if (rowMinimum > maxEdits) {
+            return;
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            collectFuzzyMatches(child.getValue(), child.getKey(), currentRow, word, maxEdits, results);
+        }
+    }
+
+    private Node findNode(String token) {
+        Node node = root;
+        for (int i = 0; i < token.length() && node != null; i++) {
+            node = node.children.get(token.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Removes the task from the token's terminal node.
+     *
+     * @return {@code true} if the given node no longer holds anything and can be pruned.
+     */
+    private boolean removeToken(Node node, String token, int depth, int taskId) {
+        if (depth == token.length()) {
+            node.postings.remove(taskId);
+            return node.isEmpty();
+        }
+        char letter = token.charAt(depth);
+        Node child = node.children.get(letter);
+        if (child != null && removeToken(child, token, depth + 1, taskId)) {
+            node.children.remove(letter);
+        }
+        return node.isEmpty();
+    }
+
+    private int parseMaxEdits(String distance) {
+        if (distance.isEmpty()) {
+            return DEFAULT_MAX_EDITS;
+        }
+        try {
+            int maxEdits = Integer.parseInt(distance);
+            if (maxEdits < 1 || maxEdits > DEFAULT_MAX_EDITS) {
+                throw new IllegalArgumentException(INVALID_EDIT_DISTANCE_MESSAGE);
+            }
+            return maxEdits;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(INVALID_EDIT_DISTANCE_MESSAGE);
+        }
+    }
+
+    private String requireToken(String word, String rawTerm) {
+        Set<String> tokens = tokenize(word);
+        if (tokens.size() != 1 || !tokens.contains(word)) {
+            throw new IllegalArgumentException(String.format(INVALID_TERM_MESSAGE, rawTerm));
+        }
+        return word;
+    }
+}
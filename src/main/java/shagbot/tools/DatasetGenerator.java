@@ -0,0 +1,263 @@
+package shagbot.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Represents a generator of synthetic task files, in the format that {@link shagbot.util.Storage} saves,
+ * for testing Shagbot with task lists far larger than anyone types by hand.
+ * <p>
+ * Each line is written as soon as it is generated, so files of any size are generated in constant memory.
+ * The same options, including {@code --start}, always generate the same file.
+ * </p>
+ * <p>
+ * Options are given as {@code --name value}: {@code --output} (required), {@code --lines} (10000),
+ * {@code --seed} (42), {@code --mix} of task types such as {@code todo=50,deadline=30,event=20},
+ * {@code --done-ratio} (0.3), {@code --start} date of the tasks as {@code yyyy-MM-dd} (today), {@code --days}
+ * they are spread over (365), {@code --dates} spread {@code uniform}, {@code normal} around the middle or
+ * {@code recent} towards the start, {@code --words} per description as {@code min-max} (1-6),
+ * {@code --vocabulary} file with one word per line, {@code --corrupt-ratio} of lines that are deliberately
+ * invalid (0) and {@code --overwrite} ({@code false}).
+ * </p>
+ */
+public class DatasetGenerator {
+    /**
+     * Represents the types of tasks in a task file.
+     */
+    enum TaskType {
+        TODO, DEADLINE, EVENT
+    }
+
+    /**
+     * Represents how the dates of tasks are spread over the days of the dataset.
+     */
+    enum DateSpread {
+        UNIFORM, NORMAL, RECENT
+    }
+
+    /**
+     * Represents the ways a line can be invalid, each of which the task file loader skips in a different way.
+     */
+    enum Corruption {
+        MISSING_FIELDS, MISSING_DATE, UNKNOWN_TYPE, INVALID_DATE, INVALID_ATTRIBUTE
+    }
+
+    private static final String DEFAULT_MIX = "todo=50,deadline=30,event=20";
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/M/yyyy HHmm");
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MINUTE_STEP = 15;
+    private static final int EVENT_STEP_MINUTES = 30;
+    private static final int MAX_EVENT_STEPS = 8;
+    private static final double RECENT_MEAN_FRACTION = 0.2;
+    private static final double NORMAL_DEVIATION_FRACTION = 1.0 / 6;
+    private final Options options;
+    private final Map<TaskType, Integer> mix;
+    private final int totalWeight;
+    private final double doneRatio;
+    private final double corruptRatio;
+    private final LocalDateTime start;
+    private final long spanMinutes;
+    private final DateSpread dateSpread;
+    private final int minWords;
+    private final int maxWords;
+    private final Vocabulary vocabulary;
+
+    /**
+     * Constructor for the {@code DatasetGenerator} class.
+     *
+     * @param options The options of the dataset.
+     * @throws IOException If the vocabulary file cannot be read.
+     * @throws IllegalArgumentException If an option is invalid.
+     */
+    DatasetGenerator(Options options) throws IOException {
+        this.options = options;
+        this.mix = options.getWeights("mix", DEFAULT_MIX, TaskType.class);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.doneRatio = getRatio("done-ratio", 0.3);
+        this.corruptRatio = getRatio("corrupt-ratio", 0);
+        this.start = parseStart(options.get("start", LocalDate.now().toString()));
+        this.spanMinutes = Math.max(1, options.getLong("days", 365)) * MINUTES_PER_DAY;
+        this.dateSpread = parseDateSpread(options.get("dates", "uniform"));
+        String[] words = options.get("words", "1-6").split("-", 2);
+        try {
+            this.minWords = Integer.parseInt(words[0].trim());
+            this.maxWords = words.length > 1 ? Integer.parseInt(words[1].trim()) : minWords;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--words must be like 1-6.");
+        }
+        if (minWords < 1 || maxWords < minWords) {
+            throw new IllegalArgumentException("--words must be like 1-6, with at least one word.");
+        }
+        this.vocabulary = options.has("vocabulary")
+                ? Vocabulary.readFrom(Path.of(options.get("vocabulary", null)))
+                : Vocabulary.createDefault();
+    }
+
+    /**
+     * Generates a task file from the command line.
+     *
+     * @param args The options, as {@code --name value} pairs.
+     * @throws IOException If the task file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        if (!options.has("output")) {
+            throw new IllegalArgumentException("Please give the file to generate with --output.");
+        }
+        Path output = Path.of(options.get("output", null));
+        StandardOpenOption createOption = Boolean.parseBoolean(options.get("overwrite", "false"))
+                ? StandardOpenOption.TRUNCATE_EXISTING
+                : StandardOpenOption.CREATE_NEW;
+        if (output.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+        DatasetGenerator generator = new DatasetGenerator(options);
+        long startNanos = System.nanoTime();
+        long corruptedLines;
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, createOption, StandardOpenOption.WRITE)) {
+            corruptedLines = generator.generate(writer);
+        }
+        System.out.printf("Wrote %d lines, %d of them corrupted, to %s (%.1f MB) in %.1f s.%n",
+                options.getLong("lines", 10000), corruptedLines, output, Files.size(output) / (1024.0 * 1024),
+                (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    /**
+     * Writes the lines of the task file.
+     *
+     * @param output The output to write to.
+     * @return The number of corrupted lines written.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    long generate(Writer output) throws IOException {
+        Random random = new Random(options.getLong("seed", 42));
+        long lines = options.getLong("lines", 10000);
+        long corruptedLines = 0;
+        StringBuilder line = new StringBuilder();
+        for (long id = 1; id <= lines; id++) {
+            line.setLength(0);
+            if (random.nextDouble() < corruptRatio) {
+                appendCorruptedLine(line, random);
+                corruptedLines++;
+            } else {
+                appendTask(line, random, id);
+            }
+            output.write(line.append('\n').toString());
+        }
+        return corruptedLines;
+    }
+
+    private void appendTask(StringBuilder line, Random random, long id) {
+        TaskType type = chooseType(random);
+        line.append(type.name().charAt(0)).append(" | ")
+                .append(random.nextDouble() < doneRatio ? '1' : '0').append(" | ")
+                .append(vocabulary.createDescription(random, minWords, maxWords));
+        if (type == TaskType.DEADLINE) {
+            line.append(" | ").append(createDateTime(random).format(DATE_TIME_FORMAT));
+        } else if (type == TaskType.EVENT) {
+            LocalDateTime eventStart = createDateTime(random);
+            LocalDateTime eventEnd = eventStart.plusMinutes((long) EVENT_STEP_MINUTES
+                    * (1 + random.nextInt(MAX_EVENT_STEPS)));
+            line.append(" | ").append(eventStart.format(DATE_TIME_FORMAT))
+                    .append(" | ").append(eventEnd.format(DATE_TIME_FORMAT));
+        }
+        line.append(" | id=").append(id);
+    }
+
+    /**
+     * Writes a line that the task file loader must skip, in one of the ways that a file can be damaged.
+     */
+    private void appendCorruptedLine(StringBuilder line, Random random) {
+        Corruption corruption = Corruption.values()[random.nextInt(Corruption.values().length)];
+        String description = vocabulary.createDescription(random, minWords, maxWords);
+        switch (corruption) {
+        case MISSING_FIELDS:
+            line.append("T | 0");
+            break;
+        case MISSING_DATE:
+            line.append("D | 0 | ").append(description);
+            break;
+        case UNKNOWN_TYPE:
+            line.append("X | 0 | ").append(description);
+            break;
+        case INVALID_DATE:
+            LocalDateTime dateTime = createDateTime(random);
+            line.append("E | 0 | ").append(description).append(" | ").append(dateTime)
+                    .append(" | ").append(dateTime.plusHours(1));
+            break;
+        case INVALID_ATTRIBUTE:
+            line.append("T | 0 | ").append(description).append(" | id");
+            break;
+        default:
+            throw new IllegalStateException("Unknown corruption: " + corruption);
+        }
+    }
+
+    private TaskType chooseType(Random random) {
+        int choice = random.nextInt(totalWeight);
+        for (Map.Entry<TaskType, Integer> entry : mix.entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix of task types is empty.");
+    }
+
+    /**
+     * Chooses a date and time within the days of the dataset, on a quarter hour, spread as chosen.
+     */
+    private LocalDateTime createDateTime(Random random) {
+        double fraction;
+        switch (dateSpread) {
+        case NORMAL:
+            fraction = 0.5 + random.nextGaussian() * NORMAL_DEVIATION_FRACTION;
+            break;
+        case RECENT:
+            fraction = -Math.log(1 - random.nextDouble()) * RECENT_MEAN_FRACTION;
+            break;
+        default:
+            fraction = random.nextDouble();
+            break;
+        }
+        long minutes = (long) (Math.min(Math.max(fraction, 0), 1) * (spanMinutes - 1));
+        return start.plusMinutes(minutes - minutes % MINUTE_STEP);
+    }
+
+    private double getRatio(String name, double defaultValue) {
+        double ratio = options.getDouble(name, defaultValue);
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("--" + name + " must be between 0 and 1.");
+        }
+        return ratio;
+    }
+
+    private static LocalDateTime parseStart(String start) {
+        try {
+            return LocalDate.parse(start.trim()).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("--start must be a date like 2025-01-31.");
+        }
+    }
+
+    private static DateSpread parseDateSpread(String spread) {
+        try {
+            return DateSpread.valueOf(spread.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("--dates must be uniform, normal or recent.");
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package shagbot.tools;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import shagbot.Shagbot;
+import shagbot.exceptions.ShagBotException;
+import shagbot.tasks.TaskList;
+
+/**
+ * Represents a load generator that simulates many users sending commands to Shagbot at once, to measure how
+ * it copes with a given workload.
+ * <p>
+ * Each simulated user runs on a thread of its own and sends a random mix of commands through
+ * {@link Shagbot#getResponse(String)}, as the GUI does, so every command is run and saved. The task list
+ * is first filled with a synthetic dataset. While the users run, it reports at regular intervals
+ * the throughput, the percentiles of latency, the rate at which the users allocate memory and the heap in use,
+ * and at the end a summary of each kind of command.
+ * </p>
+ * <p>
+ * Every user draws its commands from a random generator seeded from the seed and its number, and the dates
+ * of the tasks are relative to {@code --date}, so a run with the same options, including {@code --date},
+ * sends the same commands. Which task a user marks or deletes is drawn as a number that does not depend on
+ * the task list, and only then reduced to a position in the list as it is at that moment, so the users still
+ * draw the same commands however they interleave, and a run with a single user is repeated exactly.
+ * It runs against a new temporary data directory unless one is given, and never touches {@code ./data}.
+ * </p>
+ * <p>
+ * Options are given as {@code --name value}: {@code --users} (4), {@code --operations} per user (2000),
+ * {@code --seconds} to stop after instead, {@code --seed} (42), {@code --tasks} in the initial dataset (1000),
+ * {@code --mix} such as {@code todo=20,deadline=10,event=10,mark=15,delete=5,find=20,list=10,reminder=10},
+ * {@code --report-seconds} (5), {@code --think-ms} between each user's commands (0), {@code --date} the tasks
+ * are around as {@code yyyy-MM-dd} (today) and {@code --data}.
+ * </p>
+ */
+public class LoadGenerator {
+    /**
+     * Represents the kinds of commands that simulated users send.
+     */
+    enum Operation {
+        TODO, DEADLINE, EVENT, MARK, DELETE, FIND, LIST, REMINDER
+    }
+
+    private static final String DEFAULT_MIX = "todo=20,deadline=10,event=10,mark=15,delete=5,find=20,list=10,"
+            + "reminder=10";
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm");
+    private static final String ERROR_PREFIX = "OOPSIE!!";
+    private static final int PRELOAD_BATCH_SIZE = 1000;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+    private final Shagbot shagbot;
+    private final Options options;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final long seed;
+    private final LocalDate baseDate;
+    private final Vocabulary vocabulary = Vocabulary.createDefault();
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+    private LatencyHistogram intervalLatencies = new LatencyHistogram();
+    private long intervalErrors;
+    private volatile boolean isStopping;
+
+    /**
+     * Constructor for the {@code LoadGenerator} class.
+     *
+     * @param shagbot The Shagbot instance to send commands to.
+     * @param options The options of the run.
+     * @throws IllegalArgumentException If the mix of commands or the date is invalid.
+     */
+    LoadGenerator(Shagbot shagbot, Options options) {
+        this.shagbot = shagbot;
+        this.options = options;
+        this.mix = options.getWeights("mix", DEFAULT_MIX, Operation.class);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.seed = options.getLong("seed", 42);
+        this.baseDate = parseDate(options.get("date", LocalDate.now().toString()));
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, 0L);
+        }
+    }
+
+    /**
+     * Runs the load generator from the command line.
+     *
+     * @param args The options, as {@code --name value} pairs.
+     * @throws IOException If the temporary data directory cannot be created.
+     * @throws InterruptedException If interrupted while waiting for the simulated users.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+        String dataDirectory = options.has("data")
+                ? options.get("data", null)
+                : Files.createTempDirectory("shagbot-load").toString();
+        System.out.println("Using data directory " + dataDirectory);
+        new LoadGenerator(new Shagbot("shagbot", dataDirectory), options).run(System.out);
+    }
+
+    /**
+     * Fills the task list with the initial dataset, runs the simulated users until they finish or time runs out,
+     * and reports the results.
+     *
+     * @param out The stream to report to.
+     * @throws InterruptedException If interrupted while waiting for the simulated users.
+     */
+    public void run(PrintStream out) throws InterruptedException {
+        preload((int) options.getLong("tasks", 1000));
+        int userCount = (int) options.getLong("users", 4);
+        long operationsPerUser = options.has("seconds") ? Long.MAX_VALUE : options.getLong("operations", 2000);
+        long reportNanos = options.getLong("report-seconds", 5) * 1000 * NANOS_PER_MILLI;
+        long endNanos = options.has("seconds")
+                ? System.nanoTime() + options.getLong("seconds", 0) * 1000 * NANOS_PER_MILLI
+                : Long.MAX_VALUE;
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long startHeap = memory.getHeapMemoryUsage().getUsed();
+        List<Thread> users = new ArrayList<>();
+        CountDownLatch finishedUsers = new CountDownLatch(userCount);
+        AtomicLongArray allocatedBytes = new AtomicLongArray(userCount);
+        for (int i = 0; i < userCount; i++) {
+            int user = i;
+            users.add(new Thread(() -> {
+                try {
+                    simulateUser(user, operationsPerUser);
+                } finally {
+                    updateAllocatedBytes(users, allocatedBytes, user);
+                    finishedUsers.countDown();
+                }
+            }, "shagbot-load-user-" + i));
+        }
+        out.printf("%d users, %d tasks to start with, heap %.1f MB%n", userCount,
+                readTasks(TaskList::size), startHeap / BYTES_PER_MEGABYTE);
+        out.printf("%8s %9s %9s %9s %9s %9s %7s %11s %9s%n",
+                "seconds", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors", "alloc MB/s", "heap MB");
+        long startNanos = System.nanoTime();
+        users.forEach(Thread::start);
+
+        long lastNanos = startNanos;
+        long lastAllocated = getAllocatedBytes(users, allocatedBytes);
+        boolean isFinished = false;
+        while (!isFinished) {
+            long deadline = Math.min(lastNanos + reportNanos, endNanos);
+            isFinished = finishedUsers.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!isFinished && System.nanoTime() >= endNanos) {
+                // Users finish the command they are running, so that none is cut off half way
+                isStopping = true;
+                finishedUsers.await();
+                isFinished = true;
+            }
+            long now = System.nanoTime();
+            long allocated = getAllocatedBytes(users, allocatedBytes);
+            reportInterval(out, (now - startNanos) / 1e9, (now - lastNanos) / 1e9, allocated - lastAllocated,
+                    memory.getHeapMemoryUsage().getUsed());
+            lastNanos = now;
+            lastAllocated = allocated;
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.gc();
+        reportSummary(out, seconds, startHeap, memory.getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * Fills the task list with todos, deadlines and events in the proportions of the mix,
+     * in batches that are each saved once.
+     */
+    private void preload(int taskCount) {
+        Random random = new Random(seed);
+        int addWeight = mix.get(Operation.TODO) + mix.get(Operation.DEADLINE) + mix.get(Operation.EVENT);
+        List<String> batch = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            int choice = random.nextInt(Math.max(1, addWeight));
+            Operation operation = choice < mix.get(Operation.TODO) ? Operation.TODO
+                    : choice < mix.get(Operation.TODO) + mix.get(Operation.DEADLINE) ? Operation.DEADLINE
+                    : Operation.EVENT;
+            batch.add(createCommand(operation, random, 0));
+            if (batch.size() == PRELOAD_BATCH_SIZE || i == taskCount - 1) {
+                shagbot.getResponses(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void simulateUser(int user, long operations) {
+        Random random = new Random(seed * 31 + user + 1);
+        long thinkMillis = options.getLong("think-ms", 0);
+        for (long i = 0; i < operations && !isStopping; i++) {
+            Operation operation = chooseOperation(random);
+            int taskCount = operation == Operation.MARK || operation == Operation.DELETE
+                    ? readTasks(TaskList::size)
+                    : 0;
+            String command = createCommand(operation, random, taskCount);
+            long start = System.nanoTime();
+            String response = shagbot.getResponse(command);
+            long latency = System.nanoTime() - start;
+            recordResult(operation, latency, response.startsWith(ERROR_PREFIX));
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Operation chooseOperation(Random random) {
+        int choice = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix of commands is empty.");
+    }
+
+    /**
+     * Creates a command of the given kind. Marking or deleting a task falls back to adding a todo
+     * when the list is empty. Either way, the same numbers are drawn from {@code random}, so that what
+     * the user draws next does not depend on the task list.
+     *
+     * @param taskCount The number of tasks in the list, used to choose a task to mark or delete.
+     */
+    private String createCommand(Operation operation, Random random, int taskCount) {
+        switch (operation) {
+        case DEADLINE:
+            return "deadline " + createDescription(random) + " /by "
+                    + createDateTime(random).format(DATE_TIME_FORMAT);
+        case EVENT:
+            LocalDateTime start = createDateTime(random);
+            return "event " + createDescription(random) + " /from " + start.format(DATE_TIME_FORMAT)
+                    + " /to " + start.plusMinutes(30L * (1 + random.nextInt(8))).format(DATE_TIME_FORMAT);
+        case MARK:
+        case DELETE:
+            int target = random.nextInt(Integer.MAX_VALUE);
+            String fallback = "todo " + createDescription(random);
+            return taskCount == 0 ? fallback
+                    : operation.name().toLowerCase(Locale.ROOT) + " " + (1 + target % taskCount);
+        case FIND:
+            return "find " + vocabulary.chooseWord(random);
+        case LIST:
+            return "list";
+        case REMINDER:
+            return "reminder";
+        default:
+            return "todo " + createDescription(random);
+        }
+    }
+
+    private String createDescription(Random random) {
+        return vocabulary.createDescription(random, 1, 4);
+    }
+
+    /**
+     * Chooses a date and time from a week ago to eight weeks ahead, on the hour or half hour during the day,
+     * so that some tasks are always within reminder range.
+     */
+    private LocalDateTime createDateTime(Random random) {
+        return baseDate.plusDays(random.nextInt(63) - 7).atTime(8 + random.nextInt(13), 30 * random.nextInt(2));
+    }
+
+    private synchronized void recordResult(Operation operation, long latency, boolean isError) {
+        latencies.get(operation).record(latency);
+        intervalLatencies.record(latency);
+        if (isError) {
+            errors.merge(operation, 1L, Long::sum);
+            intervalErrors++;
+        }
+    }
+
+    private synchronized void reportInterval(PrintStream out, double elapsedSeconds, double intervalSeconds,
+            long allocatedBytes, long heapBytes) {
+        LatencyHistogram histogram = intervalLatencies;
+        out.printf("%8.1f %9.0f %9.3f %9.3f %9.3f %9.3f %7d %11.1f %9.1f%n", elapsedSeconds,
+                histogram.getCount() / intervalSeconds, toMillis(histogram.getPercentile(50)),
+                toMillis(histogram.getPercentile(90)), toMillis(histogram.getPercentile(99)),
+                toMillis(histogram.getMax()), intervalErrors, allocatedBytes / BYTES_PER_MEGABYTE / intervalSeconds,
+                heapBytes / BYTES_PER_MEGABYTE);
+        intervalLatencies = new LatencyHistogram();
+        intervalErrors = 0;
+    }
+
+    private synchronized void reportSummary(PrintStream out, double seconds, long startHeap, long endHeap) {
+        LatencyHistogram total = new LatencyHistogram();
+        out.printf("%n%-9s %9s %7s %9s %9s %9s %9s%n", "command", "count", "errors", "p50 ms", "p99 ms", "p99.9 ms",
+                "max ms");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            total.add(histogram);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            out.printf("%-9s %9d %7d %9.3f %9.3f %9.3f %9.3f%n", operation.name().toLowerCase(Locale.ROOT),
+                    histogram.getCount(), errors.get(operation), toMillis(histogram.getPercentile(50)),
+                    toMillis(histogram.getPercentile(99)), toMillis(histogram.getPercentile(99.9)),
+                    toMillis(histogram.getMax()));
+        }
+        out.printf("%nRan %d commands in %.1f s: %.0f commands/s, p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms.%n",
+                total.getCount(), seconds, total.getCount() / seconds, toMillis(total.getPercentile(50)),
+                toMillis(total.getPercentile(99)), toMillis(total.getPercentile(99.9)));
+        out.printf("Heap in use after GC grew from %.1f MB to %.1f MB, with %d tasks in the list.%n",
+                startHeap / BYTES_PER_MEGABYTE, endHeap / BYTES_PER_MEGABYTE, readTasks(TaskList::size));
+    }
+
+    /**
+     * Retrieves the total memory allocated so far by the given threads, or 0 if the Java runtime cannot tell.
+     * Threads that have finished no longer report what they allocated, so each thread records its count
+     * in {@code allocatedBytes} as it finishes, and the highest count seen for each thread is used.
+     */
+    private static long getAllocatedBytes(List<Thread> threads, AtomicLongArray allocatedBytes) {
+        long total = 0;
+        for (int i = 0; i < threads.size(); i++) {
+            total += updateAllocatedBytes(threads, allocatedBytes, i);
+        }
+        return total;
+    }
+
+    private static long updateAllocatedBytes(List<Thread> threads, AtomicLongArray allocatedBytes, int index) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean allocationBean)) {
+            return 0;
+        }
+        long bytes = allocationBean.getThreadAllocatedBytes(threads.get(index).getId());
+        return allocatedBytes.accumulateAndGet(index, bytes, Math::max);
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("--date must be a date like 2025-01-31.");
+        }
+    }
+
+    private <T> T readTasks(Shagbot.TaskAction<T> action) {
+        try {
+            return shagbot.readTasks(action);
+        } catch (ShagBotException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,110 @@
+package shagbot.tools;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Represents the options of a tool, given on the command line as {@code --name value} pairs.
+ */
+class Options {
+    private final Map<String, String> values;
+
+    /**
+     * Constructor for the {@code Options} class.
+     *
+     * @param values The value of each option, by name without the leading {@code --}.
+     */
+    Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Parses options given as {@code --name value} pairs.
+     *
+     * @param args The command-line arguments.
+     * @return The options.
+     * @throws IllegalArgumentException If an argument is not part of a {@code --name value} pair.
+     */
+    static Options parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value, but got '" + args[i] + "'.");
+            }
+            values.put(args[i].substring(2), args[++i]);
+        }
+        return new Options(values);
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a whole number, not '" + value + "'.");
+        }
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number, not '" + value + "'.");
+        }
+    }
+
+    /**
+     * Retrieves a mix of kinds, given as weights such as {@code todo=20,find=10}, where the kinds are the
+     * constants of an enum in any case. Kinds that are left out have a weight of 0.
+     *
+     * @param name The name of the option.
+     * @param defaultValue The mix to use if the option is not given.
+     * @param kinds The enum of the kinds.
+     * @param <E> The type of the kinds.
+     * @return The weight of every kind.
+     * @throws IllegalArgumentException If an entry is invalid, or no kind has a positive weight.
+     */
+    <E extends Enum<E>> Map<E, Integer> getWeights(String name, String defaultValue, Class<E> kinds) {
+        Map<E, Integer> weights = new EnumMap<>(kinds);
+        for (E kind : kinds.getEnumConstants()) {
+            weights.put(kind, 0);
+        }
+        for (String entry : get(name, defaultValue).split(",")) {
+            String[] parts = entry.trim().split("=", 2);
+            try {
+                E kind = Enum.valueOf(kinds, parts[0].trim().toUpperCase(Locale.ROOT));
+                int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+                if (weight >= 0) {
+                    weights.put(kind, weight);
+                    continue;
+                }
+            } catch (IllegalArgumentException e) {
+                // Reported below, together with negative weights
+            }
+            String example = kinds.getEnumConstants()[0].name().toLowerCase(Locale.ROOT) + "=20";
+            throw new IllegalArgumentException("Invalid entry in --" + name + ": '" + entry
+                    + "'. Use a name and a weight, such as " + example + ".");
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("--" + name + " must give something a positive weight.");
+        }
+        return weights;
+    }
+}
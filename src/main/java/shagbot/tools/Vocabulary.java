@@ -0,0 +1,84 @@
+package shagbot.tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Represents the words that synthetic task descriptions are made of. Words are chosen with a skew towards
+ * the start of the vocabulary, as a few words are much more common than the rest in real task lists.
+ */
+class Vocabulary {
+    private static final String[] DEFAULT_WORDS = {
+        "report", "meeting", "read", "book", "email", "call", "project", "review", "lecture", "tutorial",
+        "groceries", "gym", "dentist", "assignment", "quiz", "exam", "lab", "essay", "slides", "budget",
+        "plan", "team", "client", "invoice", "laundry", "rent", "birthday", "dinner", "flight", "hotel",
+        "interview", "resume", "draft", "paper", "code", "bug", "release", "demo", "weekly", "monthly"
+    };
+    private final String[] words;
+
+    private Vocabulary(String[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Creates the built-in vocabulary of everyday task words.
+     *
+     * @return The vocabulary.
+     */
+    static Vocabulary createDefault() {
+        return new Vocabulary(DEFAULT_WORDS);
+    }
+
+    /**
+     * Reads a vocabulary from a file with one word per line, most common first. Blank lines are skipped, and
+     * so are words containing {@code |}, which separates the fields of the task file.
+     *
+     * @param path The path of the file.
+     * @return The vocabulary.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the file has no usable words.
+     */
+    static Vocabulary readFrom(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        String[] words = lines.stream()
+                .map(String::trim)
+                .filter(word -> !word.isEmpty() && !word.contains("|"))
+                .toArray(String[]::new);
+        if (words.length == 0) {
+            throw new IllegalArgumentException("The vocabulary " + path + " has no words.");
+        }
+        return new Vocabulary(words);
+    }
+
+    /**
+     * Chooses a word, favouring the start of the vocabulary.
+     *
+     * @param random The random generator to choose with.
+     * @return The word.
+     */
+    String chooseWord(Random random) {
+        double skewed = random.nextDouble() * random.nextDouble();
+        return words[(int) (skewed * words.length)];
+    }
+
+    /**
+     * Creates a description of a number of words between the given bounds.
+     *
+     * @param random The random generator to choose with.
+     * @param minWords The fewest words, at least 1.
+     * @param maxWords The most words.
+     * @return The description.
+     */
+    String createDescription(Random random, int minWords, int maxWords) {
+        assert minWords >= 1 && maxWords >= minWords : "Descriptions need at least one word.";
+        int wordCount = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder description = new StringBuilder(chooseWord(random));
+        for (int i = 1; i < wordCount; i++) {
+            description.append(' ').append(chooseWord(random));
+        }
+        return description.toString();
+    }
+}
@@ -1,18 +1,39 @@
 package shagbot.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import shagbot.commands.ArchiveCommand;
 import shagbot.commands.ByeCommand;
 import shagbot.commands.Command;
+import shagbot.commands.ConflictsCommand;
 import shagbot.commands.DeadlineCommand;
 import shagbot.commands.DeleteCommand;
 import shagbot.commands.EventCommand;
+import shagbot.commands.ExplainCommand;
+import shagbot.commands.ExportCommand;
 import shagbot.commands.FindCommand;
+import shagbot.commands.FreeCommand;
+import shagbot.commands.ImportCommand;
 import shagbot.commands.ListCommand;
 import shagbot.commands.MarkCommand;
+import shagbot.commands.NextCommand;
+import shagbot.commands.PriorityCommand;
+import shagbot.commands.RedoCommand;
 import shagbot.commands.ReminderCommand;
+import shagbot.commands.SearchCommand;
 import shagbot.commands.SnoozeCommand;
+import shagbot.commands.SummaryCommand;
+import shagbot.commands.TagsCommand;
 import shagbot.commands.TaskOnCommand;
+import shagbot.commands.TaskSelection;
 import shagbot.commands.TodoCommand;
+import shagbot.commands.UndoCommand;
 import shagbot.commands.UnmarkCommand;
+import shagbot.commands.UseCommand;
+import shagbot.commands.WorkspacesCommand;
 import shagbot.exceptions.ShagBotException;
 import shagbot.tasks.TaskList;
 
@@ -29,13 +50,30 @@ public class Parser {
     private static final String DELETE = "delete";
     private static final String TASK = "task";
     private static final String FIND = "find";
+    private static final String SEARCH = "search";
     private static final String SNOOZE = "snooze";
     private static final String REMINDER = "reminder";
     private static final String DEADLINE = "deadline";
+    private static final String UNDO = "undo";
+    private static final String REDO = "redo";
+    private static final String EXPORT = "export";
+    private static final String IMPORT = "import";
+    private static final String EXPLAIN = "explain";
+    private static final String CONFLICTS = "conflicts";
+    private static final String FREE = "free";
+    private static final String SUMMARY = "summary";
+    private static final String TAGS = "tags";
+    private static final String PRIORITY = "priority";
+    private static final String NEXT = "next";
+    private static final String ARCHIVE = "archive";
+    private static final String USE = "use";
+    private static final String WORKSPACES = "workspaces";
+    private static final String NO_WORKSPACES_ERROR_MESSAGE = "OOPSIE!! Workspaces are not available here.";
     private static final String NO_INPUT_ERROR_MESSAGE = "No input provided. Please enter a valid command.";
     private static final String INVALID_COMMANDS_ERROR_MESSAGE = "OOPSIE!! Unknown command. "
             + "Consider only these valid commands:\n\nlist, todo, deadline, event, "
-            + "mark, unmark, delete, task on, find, snooze, reminder or bye.";
+            + "mark, unmark, delete, task on, find, search, snooze, reminder, conflicts, free, summary, tags, "
+            + "priority, next, archive, use, workspaces, undo, redo, export, import, explain or bye.";
     private static final String UNEXPECTED_ERROR_MESSAGE = "OOPSIE!! Unexpected error occurred...";
     private static final String INVALID_TASK_COMMAND_ERROR_MESSAGE = "OOPSIE!! Invalid 'task' command. "
             + "Did you mean 'task on <date>'?";
@@ -43,26 +81,48 @@ public class Parser {
             + "Please try again!!";
     private static final String TASK_INDEX_IS_NEGATIVE_ERROR_MESSAGE = "OOPSIE!! Task number cannot be less than 1! "
             + "Please try again.";
+    private static final String SPECIFY_TASK_AND_PRIORITY_ERROR_MESSAGE = "OOPSIE!! Please specify which task "
+            + "and its priority, e.g. priority 2 high.";
     private static final String SPECIFY_TASK_TO_SNOOZE_AND_NEW_DATE_ERROR_MESSAGE = "OOPSIE!! Please specify which "
             + "task to snooze and new date/time.";
     private static final String ENTER_TASK_NUMBER_ERROR_MESSAGE = "Please enter your task number behind your command. "
-            + "Examples:\n\n" + "Mark <Number>\n" + "Unmark <Number>\n" + "Delete <Number>\n";
+            + "Examples:\n\n" + "Mark <Number>\n" + "Unmark <Number>\n" + "Delete <Number>\n"
+            + "Delete <Number>-<Number>,<Number>\n" + "Delete #<Task ID>\n" + "Delete done\n";
+    private static final String INVALID_RANGE_ERROR_MESSAGE = "OOPSIE!! Invalid range %s: "
+            + "the first task number cannot be larger than the last.";
+    private static final String COMPLETED_TASKS_SELECTOR = "done";
+    private static final String TASK_NUMBER_REGEX = "-?\\d+";
+    private static final String TASK_RANGE_REGEX = "\\d+-\\d+";
+    private static final String TASK_ID_REGEX = "#\\d+";
 
     private final TaskList taskList;
     private final Ui ui;
+    private final Workspaces workspaces;
 
     /**
-     * Constructor for the {@code Parser} class.
+     * Constructor for the {@code Parser} class, without workspaces to switch between.
      *
      * @param taskList The {@link TaskList} instance to help manage tasks.
      * @param ui The {@link Ui} instance to handle user interaction.
      */
     public Parser(TaskList taskList, Ui ui) {
+        this(taskList, ui, null);
+    }
+
+    /**
+     * Constructor for the {@code Parser} class.
+     *
+     * @param taskList The {@link TaskList} instance to help manage tasks.
+     * @param ui The {@link Ui} instance to handle user interaction.
+     * @param workspaces The workspaces that can be switched between, or {@code null} if there are none.
+     */
+    public Parser(TaskList taskList, Ui ui, Workspaces workspaces) {
         assert taskList != null : "TaskList instance cannot be null.";
         assert ui != null : "Ui instance cannot be null.";
         // Initialise the variables.
         this.taskList = taskList;
         this.ui = ui;
+        this.workspaces = workspaces;
     }
 
     /**
@@ -72,17 +132,50 @@ public class Parser {
      * @return {@code true} if the application continues running, {@code false} if it exits.
      */
     public boolean parseCommand(String inputCommand) {
+        return parseCommand(inputCommand, ui);
+    }
+
+    /**
+     * Parses a user command and executes the corresponding action, writing the response into the given sink
+     * as it is produced rather than storing it as the last message of the {@link Ui}.
+     *
+     * @param inputCommand The user's command to parse and process accordingly.
+     * @param sink The sink that receives the parts of the response, in order.
+     * @return {@code true} if the application continues running, {@code false} if it exits.
+     */
+    public boolean parseCommand(String inputCommand, Consumer<CharSequence> sink) {
+        return parseCommand(inputCommand, ui.withSink(sink));
+    }
+
+    private boolean parseCommand(String inputCommand, Ui commandUi) {
         try {
             Command parsedCommand = parseInputToCommand(inputCommand);
-            return parsedCommand.executeCommand(taskList, ui);
+            boolean isRunning = parsedCommand.executeCommand(taskList, commandUi);
+            // Every change made by this command becomes a single undo step
+            taskList.commitChanges();
+            return isRunning;
         } catch (ShagBotException e) {
-            ui.printErrorMessage(e.getMessage());
+            // A failed command leaves the task list as it was, with nothing to undo
+            taskList.discardChanges();
+            commandUi.printErrorMessage(e.getMessage());
         } catch (Exception e) {
-            ui.printErrorMessage(UNEXPECTED_ERROR_MESSAGE);
+            taskList.discardChanges();
+            commandUi.printErrorMessage(UNEXPECTED_ERROR_MESSAGE);
         }
         return true;
     }
 
+    /**
+     * Checks whether an input is the command that exits Shagbot, matching it the same way as it is parsed:
+     * by its first word, ignoring case and surrounding spaces.
+     *
+     * @param input The raw input entered.
+     * @return {@code true} if running the input would exit.
+     */
+    public static boolean isExitCommand(String input) {
+        return input != null && input.trim().split(" ", 2)[0].toLowerCase(Locale.ROOT).equals(BYE);
+    }
+
     /**
      * Converts the raw input entered by user to a command.
      *
@@ -96,7 +189,7 @@ public class Parser {
         }
 
         String[] parts = input.trim().split(" ", 2);
-        String mainCommand = parts[0].toLowerCase();
+        String mainCommand = parts[0].toLowerCase(Locale.ROOT);
         String description = parts.length > 1 ? parts[1].trim() : "";
 
         switch (mainCommand) {
@@ -104,13 +197,13 @@ public class Parser {
             return new ByeCommand();
 
         case LIST:
-            return new ListCommand();
+            return new ListCommand(description);
 
         case MARK:
-            return new MarkCommand(parseTaskIndex(description));
+            return new MarkCommand(parseTaskSelection(description, ENTER_TASK_NUMBER_ERROR_MESSAGE));
 
         case UNMARK:
-            return new UnmarkCommand(parseTaskIndex(description));
+            return new UnmarkCommand(parseTaskSelection(description, ENTER_TASK_NUMBER_ERROR_MESSAGE));
 
         case TODO:
             return new TodoCommand(description);
@@ -122,7 +215,7 @@ public class Parser {
             return new EventCommand(description);
 
         case DELETE:
-            return new DeleteCommand(parseTaskIndex(description));
+            return new DeleteCommand(parseTaskSelection(description, ENTER_TASK_NUMBER_ERROR_MESSAGE));
 
         case TASK:
             return parseTaskOnCommand(description);
@@ -130,12 +223,57 @@ public class Parser {
         case FIND:
             return new FindCommand(description);
 
+        case SEARCH:
+            return new SearchCommand(description);
+
         case SNOOZE:
             return parseSnoozeCommand(description);
 
         case REMINDER:
             return new ReminderCommand();
 
+        case UNDO:
+            return new UndoCommand();
+
+        case REDO:
+            return new RedoCommand();
+
+        case EXPORT:
+            return new ExportCommand(description);
+
+        case IMPORT:
+            return new ImportCommand(description);
+
+        case EXPLAIN:
+            return new ExplainCommand(description);
+
+        case CONFLICTS:
+            return new ConflictsCommand();
+
+        case FREE:
+            return new FreeCommand(description);
+
+        case SUMMARY:
+            return new SummaryCommand(description);
+
+        case TAGS:
+            return new TagsCommand();
+
+        case PRIORITY:
+            return parsePriorityCommand(description);
+
+        case NEXT:
+            return new NextCommand(description);
+
+        case ARCHIVE:
+            return new ArchiveCommand(description);
+
+        case USE:
+            return new UseCommand(description, getWorkspaces());
+
+        case WORKSPACES:
+            return new WorkspacesCommand(getWorkspaces());
+
         default:
             throw new ShagBotException(INVALID_COMMANDS_ERROR_MESSAGE);
         }
@@ -164,6 +302,73 @@ public class Parser {
         }
     }
 
+    /**
+     * Parses the tasks selected by a command from the provided command description.
+     * <p>
+     * The first token of the description is either {@code done}, selecting every completed task,
+     * or a comma-separated list of task numbers, inclusive ranges of task numbers and task IDs prefixed
+     * with {@code #}, such as {@code 3,7,9-20,#42}.
+     * </p>
+     *
+     * @param description The command description containing the task numbers.
+     * @param invalidSelectionMessage The error message to show if the selection is not made of task numbers.
+     * @return The selected tasks, with zeroed-based indexes.
+     * @throws ShagBotException If the selection is invalid or a task number is less than 1.
+     */
+    TaskSelection parseTaskSelection(String description, String invalidSelectionMessage) throws ShagBotException {
+        String selection = description.trim().replaceAll("\\s*([,-])\\s*", "$1").split(" ")[0];
+        if (selection.equalsIgnoreCase(COMPLETED_TASKS_SELECTOR)) {
+            return TaskSelection.ofCompletedTasks();
+        }
+
+        List<int[]> ranges = new ArrayList<>();
+        List<Integer> taskIds = new ArrayList<>();
+        for (String item : selection.split(",")) {
+            if (item.matches(TASK_ID_REGEX)) {
+                taskIds.add(parseTaskId(item.substring(1)));
+            } else if (item.matches(TASK_NUMBER_REGEX)) {
+                int taskIndex = parseTaskIndex(item);
+                ranges.add(new int[]{taskIndex, taskIndex});
+            } else if (item.matches(TASK_RANGE_REGEX)) {
+                String[] bounds = item.split("-");
+                int firstIndex = parseTaskIndex(bounds[0]);
+                int lastIndex = parseTaskIndex(bounds[1]);
+                if (firstIndex > lastIndex) {
+                    throw new ShagBotException(String.format(INVALID_RANGE_ERROR_MESSAGE, item));
+                }
+                ranges.add(new int[]{firstIndex, lastIndex});
+            } else {
+                throw new ShagBotException(invalidSelectionMessage);
+            }
+        }
+        return TaskSelection.of(ranges, taskIds);
+    }
+
+    /**
+     * Parses a task ID, given without its leading {@code #}.
+     */
+    private int parseTaskId(String idString) throws ShagBotException {
+        try {
+            int taskId = Integer.parseInt(idString);
+            if (taskId < 1) {
+                throw new ShagBotException(INVALID_TASK_NUMBER_ERROR_MESSAGE);
+            }
+            return taskId;
+        } catch (NumberFormatException e) {
+            throw new ShagBotException(INVALID_TASK_NUMBER_ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Retrieves the workspaces that can be switched between.
+     */
+    private Workspaces getWorkspaces() throws ShagBotException {
+        if (workspaces == null) {
+            throw new ShagBotException(NO_WORKSPACES_ERROR_MESSAGE);
+        }
+        return workspaces;
+    }
+
     /**
      * Parses a 'task on' command, with the keyword "task" already processed.
      *
@@ -180,7 +385,8 @@ public class Parser {
     }
 
     /**
-     * Parses a "snooze" command through the task index and new date/time information.
+     * Parses a "snooze" command through the task number, or selection of task numbers,
+     * and new date/time information.
      *
      * @param description The command description containing task index and the rescheduled date/time.
      * @return A {@link SnoozeCommand} instance, coupled with its extracted task index and date/time info.
@@ -192,13 +398,24 @@ public class Parser {
         if (parts.length < 2) {
             throw new ShagBotException(SPECIFY_TASK_TO_SNOOZE_AND_NEW_DATE_ERROR_MESSAGE);
         }
-        int taskIndex;
-        try {
-            taskIndex = Integer.parseInt(parts[0]) - 1;
-        } catch (NumberFormatException e) {
-            throw new ShagBotException(INVALID_TASK_NUMBER_ERROR_MESSAGE);
+        TaskSelection selection = parseTaskSelection(parts[0], INVALID_TASK_NUMBER_ERROR_MESSAGE);
+        return new SnoozeCommand(selection, parts[1].trim());
+    }
+
+    /**
+     * Parses the tasks and the new priority of a priority command, such as {@code 2,5 high}.
+     *
+     * @param description The command description.
+     * @return The priority command.
+     * @throws ShagBotException If the tasks or the priority are missing, or the selection is invalid.
+     */
+    private Command parsePriorityCommand(String description) throws ShagBotException {
+        String[] parts = description.split(" ", 2);
+        if (parts.length < 2) {
+            throw new ShagBotException(SPECIFY_TASK_AND_PRIORITY_ERROR_MESSAGE);
         }
-        return new SnoozeCommand(taskIndex, parts[1].trim());
+        TaskSelection selection = parseTaskSelection(parts[0], INVALID_TASK_NUMBER_ERROR_MESSAGE);
+        return new PriorityCommand(selection, parts[1].trim());
     }
 }
 
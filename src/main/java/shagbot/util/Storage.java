@@ -2,16 +2,36 @@ package shagbot.util;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import shagbot.tasks.Deadline;
 import shagbot.tasks.Event;
+import shagbot.tasks.Priority;
 import shagbot.tasks.Task;
+import shagbot.tasks.TaskArchive;
+import shagbot.tasks.TaskChange;
+import shagbot.tasks.TaskHistory;
+import shagbot.tasks.TaskStore;
 import shagbot.tasks.Todo;
 
 /**
@@ -24,12 +44,41 @@ public class Storage {
     private static final String TODO = "T";
     private static final String DEADLINE = "D";
     private static final String EVENT = "E";
+    private static final int TODO_FIELD_COUNT = 3;
+    private static final int DEADLINE_FIELD_COUNT = 4;
+    private static final int EVENT_FIELD_COUNT = 5;
+    private static final String ATTRIBUTE_SEPARATOR = "=";
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String TAGS_ATTRIBUTE = "tags";
+    private static final String PRIORITY_ATTRIBUTE = "pri";
+    private static final String TAG_SEPARATOR = ",";
     private static final String INVALID_TODO_FORMAT = "Invalid Todo format, skipping line: ";
     private static final String INVALID_DEADLINE_FORMAT = "Invalid Deadline format, skipping line: ";
     private static final String INVALID_EVENT_FORMAT = "Invalid Event format, skipping line: ";
     private static final String UNSUPPORTED_TASK_TYPE = "Unsupported task type, skipping line: ";
     private static final String ERROR_PARSING_LINE = "Error parsing line: ";
+    private static final String HISTORY_FILE_SUFFIX = ".history";
+    private static final String IMAGE_FILE_SUFFIX = ".image";
+    private static final String ARCHIVE_FILE_SUFFIX = ".archive.gz";
+    private static final String ARCHIVE_ID_FILE_SUFFIX = ".archive.id";
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+    private static final String UNDO_SECTION = "UNDO";
+    private static final String REDO_SECTION = "REDO";
+    private static final String LOG_SECTION = "LOG";
+    private static final String STEP_MARKER = "STEP";
+    private static final String UNDONE_MARKER = "UNDONE";
+    private static final String REDONE_MARKER = "REDONE";
+    private static final int MAX_LOGGED_HISTORY_ENTRIES = 1000;
+    private static final String ADDED_CHANGE = "+";
+    private static final String REMOVED_CHANGE = "-";
+    private static final String UPDATED_CHANGE_BEFORE = "<";
+    private static final String UPDATED_CHANGE_AFTER = ">";
+    private static final String INVALID_HISTORY_LINE = "Invalid history entry, discarding history from line: ";
     private final String filePath;
+    private final String historyFilePath;
+    private TaskFileSnapshot snapshot;
+    private TaskHistory savedHistory;
+    private int loggedHistoryEntries;
 
     /**
      * Constructor for the {@code Storage} class.
@@ -37,8 +86,20 @@ public class Storage {
      * @param filePath The relative filepath to the file where saved tasks are stored.
      */
     public Storage(String filePath) {
+        this(filePath, filePath + HISTORY_FILE_SUFFIX);
+    }
+
+    /**
+     * Constructor for the {@code Storage} class with a separate file for the undo history.
+     *
+     * @param filePath The relative filepath to the file where saved tasks are stored.
+     * @param historyFilePath The relative filepath to the file where the undo history is stored.
+     */
+    public Storage(String filePath, String historyFilePath) {
         assert filePath != null && !filePath.trim().isEmpty() : "File path cannot be null or empty.";
+        assert historyFilePath != null && !historyFilePath.trim().isEmpty() : "History path cannot be null or empty.";
         this.filePath = filePath;
+        this.historyFilePath = historyFilePath;
     }
 
     /**
@@ -62,20 +123,245 @@ public class Storage {
             return tasks;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        long size = file.length();
+        TaskFileSnapshot.Entries entries = new TaskFileSnapshot.Entries();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 Task task = parseTask(line);
                 if (task != null) {
                     tasks.add(task);
+                    entries.add(task.getId(), line);
                 }
             }
         }
+        snapshot = TaskFileSnapshot.take(file.toPath(), size, entries);
         return tasks;
     }
 
+    /**
+     * Takes the tasks as the ones saved in the task file, without reading it, so that the changes other programs
+     * make to it from now on are found. The tasks must be the ones last saved to the file, such as the tasks
+     * of a task image that is in step with it.
+     *
+     * @param tasks The tasks in the task file, in order.
+     * @throws IOException If the task file cannot be read.
+     */
+    public void takeSavedTasks(Iterable<Task> tasks) throws IOException {
+        Path path = Path.of(filePath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        TaskFileSnapshot.Entries entries = new TaskFileSnapshot.Entries();
+        for (Task task : tasks) {
+            entries.add(task.getId(), taskToFileFormat(task));
+        }
+        snapshot = TaskFileSnapshot.take(path, Files.size(path), entries);
+    }
+
+    /**
+     * Retrieves when the task file was last written, to tell whether a task image still holds its tasks.
+     *
+     * @return The modification time of the task file in milliseconds, or 0 if there is no task file.
+     */
+    public long getTaskFileTime() {
+        return new File(filePath).lastModified();
+    }
+
+    /**
+     * Locks the task file against other programs that lock it too, such as another Shagbot, so that
+     * they never read or write it at the same time. The lock is held on a separate lock file beside it.
+     *
+     * @return The lock, which is released when it is closed.
+     * @throws IOException If the lock cannot be taken.
+     */
+    public Closeable lockFile() throws IOException {
+        Path lockPath = Path.of(filePath + LOCK_FILE_SUFFIX);
+        if (lockPath.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(lockPath.toAbsolutePath().getParent());
+        }
+        FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.lock();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        // Closing the channel releases its lock
+        return channel;
+    }
+
+    /**
+     * Checks, without reading it, whether the task file may have been changed by another program
+     * since it was last loaded or saved.
+     *
+     * @return {@code true} if the task file may have been changed.
+     * @throws IOException If the task file cannot be read.
+     */
+    public boolean hasExternalChanges() throws IOException {
+        Path path = Path.of(filePath);
+        return snapshot != null && Files.exists(path) && snapshot.isChanged(path);
+    }
+
+    /**
+     * Reads the changes made to the task file by other programs since it was last loaded or saved,
+     * and takes them as read.
+     * <p>
+     * If the file has only been appended to, only the complete lines after the end of the previous read
+     * are parsed. Otherwise the lines are compared by task ID against hashes of the lines last read or written,
+     * and only the lines that differ are parsed.
+     * </p>
+     *
+     * @return The changes, which are empty if there are none.
+     * @throws IOException If the task file cannot be read.
+     */
+    TaskFileChanges readExternalChanges() throws IOException {
+        if (!hasExternalChanges()) {
+            return new TaskFileChanges();
+        }
+        Path path = Path.of(filePath);
+        return snapshot.isAppendedTo(path) ? readAppendedLines(path) : readChangedLines(path);
+    }
+
+    private TaskFileChanges readAppendedLines(Path path) throws IOException {
+        byte[] appended;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            appended = new byte[(int) (file.length() - snapshot.getSize())];
+            file.seek(snapshot.getSize());
+            file.readFully(appended);
+        }
+        TaskFileChanges changes = new TaskFileChanges();
+        int end = appended.length;
+        while (end > 0 && appended[end - 1] != '\n') {
+            end--;
+        }
+        if (end == 0) {
+            // A line is still being written, and is read once it is complete
+            return changes;
+        }
+        TaskFileSnapshot.Entries entries = snapshot.copyEntries();
+        new String(appended, 0, end, StandardCharsets.UTF_8).lines().forEach(line -> {
+            Task task = parseTask(line);
+            if (task == null) {
+                return;
+            }
+            int index = task.getId() > 0 ? snapshot.indexOf(task.getId()) : -1;
+            if (index >= 0) {
+                // A task appended again replaces its earlier line
+                changes.addChangedTask(task);
+                entries.set(index, line);
+            } else {
+                changes.addAddedTask(task);
+                entries.add(task.getId(), line);
+            }
+        });
+        snapshot = TaskFileSnapshot.take(path, snapshot.getSize() + end, entries);
+        return changes;
+    }
+
+    private TaskFileChanges readChangedLines(Path path) throws IOException {
+        TaskFileChanges changes = new TaskFileChanges();
+        BitSet keptEntries = new BitSet(snapshot.getEntryCount());
+        TaskFileSnapshot.Entries entries = new TaskFileSnapshot.Entries();
+        long size = Files.size(path);
+        try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int id = parseId(line);
+                int index = id > 0 ? snapshot.indexOf(id) : -1;
+                if (index >= 0 && snapshot.hasLine(index, line)) {
+                    keptEntries.set(index);
+                    entries.add(id, line);
+                    continue;
+                }
+                if (index >= 0) {
+                    // Kept even if the line can no longer be parsed, so a damaged line never removes its task
+                    keptEntries.set(index);
+                }
+                Task task = parseTask(line);
+                if (task == null) {
+                    continue;
+                }
+                if (index >= 0) {
+                    changes.addChangedTask(task);
+                } else {
+                    changes.addAddedTask(task);
+                }
+                entries.add(task.getId(), line);
+            }
+        }
+        for (int i = keptEntries.nextClearBit(0); i < snapshot.getEntryCount(); i = keptEntries.nextClearBit(i + 1)) {
+            changes.addRemovedId(snapshot.getId(i));
+        }
+        snapshot = TaskFileSnapshot.take(path, size, entries);
+        return changes;
+    }
+
+    /**
+     * Finds the task ID in a line without parsing the rest of it.
+     *
+     * @return The ID, or 0 if the line has none.
+     */
+    private static int parseId(String line) {
+        String[] parts = line.split(" \\| ");
+        for (int i = TODO_FIELD_COUNT; i < parts.length; i++) {
+            if (parts[i].startsWith(ID_ATTRIBUTE + ATTRIBUTE_SEPARATOR)) {
+                try {
+                    return Integer.parseInt(parts[i].substring(ID_ATTRIBUTE.length() + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Opens the task image, a binary copy of the saved tasks that is memory-mapped instead of parsed.
+     * <p>
+     * The returned store writes every change to the image itself, which is loaded instead of the task file while
+     * the task file has not changed since the image was last in step with it. If no image has been saved yet,
+     * an empty one is created.
+     * </p>
+     *
+     * @return The store backed by the task image.
+     * @throws IOException If the task image cannot be opened.
+     */
+    public TaskStore openTaskImage() throws IOException {
+        return TaskStore.openMappedStore(Path.of(filePath + IMAGE_FILE_SUFFIX));
+    }
+
+    /**
+     * Opens the archive of completed tasks, a gzip-compressed file of tasks in the same format as the task file.
+     * <p>
+     * Each batch of archived tasks is appended to the file as a separate gzip member, so archiving never rewrites
+     * the tasks archived before. The highest archived ID is kept in a small file beside it, so that opening
+     * the archive does not read it.
+     * </p>
+     *
+     * @return The archive, which is created when tasks are first archived.
+     * @throws IOException If the highest archived ID cannot be read.
+     */
+    public TaskArchive openArchive() throws IOException {
+        Path idPath = Path.of(filePath + ARCHIVE_ID_FILE_SUFFIX);
+        int highestId = 0;
+        if (Files.exists(idPath)) {
+            try {
+                highestId = Integer.parseInt(Files.readString(idPath).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid archive ID file: " + idPath);
+            }
+        }
+        return new ArchiveFile(Path.of(filePath + ARCHIVE_FILE_SUFFIX), idPath, highestId);
+    }
+
     /**
      * Parses a line from the storage file into a {@code Task} object.
+     * <p>
+     * The fields of each task type may be followed by optional {@code key=value} attributes,
+     * such as the task ID, tags and priority in {@code T | 0 | read book | id=12 | tags=home,reading | pri=high}.
+     * Unknown attributes are ignored, and lines saved before attributes were introduced remain valid.
+     * </p>
      *
      * @param line The line to parse, expected to be formatted as per the task type.
      * @return The corresponding {@code Task} object, or {@code null} if parsing fails.
@@ -96,23 +382,24 @@ public class Storage {
         try {
             switch (type) {
             case TODO:
-                if (parts.length != 3) {
+                if (!hasValidAttributes(parts, TODO_FIELD_COUNT)) {
                     System.err.println(INVALID_TODO_FORMAT + line);
                     return null;
                 }
-                return createTodo(description, isDone);
+                return applyAttributes(createTodo(description, isDone), parts, TODO_FIELD_COUNT);
             case DEADLINE:
-                if (parts.length != 4) {
+                if (!hasValidAttributes(parts, DEADLINE_FIELD_COUNT)) {
                     System.err.println(INVALID_DEADLINE_FORMAT + line);
                     return null;
                 }
-                return createDeadline(description, parts[3], isDone);
+                return applyAttributes(createDeadline(description, parts[3], isDone), parts, DEADLINE_FIELD_COUNT);
             case EVENT:
-                if (parts.length != 5) {
+                if (!hasValidAttributes(parts, EVENT_FIELD_COUNT)) {
                     System.err.println(INVALID_EVENT_FORMAT + line);
                     return null;
                 }
-                return createEvent(description, parts[3], parts[4], isDone);
+                return applyAttributes(createEvent(description, parts[3], parts[4], isDone), parts,
+                        EVENT_FIELD_COUNT);
             default:
                 System.err.println(UNSUPPORTED_TASK_TYPE + line);
                 return null;
@@ -124,6 +411,62 @@ public class Storage {
         }
     }
 
+    /**
+     * Checks that a line has the fields of its task type, followed only by {@code key=value} attributes.
+     *
+     * @param parts The fields of the line.
+     * @param fieldCount The number of fields of the task type.
+     * @return {@code true} if the line is well-formed.
+     */
+    private boolean hasValidAttributes(String[] parts, int fieldCount) {
+        if (parts.length < fieldCount) {
+            return false;
+        }
+        for (int i = fieldCount; i < parts.length; i++) {
+            if (parts[i].indexOf(ATTRIBUTE_SEPARATOR) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the {@code key=value} attributes after the fields of a task to the task.
+     *
+     * @param task The task created from the fields.
+     * @param parts The fields of the line.
+     * @param fieldCount The number of fields of the task type.
+     * @return The task, with its attributes applied.
+     * @throws NumberFormatException If the task ID is not a number.
+     */
+    private Task applyAttributes(Task task, String[] parts, int fieldCount) {
+        for (int i = fieldCount; i < parts.length; i++) {
+            String[] attribute = parts[i].split(ATTRIBUTE_SEPARATOR, 2);
+            if (attribute[0].equals(ID_ATTRIBUTE)) {
+                int id = Integer.parseInt(attribute[1].trim());
+                if (id > 0) {
+                    task.setId(id);
+                }
+            } else if (attribute[0].equals(TAGS_ATTRIBUTE)) {
+                List<String> tags = new ArrayList<>();
+                for (String tag : attribute[1].split(TAG_SEPARATOR)) {
+                    // Tags that could not have been saved are left out, rather than losing the whole task
+                    String normalisedTag = tag.trim().toLowerCase(Locale.ROOT);
+                    if (Task.isValidTag(normalisedTag)) {
+                        tags.add(normalisedTag);
+                    }
+                }
+                task.setTags(tags);
+            } else if (attribute[0].equals(PRIORITY_ATTRIBUTE)) {
+                Priority priority = Priority.fromName(attribute[1]);
+                if (priority != null) {
+                    task.setPriority(priority);
+                }
+            }
+        }
+        return task;
+    }
+
     /**
      * Creates a new Todo task.
      *
@@ -184,12 +527,17 @@ public class Storage {
      * @throws IOException If an I/O error occurs while writing tasks to file.
      */
     public void saveTasksToFile(ArrayList<Task> tasks) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+        TaskFileSnapshot.Entries entries = new TaskFileSnapshot.Entries();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, StandardCharsets.UTF_8))) {
             for (Task task : tasks) {
-                writer.write(taskToFileFormat(task));
+                String line = taskToFileFormat(task);
+                writer.write(line);
                 writer.newLine();
+                entries.add(task.getId(), line);
             }
         }
+        Path path = Path.of(filePath);
+        snapshot = TaskFileSnapshot.take(path, Files.size(path), entries);
     }
 
     /**
@@ -204,16 +552,235 @@ public class Storage {
         assert task != null : "Task cannot be null";
         var completionStatus = (task.isDone() ? COMPLETE_TASK : "0") + " | " + task.getDescription();
 
+        String fields;
         if (task instanceof Deadline deadline) {
-            return "D | " + completionStatus + " | " + formattedDateOfTask(deadline.getByTiming());
+            fields = "D | " + completionStatus + " | " + formattedDateOfTask(deadline.getByTiming());
         } else if (task instanceof Event event) {
-            return "E | " + completionStatus + " | " + formattedDateOfTask(event.getStart()) + " | "
+            fields = "E | " + completionStatus + " | " + formattedDateOfTask(event.getStart()) + " | "
                     + formattedDateOfTask(event.getEnd());
         } else if (task instanceof Todo) {
-            return "T | " + completionStatus;
+            fields = "T | " + completionStatus;
         } else {
             throw new IllegalArgumentException(INVALID_TASK_TYPE_ERROR_MESSAGE);
         }
+        return fields + attributesToFileFormat(task);
+    }
+
+    /**
+     * Converts the attributes of a task that are not part of the fields of its type into
+     * {@code key=value} fields, each preceded by the field separator.
+     */
+    private String attributesToFileFormat(Task task) {
+        String attributes = task.getId() > 0 ? " | " + ID_ATTRIBUTE + ATTRIBUTE_SEPARATOR + task.getId() : "";
+        if (!task.getTags().isEmpty()) {
+            attributes += " | " + TAGS_ATTRIBUTE + ATTRIBUTE_SEPARATOR + String.join(TAG_SEPARATOR, task.getTags());
+        }
+        if (task.getPriority() != Priority.NONE) {
+            attributes += " | " + PRIORITY_ATTRIBUTE + ATTRIBUTE_SEPARATOR + task.getPriority();
+        }
+        return attributes;
+    }
+
+    /**
+     * Loads the saved undo and redo history.
+     * <p>
+     * The history file holds an {@code UNDO} section and a {@code REDO} section, each a sequence of steps,
+     * followed by a {@code LOG} section of the steps committed, undone and redone since those were written.
+     * Every step starts with a {@code STEP} line, followed by one line per change: the change type,
+     * the position of the change and the task in the same format as the task file. An update is stored as
+     * a {@code <} line with the task before the change, followed by a {@code >} line with the task after it.
+     * In the log, a step is a committed step, and an {@code UNDONE} or {@code REDONE} line moves the most recent
+     * step from one section to the other. If the history is corrupted, the history from the corrupted line
+     * onwards is discarded.
+     * </p>
+     *
+     * @return The saved history, or an empty history if none was saved.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    public TaskHistory loadHistory() throws IOException {
+        List<List<TaskChange>> undoSteps = new ArrayList<>();
+        List<List<TaskChange>> redoSteps = new ArrayList<>();
+        File file = new File(historyFilePath);
+        if (!file.exists()) {
+            return new TaskHistory();
+        }
+
+        int logEntries = 0;
+        boolean isCorrupted = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            List<List<TaskChange>> currentSection = null;
+            List<TaskChange> currentStep = null;
+            boolean isLog = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.equals(UNDO_SECTION) || line.equals(REDO_SECTION)) {
+                    currentSection = line.equals(UNDO_SECTION) ? undoSteps : redoSteps;
+                    currentStep = null;
+                } else if (line.equals(LOG_SECTION)) {
+                    currentSection = undoSteps;
+                    currentStep = null;
+                    isLog = true;
+                } else if (line.equals(STEP_MARKER) && currentSection != null) {
+                    currentStep = new ArrayList<>();
+                    currentSection.add(currentStep);
+                    if (isLog) {
+                        // A committed step discards everything that could be redone
+                        redoSteps.clear();
+                        logEntries++;
+                    }
+                } else if (isLog && (line.equals(UNDONE_MARKER) || line.equals(REDONE_MARKER))) {
+                    List<List<TaskChange>> from = line.equals(UNDONE_MARKER) ? undoSteps : redoSteps;
+                    List<List<TaskChange>> to = line.equals(UNDONE_MARKER) ? redoSteps : undoSteps;
+                    if (!from.isEmpty()) {
+                        to.add(from.remove(from.size() - 1));
+                    }
+                    currentStep = null;
+                    logEntries++;
+                } else {
+                    TaskChange change = currentStep == null ? null : parseChange(line, reader);
+                    if (change == null) {
+                        System.err.println(INVALID_HISTORY_LINE + line);
+                        isCorrupted = true;
+                        break;
+                    }
+                    currentStep.add(change);
+                }
+            }
+        }
+        undoSteps.removeIf(List::isEmpty);
+        redoSteps.removeIf(List::isEmpty);
+        TaskHistory history = new TaskHistory(undoSteps, redoSteps);
+        // A corrupted file is written again in full when the history is next saved
+        savedHistory = isCorrupted ? null : history;
+        loggedHistoryEntries = logEntries;
+        return history;
+    }
+
+    /**
+     * Parses a change from the history file, reading the line after it too if the change is an update.
+     *
+     * @return The parsed change, or {@code null} if the line is not a valid change.
+     */
+    private TaskChange parseChange(String line, BufferedReader reader) throws IOException {
+        String[] parts = line.split(" \\| ", 3);
+        if (parts.length < 3) {
+            return null;
+        }
+        int index;
+        try {
+            index = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        Task task = parseTask(parts[2]);
+        if (task == null || index < 0) {
+            return null;
+        }
+
+        switch (parts[0]) {
+        case ADDED_CHANGE:
+            return new TaskChange(TaskChange.Kind.ADDED, index, null, task);
+        case REMOVED_CHANGE:
+            return new TaskChange(TaskChange.Kind.REMOVED, index, task, null);
+        case UPDATED_CHANGE_BEFORE:
+            String nextLine = reader.readLine();
+            String expectedPrefix = UPDATED_CHANGE_AFTER + " | " + index + " | ";
+            if (nextLine == null || !nextLine.startsWith(expectedPrefix)) {
+                return null;
+            }
+            Task newTask = parseTask(nextLine.substring(expectedPrefix.length()));
+            return newTask == null ? null : new TaskChange(TaskChange.Kind.UPDATED, index, task, newTask);
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Saves the undo and redo history to the history file.
+     * <p>
+     * If the file already holds this history, only the steps committed, undone and redone since it was last
+     * saved are appended to its log. The whole history is written again only when it is saved for the first time,
+     * or once the log has grown long enough that reading it back would take longer than writing it again.
+     * </p>
+     *
+     * @param history The history to save.
+     * @throws IOException If an I/O error occurs while writing the history to file.
+     */
+    public void saveHistory(TaskHistory history) throws IOException {
+        List<TaskHistory.Entry> entries = history.getUnsavedEntries();
+        boolean isAppending = history == savedHistory
+                && loggedHistoryEntries + entries.size() <= MAX_LOGGED_HISTORY_ENTRIES;
+        if (isAppending && entries.isEmpty()) {
+            return;
+        }
+        // Until the write succeeds, the file may hold only part of it
+        savedHistory = null;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(historyFilePath, StandardCharsets.UTF_8,
+                isAppending))) {
+            if (isAppending) {
+                writeLogEntries(writer, entries);
+                loggedHistoryEntries += entries.size();
+            } else {
+                writeSteps(writer, UNDO_SECTION, history.getUndoSteps());
+                writeSteps(writer, REDO_SECTION, history.getRedoSteps());
+                writer.write(LOG_SECTION);
+                writer.newLine();
+                loggedHistoryEntries = 0;
+            }
+        }
+        history.markSaved();
+        savedHistory = history;
+    }
+
+    private void writeLogEntries(BufferedWriter writer, List<TaskHistory.Entry> entries) throws IOException {
+        for (TaskHistory.Entry entry : entries) {
+            switch (entry.getKind()) {
+            case COMMITTED:
+                writeStep(writer, entry.getStep());
+                break;
+            case UNDONE:
+                writer.write(UNDONE_MARKER);
+                writer.newLine();
+                break;
+            default:
+                writer.write(REDONE_MARKER);
+                writer.newLine();
+                break;
+            }
+        }
+    }
+
+    private void writeSteps(BufferedWriter writer, String section, List<List<TaskChange>> steps)
+            throws IOException {
+        writer.write(section);
+        writer.newLine();
+        for (List<TaskChange> step : steps) {
+            writeStep(writer, step);
+        }
+    }
+
+    private void writeStep(BufferedWriter writer, List<TaskChange> step) throws IOException {
+        writer.write(STEP_MARKER);
+        writer.newLine();
+        for (TaskChange change : step) {
+            switch (change.getKind()) {
+            case ADDED:
+                writeChangeLine(writer, ADDED_CHANGE, change.getIndex(), change.getNewTask());
+                break;
+            case REMOVED:
+                writeChangeLine(writer, REMOVED_CHANGE, change.getIndex(), change.getOldTask());
+                break;
+            default:
+                writeChangeLine(writer, UPDATED_CHANGE_BEFORE, change.getIndex(), change.getOldTask());
+                writeChangeLine(writer, UPDATED_CHANGE_AFTER, change.getIndex(), change.getNewTask());
+                break;
+            }
+        }
+    }
+
+    private void writeChangeLine(BufferedWriter writer, String type, int index, Task task) throws IOException {
+        writer.write(type + " | " + index + " | " + taskToFileFormat(task));
+        writer.newLine();
     }
 
     /**
@@ -225,7 +792,61 @@ public class Storage {
     private String formattedDateOfTask(java.time.LocalDateTime date) {
         return date.format(DateTimeFormatter.ofPattern(DATE_FORMAT));
     }
-}
 
+    /**
+     * Represents the compressed, append-only archive file of completed tasks.
+     */
+    private class ArchiveFile implements TaskArchive {
+        private final Path path;
+        private final Path idPath;
+        private int highestId;
 
+        private ArchiveFile(Path path, Path idPath, int highestId) {
+            this.path = path;
+            this.idPath = idPath;
+            this.highestId = highestId;
+        }
 
+        @Override
+        public void append(List<Task> tasks) throws IOException {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            OutputStream output = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(output),
+                    StandardCharsets.UTF_8))) {
+                for (Task task : tasks) {
+                    writer.write(taskToFileFormat(task));
+                    writer.newLine();
+                    highestId = Math.max(highestId, task.getId());
+                }
+            }
+            Files.writeString(idPath, String.valueOf(highestId));
+        }
+
+        @Override
+        public List<Task> readAll() throws IOException {
+            List<Task> tasks = new ArrayList<>();
+            if (!Files.exists(path)) {
+                return tasks;
+            }
+            // Reads every gzip member of the file in turn, one for each batch of archived tasks
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Task task = parseTask(line);
+                    if (task != null) {
+                        tasks.add(task);
+                    }
+                }
+            }
+            return tasks;
+        }
+
+        @Override
+        public int getHighestId() {
+            return highestId;
+        }
+    }
+}
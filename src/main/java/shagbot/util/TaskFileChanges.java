@@ -0,0 +1,45 @@
+package shagbot.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import shagbot.tasks.Task;
+
+/**
+ * Represents the changes made to the task file by another program: the tasks whose lines were changed,
+ * the tasks whose lines were added with an ID that was not in the file before, or none,
+ * and the IDs of the tasks whose lines were removed.
+ */
+class TaskFileChanges {
+    private final List<Task> changedTasks = new ArrayList<>();
+    private final List<Task> addedTasks = new ArrayList<>();
+    private final List<Integer> removedIds = new ArrayList<>();
+
+    void addChangedTask(Task task) {
+        changedTasks.add(task);
+    }
+
+    void addAddedTask(Task task) {
+        addedTasks.add(task);
+    }
+
+    void addRemovedId(int id) {
+        removedIds.add(id);
+    }
+
+    boolean isEmpty() {
+        return changedTasks.isEmpty() && addedTasks.isEmpty() && removedIds.isEmpty();
+    }
+
+    List<Task> getChangedTasks() {
+        return changedTasks;
+    }
+
+    List<Task> getAddedTasks() {
+        return addedTasks;
+    }
+
+    List<Integer> getRemovedIds() {
+        return removedIds;
+    }
+}
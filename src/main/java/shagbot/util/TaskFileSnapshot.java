@@ -0,0 +1,209 @@
+package shagbot.util;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * Represents what the task file held when Shagbot last loaded or saved it, so that changes made to it
+ * by other programs can be found without keeping a copy of the file.
+ * <p>
+ * Only the size, the modification time and the last bytes of the file are kept, together with a 64-bit hash of
+ * the UTF-8 bytes of the line of each task ID, in parallel arrays sorted by ID. That costs 12 bytes per task,
+ * and finding the line of an ID takes O(log n).
+ * </p>
+ */
+class TaskFileSnapshot {
+    private static final int TAIL_LENGTH = 64;
+    // The offset basis and prime of the 64-bit FNV-1a hash
+    private static final long HASH_BASIS = 0xcbf29ce484222325L;
+    private static final long HASH_PRIME = 0x100000001b3L;
+
+    /**
+     * Represents the entries of a snapshot as they are collected: a task ID and a hash of its line each,
+     * in any order.
+     */
+    static class Entries {
+        private int[] ids;
+        private long[] hashes;
+        private int count;
+
+        /**
+         * Constructor for the {@code Entries} class, with no entries.
+         */
+        Entries() {
+            this(new int[16], new long[16], 0);
+        }
+
+        private Entries(int[] ids, long[] hashes, int count) {
+            this.ids = ids;
+            this.hashes = hashes;
+            this.count = count;
+        }
+
+        /**
+         * Adds the entry of a line, unless the line has no task ID.
+         *
+         * @param id The ID of the task, or 0 if it has none.
+         * @param line The line of the task in the file.
+         */
+        void add(int id, String line) {
+            if (id <= 0) {
+                return;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * count);
+                hashes = Arrays.copyOf(hashes, 2 * count);
+            }
+            ids[count] = id;
+            hashes[count] = hash(line);
+            count++;
+        }
+
+        /**
+         * Replaces the line of an entry, keeping its ID.
+         *
+         * @param index The position of the entry.
+         * @param line The new line of the task in the file.
+         */
+        void set(int index, String line) {
+            hashes[index] = hash(line);
+        }
+    }
+
+    private final long size;
+    private final FileTime modifiedTime;
+    private final byte[] tail;
+    private final int[] ids;
+    private final long[] hashes;
+
+    private TaskFileSnapshot(long size, FileTime modifiedTime, byte[] tail, int[] ids, long[] hashes) {
+        this.size = size;
+        this.modifiedTime = modifiedTime;
+        this.tail = tail;
+        this.ids = ids;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Takes a snapshot of the task file as it is now.
+     *
+     * @param path The path of the task file.
+     * @param size The number of bytes of the file the snapshot covers, normally its whole size.
+     * @param entries The entries of the lines in the file.
+     * @return The snapshot.
+     * @throws IOException If the file cannot be read.
+     */
+    static TaskFileSnapshot take(Path path, long size, Entries entries) throws IOException {
+        byte[] tail = new byte[(int) Math.min(size, TAIL_LENGTH)];
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            file.seek(size - tail.length);
+            file.readFully(tail);
+        }
+        // Sorts the entries by ID, keeping the order of the lines for equal IDs, through keys that pack
+        // each ID with the position of its entry
+        long[] keys = new long[entries.count];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (long) entries.ids[i] << Integer.SIZE | i;
+        }
+        Arrays.sort(keys);
+        int[] ids = new int[keys.length];
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ids[i] = (int) (keys[i] >>> Integer.SIZE);
+            hashes[i] = entries.hashes[(int) keys[i]];
+        }
+        return new TaskFileSnapshot(size, Files.getLastModifiedTime(path), tail, ids, hashes);
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of a line with 64-bit FNV-1a, so that a changed line is all but certain
+     * to be told apart from the one it replaces.
+     */
+    private static long hash(String line) {
+        long hash = HASH_BASIS;
+        for (byte b : line.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * HASH_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Checks whether the file may have been changed since the snapshot, from its size and modification time.
+     *
+     * @param path The path of the task file.
+     * @return {@code true} if the file may have been changed.
+     * @throws IOException If the file cannot be read.
+     */
+    boolean isChanged(Path path) throws IOException {
+        return Files.size(path) != size || !Files.getLastModifiedTime(path).equals(modifiedTime);
+    }
+
+    /**
+     * Checks whether the file has only grown since the snapshot, judging by the bytes just before the end
+     * of the snapshot being unchanged, so that only the bytes after them need to be read.
+     *
+     * @param path The path of the task file.
+     * @return {@code true} if the file seems to have only been appended to.
+     * @throws IOException If the file cannot be read.
+     */
+    boolean isAppendedTo(Path path) throws IOException {
+        if (Files.size(path) <= size) {
+            return false;
+        }
+        byte[] currentTail = new byte[tail.length];
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            file.seek(size - tail.length);
+            file.readFully(currentTail);
+        }
+        return Arrays.equals(tail, currentTail);
+    }
+
+    /**
+     * Finds the entry of a task ID.
+     *
+     * @param id The ID of the task.
+     * @return The position of the entry, or -1 if the file had no line with that ID.
+     */
+    int indexOf(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Checks whether the entry at a position is for the given line.
+     *
+     * @param index The position of the entry.
+     * @param line The line.
+     * @return {@code true} if the line is the one that the entry was made from, as far as its hash can tell.
+     */
+    boolean hasLine(int index, String line) {
+        return hashes[index] == hash(line);
+    }
+
+    int getId(int index) {
+        return ids[index];
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Copies the entries of the snapshot, in the same positions, to collect the entries of the next one.
+     *
+     * @return The entries.
+     */
+    Entries copyEntries() {
+        int capacity = Math.max(16, ids.length);
+        return new Entries(Arrays.copyOf(ids, capacity), Arrays.copyOf(hashes, capacity), ids.length);
+    }
+
+    int getEntryCount() {
+        return ids.length;
+    }
+}
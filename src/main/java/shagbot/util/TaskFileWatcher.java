@@ -0,0 +1,129 @@
+package shagbot.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Represents a watcher of task files, which reports each watched file that is changed, on a thread of its own.
+ * <p>
+ * A single write often raises several events, and a sync tool may replace a file by renaming another over it.
+ * Events are therefore collected for a short while after the first, and each changed file is reported once.
+ * </p>
+ */
+class TaskFileWatcher implements Closeable {
+    private static final long SETTLE_MILLIS = 50;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Set<Path> files = ConcurrentHashMap.newKeySet();
+    private final Consumer<Path> onChange;
+
+    /**
+     * Constructor for the {@code TaskFileWatcher} class, which starts watching on a daemon thread.
+     *
+     * @param onChange The action to run on the watching thread with each changed file.
+     * @throws IOException If the files cannot be watched.
+     */
+    TaskFileWatcher(Consumer<Path> onChange) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.onChange = onChange;
+        Thread thread = new Thread(this::run, "shagbot-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts watching a file, which need not exist yet.
+     *
+     * @param file The file.
+     * @throws IOException If the directory of the file cannot be watched.
+     */
+    synchronized void watch(Path file) throws IOException {
+        Path path = normalise(file);
+        Path directory = path.getParent();
+        if (files.add(path) && !directories.containsValue(directory)) {
+            Files.createDirectories(directory);
+            directories.put(directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY), directory);
+        }
+    }
+
+    /**
+     * Stops watching a file, and its directory once no other watched file is in it.
+     *
+     * @param file The file.
+     */
+    synchronized void unwatch(Path file) {
+        Path path = normalise(file);
+        Path directory = path.getParent();
+        if (!files.remove(path) || files.stream().anyMatch(watched -> directory.equals(watched.getParent()))) {
+            return;
+        }
+        directories.entrySet().removeIf(entry -> {
+            if (!entry.getValue().equals(directory)) {
+                return false;
+            }
+            entry.getKey().cancel();
+            return true;
+        });
+    }
+
+    /**
+     * Converts a path to the form that changed files are reported in.
+     *
+     * @param file The path of the file.
+     * @return The absolute, normalised path.
+     */
+    static Path normalise(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Thread.sleep(SETTLE_MILLIS);
+                Set<Path> changedFiles = new LinkedHashSet<>();
+                for (; key != null; key = watchService.poll()) {
+                    collectChangedFiles(key, changedFiles);
+                    key.reset();
+                }
+                changedFiles.forEach(onChange);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The watcher has been closed
+        }
+    }
+
+    private void collectChangedFiles(WatchKey key, Set<Path> changedFiles) {
+        Path directory = directories.get(key);
+        if (directory == null) {
+            return;
+        }
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, so any file in the directory may have changed
+                files.stream().filter(file -> directory.equals(file.getParent())).forEach(changedFiles::add);
+            } else if (files.contains(directory.resolve((Path) event.context()))) {
+                changedFiles.add(directory.resolve((Path) event.context()));
+            }
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package shagbot.util;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 
-import shagbot.tasks.Deadline;
 import shagbot.tasks.Event;
+import shagbot.tasks.Priority;
 import shagbot.tasks.Task;
+import shagbot.tasks.TaskChange;
+import shagbot.tasks.TaskStatistics;
 
 /**
  * Represents the Ui class that handles user interactions with Shagbot.
  */
 public class Ui {
     private static final String MATCHING_TASKS_IN_THE_LIST = "Here are the matching tasks in your list:\n";
+    private static final String SORTED_TASKS_MESSAGE = "Here are the tasks in your list sorted by %s "
+            + "(page %d of %d):\n";
+    private static final String QUERY_PLAN_MESSAGE = "Here is how I answered that query:\n";
+    private static final String MOST_RELEVANT_TASKS_IN_THE_LIST = "Here are the most relevant tasks in your list:\n";
     private static final String DATE_FORMAT = "MMM dd yyyy";
     private static final String GOODBYE_MESSAGE = "Bye. Hope to see you again soon!";
     private static final String TASK_LIST_IS_EMPTY_MESSAGE = "Your task list is empty!";
     private static final String TASKS_IN_THE_LIST_MESSAGE = "Here are the tasks in your list:\n";
     private static final String PERIOD_WITH_SINGLE_SPACE = ". ";
     private static final String LINE_BREAK = "\n";
+    private static final String SINGLE_SPACE = " ";
+    private static final String TASK_ID_PREFIX = "#";
     private static final String MARKED_THIS_TASK_AS_DONE_MESSAGE = "Nice! I've marked this task as done:\n";
     private static final String MARKED_THIS_TASK_AS_NOT_DONE_YET_MESSAGE =
             "OK, I've marked this task as not done yet:\n";
@@ -25,8 +39,42 @@ public class Ui {
     private static final String DOUBLE_SPACES = "  ";
     private static final String NO_TASKS_ARE_FOUND_FOR_THIS_DATE_MESSAGE = "  No tasks are found for this date.";
     private static final String NO_MATCHING_TASKS_FOUND_MESSAGE = "No matching tasks found.";
+    private static final String CONFLICT_WARNING_MESSAGE = "Heads up! It clashes with:\n";
+    private static final String CONFLICTS_MESSAGE = "These %d pairs of events in your list clash:\n";
+    private static final String NO_CONFLICTS_MESSAGE = "No events in your list clash. Nice!";
+    private static final String FREE_SLOTS_MESSAGE = "Here are the earliest free slots of at least %s:\n";
+    private static final String NO_FREE_SLOTS_MESSAGE = "Sorry, there is no free slot of %s in that time.";
+    private static final DateTimeFormatter SLOT_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
+    private static final String SUMMARY_MESSAGE = "Here is a summary of your %d tasks:\n";
+    private static final String KIND_SUMMARY_LINE = "  %s: %d (%d done)\n";
+    private static final String COMPLETION_RATE_LINE = "  Completion rate: %d%%\n";
+    private static final String WEEK_SUMMARY_MESSAGE = "\nWeek of %s:\n"
+            + "  Deadlines due: %d (%d still open)\n"
+            + "  Events starting: %d\n";
+    private static final String MONTHS_SUMMARY_MESSAGE = "\nCompletion rate by month:\n";
+    private static final String MONTH_SUMMARY_LINE = "  %s: %d%% of %d deadlines and events done\n";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final int MONTHS_SUMMARISED = 6;
+    private static final String MATCHING_ARCHIVED_TASKS = "Here are the matching tasks in your archive:\n";
+    private static final String ARCHIVED_SUFFIX = " (archived)";
+    private static final String TASKS_ARCHIVED_MESSAGE = "I've archived these %d completed tasks:\n";
+    private static final String NO_TASKS_ARCHIVED_MESSAGE = "There are no completed tasks old enough to archive.";
+    private static final String WORKSPACE_USED_MESSAGE = "Now using workspace '%s', with %d tasks.";
+    private static final String WORKSPACES_MESSAGE = "Here are your workspaces:\n";
+    private static final String TAGS_MESSAGE = "Here are your tags:\n";
+    private static final String NO_TAGS_MESSAGE =
+            "None of your tasks have tags yet. Add some like: todo #ops fix pager";
+    private static final String TAG_COUNT_LINE = "  #%s: %d %s\n";
+    private static final String PRIORITY_SET_MESSAGE = "OK, I've set the priority of %s to %s:\n";
+    private static final String NEXT_TASKS_MESSAGE = "Here is what to do next:\n";
+    private static final String NOTHING_TO_DO_MESSAGE = "Nothing left to do. Well done!";
+    private static final String ACTIVE_WORKSPACE_SUFFIX = " (in use)";
+    private static final String LOADED_WORKSPACE_SUFFIX = " (loaded)";
+    private static final int MAX_TASKS_SHOWN = 20;
+    private static final int CHUNK_LENGTH = 8192;
     private final String botName;
-    private String lastMessage; // Stores the latest message for GUI display
+    private final StringBuilder lastMessage; // Stores the latest message for GUI display
+    private final Consumer<CharSequence> sink;
 
     /**
      * Constructor for {@code Ui} class, using the given chatbot name.
@@ -34,8 +82,27 @@ public class Ui {
      * @param botName The name of the chatbot, in this case, it is {@code shagbot}.
      */
     public Ui(String botName) {
+        this(botName, null);
+    }
+
+    private Ui(String botName, Consumer<CharSequence> sink) {
         this.botName = botName;
-        this.lastMessage = "";
+        this.lastMessage = new StringBuilder();
+        this.sink = sink;
+    }
+
+    /**
+     * Creates a view of this {@code Ui} that writes every message of a single call into the given sink
+     * as it is produced, instead of storing it as the last message. Long messages arrive in several parts,
+     * which together make up the message. Each call can use its own view, so calls never overwrite each
+     * other's messages.
+     *
+     * @param sink The sink that receives the parts of each message, in order.
+     * @return The view.
+     */
+    public Ui withSink(Consumer<CharSequence> sink) {
+        assert sink != null : "Sink cannot be null.";
+        return new Ui(botName, sink);
     }
 
     /**
@@ -44,7 +111,21 @@ public class Ui {
      * @param message The message to be stored and displayed.
      */
     public void displayMessage(String message) {
-        lastMessage = message;
+        if (sink == null) {
+            lastMessage.setLength(0);
+        }
+        appendMessage(message);
+    }
+
+    /**
+     * Continues the message last displayed with more text.
+     */
+    private void appendMessage(CharSequence text) {
+        if (sink != null) {
+            sink.accept(text);
+        } else {
+            lastMessage.append(text);
+        }
     }
 
     /**
@@ -53,7 +134,7 @@ public class Ui {
      * @return The last stored message.
      */
     public String getLastMessage() {
-        return lastMessage;
+        return lastMessage.toString();
     }
 
     /**
@@ -85,13 +166,19 @@ public class Ui {
             return;
         }
 
-        StringBuilder messageBuilder = new StringBuilder(TASKS_IN_THE_LIST_MESSAGE);
+        // Long lists are displayed a part at a time, so the whole list is never built at once
+        displayMessage(TASKS_IN_THE_LIST_MESSAGE.trim());
+        StringBuilder messageBuilder = new StringBuilder();
         for (int i = 0; i < tasks.length; i++) {
-            messageBuilder.append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(tasks[i]).append(LINE_BREAK);
+            messageBuilder.append(LINE_BREAK).append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(tasks[i]);
+            if (messageBuilder.length() >= CHUNK_LENGTH) {
+                appendMessage(messageBuilder.toString());
+                messageBuilder.setLength(0);
+            }
+        }
+        if (messageBuilder.length() > 0) {
+            appendMessage(messageBuilder.toString());
         }
-
-        String taskListRepresentation = messageBuilder.toString().trim();
-        displayMessage(taskListRepresentation);
     }
 
     /**
@@ -112,6 +199,74 @@ public class Ui {
         displayMessage(MARKED_THIS_TASK_AS_NOT_DONE_YET_MESSAGE + task);
     }
 
+    /**
+     * Prints a message when several tasks are marked as done.
+     *
+     * @param taskIndexes The indexes of the tasks marked as done.
+     * @param tasks The tasks marked as done.
+     */
+    public void printTasksMarked(int[] taskIndexes, Task[] tasks) {
+        StringBuilder sb = new StringBuilder("Nice! I've marked these " + tasks.length + " tasks as done:\n");
+        appendNumberedTasks(sb, taskIndexes, tasks);
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints a message when several tasks are unmarked.
+     *
+     * @param taskIndexes The indexes of the tasks marked as not done.
+     * @param tasks The tasks marked as not done.
+     */
+    public void printTasksUnmarked(int[] taskIndexes, Task[] tasks) {
+        StringBuilder sb = new StringBuilder("OK, I've marked these " + tasks.length + " tasks as not done yet:\n");
+        appendNumberedTasks(sb, taskIndexes, tasks);
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints a message when several tasks are snoozed or rescheduled.
+     *
+     * @param taskIndexes The indexes of the rescheduled tasks.
+     * @param tasks The rescheduled tasks.
+     */
+    public void printTasksRescheduled(int[] taskIndexes, Task[] tasks) {
+        StringBuilder sb = new StringBuilder("I've rescheduled these " + tasks.length + " tasks:\n");
+        appendNumberedTasks(sb, taskIndexes, tasks);
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints a message when the priority of one or more tasks is set.
+     *
+     * @param priority The new priority.
+     * @param taskIndexes The indexes of the tasks.
+     * @param tasks The tasks, with their new priority.
+     */
+    public void printPrioritySet(Priority priority, int[] taskIndexes, Task[] tasks) {
+        String taskCount = tasks.length == 1 ? "this task" : "these " + tasks.length + " tasks";
+        StringBuilder sb = new StringBuilder(String.format(PRIORITY_SET_MESSAGE, taskCount, priority));
+        appendNumberedTasks(sb, taskIndexes, tasks);
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints the incomplete tasks to do next, in order.
+     *
+     * @param tasks The tasks, of the task to do first first.
+     */
+    public void printNextTasks(Task[] tasks) {
+        if (tasks.length == 0) {
+            displayMessage(NOTHING_TO_DO_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(NEXT_TASKS_MESSAGE);
+        for (int i = 0; i < tasks.length; i++) {
+            sb.append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(TASK_ID_PREFIX).append(tasks[i].getId())
+                    .append(SINGLE_SPACE).append(tasks[i]).append(LINE_BREAK);
+        }
+        displayMessage(sb.toString().trim());
+    }
+
     /**
      * Prints an error message.
      *
@@ -133,24 +288,65 @@ public class Ui {
     }
 
     /**
-     * Prints tasks scheduled for a specific date.
+     * Prints a message when several tasks are deleted, along with how the remaining tasks were renumbered.
+     *
+     * @param taskIndexes The original indexes of the deleted tasks, in ascending order.
+     * @param tasks The deleted tasks.
+     * @param tasksSoFar The number of remaining tasks.
+     */
+    public void printTasksDeleted(int[] taskIndexes, Task[] tasks, int tasksSoFar) {
+        StringBuilder sb = new StringBuilder("Noted. I've removed these " + tasks.length + " tasks:\n");
+        appendNumberedTasks(sb, taskIndexes, tasks);
+
+        // Tasks between two deleted tasks all move up by the number of tasks deleted before them
+        int originalNumOfTasks = tasksSoFar + tasks.length;
+        StringBuilder renumbering = new StringBuilder();
+        int shownRenumberings = 0;
+        for (int i = 0; i < taskIndexes.length && shownRenumberings < MAX_TASKS_SHOWN; i++) {
+            int firstMoved = taskIndexes[i] + 1;
+            int lastMoved = i + 1 < taskIndexes.length ? taskIndexes[i + 1] - 1 : originalNumOfTasks - 1;
+            if (firstMoved > lastMoved) {
+                continue;
+            }
+            int shift = i + 1;
+            renumbering.append(DOUBLE_SPACES).append(formatTaskNumbers(firstMoved, lastMoved)).append(" -> ")
+                    .append(formatTaskNumbers(firstMoved - shift, lastMoved - shift)).append(LINE_BREAK);
+            shownRenumberings++;
+        }
+        if (renumbering.length() > 0) {
+            sb.append("Remaining tasks have been renumbered:\n").append(renumbering);
+        }
+        sb.append("Now you have ").append(tasksSoFar).append(" tasks in the list.");
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints the tasks scheduled for a specific date.
      *
-     * @param date The date to filter tasks by.
-     * @param tasks The task list.
+     * @param date The date of the tasks.
+     * @param tasks The tasks on the date.
      */
     public void printTasksOnDate(LocalDate date, Task[] tasks) {
+        printTasksOnDate(date, tasks, new Task[0]);
+    }
+
+    /**
+     * Prints the tasks, including archived tasks, that are scheduled on a specific date.
+     *
+     * @param date The date of the tasks.
+     * @param tasks The tasks in the list on the date.
+     * @param archivedTasks The archived tasks on the date.
+     */
+    public void printTasksOnDate(LocalDate date, Task[] tasks, Task[] archivedTasks) {
         StringBuilder sb = new StringBuilder("Tasks on "
                 + date.format(DateTimeFormatter.ofPattern(DATE_FORMAT)) + ":\n");
-        boolean isTaskFound = false;
-
         for (Task task : tasks) {
-            // Look for any matched deadline or event tasks.
-            if (isTaskOnDateFound(task, date)) {
-                sb.append(DOUBLE_SPACES).append(task).append(LINE_BREAK);
-                isTaskFound = true;
-            }
+            sb.append(DOUBLE_SPACES).append(task).append(LINE_BREAK);
         }
-        if (!isTaskFound) {
+        for (Task task : archivedTasks) {
+            sb.append(DOUBLE_SPACES).append(task).append(ARCHIVED_SUFFIX).append(LINE_BREAK);
+        }
+        if (tasks.length == 0 && archivedTasks.length == 0) {
             sb.append(NO_TASKS_ARE_FOUND_FOR_THIS_DATE_MESSAGE);
         }
 
@@ -163,35 +359,319 @@ public class Ui {
      * @param tasks An array of matched tasks.
      */
     public void printAnyMatchingTasks(Task[] tasks) {
-        if (tasks.length == 0) {
+        printAnyMatchingTasks(tasks, new Task[0]);
+    }
+
+    /**
+     * Prints the matching tasks in the list, followed by the matching archived tasks.
+     *
+     * @param tasks An array of matching tasks in the list.
+     * @param archivedTasks An array of matching archived tasks.
+     */
+    public void printAnyMatchingTasks(Task[] tasks, Task[] archivedTasks) {
+        if (tasks.length == 0 && archivedTasks.length == 0) {
             displayMessage(NO_MATCHING_TASKS_FOUND_MESSAGE);
             return;
         }
-        StringBuilder sb = new StringBuilder(MATCHING_TASKS_IN_THE_LIST);
+        StringBuilder sb = new StringBuilder(tasks.length > 0 ? MATCHING_TASKS_IN_THE_LIST : "");
         for (int i = 0; i < tasks.length; i++) {
-            sb.append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(tasks[i]).append(LINE_BREAK);
+            sb.append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(TASK_ID_PREFIX).append(tasks[i].getId())
+                    .append(SINGLE_SPACE).append(tasks[i]).append(LINE_BREAK);
+        }
+        if (archivedTasks.length > 0) {
+            sb.append(MATCHING_ARCHIVED_TASKS);
+        }
+        for (int i = 0; i < archivedTasks.length; i++) {
+            sb.append(tasks.length + i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(TASK_ID_PREFIX)
+                    .append(archivedTasks[i].getId()).append(SINGLE_SPACE).append(archivedTasks[i])
+                    .append(LINE_BREAK);
         }
         String matchedTaskInStringRepresentation = sb.toString().trim();
         displayMessage(matchedTaskInStringRepresentation);
     }
 
     /**
-     * Checks if a task is scheduled on a given date.
+     * Prints a page of the tasks in sorted order, numbered by their position in that order.
+     *
+     * @param order A description of the order, such as {@code due}.
+     * @param tasks The tasks on the page.
+     * @param offset The number of tasks before the page.
+     * @param page The number of the page, from 1.
+     * @param pageCount The number of pages.
+     */
+    public void printSortedTasks(String order, Task[] tasks, int offset, int page, int pageCount) {
+        StringBuilder sb = new StringBuilder(String.format(SORTED_TASKS_MESSAGE, order, page, pageCount));
+        for (int i = 0; i < tasks.length; i++) {
+            sb.append(offset + i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(TASK_ID_PREFIX)
+                    .append(tasks[i].getId()).append(SINGLE_SPACE).append(tasks[i]).append(LINE_BREAK);
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints how a query over the task list was answered.
+     *
+     * @param plan The description of the plan, one step per line.
+     */
+    public void printQueryPlan(String plan) {
+        displayMessage(QUERY_PLAN_MESSAGE + plan);
+    }
+
+    /**
+     * Prints tasks found by a ranked search, most relevant first.
+     *
+     * @param tasks An array of ranked tasks.
+     */
+    public void printRankedTasks(Task[] tasks) {
+        if (tasks.length == 0) {
+            displayMessage(NO_MATCHING_TASKS_FOUND_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(MOST_RELEVANT_TASKS_IN_THE_LIST);
+        for (int i = 0; i < tasks.length; i++) {
+            sb.append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(TASK_ID_PREFIX).append(tasks[i].getId())
+                    .append(SINGLE_SPACE).append(tasks[i]).append(LINE_BREAK);
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Adds a warning about clashing events to the message last printed, such as the one for adding an event.
+     * Nothing is added if there are no clashing events.
+     *
+     * @param conflicts The events that clash, in order of their starts.
+     */
+    public void printConflictWarning(Event[] conflicts) {
+        if (conflicts.length == 0) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder(LINE_BREAK).append(LINE_BREAK).append(CONFLICT_WARNING_MESSAGE);
+        int shownConflicts = Math.min(conflicts.length, MAX_TASKS_SHOWN);
+        for (int i = 0; i < shownConflicts; i++) {
+            sb.append(DOUBLE_SPACES).append(TASK_ID_PREFIX).append(conflicts[i].getId()).append(SINGLE_SPACE)
+                    .append(conflicts[i]).append(LINE_BREAK);
+        }
+        if (conflicts.length > shownConflicts) {
+            sb.append(DOUBLE_SPACES).append("...and ").append(conflicts.length - shownConflicts).append(" more.");
+        }
+        appendMessage(sb.toString().stripTrailing());
+    }
+
+    /**
+     * Prints every pair of clashing events.
+     *
+     * @param conflicts The pairs of clashing events.
+     */
+    public void printConflicts(List<Event[]> conflicts) {
+        if (conflicts.isEmpty()) {
+            displayMessage(NO_CONFLICTS_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(String.format(CONFLICTS_MESSAGE, conflicts.size()));
+        int shownConflicts = Math.min(conflicts.size(), MAX_TASKS_SHOWN);
+        for (int i = 0; i < shownConflicts; i++) {
+            Event[] pair = conflicts.get(i);
+            sb.append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(TASK_ID_PREFIX).append(pair[0].getId())
+                    .append(SINGLE_SPACE).append(pair[0]).append(LINE_BREAK)
+                    .append(DOUBLE_SPACES).append(" and ").append(TASK_ID_PREFIX).append(pair[1].getId())
+                    .append(SINGLE_SPACE).append(pair[1]).append(LINE_BREAK);
+        }
+        if (conflicts.size() > shownConflicts) {
+            sb.append("...and ").append(conflicts.size() - shownConflicts).append(" more pairs.");
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints the free slots found between events.
+     *
+     * @param length The shortest free slot searched for.
+     * @param slots The start and end of each free slot, earliest first.
+     */
+    public void printFreeSlots(Duration length, List<LocalDateTime[]> slots) {
+        String lengthText = (length.toHours() > 0 ? length.toHours() + "h" : "")
+                + (length.toMinutesPart() > 0 ? length.toMinutesPart() + "m" : "");
+        if (slots.isEmpty()) {
+            displayMessage(String.format(NO_FREE_SLOTS_MESSAGE, lengthText));
+            return;
+        }
+        StringBuilder sb = new StringBuilder(String.format(FREE_SLOTS_MESSAGE, lengthText));
+        for (int i = 0; i < slots.size(); i++) {
+            sb.append(i + 1).append(PERIOD_WITH_SINGLE_SPACE).append(slots.get(i)[0].format(SLOT_FORMAT))
+                    .append(" to ").append(slots.get(i)[1].format(SLOT_FORMAT)).append(LINE_BREAK);
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints a summary of the task list: the number of tasks of each type, the deadlines and events in the week
+     * of the given date, and the completion rate of the deadlines and events in recent months.
      *
-     * @param task The task to check.
-     * @param date The date to compare against.
-     * @return {@code true} if the task is on the given date, {@code false} otherwise.
+     * @param statistics The counts of the tasks in the list.
+     * @param date The date whose week and month are summarised.
      */
-    private boolean isTaskOnDateFound(Task task, LocalDate date) {
-        if (task instanceof Deadline deadline) {
-            return deadline.getByTiming().toLocalDate().equals(date);
+    public void printSummary(TaskStatistics statistics, LocalDate date) {
+        int count = statistics.getCount();
+        if (count == 0) {
+            displayMessage(TASK_LIST_IS_EMPTY_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(String.format(SUMMARY_MESSAGE, count));
+        int doneCount = 0;
+        for (TaskStatistics.Kind kind : TaskStatistics.Kind.values()) {
+            int kindDoneCount = statistics.getCount(kind, true);
+            String kindName = kind.name().charAt(0) + kind.name().substring(1).toLowerCase(Locale.ROOT) + "s";
+            sb.append(String.format(KIND_SUMMARY_LINE, kindName,
+                    kindDoneCount + statistics.getCount(kind, false), kindDoneCount));
+            doneCount += kindDoneCount;
+        }
+        sb.append(String.format(COMPLETION_RATE_LINE, doneCount * 100 / count));
+
+        TaskStatistics.Bucket week = TaskStatistics.Bucket.WEEK;
+        int openDeadlineCount = statistics.getCount(week, date, TaskStatistics.Kind.DEADLINE, false);
+        int deadlineCount = openDeadlineCount + statistics.getCount(week, date, TaskStatistics.Kind.DEADLINE, true);
+        int eventCount = statistics.getCount(week, date, TaskStatistics.Kind.EVENT, false)
+                + statistics.getCount(week, date, TaskStatistics.Kind.EVENT, true);
+        String weekStart = week.startOf(date).format(DateTimeFormatter.ofPattern(DATE_FORMAT));
+        sb.append(String.format(WEEK_SUMMARY_MESSAGE, weekStart, deadlineCount, openDeadlineCount, eventCount));
+
+        StringBuilder months = new StringBuilder();
+        for (int i = 0; i < MONTHS_SUMMARISED; i++) {
+            LocalDate month = date.minusMonths(i);
+            int monthDoneCount = 0;
+            int monthCount = 0;
+            for (TaskStatistics.Kind kind : List.of(TaskStatistics.Kind.DEADLINE, TaskStatistics.Kind.EVENT)) {
+                int kindDoneCount = statistics.getCount(TaskStatistics.Bucket.MONTH, month, kind, true);
+                monthDoneCount += kindDoneCount;
+                monthCount += kindDoneCount + statistics.getCount(TaskStatistics.Bucket.MONTH, month, kind, false);
+            }
+            if (monthCount > 0) {
+                months.append(String.format(MONTH_SUMMARY_LINE, month.format(MONTH_FORMAT),
+                        monthDoneCount * 100 / monthCount, monthCount));
+            }
         }
-        if (task instanceof Event event) {
-            LocalDate start = event.getStart().toLocalDate();
-            LocalDate end = event.getEnd().toLocalDate();
-            return (start.equals(date) || end.equals(date));
+        if (months.length() > 0) {
+            sb.append(MONTHS_SUMMARY_MESSAGE).append(months);
         }
-        return false;
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints the tasks moved into the archive.
+     *
+     * @param tasks The archived tasks.
+     */
+    public void printTasksArchived(Task[] tasks) {
+        if (tasks.length == 0) {
+            displayMessage(NO_TASKS_ARCHIVED_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(String.format(TASKS_ARCHIVED_MESSAGE, tasks.length));
+        int shownTasks = Math.min(tasks.length, MAX_TASKS_SHOWN);
+        for (int i = 0; i < shownTasks; i++) {
+            sb.append(DOUBLE_SPACES).append(TASK_ID_PREFIX).append(tasks[i].getId()).append(SINGLE_SPACE)
+                    .append(tasks[i]).append(LINE_BREAK);
+        }
+        if (tasks.length > shownTasks) {
+            sb.append(DOUBLE_SPACES).append("...and ").append(tasks.length - shownTasks).append(" more.");
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints every tag in use, with the number of tasks that have it.
+     *
+     * @param tagCounts The number of tasks with each tag, in the order to print them.
+     */
+    public void printTagCounts(Map<String, Integer> tagCounts) {
+        if (tagCounts.isEmpty()) {
+            displayMessage(NO_TAGS_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(TAGS_MESSAGE);
+        for (Map.Entry<String, Integer> entry : tagCounts.entrySet()) {
+            sb.append(String.format(TAG_COUNT_LINE, entry.getKey(), entry.getValue(),
+                    entry.getValue() == 1 ? "task" : "tasks"));
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints a message when switching to a workspace.
+     *
+     * @param name The name of the workspace.
+     * @param taskCount The number of tasks in the workspace.
+     */
+    public void printWorkspaceUsed(String name, int taskCount) {
+        displayMessage(String.format(WORKSPACE_USED_MESSAGE, name, taskCount));
+    }
+
+    /**
+     * Prints the names of the workspaces, marking the one in use and those loaded in memory.
+     *
+     * @param workspaces The workspaces.
+     */
+    public void printWorkspaces(Workspaces workspaces) {
+        StringBuilder sb = new StringBuilder(WORKSPACES_MESSAGE);
+        for (String name : workspaces.getNames()) {
+            sb.append(DOUBLE_SPACES).append(name);
+            if (name.equals(workspaces.getActiveName())) {
+                sb.append(ACTIVE_WORKSPACE_SUFFIX);
+            } else if (workspaces.isLoaded(name)) {
+                sb.append(LOADED_WORKSPACE_SUFFIX);
+            }
+            sb.append(LINE_BREAK);
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Prints the changes made to the task list by an undo or redo.
+     *
+     * @param header The message shown before the changes.
+     * @param changes The changes applied, in the order they were applied.
+     */
+    public void printChangesApplied(String header, List<TaskChange> changes) {
+        StringBuilder sb = new StringBuilder(header);
+        int shownChanges = Math.min(changes.size(), MAX_TASKS_SHOWN);
+        for (int i = 0; i < shownChanges; i++) {
+            TaskChange change = changes.get(i);
+            sb.append(DOUBLE_SPACES).append(change.getIndex() + 1).append(PERIOD_WITH_SINGLE_SPACE);
+            switch (change.getKind()) {
+            case ADDED:
+                sb.append("Added back: ").append(change.getNewTask());
+                break;
+            case REMOVED:
+                sb.append("Removed: ").append(change.getOldTask());
+                break;
+            default:
+                sb.append("Now: ").append(change.getNewTask());
+                break;
+            }
+            sb.append(LINE_BREAK);
+        }
+        if (changes.size() > shownChanges) {
+            sb.append(DOUBLE_SPACES).append("...and ").append(changes.size() - shownChanges).append(" more changes.");
+        }
+        displayMessage(sb.toString().trim());
+    }
+
+    /**
+     * Appends tasks with their task numbers, showing at most {@code MAX_TASKS_SHOWN} of them.
+     */
+    private void appendNumberedTasks(StringBuilder sb, int[] taskIndexes, Task[] tasks) {
+        int shownTasks = Math.min(tasks.length, MAX_TASKS_SHOWN);
+        for (int i = 0; i < shownTasks; i++) {
+            sb.append(DOUBLE_SPACES).append(taskIndexes[i] + 1).append(PERIOD_WITH_SINGLE_SPACE)
+                    .append(tasks[i]).append(LINE_BREAK);
+        }
+        if (tasks.length > shownTasks) {
+            sb.append(DOUBLE_SPACES).append("...and ").append(tasks.length - shownTasks).append(" more.\n");
+        }
+    }
+
+    private String formatTaskNumbers(int firstIndex, int lastIndex) {
+        return firstIndex == lastIndex ? String.valueOf(firstIndex + 1) : (firstIndex + 1) + "-" + (lastIndex + 1);
     }
 }
 
@@ -0,0 +1,247 @@
+package shagbot.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import shagbot.tasks.Task;
+import shagbot.tasks.TaskHistory;
+import shagbot.tasks.TaskList;
+import shagbot.tasks.TaskStore;
+
+/**
+ * Represents a workspace: a task list with its own storage file, undo history, archive and indexes,
+ * together with the parser that runs commands on it.
+ */
+public class Workspace {
+    private static final String TASK_STORE_PROPERTY = "shagbot.store";
+    private static final String COMPACT_TASK_STORE = "compact";
+    private static final String MAPPED_TASK_STORE = "mapped";
+    private static final String ARCHIVE_AFTER_PROPERTY = "shagbot.archiveAfterDays";
+    private static final int ESTIMATED_BYTES_PER_WORKSPACE = 4096;
+    private static final String NOT_LOADED_MESSAGE =
+            "the saved tasks could not be loaded, so they are left as they are";
+    private final String name;
+    private final Path filePath;
+    private final Ui ui;
+    private final Storage storage;
+    private final TaskList taskList;
+    private final Parser parser;
+    private TaskStore taskStore;
+    private boolean isLoaded;
+
+    /**
+     * Constructor for the {@code Workspace} class, loading the saved tasks of the workspace.
+     *
+     * @param name The name of the workspace.
+     * @param filePath The path of the file its tasks are saved in.
+     * @param ui The {@link Ui} instance to handle user interaction.
+     * @param workspaces The workspaces it belongs to, which commands can switch between.
+     */
+    public Workspace(String name, String filePath, Ui ui, Workspaces workspaces) {
+        this.name = name;
+        this.filePath = Path.of(filePath);
+        this.ui = ui;
+        this.storage = new Storage(filePath);
+        this.taskList = loadTaskList();
+        this.parser = new Parser(taskList, ui, workspaces);
+        openArchive();
+    }
+
+    /**
+     * Loads any saved tasks and then their undo history. If the history cannot be read, the tasks are kept
+     * with an empty history. If the tasks cannot be read, the workspace starts empty and is never saved,
+     * so that the saved tasks are not overwritten.
+     *
+     * @return The task list holding the saved tasks, or an empty task list if they could not be loaded.
+     */
+    private TaskList loadTaskList() {
+        try {
+            taskStore = openTaskStore();
+            Task[] savedTasks = null;
+            if (isTaskImageCurrent()) {
+                storage.takeSavedTasks(taskStore);
+            } else {
+                // A new task image, or one the task file has changed without, is filled from the task file
+                savedTasks = storage.loadSavedTasks().toArray(new Task[0]);
+                clearTaskStore();
+            }
+            TaskHistory history = loadHistory();
+            isLoaded = true;
+            return savedTasks == null
+                    ? new TaskList(taskStore, history)
+                    : new TaskList(savedTasks, history, taskStore);
+        } catch (IOException e) {
+            ui.printErrorMessage("Failed to load tasks: " + e.getMessage());
+            taskStore = TaskStore.createTreeStore();
+            return new TaskList(new Task[0], new TaskHistory(), taskStore);
+        }
+    }
+
+    /**
+     * Checks whether the tasks are kept in a task image that holds the tasks last saved to the task file,
+     * so that the task file need not be read. The image is also used if the task file has been deleted.
+     */
+    private boolean isTaskImageCurrent() {
+        long syncedFileTime = taskStore.getSyncedFileTime();
+        long taskFileTime = storage.getTaskFileTime();
+        return taskStore.isPersistent() && syncedFileTime != 0 && (taskFileTime == 0
+                || taskFileTime == syncedFileTime || syncedFileTime == TaskStore.UNKNOWN_SYNCED_FILE_TIME);
+    }
+
+    private void clearTaskStore() {
+        int[] indexes = new int[taskStore.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        taskStore.removeAll(indexes);
+    }
+
+    private TaskHistory loadHistory() {
+        try {
+            return storage.loadHistory();
+        } catch (IOException e) {
+            ui.printErrorMessage("Failed to load undo history: " + e.getMessage());
+            return new TaskHistory();
+        }
+    }
+
+    /**
+     * Opens the store the tasks are kept in.
+     * <p>
+     * Running with {@code -Dshagbot.store=compact} keeps them in parallel primitive arrays, which uses much
+     * less memory for very large task lists. Running with {@code -Dshagbot.store=mapped} keeps them outside
+     * the Java heap in a memory-mapped task image. The tasks are saved to the task file with every store,
+     * so that Shagbot can be run with another store, or the task file changed, without losing any of them.
+     * </p>
+     *
+     * @return The task store, which holds the saved tasks only if it is a task image.
+     * @throws IOException If the task image cannot be opened.
+     */
+    private TaskStore openTaskStore() throws IOException {
+        String storeType = System.getProperty(TASK_STORE_PROPERTY, "");
+        if (storeType.equals(COMPACT_TASK_STORE)) {
+            return TaskStore.createCompactStore();
+        } else if (storeType.equals(MAPPED_TASK_STORE)) {
+            return storage.openTaskImage();
+        }
+        return TaskStore.createTreeStore();
+    }
+
+    /**
+     * Opens the archive of completed tasks, and archives the tasks completed before the number of days given by
+     * {@code -Dshagbot.archiveAfterDays}, if it is set, so that they no longer need to be loaded or saved.
+     */
+    private void openArchive() {
+        try {
+            taskList.setArchive(storage.openArchive());
+            String archiveAfterDays = System.getProperty(ARCHIVE_AFTER_PROPERTY);
+            if (archiveAfterDays == null) {
+                return;
+            }
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(Long.parseLong(archiveAfterDays.trim()));
+            if (taskList.archiveTasks(cutoff).length > 0) {
+                taskList.commitChanges();
+                save();
+            }
+        } catch (IOException | NumberFormatException e) {
+            ui.printErrorMessage("Failed to archive tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the tasks and their undo history.
+     *
+     * @throws IOException If the tasks or history cannot be saved, or the saved tasks could not be loaded.
+     */
+    public void save() throws IOException {
+        if (!isLoaded) {
+            throw new IOException(NOT_LOADED_MESSAGE);
+        }
+        Closeable lock = storage.lockFile();
+        try {
+            // Changes saved by other programs since the tasks were last loaded or saved are kept
+            mergeExternalChanges();
+            saveTasks();
+        } finally {
+            lock.close();
+        }
+        storage.saveHistory(taskList.getHistory());
+    }
+
+    /**
+     * Merges the changes that other programs have saved to the task file since it was last loaded or saved,
+     * as a single undo step, and saves the merged tasks. Saving writes the IDs given to merged tasks back to
+     * the file, so a task added without one is not read again as another new task.
+     *
+     * @return {@code true} if any task was changed.
+     * @throws IOException If the task file cannot be read or written.
+     */
+    public boolean syncExternalChanges() throws IOException {
+        if (!isLoaded || !storage.hasExternalChanges()) {
+            return false;
+        }
+        Closeable lock = storage.lockFile();
+        try {
+            if (!mergeExternalChanges()) {
+                return false;
+            }
+            saveTasks();
+        } finally {
+            lock.close();
+        }
+        storage.saveHistory(taskList.getHistory());
+        return true;
+    }
+
+    /**
+     * Saves the tasks to the task file, and records that a task image holds the same tasks, so that the image
+     * is loaded instead of the task file until the task file is changed without it.
+     */
+    private void saveTasks() throws IOException {
+        storage.saveTasksToFile(new ArrayList<>(List.of(taskList.getTasks())));
+        if (taskStore.isPersistent()) {
+            taskStore.setSyncedFileTime(storage.getTaskFileTime());
+            taskStore.flush();
+        }
+    }
+
+    private boolean mergeExternalChanges() throws IOException {
+        TaskFileChanges changes = storage.readExternalChanges();
+        if (changes.isEmpty()) {
+            return false;
+        }
+        taskList.mergeTasks(changes.getChangedTasks(), changes.getAddedTasks(), changes.getRemovedIds());
+        taskList.commitChanges();
+        return true;
+    }
+
+    /**
+     * Estimates the memory used by the workspace while it is loaded, from the size of each of its tasks in the
+     * store they are kept in, and the indexes built over them so far.
+     *
+     * @return The estimated number of bytes.
+     */
+    public long estimateMemory() {
+        return ESTIMATED_BYTES_PER_WORKSPACE + taskList.estimateMemory();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    public TaskList getTaskList() {
+        return taskList;
+    }
+
+    public Parser getParser() {
+        return parser;
+    }
+}
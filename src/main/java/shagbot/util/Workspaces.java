@@ -0,0 +1,212 @@
+package shagbot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import shagbot.exceptions.ShagBotException;
+
+/**
+ * Represents the workspaces of Shagbot, each a separate task list, of which one is in use at a time.
+ * <p>
+ * The workspaces used most recently are kept loaded, in least-recently-used order, for as long as their estimated
+ * memory fits within a budget, set in megabytes with {@code -Dshagbot.workspaceMemoryMb} (64 by default).
+ * When switching workspaces takes the loaded workspaces over the budget, the least recently used ones
+ * are saved and unloaded, and loaded again from their files when they are next used. The workspace in use
+ * is never unloaded.
+ * </p>
+ * <p>
+ * The {@code default} workspace keeps its tasks in the data directory itself, as before there were workspaces,
+ * and every other workspace in a directory of its own under {@code workspaces}.
+ * </p>
+ * <p>
+ * Once {@link #watchTaskFiles(Consumer)} is called, the task files of the loaded workspaces are watched
+ * for changes saved by other programs, so that they can be merged as soon as they are made. A workspace that is
+ * unloaded is no longer watched, since it reads its file afresh when it is next used.
+ * </p>
+ */
+public class Workspaces {
+    private static final String MEMORY_BUDGET_PROPERTY = "shagbot.workspaceMemoryMb";
+    private static final long DEFAULT_MEMORY_BUDGET_MB = 64;
+    private static final String DEFAULT_WORKSPACE = "default";
+    private static final String WORKSPACES_DIRECTORY = "workspaces";
+    private static final String TASK_FILE_NAME = "dataoftasks.txt";
+    private static final String WORKSPACE_NAME_REGEX = "[A-Za-z0-9_-]{1,32}";
+    private static final String INVALID_NAME_ERROR_MESSAGE = "OOPSIE!! '%s' is not a valid workspace name. "
+            + "Please use up to 32 letters, digits, '-' or '_'.";
+    private static final String WATCH_FAILED_MESSAGE = "Failed to watch workspace '%s' for changes: %s";
+    private static final String SYNC_FAILED_MESSAGE = "Failed to merge changes to workspace '%s': %s";
+    private static final String UNLOAD_FAILED_MESSAGE = "Failed to save workspace '%s', so it stays loaded: %s";
+    private final String dataDirectory;
+    private final Ui ui;
+    private final long memoryBudget;
+    private final Map<String, Workspace> loadedWorkspaces = new LinkedHashMap<>(16, 0.75f, true);
+    private String activeName = DEFAULT_WORKSPACE;
+    private TaskFileWatcher watcher;
+
+    /**
+     * Constructor for the {@code Workspaces} class, with the memory budget set by its system property.
+     *
+     * @param dataDirectory The directory that the workspaces are saved in.
+     * @param ui The {@link Ui} instance to handle user interaction.
+     */
+    public Workspaces(String dataDirectory, Ui ui) {
+        this(dataDirectory, ui, Long.getLong(MEMORY_BUDGET_PROPERTY, DEFAULT_MEMORY_BUDGET_MB) * 1024 * 1024);
+    }
+
+    /**
+     * Constructor for the {@code Workspaces} class.
+     *
+     * @param dataDirectory The directory that the workspaces are saved in.
+     * @param ui The {@link Ui} instance to handle user interaction.
+     * @param memoryBudget The estimated memory, in bytes, that the loaded workspaces may use.
+     */
+    public Workspaces(String dataDirectory, Ui ui, long memoryBudget) {
+        assert memoryBudget >= 0 : "Memory budget cannot be negative.";
+        this.dataDirectory = dataDirectory;
+        this.ui = ui;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Retrieves the workspace in use, loading it if it is not loaded.
+     *
+     * @return The workspace in use.
+     */
+    public Workspace getActive() {
+        return loadedWorkspaces.computeIfAbsent(activeName, this::load);
+    }
+
+    /**
+     * Switches to the workspace with the given name, creating it if it does not exist, and unloads the least
+     * recently used workspaces if the loaded workspaces no longer fit within the memory budget.
+     *
+     * @param name The name of the workspace.
+     * @return The workspace now in use.
+     * @throws ShagBotException If the name is not a valid workspace name.
+     */
+    public Workspace use(String name) throws ShagBotException {
+        if (!name.matches(WORKSPACE_NAME_REGEX)) {
+            throw new ShagBotException(String.format(INVALID_NAME_ERROR_MESSAGE, name));
+        }
+        activeName = name;
+        Workspace workspace = getActive();
+        unloadOverBudget();
+        return workspace;
+    }
+
+    /**
+     * Retrieves the names of every workspace, whether loaded or only saved.
+     *
+     * @return The names, in alphabetical order.
+     */
+    public List<String> getNames() {
+        TreeSet<String> names = new TreeSet<>(loadedWorkspaces.keySet());
+        names.add(DEFAULT_WORKSPACE);
+        File[] directories = new File(dataDirectory, WORKSPACES_DIRECTORY).listFiles(File::isDirectory);
+        if (directories != null) {
+            for (File directory : directories) {
+                if (directory.getName().matches(WORKSPACE_NAME_REGEX)) {
+                    names.add(directory.getName());
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    public String getActiveName() {
+        return activeName;
+    }
+
+    /**
+     * Checks whether a workspace is loaded in memory.
+     *
+     * @param name The name of the workspace.
+     * @return {@code true} if it is loaded.
+     */
+    public boolean isLoaded(String name) {
+        return loadedWorkspaces.containsKey(name);
+    }
+
+    /**
+     * Starts watching the task files of the loaded workspaces, and of every workspace loaded later,
+     * for changes saved by other programs.
+     *
+     * @param onChange The action to run with each changed task file, on the thread that watches them.
+     *                 It is expected to call {@link #syncTaskFile(Path)} while no command is running.
+     * @throws IOException If the task files cannot be watched.
+     */
+    public void watchTaskFiles(Consumer<Path> onChange) throws IOException {
+        assert watcher == null : "Task files are already watched.";
+        watcher = new TaskFileWatcher(onChange);
+        for (Workspace workspace : loadedWorkspaces.values()) {
+            watcher.watch(workspace.getFilePath());
+        }
+    }
+
+    /**
+     * Merges the changes saved by other programs to a task file into its workspace, if it is loaded.
+     * Workspaces that are not loaded read their file afresh when they are next used.
+     *
+     * @param filePath The task file, as reported by the watcher.
+     */
+    public void syncTaskFile(Path filePath) {
+        for (Workspace workspace : loadedWorkspaces.values()) {
+            if (!TaskFileWatcher.normalise(workspace.getFilePath()).equals(filePath)) {
+                continue;
+            }
+            try {
+                workspace.syncExternalChanges();
+            } catch (IOException e) {
+                ui.printErrorMessage(String.format(SYNC_FAILED_MESSAGE, workspace.getName(), e.getMessage()));
+            }
+        }
+    }
+
+    private Workspace load(String name) {
+        String filePath = name.equals(DEFAULT_WORKSPACE)
+                ? dataDirectory + File.separator + TASK_FILE_NAME
+                : String.join(File.separator, dataDirectory, WORKSPACES_DIRECTORY, name, TASK_FILE_NAME);
+        Workspace workspace = new Workspace(name, filePath, ui, this);
+        if (watcher != null) {
+            try {
+                watcher.watch(workspace.getFilePath());
+            } catch (IOException e) {
+                ui.printErrorMessage(String.format(WATCH_FAILED_MESSAGE, name, e.getMessage()));
+            }
+        }
+        return workspace;
+    }
+
+    /**
+     * Saves and unloads the least recently used workspaces, other than the one in use,
+     * until the loaded workspaces fit within the memory budget.
+     */
+    private void unloadOverBudget() {
+        long memory = loadedWorkspaces.values().stream().mapToLong(Workspace::estimateMemory).sum();
+        Iterator<Workspace> leastRecentlyUsed = loadedWorkspaces.values().iterator();
+        while (memory > memoryBudget && leastRecentlyUsed.hasNext()) {
+            Workspace workspace = leastRecentlyUsed.next();
+            if (workspace.getName().equals(activeName)) {
+                continue;
+            }
+            try {
+                workspace.save();
+                memory -= workspace.estimateMemory();
+                leastRecentlyUsed.remove();
+                if (watcher != null) {
+                    watcher.unwatch(workspace.getFilePath());
+                }
+            } catch (IOException e) {
+                ui.printErrorMessage(String.format(UNLOAD_FAILED_MESSAGE, workspace.getName(), e.getMessage()));
+            }
+        }
+    }
+}
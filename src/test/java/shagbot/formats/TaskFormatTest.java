@@ -0,0 +1,113 @@
+package shagbot.formats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import shagbot.exceptions.ShagBotFormatException;
+import shagbot.tasks.Deadline;
+import shagbot.tasks.Event;
+import shagbot.tasks.Priority;
+import shagbot.tasks.Task;
+import shagbot.tasks.Todo;
+
+/**
+ * A test class to test that tasks survive being written and read back in every {@link TaskFormat}.
+ */
+public class TaskFormatTest {
+
+    /**
+     * Test that every kind of task, with its tags and priority, is read back the same as it was written,
+     * in every format.
+     */
+    @Test
+    void testWriteAndRead_everyFormat() throws IOException, ShagBotFormatException {
+        Task todo = new Todo("Buy milk, eggs and \"fresh\" bread; twice");
+        todo.setTags(List.of("home", "errands"));
+        Task deadline = new Deadline("Submit report", "22/4/2002 2000");
+        deadline.mark();
+        deadline.setTags(List.of("work"));
+        deadline.setPriority(Priority.HIGH);
+        Task event = new Event("Project meeting with a description long enough to be folded in an iCalendar file",
+                "19/4/2002 1800", "21/4/2002 2006");
+        event.setPriority(Priority.LOW);
+        Task[] tasks = {todo, deadline, event};
+
+        for (TaskFormat format : TaskFormat.values()) {
+            StringWriter output = new StringWriter();
+            try (TaskWriter writer = format.createWriter(output)) {
+                for (Task task : tasks) {
+                    writer.write(task);
+                }
+            }
+            List<Task> readTasks = readAll(format, output.toString());
+            assertEquals(tasks.length, readTasks.size(), format + " should read back every task");
+            for (int i = 0; i < tasks.length; i++) {
+                assertEquals(tasks[i].toString(), readTasks.get(i).toString(), format + " should keep task " + i);
+            }
+        }
+    }
+
+    /**
+     * Test that files written by other programs are read, including columns in another order,
+     * time zones, durations and events without an end.
+     */
+    @Test
+    void testRead_foreignFiles() throws IOException, ShagBotFormatException {
+        List<Task> csvTasks = readAll(TaskFormat.CSV, "description,type,due,notes\n"
+                + "\"Multi\nline\",deadline,2025-12-01T18:00:30,ignored\n\n");
+        assertEquals("[D][ ] Multi line (by: Dec 01 2025, 6:00PM)", csvTasks.get(0).toString());
+
+        List<Task> icsTasks = readAll(TaskFormat.ICALENDAR, "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\n"
+                + "SUMMARY:Long\r\n  meeting\r\nDTSTART;VALUE=DATE:20251201\r\nBEGIN:VALARM\r\nSUMMARY:Alarm\r\n"
+                + "END:VALARM\r\nEND:VEVENT\r\nBEGIN:VEVENT\r\nSUMMARY:Call\r\nDTSTART:20251201T090000\r\n"
+                + "DURATION:PT1H30M\r\nCATEGORIES:Calls,#Ops\r\nPRIORITY:3\r\nEND:VEVENT\r\nBEGIN:VEVENT\r\n"
+                + "SUMMARY:Reminder\r\nDTSTART:20251201T180000\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n");
+        assertEquals("Long meeting", icsTasks.get(0).getDescription());
+        assertEquals(((Event) icsTasks.get(0)).getStart().plusDays(1), ((Event) icsTasks.get(0)).getEnd());
+        assertEquals(((Event) icsTasks.get(1)).getStart().plusMinutes(90), ((Event) icsTasks.get(1)).getEnd());
+        assertEquals(List.of("calls", "ops"), icsTasks.get(1).getTags());
+        assertEquals(Priority.HIGH, icsTasks.get(1).getPriority());
+        assertEquals("[D][ ] Reminder (by: Dec 01 2025, 6:00PM)", icsTasks.get(2).toString(),
+                "An event with a start time but no end should be read as a deadline");
+    }
+
+    /**
+     * Test that invalid records are reported with where they are in the file.
+     */
+    @Test
+    void testRead_invalidRecords() {
+        ShagBotFormatException missingDue = assertThrows(ShagBotFormatException.class, () ->
+                readAll(TaskFormat.JSON_LINES, "{\"type\":\"todo\",\"description\":\"ok\"}\n"
+                        + "{\"type\":\"deadline\",\"description\":\"no due date\"}\n"));
+        assertEquals("Line 2: every deadline needs a 'due'.", missingDue.getMessage());
+        assertThrows(ShagBotFormatException.class, () -> readAll(TaskFormat.CSV, "description,priority\nx,urgent\n"));
+        assertThrows(ShagBotFormatException.class, () -> readAll(TaskFormat.JSON_LINES, "{\"description\":[]}"));
+        assertThrows(ShagBotFormatException.class, () -> readAll(TaskFormat.CSV, "description\n\"unclosed\n"));
+        assertTrue(assertThrows(ShagBotFormatException.class, () -> readAll(TaskFormat.ICALENDAR,
+                "BEGIN:VEVENT\nSUMMARY:x\nDTSTART:20251201T090000\nDTEND:20251201T080000\nEND:VEVENT\n"))
+                .getMessage().startsWith("Line 1: "));
+        assertNull(TaskFormat.fromFileName("tasks.txt"));
+    }
+
+    private static List<Task> readAll(TaskFormat format, String content) throws IOException, ShagBotFormatException {
+        List<Task> tasks = new ArrayList<>();
+        try (TaskReader reader = format.createReader(new BufferedReader(new StringReader(content)))) {
+            Task task;
+            while ((task = reader.read()) != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,116 @@
+package shagbot.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import shagbot.Shagbot;
+
+/**
+ * A test class to test that {@link HttpApiServer} answers requests for the tasks of a Shagbot instance.
+ */
+public class HttpApiServerTest {
+    private HttpApiServer server;
+    private HttpClient client;
+
+    /**
+     * Initialise a test setup for testing.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        Shagbot shagbot = new Shagbot("Shagbot", Files.createTempDirectory("shagbot").toString());
+        server = new HttpApiServer(shagbot, 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Stop the server after testing.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    /**
+     * Test that a task sent in a POST request is added, and can then be retrieved by its ID.
+     */
+    @Test
+    void testPost_taskCanBeRetrievedById() throws Exception {
+        HttpResponse<String> created = send(request("/tasks")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"type\":\"todo\",\"description\":\"Read report\"}")));
+        assertEquals(201, created.statusCode());
+        assertEquals("{\"id\":1,\"type\":\"todo\",\"done\":false,\"description\":\"Read report\"}", created.body());
+
+        HttpResponse<String> retrieved = send(request("/tasks/1").GET());
+        assertEquals(200, retrieved.statusCode());
+        assertEquals(created.body(), retrieved.body());
+    }
+
+    /**
+     * Test that the task list is answered with an ETag, and with {@code 304 Not Modified} when the client
+     * already has that version, until the tasks change.
+     */
+    @Test
+    void testGetTasks_notModifiedForCurrentEtag() throws Exception {
+        HttpResponse<String> first = send(request("/tasks").GET());
+        assertEquals(200, first.statusCode());
+        assertEquals("{\"count\":0,\"tasks\":[]}", first.body());
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        assertNotNull(etag);
+
+        HttpResponse<String> unchanged = send(request("/tasks").header("If-None-Match", etag).GET());
+        assertEquals(304, unchanged.statusCode());
+        assertEquals("", unchanged.body());
+
+        send(request("/tasks").POST(HttpRequest.BodyPublishers.ofString("{\"type\":\"todo\",\"description\":\"x\"}")));
+        HttpResponse<String> changed = send(request("/tasks").header("If-None-Match", etag).GET());
+        assertEquals(200, changed.statusCode());
+        assertTrue(changed.body().startsWith("{\"count\":1,"));
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElse(null));
+    }
+
+    /**
+     * Test that requests for a task that does not exist are answered with {@code 404 Not Found}.
+     */
+    @Test
+    void testGetTask_unknownIdNotFound() throws Exception {
+        HttpResponse<String> response = send(request("/tasks/42").GET());
+        assertEquals(404, response.statusCode());
+        assertEquals("{\"error\":\"OOPSIE!! There is no task #42.\"}", response.body());
+        assertEquals(404, send(request("/tasks/42/mark").POST(HttpRequest.BodyPublishers.noBody())).statusCode());
+        assertEquals(404, send(request("/tasks/abc").GET()).statusCode());
+    }
+
+    /**
+     * Test that requests with a method a resource does not allow are answered with
+     * {@code 405 Method Not Allowed}, naming the allowed method.
+     */
+    @Test
+    void testRequest_wrongMethodNotAllowed() throws Exception {
+        HttpResponse<String> response = send(request("/reminders").DELETE());
+        assertEquals(405, response.statusCode());
+        assertEquals("GET", response.headers().firstValue("Allow").orElse(null));
+        assertEquals(405, send(request("/tasks/1/mark").GET()).statusCode());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
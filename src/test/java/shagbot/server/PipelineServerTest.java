@@ -0,0 +1,90 @@
+package shagbot.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import shagbot.Shagbot;
+
+/**
+ * A test class to test that {@link PipelineServer} answers pipelined requests in order, framed by their length.
+ */
+public class PipelineServerTest {
+    private PipelineServer server;
+
+    /**
+     * Initialise a test setup for testing.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        Shagbot shagbot = new Shagbot("Shagbot", Files.createTempDirectory("shagbot").toString());
+        server = new PipelineServer(shagbot, 0);
+        Thread thread = new Thread(server::serve);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Close the server after testing.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Test that pipelined requests are answered in their order, each with the length of its response in bytes,
+     * and that the requests after {@code bye} are left unanswered.
+     */
+    @Test
+    void testServe_pipelinedRequests() throws IOException {
+        // Two, three and four bytes in UTF-8, so a length in characters would not frame the response
+        String description = "Caf\u00e9 \u2615 \ud83d\ude00";
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream output = socket.getOutputStream();
+            output.write(("a todo " + description + "\nb list\nc bye\nd list\n").getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            InputStream input = socket.getInputStream();
+
+            String added = readResponse(input, "a");
+            assertTrue(added.contains("[T][ ] " + description + "\n"), added);
+            assertEquals("Here are the tasks in your list:\n1. [T][ ] " + description, readResponse(input, "b"));
+            assertTrue(readResponse(input, "c").startsWith("Bye!"));
+            assertEquals(-1, input.read(), "Requests after bye must not be answered");
+        }
+    }
+
+    /**
+     * Reads a response, checking that it is for the expected request and that it is followed by a line break
+     * right after the number of bytes given in its header.
+     */
+    private static String readResponse(InputStream input, String expectedId) throws IOException {
+        String[] header = readLine(input).split(" ");
+        assertEquals(2, header.length);
+        assertEquals(expectedId, header[0]);
+        byte[] body = input.readNBytes(Integer.parseInt(header[1]));
+        assertEquals('\n', input.read(), "The response must end right after its length");
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (int b = input.read(); b != '\n'; b = input.read()) {
+            assertTrue(b != -1, "The connection closed in the middle of a header");
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
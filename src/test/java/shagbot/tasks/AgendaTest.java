@@ -0,0 +1,53 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that an {@link Agenda} follows the changes made to a {@link TaskList}.
+ */
+public class AgendaTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 12, 1);
+    private static final LocalDateTime NOON = TODAY.atTime(12, 0);
+
+    /**
+     * Test that tasks move in and out of the agenda as they are added, marked, rescheduled and undone.
+     */
+    @Test
+    void testShow_followsChanges() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("Read book"));
+        taskList.addTask(new Deadline("Report", NOON.plusDays(1)));
+        taskList.addTask(new Event("Trip", NOON.minusDays(2), NOON.plusHours(1)));
+        taskList.addTask(new Deadline("Essay", NOON.plusDays(10)));
+        taskList.commitChanges();
+        Agenda agenda = new Agenda(7);
+        agenda.show(taskList, TODAY);
+
+        Map<LocalDate, List<Task>> days = agenda.getTasksByDay();
+        assertEquals(List.of(TODAY, TODAY.plusDays(1)), List.copyOf(days.keySet()));
+        assertEquals("Trip", days.get(TODAY).get(0).getDescription(), "Ongoing events should be shown today");
+
+        long version = agenda.getVersion();
+        taskList.markTask(1);
+        taskList.rescheduleDeadline(3, NOON.plusDays(2));
+        taskList.commitChanges();
+        assertTrue(agenda.getVersion() != version, "Changes to the agenda should give a new version");
+        assertEquals("Essay", agenda.getTasksByDay().get(TODAY.plusDays(2)).get(0).getDescription());
+        assertEquals(2, agenda.getTasksByDay().size(), "Completed deadlines should leave the agenda");
+
+        version = agenda.getVersion();
+        taskList.addTask(new Todo("Sleep"));
+        assertEquals(version, agenda.getVersion(), "Todos should not change the agenda");
+        taskList.undo();
+        taskList.undo();
+        assertEquals(List.of(TODAY, TODAY.plusDays(1)), List.copyOf(agenda.getTasksByDay().keySet()));
+    }
+}
@@ -0,0 +1,92 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link CompactTaskStore} keeps every field of its tasks.
+ */
+public class CompactTaskStoreTest {
+
+    /**
+     * Test that tasks are read back with the same fields, IDs and positions as they were inserted with.
+     */
+    @Test
+    void testInsertAndGet() {
+        TaskStore store = TaskStore.createCompactStore();
+        Task deadline = withId(new Deadline("Submit report", "22/4/2002 2000"), 1);
+        Task event = withId(new Event("Caf\u00e9 meetup", "19/4/2002 1800", "21/4/2002 2006"), 2);
+        event.mark();
+        store.insert(0, deadline);
+        store.insert(0, event);
+
+        assertEquals(2, store.size());
+        assertEquals(event.toString(), store.get(0).toString(), "Events should keep their dates and status");
+        assertEquals(deadline.toString(), store.get(1).toString(), "Deadlines should keep their due date");
+        assertEquals(1, store.indexOfId(1), "Task 1 should have moved back by one");
+        assertEquals(2, store.getById(2).getId());
+
+        store.insert(2, withId(new Todo("Largest ID"), Integer.MAX_VALUE));
+        assertEquals(2, store.indexOfId(Integer.MAX_VALUE), "Any positive ID should be found without growing");
+    }
+
+    /**
+     * Test that removing and replacing tasks keeps the remaining tasks intact,
+     * including after the descriptions are compacted.
+     */
+    @Test
+    void testRemoveAndSet() {
+        TaskStore store = TaskStore.createCompactStore();
+        for (int id = 1; id <= 1000; id++) {
+            store.insert(store.size(), withId(new Todo("Task number " + id), id));
+        }
+        for (int i = 0; i < 900; i++) {
+            store.remove(0);
+        }
+        Task replacement = withId(new Todo("Replaced task"), 1000);
+        replacement.mark();
+        store.set(99, replacement);
+
+        assertEquals(100, store.size());
+        assertEquals("Task number 901", store.get(0).getDescription());
+        assertFalse(store.get(0).isDone());
+        assertEquals("Replaced task", store.get(99).getDescription());
+        assertTrue(store.get(99).isDone(), "Completion status should be kept for slots beyond the first 64");
+        assertEquals(-1, store.indexOfId(1));
+        assertNull(store.getById(900));
+        assertEquals(50, store.indexOfId(951));
+    }
+
+    /**
+     * Test that removing many tasks at once keeps the remaining tasks in order with their IDs,
+     * including after the descriptions are compacted.
+     */
+    @Test
+    void testRemoveAll() {
+        TaskStore store = TaskStore.createCompactStore();
+        int[] removedIndexes = new int[900];
+        for (int id = 1; id <= 1000; id++) {
+            store.insert(store.size(), withId(new Todo("Task number " + id), id));
+            if (id % 10 != 1) {
+                removedIndexes[id - 1 - (id + 8) / 10] = id - 1;
+            }
+        }
+        Task[] removedTasks = store.removeAll(removedIndexes);
+
+        assertEquals(100, store.size());
+        assertEquals("Task number 2", removedTasks[0].getDescription());
+        assertEquals("Task number 1000", removedTasks[899].getDescription());
+        assertEquals("Task number 991", store.get(99).getDescription());
+        assertEquals(99, store.indexOfId(991));
+        assertEquals(-1, store.indexOfId(2));
+    }
+
+    private static Task withId(Task task, int id) {
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,60 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link IdBitmap} agrees with a plain set of IDs, in both kinds of container.
+ */
+public class IdBitmapTest {
+
+    /**
+     * Test that adding, removing, intersecting and subtracting give the same IDs as a sorted set, with IDs
+     * dense enough for containers to switch between arrays and bitmaps.
+     */
+    @Test
+    void testOperations_matchSortedSet() {
+        Random random = new Random(7);
+        IdBitmap first = new IdBitmap();
+        IdBitmap second = new IdBitmap();
+        TreeSet<Integer> firstIds = new TreeSet<>();
+        TreeSet<Integer> secondIds = new TreeSet<>();
+        for (int i = 0; i < 40000; i++) {
+            int id = 1 + random.nextInt(3 * 65536);
+            assertEquals(firstIds.add(id), first.add(id));
+            int otherId = 1 + random.nextInt(12000);
+            assertEquals(secondIds.add(otherId), second.add(otherId));
+        }
+        for (int i = 0; i < 30000; i++) {
+            int id = 1 + random.nextInt(3 * 65536);
+            assertEquals(firstIds.remove(id), first.remove(id));
+        }
+        assertEquals(firstIds.size(), first.cardinality());
+        assertArrayEquals(toArray(firstIds), first.toArray());
+
+        TreeSet<Integer> intersection = new TreeSet<>(firstIds);
+        intersection.retainAll(secondIds);
+        assertArrayEquals(toArray(intersection), first.and(second).toArray());
+        assertArrayEquals(toArray(intersection), second.and(first).toArray());
+        TreeSet<Integer> difference = new TreeSet<>(secondIds);
+        difference.removeAll(firstIds);
+        assertArrayEquals(toArray(difference), second.andNot(first).toArray());
+        assertEquals(difference.size(), second.andNot(first).cardinality());
+
+        int id = firstIds.first();
+        assertTrue(first.contains(id));
+        assertTrue(first.remove(id));
+        assertFalse(first.contains(id));
+    }
+
+    private static int[] toArray(TreeSet<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
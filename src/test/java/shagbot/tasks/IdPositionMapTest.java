@@ -0,0 +1,46 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link IdPositionMap} agrees with a plain map of IDs.
+ */
+public class IdPositionMapTest {
+
+    /**
+     * Test that putting, replacing and removing give the same positions as a hash map, with IDs from
+     * the whole positive range and enough removals for the table to shrink again.
+     */
+    @Test
+    void testOperations_matchHashMap() {
+        Random random = new Random(7);
+        IdPositionMap map = new IdPositionMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        int[] usedIds = new int[20000];
+        for (int i = 0; i < usedIds.length; i++) {
+            usedIds[i] = i % 3 == 0 ? Integer.MAX_VALUE - i : 1 + random.nextInt(Integer.MAX_VALUE - 1);
+            map.put(usedIds[i], i);
+            expected.put(usedIds[i], i);
+        }
+        for (int i = 0; i < 30000; i++) {
+            int id = usedIds[random.nextInt(usedIds.length)];
+            if (random.nextBoolean()) {
+                map.remove(id);
+                expected.remove(id);
+            } else {
+                map.put(id, -i - 2);
+                expected.put(id, -i - 2);
+            }
+        }
+        for (int id : usedIds) {
+            assertEquals((int) expected.getOrDefault(id, IdPositionMap.NO_POSITION), map.get(id));
+        }
+        assertEquals(IdPositionMap.NO_POSITION, map.get(0));
+    }
+}
@@ -0,0 +1,102 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link TaskList} finds clashing events with its interval tree.
+ */
+public class IntervalTreeTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 11, 1, 0, 0);
+
+    /**
+     * Test that the clashes of each event and the pairs found by the sweep match comparing every pair
+     * of events, after random additions, deletions and reschedulings.
+     */
+    @Test
+    void testConflicts_matchComparingEveryPair() throws Exception {
+        Random random = new Random(7);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 600; i++) {
+            LocalDateTime start = START.plusHours(random.nextInt(2000));
+            taskList.addTask(new Event("Event " + i, start, start.plusHours(1 + random.nextInt(12))));
+            if (i % 5 == 0) {
+                taskList.addTask(new Todo("Todo " + i));
+            }
+            if (random.nextInt(4) == 0) {
+                taskList.deleteTask(random.nextInt(taskList.size()));
+            }
+        }
+        // Builds the tree before rescheduling, so the rescheduled events must be moved within it
+        taskList.findAllConflicts();
+        for (int i = 0; i < 100; i++) {
+            int index = random.nextInt(taskList.size());
+            if (taskList.getTask(index) instanceof Event) {
+                LocalDateTime start = START.plusHours(random.nextInt(2000));
+                taskList.rescheduleEvent(index, start, start.plusHours(1 + random.nextInt(12)));
+            }
+        }
+
+        List<Event> events = new ArrayList<>();
+        for (Task task : taskList) {
+            if (task instanceof Event event) {
+                events.add(event);
+            }
+        }
+        Set<String> expectedPairs = new TreeSet<>();
+        for (Event event : events) {
+            Set<Integer> expectedIds = new TreeSet<>();
+            for (Event other : events) {
+                if (other.getId() != event.getId() && other.getStart().isBefore(event.getEnd())
+                        && event.getStart().isBefore(other.getEnd())) {
+                    expectedIds.add(other.getId());
+                    expectedPairs.add(Math.min(event.getId(), other.getId()) + "-"
+                            + Math.max(event.getId(), other.getId()));
+                }
+            }
+            Set<Integer> ids = new TreeSet<>();
+            for (Event conflict : taskList.findConflicts(event)) {
+                ids.add(conflict.getId());
+            }
+            assertEquals(expectedIds, ids);
+        }
+
+        Set<String> pairs = new TreeSet<>();
+        for (Event[] pair : taskList.findAllConflicts()) {
+            pairs.add(Math.min(pair[0].getId(), pair[1].getId()) + "-" + Math.max(pair[0].getId(), pair[1].getId()));
+        }
+        assertEquals(expectedPairs, pairs);
+        assertEquals(expectedPairs.size(), taskList.findAllConflicts().size());
+    }
+
+    /**
+     * Test that free slots skip over overlapping and nested events, and include the time after the last event.
+     */
+    @Test
+    void testFindFreeSlots_mergesEvents() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Event("Nested", START.plusHours(10), START.plusHours(11)));
+        taskList.addTask(new Event("Morning", START.plusHours(9), START.plusHours(12)));
+        taskList.addTask(new Event("Lunch", START.plusHours(12), START.plusHours(13)));
+        taskList.addTask(new Event("Afternoon", START.plusHours(14), START.plusHours(17)));
+
+        List<LocalDateTime[]> slots = taskList.findFreeSlots(START.plusHours(8), START.plusHours(20),
+                Duration.ofHours(1), 5);
+
+        assertEquals(3, slots.size());
+        assertEquals(List.of(START.plusHours(8), START.plusHours(9)), List.of(slots.get(0)));
+        assertEquals(List.of(START.plusHours(13), START.plusHours(14)), List.of(slots.get(1)));
+        assertEquals(List.of(START.plusHours(17), START.plusHours(20)), List.of(slots.get(2)));
+        assertEquals(1, taskList.findFreeSlots(START.plusHours(8), START.plusHours(20), Duration.ofHours(2), 1)
+                .size());
+    }
+}
@@ -0,0 +1,151 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link MappedTaskStore} keeps its tasks in its task image.
+ */
+public class MappedTaskStoreTest {
+    private Path imagePath;
+
+    /**
+     * Initialise a test setup for testing.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        imagePath = Files.createTempFile("tasks", ".image");
+    }
+
+    /**
+     * Delete the task image after testing.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(imagePath);
+    }
+
+    /**
+     * Test that tasks, with their tags and priorities, are read back from a reopened task image, after the image
+     * has grown and been compacted.
+     */
+    @Test
+    void testReopenAfterGrowingAndRemoving() throws IOException {
+        TaskStore store = TaskStore.openMappedStore(imagePath);
+        for (int id = 1; id <= 3000; id++) {
+            Task task = id % 2 == 0 ? new Todo("Task number " + id) : new Deadline("Task number " + id,
+                    "22/4/2002 2000");
+            task.setId(id);
+            store.insert(0, task);
+        }
+        for (int i = 0; i < 2000; i++) {
+            store.remove(store.size() - 1);
+        }
+        Task event = new Event("Caf\u00e9 meetup", "19/4/2002 1800", "21/4/2002 2006");
+        event.setId(3001);
+        event.setTags(List.of("social", "Food"));
+        event.setPriority(Priority.HIGH);
+        event.mark();
+        store.set(0, event);
+        store.flush();
+
+        TaskStore reopenedStore = TaskStore.openMappedStore(imagePath);
+        assertEquals(1000, reopenedStore.size());
+        assertEquals(event.toString(), reopenedStore.get(0).toString());
+        assertTrue(reopenedStore.get(0).isDone());
+        assertEquals("Task number 2999", reopenedStore.get(1).getDescription());
+        assertEquals(new Deadline("x", "22/4/2002 2000").getByTiming(),
+                ((Deadline) reopenedStore.get(1)).getByTiming());
+        assertEquals(999, reopenedStore.indexOfId(2001));
+        assertEquals(-1, reopenedStore.indexOfId(3000));
+        assertEquals(3001, reopenedStore.getHighestId());
+    }
+
+    /**
+     * Test that removing many tasks at once keeps the remaining tasks in order with their IDs,
+     * including after the descriptions are compacted.
+     */
+    @Test
+    void testRemoveAll() throws IOException {
+        TaskStore store = TaskStore.openMappedStore(imagePath);
+        int[] removedIndexes = new int[900];
+        for (int id = 1; id <= 1000; id++) {
+            store.insert(store.size(), withId(new Todo("Task number " + id), id));
+            if (id % 10 != 1) {
+                removedIndexes[id - 1 - (id + 8) / 10] = id - 1;
+            }
+        }
+        Task[] removedTasks = store.removeAll(removedIndexes);
+
+        assertEquals(100, store.size());
+        assertEquals("Task number 2", removedTasks[0].getDescription());
+        assertEquals("Task number 1000", removedTasks[899].getDescription());
+        assertEquals("Task number 991", store.get(99).getDescription());
+        assertEquals(99, store.indexOfId(991));
+        assertEquals(-1, store.indexOfId(2));
+    }
+
+    /**
+     * Test that a file which is not a task image is rejected.
+     */
+    @Test
+    void testOpen_notTaskImage() throws IOException {
+        Files.writeString(imagePath, "T | 0 | read book");
+        assertThrows(IOException.class, () -> TaskStore.openMappedStore(imagePath));
+    }
+
+    /**
+     * Test that an image saved by version 1, without priorities, tags or a synced file time, is upgraded
+     * in place and its tasks are kept.
+     */
+    @Test
+    void testOpen_migratesVersion1Image() throws IOException {
+        TaskStore store = TaskStore.openMappedStore(imagePath);
+        store.insert(0, withId(new Todo("read book"), 1));
+        store.flush();
+        try (FileChannel channel = FileChannel.open(imagePath, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 1), 4);
+            channel.write(ByteBuffer.allocate(Long.BYTES), 24);
+        }
+
+        TaskStore migrated = TaskStore.openMappedStore(imagePath);
+        assertEquals("[T][ ] read book", migrated.get(0).toString());
+        assertEquals(TaskStore.UNKNOWN_SYNCED_FILE_TIME, migrated.getSyncedFileTime());
+        assertEquals(TaskStore.UNKNOWN_SYNCED_FILE_TIME, TaskStore.openMappedStore(imagePath).getSyncedFileTime(),
+                "The upgrade should be saved to the image");
+    }
+
+    /**
+     * Test that tasks with the largest IDs are found again after the image is reopened.
+     */
+    @Test
+    void testReopen_largeIds() throws IOException {
+        TaskStore store = TaskStore.openMappedStore(imagePath);
+        store.insert(0, withId(new Todo("read book"), 400_000_000));
+        store.insert(1, withId(new Todo("return book"), Integer.MAX_VALUE));
+        store.flush();
+
+        TaskStore reopened = TaskStore.openMappedStore(imagePath);
+        assertEquals(1, reopened.indexOfId(Integer.MAX_VALUE));
+        assertEquals("read book", reopened.getById(400_000_000).getDescription());
+        assertEquals(Integer.MAX_VALUE, reopened.getHighestId());
+    }
+
+    private static Task withId(Task task, int id) {
+        task.setId(id);
+        return task;
+    }
+}
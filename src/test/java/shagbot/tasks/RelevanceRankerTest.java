@@ -0,0 +1,111 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link RelevanceRanker} orders tasks by their BM25 scores and boosts.
+ */
+public class RelevanceRankerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 1, 12, 0);
+    private TokenTrie tokenIndex;
+    private Map<Integer, Task> tasksById;
+    private RelevanceRanker ranker;
+
+    /**
+     * Initialise a test setup for testing.
+     */
+    @BeforeEach
+    void setUp() {
+        tokenIndex = new TokenTrie();
+        tasksById = new HashMap<>();
+        ranker = new RelevanceRanker(tokenIndex, tasksById::get);
+    }
+
+    /**
+     * Test that a task mentioning a query word more often ranks higher, other things being equal.
+     */
+    @Test
+    void testRank_termFrequency() {
+        add(new Todo("report notes draft"));
+        add(new Todo("report report draft"));
+        add(new Todo("groceries milk eggs"));
+
+        assertArrayEquals(new String[]{"report report draft", "report notes draft"}, describe("report"));
+    }
+
+    /**
+     * Test that a shorter task ranks higher than a longer one with the same number of matches.
+     */
+    @Test
+    void testRank_documentLength() {
+        add(new Todo("report for the weekly team meeting"));
+        add(new Todo("report"));
+        add(new Todo("call the dentist"));
+
+        assertArrayEquals(new String[]{"report", "report for the weekly team meeting"}, describe("report"));
+    }
+
+    /**
+     * Test that a rare query word counts for more than a common one, and that every query word adds to the score.
+     */
+    @Test
+    void testRank_rareTermsAndMultipleTerms() {
+        add(new Todo("weekly report"));
+        add(new Todo("weekly meeting"));
+        add(new Todo("weekly review"));
+        add(new Todo("budget report"));
+
+        assertEquals("weekly report", describe("weekly report")[0], "Matching both words should rank first");
+        assertEquals("budget report", describe("weekly report")[1], "The rarer word should outweigh the common one");
+    }
+
+    /**
+     * Test that incomplete tasks, and deadlines due soon, are boosted above otherwise equal tasks.
+     */
+    @Test
+    void testRank_boosts() {
+        Task done = new Todo("pay rent");
+        done.mark();
+        add(done);
+        add(new Deadline("pay rent", NOW.plusDays(30)));
+        add(new Deadline("pay rent", NOW.plusHours(2)));
+
+        Task[] ranked = ranker.rank("rent", 3, NOW);
+        assertEquals(NOW.plusHours(2), ((Deadline) ranked[0]).getByTiming());
+        assertEquals(NOW.plusDays(30), ((Deadline) ranked[1]).getByTiming());
+        assertEquals(done, ranked[2]);
+    }
+
+    /**
+     * Test that no tasks are returned when nothing matches, and at most the limit otherwise.
+     */
+    @Test
+    void testRank_noMatchesAndLimit() {
+        add(new Todo("report one"));
+        add(new Todo("report two"));
+        add(new Todo("report three"));
+
+        assertEquals(0, ranker.rank("holiday", 5, NOW).length);
+        assertEquals(0, ranker.rank("", 5, NOW).length);
+        assertEquals(2, ranker.rank("report", 2, NOW).length);
+    }
+
+    private void add(Task task) {
+        task.setId(tasksById.size() + 1);
+        tasksById.put(task.getId(), task);
+        tokenIndex.addTask(task);
+    }
+
+    private String[] describe(String query) {
+        return Arrays.stream(ranker.rank(query, 10, NOW)).map(Task::getDescription).toArray(String[]::new);
+    }
+}
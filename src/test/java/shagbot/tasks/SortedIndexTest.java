@@ -0,0 +1,77 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link SortedIndex} keeps its tasks in sorted order as they change.
+ */
+public class SortedIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 11, 1, 0, 0);
+
+    /**
+     * Test that pages of the view and counts of ranges match sorting the tasks from scratch,
+     * after many random additions and removals.
+     */
+    @Test
+    void testViewAndRanges_matchSorting() {
+        Random random = new Random(42);
+        SortedIndex index = new SortedIndex(QueryField.DUE);
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            Task task = random.nextInt(4) == 0
+                    ? new Todo("Todo " + id)
+                    : new Deadline("Deadline " + id, START.plusHours(random.nextInt(500)));
+            task.setId(id);
+            tasks.add(task);
+            index.addTask(task);
+            if (random.nextInt(3) == 0) {
+                index.removeTask(tasks.remove(random.nextInt(tasks.size())));
+            }
+        }
+        Comparator<Task> byDue = Comparator.comparing(
+                (Task task) -> task instanceof Deadline deadline ? deadline.getByTiming() : null,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        List<Task> ascending = new ArrayList<>(tasks);
+        ascending.sort(byDue.thenComparingInt(Task::getId));
+        List<Task> descending = new ArrayList<>(tasks);
+        descending.sort(Comparator.comparing((Task task) -> task instanceof Todo)
+                .thenComparing(byDue.thenComparingInt(Task::getId).reversed()));
+
+        assertEquals(tasks.size(), index.size());
+        for (int offset : new int[]{0, 1, 137, tasks.size() - 5, tasks.size()}) {
+            assertEquals(idsOf(ascending.subList(offset, tasks.size())), drain(index.iterateView(offset, false)));
+            assertEquals(idsOf(descending.subList(offset, tasks.size())), drain(index.iterateView(offset, true)));
+        }
+
+        QueryCondition condition = QueryCondition.of(QueryField.DUE, QueryCondition.LESS_OR_EQUAL, "5/11/2025");
+        List<Integer> expected = new ArrayList<>();
+        for (Task task : ascending) {
+            if (condition.test(task)) {
+                expected.add(task.getId());
+            }
+        }
+        assertEquals(expected.size(), index.count(condition));
+        assertEquals(expected, drain(index.iterateIds(condition, false)));
+    }
+
+    private static List<Integer> idsOf(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    private static List<Integer> drain(Iterator<Integer> ids) {
+        List<Integer> drained = new ArrayList<>();
+        ids.forEachRemaining(drained::add);
+        return drained;
+    }
+}
@@ -1,9 +1,16 @@
 package shagbot.tasks;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -93,4 +100,227 @@ public class TaskListTest {
         assertTrue(task3.isDone(), "Task 3 should be marked as done");
         assertFalse(task4.isDone(), "Task 4 should be unmarked as not done");
     }
+
+    /**
+     * Test the {@code undo()} and {@code redo()} features in {@link TaskList}.
+     */
+    @Test
+    void testUndoAndRedo() {
+        taskList.deleteTask(1);
+        taskList.commitChanges();
+        taskList.markTask(0);
+        taskList.addTask(new Todo("Task 5"));
+        taskList.commitChanges();
+
+        // Undoing the second step reverts both the mark and the add together.
+        assertEquals(2, taskList.undo().size(), "The last step should contain 2 changes");
+        assertEquals(3, taskList.getTasks().length, "Task list should contain 3 tasks after undo");
+        assertFalse(taskList.getTask(0).isDone(), "Task 1 should no longer be marked as done");
+
+        taskList.undo();
+        assertEquals(4, taskList.getTasks().length, "Task list should contain 4 tasks after undo");
+        assertEquals("Task 2", taskList.getTask(1).getDescription(), "Task 2 should be restored in place");
+        assertEquals(null, taskList.undo(), "There should be nothing left to undo");
+
+        taskList.redo();
+        taskList.redo();
+        assertEquals(4, taskList.getTasks().length, "Task list should contain 4 tasks after redo");
+        assertTrue(taskList.getTask(0).isDone(), "Task 1 should be marked as done again");
+        assertEquals("Task 5", taskList.getTask(3).getDescription(), "Task 5 should be added back");
+        assertEquals(null, taskList.redo(), "There should be nothing left to redo");
+    }
+
+    /**
+     * Test that task IDs stay the same while the positions of tasks change.
+     */
+    @Test
+    void testTaskIds() {
+        int idOfTask3 = task3.getId();
+        taskList.deleteTasks(new int[]{0, 1});
+        assertEquals(0, taskList.indexOfId(idOfTask3), "Task 3 should be found by its ID at its new position");
+        assertEquals(-1, taskList.indexOfId(task1.getId()), "Deleted tasks should no longer be found by ID");
+
+        Task newTask = new Todo("Task 5");
+        taskList.addTask(newTask);
+        assertEquals(5, newTask.getId(), "IDs should not be reused");
+        assertEquals(newTask, taskList.getTaskById(5), "New tasks should be found by their ID");
+    }
+
+    /**
+     * Test that the version of the task list changes with every change, including undoing one, but not with reads.
+     */
+    @Test
+    void testGetVersion() {
+        long version = taskList.getVersion();
+        taskList.getTasks();
+        taskList.findTasksByTerms(new String[]{"task"});
+        assertEquals(version, taskList.getVersion(), "Reading tasks should not change the version");
+
+        taskList.markTask(0);
+        taskList.commitChanges();
+        long markedVersion = taskList.getVersion();
+        assertTrue(markedVersion != version, "Marking a task should change the version");
+        taskList.undo();
+        assertTrue(taskList.getVersion() != markedVersion && taskList.getVersion() != version,
+                "Undoing a change should give a new version");
+        assertTrue(new TaskList().getVersion() != taskList.getVersion(), "Task lists should not share versions");
+    }
+
+    /**
+     * Test whether changes reach synchronous listeners one at a time, and asynchronous listeners
+     * as one batch per command, including the changes made by an undo.
+     */
+    @Test
+    void testListeners() {
+        List<TaskChange.Kind> changes = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        taskList.addListener((batch, version) -> batch.forEach(change -> changes.add(change.getKind())));
+        taskList.addListener((batch, version) -> batchSizes.add(batch.size()), Runnable::run);
+
+        taskList.addTask(new Todo("Task 5"));
+        taskList.markTask(0);
+        assertEquals(List.of(TaskChange.Kind.ADDED, TaskChange.Kind.UPDATED), changes);
+        assertTrue(batchSizes.isEmpty(), "Batches should wait for the command to end");
+        taskList.commitChanges();
+        taskList.undo();
+
+        assertEquals(List.of(TaskChange.Kind.ADDED, TaskChange.Kind.UPDATED, TaskChange.Kind.UPDATED,
+                TaskChange.Kind.REMOVED), changes);
+        assertEquals(List.of(2, 2), batchSizes);
+    }
+
+    /**
+     * Test that archiving moves only old completed tasks out of the list, and that an undo brings them back.
+     */
+    @Test
+    void testArchiveTasks() throws Exception {
+        List<Task> archive = new ArrayList<>();
+        taskList.setArchive(new TaskArchive() {
+            @Override
+            public void append(List<Task> tasks) {
+                tasks.forEach(task -> archive.add(task.copy()));
+            }
+
+            @Override
+            public List<Task> readAll() {
+                return archive;
+            }
+
+            @Override
+            public int getHighestId() {
+                return 0;
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            taskList.markTask(i);
+        }
+        taskList.commitChanges();
+
+        Task[] archivedTasks = taskList.archiveTasks(LocalDateTime.of(2002, 4, 22, 0, 0));
+        taskList.commitChanges();
+
+        assertEquals(2, archivedTasks.length, "Only the event and the todo should be old enough");
+        assertEquals(2, taskList.size());
+        assertEquals(2, taskList.getArchivedTasks().length);
+        taskList.undo();
+        assertEquals(4, taskList.size());
+        assertEquals(0, taskList.getArchivedTasks().length, "Tasks brought back should not be archived");
+    }
+
+    /**
+     * Test that the next tasks follow changes to priorities, completion and due dates, and deletions.
+     */
+    @Test
+    void testGetNextTasks() {
+        // Task 3 starts first, then Task 1 and Task 2 are due, with the todo last
+        assertEquals("Task 3", taskList.getNextTasks(1)[0].getDescription());
+        assertEquals(4, taskList.getNextTasks(10).length);
+
+        taskList.setPriority(3, Priority.HIGH);
+        taskList.setPriority(1, Priority.LOW);
+        taskList.markTask(2);
+        assertEquals(List.of("Task 4", "Task 2", "Task 1"), describe(taskList.getNextTasks(5)));
+
+        taskList.rescheduleDeadline(0, LocalDateTime.of(2002, 4, 1, 20, 0));
+        taskList.setPriority(0, Priority.LOW);
+        taskList.deleteTask(3);
+        assertEquals(List.of("Task 1", "Task 2"), describe(taskList.getNextTasks(2)));
+        taskList.unmarkTask(2);
+        assertEquals("Task 3", taskList.getNextTasks(3)[2].getDescription());
+    }
+
+    private static List<String> describe(Task[] tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.getDescription());
+        }
+        return descriptions;
+    }
+
+    /**
+     * Test that the memory estimate grows with the length of the descriptions and with the indexes built,
+     * and is much smaller for tasks kept in a compact store.
+     */
+    @Test
+    void testEstimateMemory() {
+        long initialEstimate = taskList.estimateMemory();
+        taskList.addTask(new Todo("A much longer description than any of the other tasks have"));
+        long longerEstimate = taskList.estimateMemory();
+        assertTrue(longerEstimate > initialEstimate + "A much longer description".length());
+
+        taskList.findTasksByTerms(new String[]{"task"});
+        assertTrue(taskList.estimateMemory() > longerEstimate, "Building the token index should use memory");
+
+        TaskList compactList = new TaskList(taskList.getTasks(), new TaskHistory(), TaskStore.createCompactStore());
+        assertTrue(compactList.estimateMemory() < longerEstimate / 2);
+    }
+
+    /**
+     * Test that the tasks on a date, the upcoming tasks and the tasks matching a keyword are found
+     * the same way for the commands and the HTTP API.
+     */
+    @Test
+    void testFindTasksOnDateAndUpcoming() {
+        assertArrayEquals(new Task[]{task1}, taskList.getTasksOnDate(LocalDate.of(2002, 4, 22)));
+        assertArrayEquals(new Task[]{task3}, taskList.getTasksOnDate(LocalDate.of(2002, 4, 21)),
+                "Events should be found on the date they end");
+
+        LocalDateTime now = LocalDateTime.of(2002, 4, 22, 19, 0);
+        assertArrayEquals(new Task[]{task1, task2}, taskList.getUpcomingTasks(now, Duration.ofHours(48)));
+        LocalDateTime beforeTask3 = LocalDateTime.of(2002, 4, 19, 17, 0);
+        assertArrayEquals(new Task[]{task3}, taskList.getUpcomingTasks(beforeTask3, Duration.ofHours(2)));
+
+        assertArrayEquals(new Task[]{task3}, taskList.findTasks("Task 3"));
+        assertArrayEquals(new Task[0], taskList.findTasks("task"), "Substrings should match case-sensitively");
+        assertEquals(4, taskList.findTasks("tas*").length, "Prefix terms should ignore case");
+    }
+
+    /**
+     * Test that a keyword is matched against the tags of the tasks as well as their descriptions.
+     */
+    @Test
+    void testFindTasks_matchesTags() {
+        Task taggedTask = new Todo("Deploy release");
+        taggedTask.setTags(List.of("ops", "urgent"));
+        taskList.addTask(taggedTask);
+
+        assertArrayEquals(new Task[]{taggedTask}, taskList.findTasks("#ops"));
+        assertArrayEquals(new Task[]{taggedTask}, taskList.findTasks("release #ops #urgent"));
+        assertEquals(0, taskList.findTasks("#dev").length);
+    }
+
+    /**
+     * Test that the next tasks are found among tasks with very large IDs, as a task file may hold.
+     */
+    @Test
+    void testGetNextTasks_largeIds() {
+        Task urgentTask = new Todo("Urgent");
+        urgentTask.setId(400_000_000);
+        urgentTask.setPriority(Priority.HIGH);
+        Task lastTask = new Todo("Last");
+        lastTask.setId(Integer.MAX_VALUE - 1);
+        TaskList largeIdList = new TaskList(new Task[]{lastTask, urgentTask});
+
+        assertArrayEquals(new Task[]{urgentTask, lastTask}, largeIdList.getNextTasks(2));
+    }
 }
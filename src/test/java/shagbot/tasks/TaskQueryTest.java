@@ -0,0 +1,96 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link TaskList#query(TaskQuery)} finds the right tasks using its indexes.
+ */
+public class TaskQueryTest {
+    private TaskList taskList;
+
+    /**
+     * Initialise a test setup for testing, with one deadline due on each day of November 2025,
+     * every third of them done, and a todo.
+     */
+    @BeforeEach
+    void setUp() {
+        taskList = new TaskList();
+        for (int day = 30; day >= 1; day--) {
+            Task deadline = new Deadline("Report " + day, String.format("%02d/11/2025 1800", day));
+            if (day % 3 == 0) {
+                deadline.mark();
+            }
+            taskList.addTask(deadline);
+        }
+        taskList.addTask(new Todo("Read book"));
+    }
+
+    /**
+     * Test that a query filters, orders and limits the tasks, reading only the tasks in the date range.
+     */
+    @Test
+    void testQuery_dateIndex() {
+        QueryResult result = taskList.query(TaskQuery.parse(
+                "where type=deadline and done=false and due<11/11/2025 order by due limit 3"));
+
+        assertEquals("[Report 1, Report 2, Report 4]", describe(result.getTasks()));
+        assertTrue(result.getPlan().contains("the date index on due for due<11/11/2025"));
+        assertTrue(result.getExaminedCount() <= 10);
+        assertEquals(31, result.getTaskCount());
+    }
+
+    /**
+     * Test that ordering by an indexed field with a limit stops reading once the limit is reached.
+     */
+    @Test
+    void testQuery_orderedIndexWalk() {
+        QueryResult result = taskList.query(TaskQuery.parse("order by due desc limit 2"));
+
+        assertEquals("[Report 30, Report 29]", describe(result.getTasks()));
+        assertEquals(2, result.getExaminedCount());
+    }
+
+    /**
+     * Test that the indexes follow changes made to the task list after they are built.
+     */
+    @Test
+    void testQuery_afterChanges() {
+        TaskQuery doneTasks = TaskQuery.parse("where done=true and description~report");
+        assertEquals(10, taskList.query(doneTasks).getTasks().length);
+
+        taskList.markTask(taskList.indexOfId(30));
+        taskList.deleteTask(taskList.indexOfId(28));
+        // Task #1 is Report 30, which is moved to December
+        taskList.rescheduleDeadline(taskList.indexOfId(1),
+                ((Deadline) taskList.getTaskById(1)).getByTiming().plusMonths(1));
+
+        assertEquals(10, taskList.query(doneTasks).getTasks().length);
+        assertEquals("[Report 30]", describe(taskList.query(TaskQuery.parse("where due>30/11/2025")).getTasks()));
+        assertArrayEquals(new Task[0], taskList.query(TaskQuery.parse("where due=30/11/2025")).getTasks());
+    }
+
+    /**
+     * Test that invalid queries are rejected.
+     */
+    @Test
+    void testParse_invalidQueries() {
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("where colour=red"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("where type<todo"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("where tag=#ops!"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("where due<31/11/2025"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("order due"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("limit 0"));
+    }
+
+    private static String describe(Task[] tasks) {
+        return Arrays.toString(Arrays.stream(tasks).map(Task::getDescription).toArray());
+    }
+}
@@ -0,0 +1,55 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link TaskStatistics} follows the changes made to a {@link TaskList}.
+ */
+public class TaskStatisticsTest {
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 12, 1, 18, 0);
+
+    /**
+     * Test that the counts follow additions, marks, reschedulings, deletions and undos.
+     */
+    @Test
+    void testCounts_followChanges() throws Exception {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("Read book"));
+        taskList.addTask(new Deadline("Report", MONDAY));
+        taskList.addTask(new Deadline("Essay", MONDAY.plusDays(6)));
+        taskList.addTask(new Event("Party", MONDAY.plusDays(2), MONDAY.plusDays(3)));
+        taskList.commitChanges();
+        TaskStatistics statistics = taskList.getStatistics();
+
+        taskList.markTask(1);
+        taskList.rescheduleDeadline(2, MONDAY.plusDays(7));
+        taskList.deleteTask(0);
+        taskList.commitChanges();
+
+        LocalDate week = MONDAY.toLocalDate();
+        assertEquals(3, statistics.getCount());
+        assertEquals(0, statistics.getCount(TaskStatistics.Kind.TODO, false));
+        assertEquals(1, statistics.getCount(TaskStatistics.Kind.DEADLINE, true));
+        assertEquals(1, statistics.getCount(TaskStatistics.Bucket.WEEK, week, TaskStatistics.Kind.DEADLINE, true));
+        assertEquals(0, statistics.getCount(TaskStatistics.Bucket.WEEK, week, TaskStatistics.Kind.DEADLINE, false));
+        assertEquals(1, statistics.getCount(TaskStatistics.Bucket.WEEK, week.plusDays(7),
+                TaskStatistics.Kind.DEADLINE, false));
+        assertEquals(1, statistics.getCount(TaskStatistics.Bucket.DAY, week.plusDays(2),
+                TaskStatistics.Kind.EVENT, false));
+        assertEquals(2, statistics.getCount(TaskStatistics.Bucket.MONTH, week, TaskStatistics.Kind.DEADLINE, false)
+                + statistics.getCount(TaskStatistics.Bucket.MONTH, week, TaskStatistics.Kind.DEADLINE, true));
+
+        taskList.undo();
+
+        assertEquals(4, statistics.getCount());
+        assertEquals(1, statistics.getCount(TaskStatistics.Kind.TODO, false));
+        assertEquals(2, statistics.getCount(TaskStatistics.Bucket.WEEK, week, TaskStatistics.Kind.DEADLINE, false));
+        assertEquals(0, statistics.getCount(TaskStatistics.Bucket.WEEK, week.plusDays(7),
+                TaskStatistics.Kind.DEADLINE, false));
+    }
+}
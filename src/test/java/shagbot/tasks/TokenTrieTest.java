@@ -0,0 +1,79 @@
+package shagbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test the prefix and typo-tolerant queries of {@link TokenTrie}.
+ */
+public class TokenTrieTest {
+    private TokenTrie tokenTrie;
+    private Task report;
+    private Task reply;
+    private Task books;
+
+    /**
+     * Initialise a test setup for testing.
+     */
+    @BeforeEach
+    void setUp() {
+        report = new Todo("Write weekly Report");
+        reply = new Todo("Reply to Bob");
+        books = new Deadline("Return library books", "22/4/2002 2000");
+        report.setId(1);
+        reply.setId(2);
+        books.setId(3);
+
+        tokenTrie = new TokenTrie();
+        tokenTrie.addTask(report);
+        tokenTrie.addTask(reply);
+        tokenTrie.addTask(books);
+    }
+
+    /**
+     * Test that prefix terms match every token starting with the prefix, ignoring case.
+     */
+    @Test
+    void testFindTasks_prefixTerm() {
+        assertEquals(Set.of(1, 2, 3), tokenTrie.findTasks(new String[]{"re*"}));
+        assertEquals(Set.of(1, 2), tokenTrie.findTasks(new String[]{"REP*"}));
+        assertEquals(0, tokenTrie.findTasks(new String[]{"xyz*"}).size());
+    }
+
+    /**
+     * Test that typo-tolerant terms match tokens within the given edit distance only.
+     */
+    @Test
+    void testFindTasks_fuzzyTerm() {
+        assertEquals(Set.of(1), tokenTrie.findTasks(new String[]{"repot~1"}));
+        assertEquals(Set.of(1), tokenTrie.findTasks(new String[]{"rpeort~2"}));
+        assertEquals(Set.of(3), tokenTrie.findTasks(new String[]{"boks~1"}));
+        assertEquals(0, tokenTrie.findTasks(new String[]{"rpeort~1"}).size());
+    }
+
+    /**
+     * Test that multiple terms must all match, and that removed tasks are no longer found.
+     */
+    @Test
+    void testFindTasks_multipleTermsAndRemoval() {
+        assertEquals(Set.of(1), tokenTrie.findTasks(new String[]{"re*", "weekly"}));
+
+        tokenTrie.removeTask(report);
+        assertEquals(Set.of(2, 3), tokenTrie.findTasks(new String[]{"re*"}));
+        assertEquals(0, tokenTrie.findTasks(new String[]{"weekly"}).size());
+    }
+
+    /**
+     * Test that malformed terms are rejected.
+     */
+    @Test
+    void testFindTasks_invalidTerm() {
+        assertThrows(IllegalArgumentException.class, () -> tokenTrie.findTasks(new String[]{"*"}));
+        assertThrows(IllegalArgumentException.class, () -> tokenTrie.findTasks(new String[]{"repot~3"}));
+    }
+}
@@ -0,0 +1,43 @@
+package shagbot.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import shagbot.tasks.Task;
+import shagbot.util.Storage;
+
+/**
+ * A test class to test that {@link DatasetGenerator} writes task files that {@link Storage} loads.
+ */
+public class DatasetGeneratorTest {
+
+    /**
+     * Test that every line but the corrupted ones is loaded, with the ID it was generated with.
+     */
+    @Test
+    void testGenerate_loadsAllButCorruptedLines() throws Exception {
+        Options options = new Options(Map.of("lines", "2000", "seed", "7", "corrupt-ratio", "0.05",
+                "start", "2025-01-01", "dates", "recent"));
+        StringWriter output = new StringWriter();
+        long corruptedLines = new DatasetGenerator(options).generate(output);
+        Path file = Files.createTempFile("shagbot", ".txt");
+        Files.writeString(file, output.toString());
+
+        ArrayList<Task> tasks = new Storage(file.toString()).loadSavedTasks();
+
+        assertTrue(corruptedLines > 50 && corruptedLines < 150, "About 5% of the lines should be corrupted");
+        assertEquals(2000 - corruptedLines, tasks.size());
+        assertTrue(tasks.stream().allMatch(task -> task.getId() > 0 && task.getId() <= 2000));
+        StringWriter sameOutput = new StringWriter();
+        new DatasetGenerator(options).generate(sameOutput);
+        assertEquals(output.toString(), sameOutput.toString(), "The same options should give the same file");
+    }
+}
@@ -0,0 +1,47 @@
+package shagbot.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test class to test that {@link LatencyHistogram} reports percentiles within its bucket precision.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Test that percentiles of evenly spread latencies are within about 3% of the exact values.
+     */
+    @Test
+    void testGetPercentile_withinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long latency = 1; latency <= 100_000; latency++) {
+            histogram.record(latency * 1000);
+        }
+
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            long exact = (long) (percentile * 1000) * 1000;
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(reported >= exact && reported <= exact * 1.035,
+                    "p" + percentile + " should be close to " + exact + " but was " + reported);
+        }
+        assertEquals(100_000_000, histogram.getPercentile(100), "The highest percentile should be the maximum");
+    }
+
+    /**
+     * Test that adding histograms together gives the same counts as recording every latency in one.
+     */
+    @Test
+    void testAdd() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(5);
+        second.record(7_000_000);
+        first.add(second);
+
+        assertEquals(2, first.getCount());
+        assertEquals(5, first.getPercentile(50));
+        assertEquals(7_000_000, first.getMax());
+    }
+}
@@ -1,10 +1,14 @@
 package shagbot.util;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -23,7 +27,8 @@ import shagbot.tasks.Todo;
 public class ParserTest {
     private static final String UNKNOWN_COMMANDS_ERROR_MESSAGE = "OOPSIE!! Unknown command. "
             + "Consider only these valid commands:\n\nlist, todo, deadline, event, "
-            + "mark, unmark, delete, task on, find, snooze, reminder or bye.";
+            + "mark, unmark, delete, task on, find, search, snooze, reminder, conflicts, free, summary, tags, "
+            + "priority, next, archive, use, workspaces, undo, redo, export, import, explain or bye.";
     private TaskList taskList;
     private Ui ui;
     private Parser parser;
@@ -97,6 +102,9 @@ public class ParserTest {
         assertTrue(isSecondTrue, "Todo command should return true after executing.");
         assertTrue(isThirdTrue, "Deadline command should return true after executing.");
         assertTrue(isFourthTrue, "Mark/Unmark command should return true after executing.");
+        assertTrue(Parser.isExitCommand("  BYE "), "Exit commands should match like parsed commands.");
+        assertTrue(Parser.isExitCommand("bye now"));
+        assertFalse(Parser.isExitCommand("byebye"));
 
     }
 
@@ -107,27 +115,27 @@ public class ParserTest {
     @Test
     public void testParseCommand_handleMarkOrUnmarkCommand() {
 
-        taskList.getTasksForTesting().add(new Todo("Task 1"));
-        taskList.getTasksForTesting().add(new Deadline("Task 2", "24/04/2002 1900"));
-        taskList.getTasksForTesting().add(new Event("Task 3", "24/04/2002 2000", "26/04/2005 1800"));
+        taskList.addTask(new Todo("Task 1"));
+        taskList.addTask(new Deadline("Task 2", "24/04/2002 1900"));
+        taskList.addTask(new Event("Task 3", "24/04/2002 2000", "26/04/2005 1800"));
 
         String validCommand = "mark 1";
         parser.parseCommand(validCommand);
-        assertTrue(taskList.getTasksForTesting().get(0).isDone(),
+        assertTrue(taskList.getTask(0).isDone(),
                 "Task 1 should be marked as done.");
 
         String markCommand = "mark 2";
         parser.parseCommand(markCommand);
-        assertTrue(taskList.getTasksForTesting().get(0).isDone(),
+        assertTrue(taskList.getTask(0).isDone(),
                 "Task 2 should be marked as done.");
 
         String unmarkCommand = "unmark 2";
         parser.parseCommand(unmarkCommand);
-        assertFalse(taskList.getTasksForTesting().get(1).isDone(),
+        assertFalse(taskList.getTask(1).isDone(),
                 "Task 2 should be unmarked.");
 
         parser.parseCommand("unmark 3");
-        assertFalse(taskList.getTasksForTesting().get(2).isDone(),
+        assertFalse(taskList.getTask(2).isDone(),
                 "Task 3 should be unmarked.");
 
         String negativeCommand = "mark -2";
@@ -160,6 +168,34 @@ public class ParserTest {
         assertEquals(expectedErrorMessage, error.getMessage());
     }
 
+    /**
+     * Test whether the {@code parseTaskSelection(String description, String invalidSelectionMessage)} handles
+     * lists and ranges of task numbers, as well as completed tasks, for bulk commands.
+     *
+     * @throws ShagBotException If the selection is invalid.
+     */
+    @Test
+    void testParseTaskSelection() throws ShagBotException {
+        taskList.addTask(new Todo("Task 1"));
+        taskList.addTask(new Todo("Task 2"));
+        taskList.addTask(new Todo("Task 3"));
+        taskList.addTask(new Todo("Task 4"));
+        taskList.markTask(1);
+        taskList.markTask(3);
+
+        assertArrayEquals(new int[]{0, 1, 2}, parser.parseTaskSelection("1-3", "").resolve(taskList));
+        assertArrayEquals(new int[]{0, 2, 3}, parser.parseTaskSelection("4, 1,3-4", "").resolve(taskList));
+        assertArrayEquals(new int[]{1, 3}, parser.parseTaskSelection("done", "").resolve(taskList));
+
+        ShagBotException reversedRangeError = assertThrows(ShagBotException.class, () -> parser
+                .parseTaskSelection("3-1", ""));
+        ShagBotException invalidSelectionError = assertThrows(ShagBotException.class, () -> parser
+                .parseTaskSelection("1-x", "Invalid selection"));
+        assertEquals("OOPSIE!! Invalid range 3-1: the first task number cannot be larger than the last.",
+                reversedRangeError.getMessage());
+        assertEquals("Invalid selection", invalidSelectionError.getMessage());
+    }
+
     /**
      * Test whether the {@code parseInputToCommand(String input)} handles the command "task on" properly.
      *
@@ -219,9 +255,59 @@ public class ParserTest {
         String expectedErrorMessage = "No input provided. Please enter a valid command.";
         assertEquals(expectedErrorMessage, blankInputError.getMessage());
     }
-}
-
 
+    /**
+     * Test whether {@code parseCommand(String inputCommand, Consumer sink)} writes a long list into the sink
+     * in several parts that make up the same message as the last message, without changing the last message.
+     */
+    @Test
+    void testParseCommand_streamsIntoSink() {
+        for (int i = 0; i < 500; i++) {
+            parser.parseCommand("todo Read chapter " + i);
+        }
+        parser.parseCommand("list");
+        String expectedList = ui.getLastMessage();
+
+        List<CharSequence> parts = new ArrayList<>();
+        parser.parseCommand("list", parts::add);
+        assertTrue(parts.size() > 1, "A long list should arrive in several parts.");
+        assertEquals(expectedList, String.join("", parts));
+        assertEquals(expectedList, ui.getLastMessage(), "The last message should not change.");
+
+        StringBuilder error = new StringBuilder();
+        parser.parseCommand("mark 0", error::append);
+        assertEquals("WOOP WOOP!!! OOPSIE!! Task number cannot be less than 1! Please try again.",
+                error.toString());
+    }
 
+    /**
+     * Test whether {@code parseCommand(String inputCommand)} undoes every change of a command that fails part way
+     * through, so that the failed command leaves nothing behind to undo.
+     */
+    @Test
+    void testParseCommand_failedCommandDiscardsChanges() {
+        taskList.addTask(new Todo("Task 1"));
+        taskList.commitChanges();
+        Parser failingParser = new Parser(taskList, ui) {
+            @Override
+            Command parseInputToCommand(String input) {
+                return new Command() {
+                    @Override
+                    public boolean executeCommand(TaskList tasks, Ui commandUi) throws ShagBotException {
+                        tasks.addTask(new Todo("Task 2"));
+                        tasks.markTask(0);
+                        throw new ShagBotException("OOPSIE!! Something went wrong part way through.");
+                    }
+                };
+            }
+        };
 
+        assertTrue(failingParser.parseCommand("anything"));
+        assertEquals(1, taskList.size());
+        assertFalse(taskList.getTask(0).isDone(), "Task 1 should no longer be marked as done.");
+        assertEquals("WOOP WOOP!!! OOPSIE!! Something went wrong part way through.", ui.getLastMessage());
 
+        taskList.undo();
+        assertEquals(0, taskList.size(), "The only step left to undo should be adding Task 1.");
+    }
+}
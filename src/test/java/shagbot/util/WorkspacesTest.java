@@ -0,0 +1,258 @@
+package shagbot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import shagbot.exceptions.ShagBotException;
+
+/**
+ * A test class to test that {@link Workspaces} keeps separate task lists and unloads the least recently used ones.
+ */
+public class WorkspacesTest {
+
+    /**
+     * Test that workspaces over the memory budget are saved when unloaded, and reloaded with their tasks.
+     */
+    @Test
+    void testUse_unloadsLeastRecentlyUsed() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        // Room for two workspaces with a task each, but not for a third as well
+        Workspaces workspaces = new Workspaces(dataDirectory, new Ui("Shagbot"), 10 * 1024);
+        for (String name : List.of("home", "work", "school")) {
+            workspaces.use(name).getParser().parseCommand("todo " + name + " task");
+        }
+
+        assertFalse(workspaces.isLoaded("home"));
+        assertTrue(workspaces.isLoaded("work"));
+        assertEquals(List.of("default", "home", "school", "work"), workspaces.getNames());
+
+        Workspace home = workspaces.use("home");
+        assertEquals("home task", home.getTaskList().getTask(0).getDescription());
+        assertEquals(1, home.getTaskList().size());
+        assertFalse(workspaces.isLoaded("work"));
+        assertThrows(ShagBotException.class, () -> workspaces.use("../home"));
+    }
+
+    /**
+     * Test that lines appended to the task file by another program are merged, and that saving keeps
+     * the tasks another program removed or changed in the file instead of overwriting them.
+     */
+    @Test
+    void testSave_mergesExternalChanges() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        Workspace workspace = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        for (String description : List.of("first", "second", "third")) {
+            workspace.getParser().parseCommand("todo " + description);
+        }
+        workspace.save();
+        Path taskFile = workspace.getFilePath();
+
+        Files.writeString(taskFile, "T | 0 | appended | id=50\n", StandardOpenOption.APPEND);
+        assertTrue(workspace.syncExternalChanges());
+        assertEquals("appended", workspace.getTaskList().getTask(3).getDescription());
+        assertFalse(workspace.syncExternalChanges(), "Changes should only be merged once");
+
+        List<String> lines = Files.readAllLines(taskFile).stream()
+                .filter(line -> !line.contains("first"))
+                .map(line -> line.replace("T | 0 | second", "T | 1 | second"))
+                .collect(Collectors.toList());
+        Files.write(taskFile, lines);
+        workspace.getParser().parseCommand("todo fourth");
+        workspace.save();
+
+        assertEquals(List.of("T | 1 | second | id=2", "T | 0 | third | id=3", "T | 0 | appended | id=50",
+                "T | 0 | fourth | id=51"), Files.readAllLines(taskFile));
+    }
+
+    /**
+     * Test that two programs adding a task each with the same new ID both keep their task, with the task
+     * saved first keeping its ID and the other given a new one.
+     */
+    @Test
+    void testSave_keepsTasksAddedWithSameIdByTwoInstances() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        Workspace first = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        first.getParser().parseCommand("todo shared");
+        first.save();
+        Workspace second = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+
+        first.getParser().parseCommand("todo alpha");
+        first.save();
+        second.getParser().parseCommand("todo beta");
+        second.save();
+
+        assertEquals(List.of("T | 0 | shared | id=1", "T | 0 | beta | id=3", "T | 0 | alpha | id=2"),
+                Files.readAllLines(first.getFilePath()));
+        assertTrue(first.syncExternalChanges());
+        assertEquals(3, first.getTaskList().size());
+        assertEquals("beta", first.getTaskList().getTask(2).getDescription());
+        assertEquals(3, first.getTaskList().getTask(2).getId());
+    }
+
+    /**
+     * Test that a task appended without an ID is saved with the ID it is given when merged, so that another
+     * program writing the whole file again does not add it a second time.
+     */
+    @Test
+    void testSyncExternalChanges_savesIdsOfMergedTasks() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        Workspace workspace = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        workspace.getParser().parseCommand("todo first");
+        workspace.save();
+        Path taskFile = workspace.getFilePath();
+
+        Files.writeString(taskFile, "T | 0 | no id\n", StandardOpenOption.APPEND);
+        assertTrue(workspace.syncExternalChanges());
+        assertEquals(List.of("T | 0 | first | id=1", "T | 0 | no id | id=2"), Files.readAllLines(taskFile));
+
+        List<String> rewrittenLines = Files.readAllLines(taskFile).stream()
+                .map(line -> line.replace("T | 0 | first", "T | 1 | first"))
+                .collect(Collectors.toList());
+        Files.write(taskFile, rewrittenLines);
+        assertTrue(workspace.syncExternalChanges());
+        assertEquals(2, workspace.getTaskList().size());
+        assertTrue(workspace.getTaskList().getTask(0).isDone());
+    }
+
+    /**
+     * Test that tasks are kept when their history cannot be read, and that a workspace whose tasks cannot be read
+     * never saves over them.
+     */
+    @Test
+    void testLoad_failureNeverOverwritesTasks() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        Workspace workspace = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        workspace.getParser().parseCommand("todo kept");
+        workspace.save();
+        Path taskFile = workspace.getFilePath();
+        Path historyFile = Path.of(taskFile + ".history");
+        Files.delete(historyFile);
+        Files.createDirectory(historyFile);
+
+        Workspace withoutHistory = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        assertEquals("kept", withoutHistory.getTaskList().getTask(0).getDescription());
+
+        Files.delete(historyFile);
+        Files.writeString(Path.of(taskFile + ".image"), "not a task image");
+        System.setProperty("shagbot.store", "mapped");
+        try {
+            Workspace unreadable = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+            assertEquals(0, unreadable.getTaskList().size());
+            assertThrows(IOException.class, unreadable::save);
+        } finally {
+            System.clearProperty("shagbot.store");
+        }
+        assertEquals(List.of("T | 0 | kept | id=1"), Files.readAllLines(taskFile));
+    }
+
+    /**
+     * Test that a task image is only filled from the task file while it is new or the task file has changed
+     * without it, so deleted tasks stay deleted and switching between stores never loads stale tasks.
+     */
+    @Test
+    void testLoad_taskImageStaysInStepWithTaskFile() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        Workspace textWorkspace = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        textWorkspace.getParser().parseCommand("todo old text task");
+        textWorkspace.save();
+
+        System.setProperty("shagbot.store", "mapped");
+        try {
+            Workspace mapped = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+            assertEquals(1, mapped.getTaskList().size(), "A new image should be filled from the task file");
+            mapped.getParser().parseCommand("delete 1");
+            mapped.save();
+            assertEquals(0, new Workspaces(dataDirectory, new Ui("Shagbot")).getActive().getTaskList().size(),
+                    "An emptied image should not be filled again");
+        } finally {
+            System.clearProperty("shagbot.store");
+        }
+
+        Workspace switchedBack = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        assertEquals(0, switchedBack.getTaskList().size(), "The task file should be saved in step with the image");
+        switchedBack.getParser().parseCommand("todo new text task");
+        switchedBack.save();
+        // As if saved later, on file systems that only keep the modification time to the second
+        Path taskFile = switchedBack.getFilePath();
+        Files.setLastModifiedTime(taskFile, FileTime.fromMillis(Files.getLastModifiedTime(taskFile).toMillis() + 1000));
+
+        System.setProperty("shagbot.store", "mapped");
+        try {
+            Workspace mapped = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+            assertEquals(1, mapped.getTaskList().size());
+            assertEquals("new text task", mapped.getTaskList().getTask(0).getDescription());
+        } finally {
+            System.clearProperty("shagbot.store");
+        }
+    }
+
+    /**
+     * Test that saving appends the steps committed, undone and redone to the history file instead of writing
+     * the whole history again, and that the history read back from it can be undone and redone as before.
+     */
+    @Test
+    void testSave_appendsHistory() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        Workspace workspace = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        for (String command : List.of("todo first", "todo second", "undo", "todo third", "mark 1", "undo")) {
+            workspace.getParser().parseCommand(command);
+            workspace.save();
+        }
+
+        List<String> historyLines = Files.readAllLines(Path.of(workspace.getFilePath() + ".history"));
+        assertEquals(1, historyLines.stream().filter(line -> line.equals("UNDO")).count(),
+                "The history should only be written in full once");
+        assertEquals(2, historyLines.stream().filter(line -> line.equals("UNDONE")).count());
+
+        Workspace reloaded = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        assertEquals(2, reloaded.getTaskList().size());
+        assertEquals("third", reloaded.getTaskList().getTask(1).getDescription());
+        assertFalse(reloaded.getTaskList().getTask(0).isDone());
+        reloaded.getParser().parseCommand("redo");
+        assertTrue(reloaded.getTaskList().getTask(0).isDone(), "Marking the first task should be redone");
+        reloaded.getParser().parseCommand("undo");
+        reloaded.getParser().parseCommand("undo");
+        assertEquals(1, reloaded.getTaskList().size());
+        assertEquals("first", reloaded.getTaskList().getTask(0).getDescription());
+    }
+
+    /**
+     * Test that the task file and the history file are written and read in UTF-8, whatever the platform's
+     * default charset is, including lines appended by another program.
+     */
+    @Test
+    void testSave_writesUtf8() throws Exception {
+        String dataDirectory = Files.createTempDirectory("shagbot").toString();
+        Workspace workspace = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        String description = "Caf\u00e9 \u2615 \ud83d\ude00";
+        for (String command : List.of("todo " + description, "todo na\u00efve", "undo")) {
+            workspace.getParser().parseCommand(command);
+        }
+        workspace.save();
+        Path taskFile = workspace.getFilePath();
+        assertEquals(List.of("T | 0 | " + description + " | id=1"), Files.readAllLines(taskFile));
+        assertTrue(Files.readAllLines(Path.of(taskFile + ".history")).contains("+ | 1 | T | 0 | na\u00efve | id=2"));
+
+        Files.writeString(taskFile, "T | 0 | \u00fcber | id=3\n", StandardOpenOption.APPEND);
+        assertTrue(workspace.syncExternalChanges());
+        assertEquals("\u00fcber", workspace.getTaskList().getTask(1).getDescription());
+
+        Workspace reloaded = new Workspaces(dataDirectory, new Ui("Shagbot")).getActive();
+        assertEquals("\u00fcber", reloaded.getTaskList().getTask(1).getDescription());
+        reloaded.getParser().parseCommand("undo");
+        assertEquals(1, reloaded.getTaskList().size());
+        assertEquals(description, reloaded.getTaskList().getTask(0).getDescription());
+    }
+}